@@ -2,17 +2,17 @@
  * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
  *
  * This file is part of FeatureIDE.
- * 
+ *
  * FeatureIDE is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Lesser General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- * 
+ *
  * FeatureIDE is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
  * GNU Lesser General Public License for more details.
- * 
+ *
  * You should have received a copy of the GNU Lesser General Public License
  * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
  *
@@ -24,22 +24,122 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
 
 /**
- * Class generated by FeatureIDE to read feature selections from property files.
- * 
+ * Class generated by FeatureIDE to read feature selections from property files.<br>
+ * Each concrete feature has an index constant (e.g., {@code FEATURE_X}). Querying a selection with {@link #isSelected(int)} costs a single array access.
+ * A new selection is only applied, if it satisfies the feature model. If the initial selection is incomplete or invalid, a valid default selection is used
+ * instead. Selections can be changed at runtime by {@link #reload()}, {@link #update(Map)}, or automatically after {@link #startWatching()}.
+ *
  * @author Matthias Quaas
  * @author Kai Wolf
  */
 public class PropertyManager {
 
 	private static final String RUNTIME_PROPERTIES = "runtime.properties";
-	private static Properties property = new Properties();
+
+	// @FEATURE_CONSTANTS@
+
+	/** Names of all concrete features, separated by line breaks. */
+	private static final String[] FEATURE_NAME_DATA = { /* @FEATURE_NAMES@ */ };
+
+	/** CNF of the feature model over all concrete features in DIMACS notation (variable = feature index + 1). */
+	private static final String[] CNF_DATA = { /* @CNF@ */ };
+
+	/** Indices of all features that are selected in a valid default selection. */
+	private static final int[] DEFAULT_SELECTION = { /* @DEFAULT_SELECTION@ */ };
+
+	private static final String[] featureNames;
+	private static final HashMap<String, Integer> featureIndices = new HashMap<>();
+
+	private static final int[] literals;
+	private static final int[] clauseOffsets;
+
+	/** Current selection of all features as bit set. Is never modified, but replaced as a whole (copy on write). */
+	private static volatile long[] selection;
+
+	private static Thread watcher = null;
 
 	private PropertyManager() {}
 
 	static {
+		final String nameData = concat(FEATURE_NAME_DATA);
+		featureNames = nameData.isEmpty() ? new String[0] : nameData.split("\n");
+		for (int i = 0; i < featureNames.length; i++) {
+			featureIndices.put(featureNames[i], i);
+		}
+
+		final String cnfData = concat(CNF_DATA).trim();
+		final String[] tokens = cnfData.isEmpty() ? new String[0] : cnfData.split(" ");
+		int numberOfClauses = 0;
+		for (final String token : tokens) {
+			if ("0".equals(token)) {
+				numberOfClauses++;
+			}
+		}
+		literals = new int[tokens.length - numberOfClauses];
+		clauseOffsets = new int[numberOfClauses + 1];
+		int literalIndex = 0;
+		int clauseIndex = 0;
+		for (final String token : tokens) {
+			final int literal = Integer.parseInt(token);
+			if (literal == 0) {
+				clauseOffsets[++clauseIndex] = literalIndex;
+			} else {
+				literals[literalIndex++] = literal;
+			}
+		}
+
+		final long[] initialSelection = load();
+		if ((initialSelection == null) || !apply(initialSelection, "Selection in '" + RUNTIME_PROPERTIES + "'")) {
+			System.err.println("Using default selection.");
+			selection = createDefaultSelection();
+		}
+	}
+
+	private static long[] createDefaultSelection() {
+		final long[] defaultSelection = new long[getNumberOfWords()];
+		for (final int feature : DEFAULT_SELECTION) {
+			defaultSelection[feature >>> 6] |= 1L << feature;
+		}
+		final int violatedClause = getViolatedClause(defaultSelection);
+		if (violatedClause >= 0) {
+			// only possible for a void feature model
+			System.err.println("Default selection violates the feature model: " + clauseToString(violatedClause));
+		}
+		return defaultSelection;
+	}
+
+	private static String concat(String[] chunks) {
+		final StringBuilder sb = new StringBuilder();
+		for (final String chunk : chunks) {
+			sb.append(chunk);
+		}
+		return sb.toString();
+	}
+
+	private static int getNumberOfWords() {
+		return (featureNames.length + 63) >>> 6;
+	}
+
+	/**
+	 * Reads the selection from {@value #RUNTIME_PROPERTIES}.
+	 *
+	 * @return The new selection or {@code null} if the file could not be read or does not contain all features.
+	 */
+	private static long[] load() {
+		final Properties property = new Properties();
 		try {
 			File file = new File(RUNTIME_PROPERTIES);
 			if (!file.exists()) {
@@ -50,24 +150,187 @@ public class PropertyManager {
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
+			return null;
 		}
+
+		final long[] newSelection = new long[getNumberOfWords()];
+		for (int i = 0; i < featureNames.length; i++) {
+			final String value = property.getProperty(featureNames[i]);
+			if (value == null) {
+				System.err.println("Property '" + featureNames[i] + "' does not exist!");
+				return null;
+			} else if (Boolean.valueOf(value)) {
+				newSelection[i >>> 6] |= 1L << i;
+			}
+		}
+		return newSelection;
 	}
 
 	/**
-	 * Gets value for queried property. Throws error message if it does not exists.
-	 * 
+	 * @return The index of the first clause of the feature model that is not satisfied by the given selection or {@code -1} if all clauses are satisfied.
+	 */
+	private static int getViolatedClause(long[] newSelection) {
+		clauseLoop: for (int i = 0; i < (clauseOffsets.length - 1); i++) {
+			for (int j = clauseOffsets[i]; j < clauseOffsets[i + 1]; j++) {
+				final int literal = literals[j];
+				final int feature = Math.abs(literal) - 1;
+				final boolean selected = (newSelection[feature >>> 6] & (1L << feature)) != 0;
+				if (selected == (literal > 0)) {
+					continue clauseLoop;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	private static String clauseToString(int clause) {
+		final StringBuilder sb = new StringBuilder();
+		for (int j = clauseOffsets[clause]; j < clauseOffsets[clause + 1]; j++) {
+			if (sb.length() > 0) {
+				sb.append(" | ");
+			}
+			final int literal = literals[j];
+			if (literal < 0) {
+				sb.append('-');
+			}
+			sb.append(featureNames[Math.abs(literal) - 1]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Reads {@value #RUNTIME_PROPERTIES} again. The new selection is only applied, if it satisfies the feature model. Otherwise, the current selection is
+	 * kept.
+	 *
+	 * @return {@code true} if the new selection was applied.
+	 */
+	public static synchronized boolean reload() {
+		final long[] newSelection = load();
+		return (newSelection != null) && apply(newSelection, "Selection in '" + RUNTIME_PROPERTIES + "'");
+	}
+
+	/**
+	 * Changes the selection of the given features. The new selection is only applied, if it satisfies the feature model. Otherwise, the current selection is
+	 * kept.
+	 *
+	 * @param changes Map from feature name to its new selection.
+	 * @return {@code true} if the new selection was applied.
+	 */
+	public static synchronized boolean update(Map<String, Boolean> changes) {
+		final long[] newSelection = selection.clone();
+		for (final Entry<String, Boolean> change : changes.entrySet()) {
+			final Integer feature = featureIndices.get(change.getKey());
+			if (feature == null) {
+				System.err.println("Property '" + change.getKey() + "' does not exist!");
+				return false;
+			}
+			if (change.getValue()) {
+				newSelection[feature >>> 6] |= 1L << feature;
+			} else {
+				newSelection[feature >>> 6] &= ~(1L << feature);
+			}
+		}
+		return apply(newSelection, "Updated selection");
+	}
+
+	private static boolean apply(long[] newSelection, String source) {
+		final int violatedClause = getViolatedClause(newSelection);
+		if (violatedClause >= 0) {
+			System.err.println(source + " violates the feature model: " + clauseToString(violatedClause));
+			return false;
+		}
+		selection = newSelection;
+		return true;
+	}
+
+	/**
+	 * Starts a daemon thread that calls {@link #reload()} whenever {@value #RUNTIME_PROPERTIES} is changed. Does nothing if the thread is already running.
+	 *
+	 * @throws IOException If the file cannot be watched.
+	 */
+	public static synchronized void startWatching() throws IOException {
+		if (watcher != null) {
+			return;
+		}
+		final Path file = Paths.get(RUNTIME_PROPERTIES).toAbsolutePath();
+		final WatchService watchService = file.getFileSystem().newWatchService();
+		try {
+			file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			watchService.close();
+			throw e;
+		}
+		watcher = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					while (true) {
+						final WatchKey key = watchService.take();
+						boolean changed = false;
+						for (final WatchEvent<?> event : key.pollEvents()) {
+							if ((event.kind() == StandardWatchEventKinds.OVERFLOW) || file.getFileName().equals(event.context())) {
+								changed = true;
+							}
+						}
+						if (changed) {
+							reload();
+						}
+						if (!key.reset()) {
+							break;
+						}
+					}
+				} catch (InterruptedException | ClosedWatchServiceException e) {
+					// stopped
+				} finally {
+					try {
+						watchService.close();
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}, "PropertyManager");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * Stops the thread started by {@link #startWatching()}.
+	 */
+	public static synchronized void stopWatching() {
+		if (watcher != null) {
+			watcher.interrupt();
+			watcher = null;
+		}
+	}
+
+	/**
+	 * Gets the selection of a feature.
+	 *
+	 * @param feature Index of the feature (e.g., {@code FEATURE_X}).
+	 * @return {@code true} if the feature is selected.
+	 */
+	public static boolean isSelected(int feature) {
+		return (selection[feature >>> 6] & (1L << feature)) != 0;
+	}
+
+	/**
+	 * Gets value for queried property. Throws error message if it does not exists. Prefer {@link #isSelected(int)}, which does not need to look up the
+	 * name.
+	 *
 	 * @param propertyName
 	 * @return Value of property.
 	 */
 	public static boolean getProperty(String propertyName) {
-
-		if (property.getProperty(propertyName) == null) {
+		final Integer feature = featureIndices.get(propertyName);
+		if (feature == null) {
 			System.err.println("Queried Property '"
 				+ propertyName + "' does not exist!");
+			return false;
 		}
-
-		return Boolean.valueOf(property.getProperty(propertyName));
-
+		return isSelected(feature);
 	}
 
 }
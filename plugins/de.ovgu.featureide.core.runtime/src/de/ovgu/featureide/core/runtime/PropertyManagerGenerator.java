@@ -0,0 +1,294 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ClauseDatabase;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+
+/**
+ * Generates the source code of the PropertyManager class for a feature model. The template (Resources/PropertyManager.java) is completed by an index
+ * constant for each concrete feature, the names of all concrete features, the CNF of the feature model with all abstract features removed, and a valid
+ * default selection.
+ */
+public class PropertyManagerGenerator {
+
+	public static final String CONSTANT_PREFIX = "FEATURE_";
+
+	static final String FEATURE_CONSTANTS_MARKER = "// @FEATURE_CONSTANTS@";
+	static final String FEATURE_NAMES_MARKER = "/* @FEATURE_NAMES@ */";
+	static final String CNF_MARKER = "/* @CNF@ */";
+	static final String DEFAULT_SELECTION_MARKER = "/* @DEFAULT_SELECTION@ */";
+
+	/** Maximum length of a generated string literal (must be far below the limit of the class file format). */
+	private static final int MAX_CHUNK_LENGTH = 4096;
+
+	private final IFeatureModel featureModel;
+
+	private final List<String> featureNames = new ArrayList<>();
+	private final List<String> constantNames;
+	private final HashMap<String, String> constantToFeature = new HashMap<>();
+	private final HashMap<String, String> featureToConstant = new HashMap<>();
+
+	public PropertyManagerGenerator(IFeatureModel featureModel) {
+		this.featureModel = featureModel;
+		for (final IFeature feature : FeatureUtils.getFeaturesPreorder(featureModel)) {
+			if (!feature.getStructure().isAbstract()) {
+				featureNames.add(feature.getName());
+			}
+		}
+		constantNames = createConstantNames(featureNames);
+		for (int i = 0; i < featureNames.size(); i++) {
+			constantToFeature.put(constantNames.get(i), featureNames.get(i));
+			featureToConstant.put(featureNames.get(i), constantNames.get(i));
+		}
+	}
+
+	/**
+	 * Assigns an index constant to each feature. If two constants would be equal (i.e., the feature names only differ in case), the latter constant gets an
+	 * additional suffix.
+	 *
+	 * @param featureNames the names of all concrete features in preorder
+	 * @return the names of the constants in the same order
+	 */
+	public static List<String> createConstantNames(List<String> featureNames) {
+		final List<String> constantNames = new ArrayList<>(featureNames.size());
+		final HashSet<String> usedNames = new HashSet<>();
+		for (final String featureName : featureNames) {
+			final String baseName = getConstantName(featureName);
+			String constantName = baseName;
+			for (int i = 2; usedNames.contains(constantName); i++) {
+				constantName = baseName + "_" + i;
+			}
+			usedNames.add(constantName);
+			constantNames.add(constantName);
+		}
+		return constantNames;
+	}
+
+	/**
+	 * Returns the name of the index constant for a feature. If the names of two features only differ in case, the constant of the latter feature in preorder
+	 * gets an additional suffix (see {@link #getIndexConstant(String)}).
+	 *
+	 * @param featureName the name of the feature
+	 * @return the name of the constant
+	 */
+	public static String getConstantName(String featureName) {
+		return CONSTANT_PREFIX + featureName.toUpperCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * @return the names of all concrete features in the order of their indices
+	 */
+	public List<String> getFeatureNames() {
+		return Collections.unmodifiableList(featureNames);
+	}
+
+	/**
+	 * @return the names of the index constants in the order of their indices
+	 */
+	public List<String> getConstantNames() {
+		return Collections.unmodifiableList(constantNames);
+	}
+
+	/**
+	 * @param constantName the name of an index constant
+	 * @return the name of the corresponding feature or {@code null} if there is no such constant
+	 */
+	public String getFeatureName(String constantName) {
+		return constantToFeature.get(constantName);
+	}
+
+	/**
+	 * @param featureName the name of a concrete feature
+	 * @return the name of the index constant that is actually assigned to the feature (including a possible suffix) or {@code null} if there is no such
+	 *         feature
+	 */
+	public String getIndexConstant(String featureName) {
+		return featureToConstant.get(featureName);
+	}
+
+	/**
+	 * Completes the given template.
+	 *
+	 * @param template the content of Resources/PropertyManager.java
+	 * @return the source code of the PropertyManager class
+	 */
+	public String generate(String template) {
+		final StringBuilder constants = new StringBuilder();
+		for (int i = 0; i < constantNames.size(); i++) {
+			if (i > 0) {
+				constants.append("\n\t");
+			}
+			constants.append("public static final int ").append(constantNames.get(i)).append(" = ").append(i).append(';');
+		}
+
+		final List<String> nameTokens = new ArrayList<>(featureNames.size());
+		for (final String featureName : featureNames) {
+			nameTokens.add(featureName + "\n");
+		}
+
+		final ClauseDatabase clauses = createClauseDatabase();
+		return template.replace(FEATURE_CONSTANTS_MARKER, constants).replace(FEATURE_NAMES_MARKER, toStringLiterals(nameTokens))
+				.replace(CNF_MARKER, toStringLiterals(createCNFTokens(clauses))).replace(DEFAULT_SELECTION_MARKER, createDefaultSelection(clauses));
+	}
+
+	/**
+	 * Creates the CNF of the feature model. Abstract features are removed from the CNF, such that a selection of all concrete features can be checked by
+	 * evaluating each clause.
+	 */
+	private ClauseDatabase createClauseDatabase() {
+		final List<String> abstractFeatureNames = new ArrayList<>();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			if (feature.getStructure().isAbstract()) {
+				abstractFeatureNames.add(feature.getName());
+			}
+		}
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(featureModel, abstractFeatureNames, CNFType.Regular, ModelType.All, false);
+		nodeCreator.setUseOldNames(false);
+		return nodeCreator.createClauseDatabase();
+	}
+
+	/**
+	 * @return Mapping from the variables of the given database to the indices of the features plus one.
+	 */
+	private int[] getVariableToIndex(ClauseDatabase clauses) {
+		final int[] variableToIndex = new int[clauses.getNumberOfVariables() + 1];
+		for (int i = 0; i < featureNames.size(); i++) {
+			variableToIndex[clauses.getVariable(featureNames.get(i))] = i + 1;
+		}
+		return variableToIndex;
+	}
+
+	/**
+	 * Computes a valid selection that is used if the initial selection of the PropertyManager is incomplete or invalid. The solver prefers to deselect features.
+	 *
+	 * @return The comma-separated indices of all selected features or an empty string if the feature model is void.
+	 */
+	private String createDefaultSelection(ClauseDatabase clauses) {
+		final int[] model;
+		try {
+			final BasicSolver solver = new BasicSolver(new SatInstance(clauses));
+			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+			model = solver.findModel();
+		} catch (final ContradictionException e) {
+			return "";
+		}
+		if (model == null) {
+			return "";
+		}
+		final int[] variableToIndex = getVariableToIndex(clauses);
+		final StringBuilder selection = new StringBuilder();
+		for (final int literal : model) {
+			if ((literal > 0) && (variableToIndex[literal] > 0)) {
+				if (selection.length() > 0) {
+					selection.append(", ");
+				}
+				selection.append(variableToIndex[literal] - 1);
+			}
+		}
+		return selection.toString();
+	}
+
+	/**
+	 * Converts the CNF into DIMACS notation (variable = feature index + 1).
+	 */
+	private List<String> createCNFTokens(ClauseDatabase clauses) {
+		final int[] variableToIndex = getVariableToIndex(clauses);
+
+		final List<String> tokens = new ArrayList<>(clauses.getNumberOfClauses());
+		for (int i = 0; i < clauses.getNumberOfClauses(); i++) {
+			final StringBuilder clause = new StringBuilder();
+			for (int j = 0; j < clauses.getClauseLength(i); j++) {
+				final int literal = clauses.getLiteral(i, j);
+				final int index = variableToIndex[Math.abs(literal)];
+				clause.append(literal > 0 ? index : -index).append(' ');
+			}
+			tokens.add(clause.append("0 ").toString());
+		}
+		return tokens;
+	}
+
+	/**
+	 * Concatenates the given tokens and splits the result into string literals that do not exceed {@link #MAX_CHUNK_LENGTH}.
+	 */
+	private static String toStringLiterals(List<String> tokens) {
+		final StringBuilder literals = new StringBuilder();
+		final StringBuilder chunk = new StringBuilder();
+		for (final String token : tokens) {
+			if ((chunk.length() > 0) && ((chunk.length() + token.length()) > MAX_CHUNK_LENGTH)) {
+				appendStringLiteral(literals, chunk);
+				chunk.setLength(0);
+			}
+			chunk.append(token);
+		}
+		if (chunk.length() > 0) {
+			appendStringLiteral(literals, chunk);
+		}
+		return literals.toString();
+	}
+
+	private static void appendStringLiteral(StringBuilder literals, CharSequence content) {
+		if (literals.length() > 0) {
+			literals.append(",\n\t\t");
+		}
+		literals.append('"');
+		for (int i = 0; i < content.length(); i++) {
+			final char c = content.charAt(i);
+			switch (c) {
+			case '"':
+				literals.append("\\\"");
+				break;
+			case '\\':
+				literals.append("\\\\");
+				break;
+			case '\n':
+				literals.append("\\n");
+				break;
+			default:
+				if ((c < 0x20) || (c > 0x7e)) {
+					literals.append(String.format("\\u%04x", (int) c));
+				} else {
+					literals.append(c);
+				}
+				break;
+			}
+		}
+		literals.append('"');
+	}
+
+}
@@ -28,13 +28,20 @@ import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 
+import de.ovgu.featureide.core.CorePlugin;
+import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.core.runtime.activator.RuntimeCorePlugin;
 import de.ovgu.featureide.fm.core.FMComposerExtension;
 
@@ -94,16 +101,21 @@ public class RuntimeFMComposerExtension extends FMComposerExtension {
 	@Override
 	public boolean performRenaming(final String oldName, final String newName, final IProject project) {
 
+		final HashSet<String> affectedFeatures = new HashSet<String>();
+		final HashMap<String, String> renamedConstants = getRenamedConstants(oldName, newName, project, affectedFeatures);
+		final Pattern constantPattern = renamedConstants.isEmpty() ? null : createPattern(renamedConstants.keySet());
+
 		final ArrayList<FeatureLocation> locations = new ArrayList<FeatureLocation>();
 
-		// get FeatureLocation objects with the given oldName as feature name
+		// get FeatureLocation objects with the given oldName as feature name or an index constant that changes
 		for (final FeatureLocation loc : RuntimeParameters.featureLocs) {
-			if (loc.getFeatureName().equals(oldName)) {
+			if (loc.getFeatureName().equals(oldName) || affectedFeatures.contains(loc.getFeatureName())) {
 				locations.add(loc);
 			}
 		}
 		// only load and parse each class file once
 		final HashMap<String, String[]> processedClassFiles = new HashMap<String, String[]>();
+		final HashSet<String> processedLines = new HashSet<String>();
 
 		for (final FeatureLocation loc : locations) {
 			String[] oldClassStringArray = null;
@@ -142,8 +154,21 @@ public class RuntimeFMComposerExtension extends FMComposerExtension {
 			} else {
 				oldClassStringArray = processedClassFiles.get(classPath);
 			}
-			oldClassStringArray[lineNumber - 1] = oldClassStringArray[lineNumber - 1].replace(RuntimeParameters.GET_PROPERTY_METHOD + "(\"" + oldName + "\")",
-					RuntimeParameters.GET_PROPERTY_METHOD + "(\"" + newName + "\")");
+			// each line must only be changed once, as the renamed constants may overlap
+			if (processedLines.add(classPath + ":" + lineNumber)) {
+				String line = oldClassStringArray[lineNumber - 1].replace(RuntimeParameters.GET_PROPERTY_METHOD + "(\"" + oldName + "\")",
+						RuntimeParameters.GET_PROPERTY_METHOD + "(\"" + newName + "\")");
+				if (constantPattern != null) {
+					final Matcher matcher = constantPattern.matcher(line);
+					final StringBuffer sb = new StringBuffer();
+					while (matcher.find()) {
+						matcher.appendReplacement(sb, Matcher.quoteReplacement(renamedConstants.get(matcher.group())));
+					}
+					matcher.appendTail(sb);
+					line = sb.toString();
+				}
+				oldClassStringArray[lineNumber - 1] = line;
+			}
 
 			final StringBuilder newClassString = new StringBuilder();
 			for (int i = 0; i < oldClassStringArray.length; i++) {
@@ -159,11 +184,63 @@ public class RuntimeFMComposerExtension extends FMComposerExtension {
 			} catch (final CoreException e) {
 				RuntimeCorePlugin.getDefault().logError(e);
 			}
-			loc.setFeatureName(newName);
+			if (loc.getFeatureName().equals(oldName)) {
+				loc.setFeatureName(newName);
+			}
 		}
 
 		return true;
 
 	}
 
+	/**
+	 * Computes the index constants that change by renaming a feature. Besides the constant of the renamed feature, the suffixes of other constants may change
+	 * (see {@link PropertyManagerGenerator#createConstantNames(List)}).
+	 *
+	 * @param affectedFeatures Is filled with the (old) names of all features whose constant changes.
+	 * @return Map from the old to the new name of each changed constant.
+	 */
+	private HashMap<String, String> getRenamedConstants(final String oldName, final String newName, final IProject project,
+			final HashSet<String> affectedFeatures) {
+		final HashMap<String, String> renamedConstants = new HashMap<String, String>();
+		final IFeatureProject featureProject = CorePlugin.getFeatureProject(project);
+		if (featureProject == null) {
+			return renamedConstants;
+		}
+		// the feature model may or may not already contain the new name
+		final List<String> featureNames = new PropertyManagerGenerator(featureProject.getFeatureModel()).getFeatureNames();
+		final List<String> oldFeatureNames = replace(featureNames, newName, oldName);
+		final List<String> oldConstants = PropertyManagerGenerator.createConstantNames(oldFeatureNames);
+		final List<String> newConstants = PropertyManagerGenerator.createConstantNames(replace(featureNames, oldName, newName));
+		for (int i = 0; i < oldConstants.size(); i++) {
+			if (!oldConstants.get(i).equals(newConstants.get(i))) {
+				renamedConstants.put(oldConstants.get(i), newConstants.get(i));
+				affectedFeatures.add(oldFeatureNames.get(i));
+			}
+		}
+		return renamedConstants;
+	}
+
+	private static List<String> replace(final List<String> names, final String oldName, final String newName) {
+		final List<String> newNames = new ArrayList<String>(names);
+		final int index = newNames.indexOf(oldName);
+		if (index >= 0) {
+			newNames.set(index, newName);
+		}
+		return newNames;
+	}
+
+	private static Pattern createPattern(final Collection<String> constantNames) {
+		final StringBuilder regex = new StringBuilder("\\b(?:");
+		boolean first = true;
+		for (final String constantName : constantNames) {
+			if (!first) {
+				regex.append('|');
+			}
+			regex.append(Pattern.quote(constantName));
+			first = false;
+		}
+		return Pattern.compile(regex.append(")\\b").toString());
+	}
+
 }
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.core.runtime;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -33,7 +34,10 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map.Entry;
 import java.util.Vector;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -43,6 +47,7 @@ import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IMember;
@@ -94,6 +99,8 @@ public class RuntimeParameters extends ComposerExtensionClass {
 	public static final String PROPERTY_MANAGER_CLASS = "PropertyManager";
 	public static final String PROPERTY_MANAGER_PACKAGE = "properties";
 	public static final String GET_PROPERTY_METHOD = "getProperty";
+	public static final String IS_SELECTED_METHOD = "isSelected";
+	private static final Pattern GET_PROPERTY_CALL = Pattern.compile(GET_PROPERTY_METHOD + "\\s*\\(\\s*\"([^\"]*)\"\\s*\\)");
 	// the first entry represents the default composition mechanism
 	public static final String[] COMPOSITION_MECHANISMS = new String[] { PROPERTIES, RUN_CONFIGURATION };
 
@@ -338,20 +345,7 @@ public class RuntimeParameters extends ComposerExtensionClass {
 				}
 				final IFile propFile = propFolder.getFile(PROPERTY_MANAGER_CLASS + ".java");
 				if (!propFile.exists()) {
-					InputStream inputStream = null;
-					try {
-						inputStream = FileLocator.openStream(RuntimeCorePlugin.getDefault().getBundle(),
-								new org.eclipse.core.runtime.Path("Resources" + FileSystems.getDefault().getSeparator() + PROPERTY_MANAGER_CLASS + ".java"),
-								false);
-					} catch (final IOException e) {
-						RuntimeCorePlugin.getDefault().logError(e);
-					}
-					createFile(propFile, inputStream);
-					try {
-						propFile.setDerived(true, null);
-					} catch (final CoreException e) {
-						RuntimeCorePlugin.getDefault().logError(e);
-					}
+					writePropertyManager(propFile);
 				}
 			} else {
 				final IFolder propFolder = featureProject.getBuildFolder().getFolder(PROPERTY_MANAGER_PACKAGE);
@@ -367,6 +361,55 @@ public class RuntimeParameters extends ComposerExtensionClass {
 		return super.initialize(project);
 	}
 
+	/**
+	 * Generates the PropertyManager class for the current feature model (see {@link PropertyManagerGenerator}). The file is only written if its content
+	 * changes.
+	 *
+	 * @param propFile the PropertyManager.java file
+	 */
+	private void writePropertyManager(final IFile propFile) {
+		final String template;
+		try (InputStream inputStream = FileLocator.openStream(RuntimeCorePlugin.getDefault().getBundle(),
+				new org.eclipse.core.runtime.Path("Resources" + FileSystems.getDefault().getSeparator() + PROPERTY_MANAGER_CLASS + ".java"), false)) {
+			template = readString(inputStream);
+		} catch (final IOException e) {
+			RuntimeCorePlugin.getDefault().logError(e);
+			return;
+		}
+		final String content = new PropertyManagerGenerator(featureProject.getFeatureModel()).generate(template);
+
+		if (propFile.exists()) {
+			try (InputStream inputStream = propFile.getContents()) {
+				if (content.equals(readString(inputStream))) {
+					return;
+				}
+			} catch (IOException | CoreException e) {
+				RuntimeCorePlugin.getDefault().logError(e);
+			}
+			try {
+				propFile.setContents(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), IResource.FORCE, null);
+			} catch (final CoreException e) {
+				RuntimeCorePlugin.getDefault().logError(e);
+			}
+		} else {
+			createFile(propFile, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+			try {
+				propFile.setDerived(true, null);
+			} catch (final CoreException e) {
+				RuntimeCorePlugin.getDefault().logError(e);
+			}
+		}
+	}
+
+	private static String readString(final InputStream inputStream) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[4096];
+		for (int length = inputStream.read(buffer); length >= 0; length = inputStream.read(buffer)) {
+			outputStream.write(buffer, 0, length);
+		}
+		return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+	}
+
 	@Override
 	public boolean needColor() {
 		return true;
@@ -383,6 +426,11 @@ public class RuntimeParameters extends ComposerExtensionClass {
 
 		final IFile fileProp = featureProject.getProject().getFile("runtime.properties");
 		if (PROPERTIES.equals(featureProject.getCompositionMechanism())) {
+			final IFolder propFolder = featureProject.getBuildFolder().getFolder(PROPERTY_MANAGER_PACKAGE);
+			if (propFolder.exists()) {
+				writePropertyManager(propFolder.getFile(PROPERTY_MANAGER_CLASS + ".java"));
+				replaceGetPropertyCalls();
+			}
 			buildFSTModel();
 
 			final Configuration configuration = readConfig();
@@ -450,7 +498,7 @@ public class RuntimeParameters extends ComposerExtensionClass {
 	}
 
 	/**
-	 * Looks for callers of getProperty()-method and creates FeatureLocation-object for each call.
+	 * Looks for callers of getProperty()-method and isSelected()-method and creates FeatureLocation-object for each call.
 	 */
 
 	public void setFeatureLocations() {
@@ -459,20 +507,16 @@ public class RuntimeParameters extends ComposerExtensionClass {
 		final IJavaProject proj = JavaCore.create(featureProject.getProject());
 		try {
 			final IType itype = proj.findType(PROPERTY_MANAGER_PACKAGE + "." + PROPERTY_MANAGER_CLASS);
-			IMethod method = null;
 
+			final ArrayList<CallLocation[]> callLocs = new ArrayList<>();
 			if (itype != null) {
 				for (final IMethod m : itype.getMethods()) {
-					if (m.getElementName().equals(GET_PROPERTY_METHOD)) {
-						method = m;
+					if (m.getElementName().equals(GET_PROPERTY_METHOD) || m.getElementName().equals(IS_SELECTED_METHOD)) {
+						callLocs.addAll(getCallersOf(m));
 					}
 				}
 			}
-
-			ArrayList<CallLocation[]> callLocs = new ArrayList<>();
-			if (method != null) {
-				callLocs = getCallersOf(method);
-			}
+			final PropertyManagerGenerator generator = new PropertyManagerGenerator(featureProject.getFeatureModel());
 
 			String featureName;
 			String className;
@@ -483,8 +527,10 @@ public class RuntimeParameters extends ComposerExtensionClass {
 			FSTDirectiveCommand cmd;
 			for (final CallLocation[] callLoc : callLocs) {
 				for (final CallLocation element : callLoc) {
-					// feature name = attribute of getProperty-call
-					featureName = element.getCallText().split("\"")[1];
+					featureName = getFeatureName(element.getCallText(), generator);
+					if (featureName == null) {
+						continue;
+					}
 					className = element.getMember().getParent().getElementName();
 					classFile = (IFile) element.getMember().getCompilationUnit().getCorrespondingResource();
 					compilationUnit = element.getMember().getCompilationUnit();
@@ -532,6 +578,129 @@ public class RuntimeParameters extends ComposerExtensionClass {
 		}
 	}
 
+	/**
+	 * Replaces each call of getProperty() that queries a concrete feature by a string literal with a call of isSelected() and the index constant of the
+	 * feature (e.g., {@code PropertyManager.getProperty("X")} becomes {@code PropertyManager.isSelected(PropertyManager.FEATURE_X)}).
+	 */
+	private void replaceGetPropertyCalls() {
+		final IJavaProject proj = JavaCore.create(featureProject.getProject());
+		try {
+			final IType itype = proj.findType(PROPERTY_MANAGER_PACKAGE + "." + PROPERTY_MANAGER_CLASS);
+			if (itype == null) {
+				return;
+			}
+			final ArrayList<CallLocation[]> callLocs = new ArrayList<>();
+			for (final IMethod m : itype.getMethods()) {
+				if (m.getElementName().equals(GET_PROPERTY_METHOD)) {
+					callLocs.addAll(getCallersOf(m));
+				}
+			}
+			if (callLocs.isEmpty()) {
+				return;
+			}
+			final PropertyManagerGenerator generator = new PropertyManagerGenerator(featureProject.getFeatureModel());
+
+			// collect all calls per compilation unit
+			final HashMap<ICompilationUnit, ArrayList<CallLocation>> callsPerUnit = new HashMap<>();
+			for (final CallLocation[] callLoc : callLocs) {
+				for (final CallLocation element : callLoc) {
+					final ICompilationUnit compilationUnit = element.getMember().getCompilationUnit();
+					if ((compilationUnit != null) && !compilationUnit.isReadOnly()) {
+						ArrayList<CallLocation> calls = callsPerUnit.get(compilationUnit);
+						if (calls == null) {
+							calls = new ArrayList<>();
+							callsPerUnit.put(compilationUnit, calls);
+						}
+						calls.add(element);
+					}
+				}
+			}
+
+			for (final Entry<ICompilationUnit, ArrayList<CallLocation>> entry : callsPerUnit.entrySet()) {
+				final ICompilationUnit compilationUnit = entry.getKey();
+				final ArrayList<CallLocation> calls = entry.getValue();
+				// replace from back to front, such that the offsets of the remaining calls stay valid
+				Collections.sort(calls, new Comparator<CallLocation>() {
+
+					@Override
+					public int compare(final CallLocation a, final CallLocation b) {
+						return Integer.compare(b.getStart(), a.getStart());
+					}
+				});
+
+				final IBuffer buffer = compilationUnit.getBuffer();
+				if (buffer == null) {
+					continue;
+				}
+				boolean changed = false;
+				for (final CallLocation call : calls) {
+					final Matcher matcher = GET_PROPERTY_CALL.matcher(buffer.getText(call.getStart(), call.getEnd() - call.getStart()));
+					if (matcher.matches()) {
+						final String constantName = generator.getIndexConstant(matcher.group(1));
+						if (constantName != null) {
+							final String qualifier = isQualifiedCall(buffer, call.getStart()) ? PROPERTY_MANAGER_CLASS + "."
+								: PROPERTY_MANAGER_PACKAGE + "." + PROPERTY_MANAGER_CLASS + ".";
+							buffer.replace(call.getStart(), call.getEnd() - call.getStart(), IS_SELECTED_METHOD + "(" + qualifier + constantName + ")");
+							changed = true;
+						}
+					}
+				}
+				if (changed) {
+					compilationUnit.save(null, true);
+				}
+			}
+		} catch (final JavaModelException e) {
+			RuntimeCorePlugin.getDefault().logError(e);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the call at the given offset is qualified by the simple name of the PropertyManager class (i.e., the class is imported).
+	 */
+	private boolean isQualifiedCall(final IBuffer buffer, final int callStart) {
+		int i = callStart - 1;
+		while ((i >= 0) && Character.isWhitespace(buffer.getChar(i))) {
+			i--;
+		}
+		if ((i < 0) || (buffer.getChar(i) != '.')) {
+			return false;
+		}
+		i--;
+		while ((i >= 0) && Character.isWhitespace(buffer.getChar(i))) {
+			i--;
+		}
+		final int start = i + 1 - PROPERTY_MANAGER_CLASS.length();
+		if ((start < 0) || !PROPERTY_MANAGER_CLASS.equals(buffer.getText(start, PROPERTY_MANAGER_CLASS.length()))) {
+			return false;
+		}
+		// the simple name must not be part of another identifier or a qualified name
+		return (start == 0) || (!Character.isJavaIdentifierPart(buffer.getChar(start - 1)) && (buffer.getChar(start - 1) != '.'));
+	}
+
+	/**
+	 * Gets the queried feature of a call of getProperty() or isSelected().
+	 *
+	 * @param callText The text of the call.
+	 * @param generator Generator that knows the index constants of all features.
+	 * @return The name of the feature or {@code null} if it cannot be determined.
+	 */
+	private String getFeatureName(final String callText, final PropertyManagerGenerator generator) {
+		if (callText.contains("\"")) {
+			// feature name = attribute of getProperty-call
+			return callText.split("\"")[1];
+		}
+		// feature name = name of the index constant in the isSelected-call
+		final int start = callText.indexOf('(');
+		final int end = callText.lastIndexOf(')');
+		if ((start < 0) || (end <= start)) {
+			return null;
+		}
+		final String argument = callText.substring(start + 1, end).trim();
+		final String constantName = argument.substring(argument.lastIndexOf('.') + 1);
+		final String featureName = generator.getFeatureName(constantName);
+		return featureName != null ? featureName : constantName;
+	}
+
 	/**
 	 * Creates the directive which will be added to the FSTModel and set its properties.
 	 *
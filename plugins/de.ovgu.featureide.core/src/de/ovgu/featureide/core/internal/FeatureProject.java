@@ -43,10 +43,10 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.THE_FEATURE_MO
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -79,9 +79,6 @@ import org.eclipse.core.runtime.jobs.IJobManager;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.osgi.service.prefs.BackingStoreException;
-import org.prop4j.solver.BasicSolver;
-import org.prop4j.solver.ISatSolver.SatResult;
-import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
@@ -107,15 +104,14 @@ import de.ovgu.featureide.fm.core.base.impl.ExtendedFeature;
 import de.ovgu.featureide.fm.core.base.impl.ExtendedFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationValidator;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
-import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
-import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.SelectionMatrix;
 import de.ovgu.featureide.fm.core.filter.HashSetFilter;
 import de.ovgu.featureide.fm.core.filter.base.InverseFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.FeatureOrderFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
-import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
@@ -143,6 +139,8 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 
 	private static final String FEATURE_MODULE_MARKER = "de.ovgu.featureide.core.featureModuleMarker";
 
+	private static final String SELECTION_MATRIX_CACHE_FILE = "selectionMatrix.cache";
+
 	public class FeatureModelChangeListner implements IEventListener {
 
 		/**
@@ -177,6 +175,16 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 	 */
 	private final IFileManager<IFeatureModel> featureModelManager;
 
+	/**
+	 * validates the configuration files of this project and caches the results of unchanged files
+	 */
+	private final ConfigurationValidator configurationValidator = new ConfigurationValidator();
+
+	/**
+	 * the selections of all configurations of this project (see {@link #getSelectionMatrix()})
+	 */
+	private SelectionMatrix selectionMatrix;
+
 	private FSTModel fstModel;
 
 	/**
@@ -274,7 +282,7 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			next(CALCULATE_CORE_AND_DEAD_FEATURES, workMonitor);
 			final List<String> concreteFeatures = getOptionalConcreteFeatures();
 			next(GET_SELECTION_MATRIX, workMonitor);
-			final boolean[][] selectionMatrix = getSelectionMatrix(concreteFeatures);
+			final SelectionMatrix selectionMatrix = getSelectionMatrix();
 			next(GET_FALSE_OPTIONAL_FEATURES, workMonitor);
 			final Collection<String> falseOptionalFeatures = getFalseOptionalConfigurationFeatures(selectionMatrix, concreteFeatures);
 			next(GET_UNUSED_FEATURES, workMonitor);
@@ -930,6 +938,10 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			if (configurationDelta != null) {
 				for (final IResourceDelta delta : configurationDelta.getAffectedChildren(IResourceDelta.REMOVED)) {
 					CorePlugin.getDefault().logInfo(delta.toString() + " was removed.");
+					final URI removedLocation = delta.getResource().getLocationURI();
+					if (removedLocation != null) {
+						configurationValidator.removeFromCache(Paths.get(removedLocation));
+					}
 					// if configuration was removed update warnings
 					checkFeatureCoverage();
 				}
@@ -1085,53 +1097,50 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 
 			@Override
 			public Boolean execute(IMonitor workMonitor) throws Exception {
-				final SatInstance instance = new SatInstance(featureModelManager.getObject().getAnalyser().getCnf());
-				final BasicSolver solver = new BasicSolver(instance);
-				solver.isSatisfiable();
-
-				if (solver.isSatisfiable() == SatResult.TRUE) {
-					workMonitor.setRemainingWork(2);
-					final Configuration config = new Configuration(featureModelManager.getObject(), false, false);
-					try {
-						IMonitor subTask = workMonitor.subTask(1);
-						subTask.setTaskName(DELETE_CONFIGURATION_MARKERS);
-						subTask.setRemainingWork(files.size());
-						for (final IFile file : files) {
-							deleteConfigurationMarkers(file, IResource.DEPTH_ZERO);
-							subTask.step();
-						}
-						subTask.done();
-						subTask = workMonitor.subTask(1);
-						subTask.setRemainingWork(files.size());
-						// check validity
-						for (final IFile file : files) {
-							subTask.setTaskName(CHECK_VALIDITY_OF + " - " + file.getName());
-							final ProblemList lastProblems =
-								SimpleFileHandler.load(Paths.get(file.getLocationURI()), config, ConfigFormatManager.getInstance());
-							if (!config.isValid()) {
-								String name = file.getName();
-								final int extIndex = name.lastIndexOf('.');
-								if (extIndex > 0) {
-									name = name.substring(0, extIndex);
-								}
-								final String message = CONFIGURATION_ + name + IS_INVALID;
-								createConfigurationMarker(file, message, 0, IMarker.SEVERITY_ERROR);
+				final List<java.nio.file.Path> paths = new ArrayList<>(files.size());
+				for (final IFile file : files) {
+					paths.add(Paths.get(file.getLocationURI()));
+				}
+				workMonitor.setRemainingWork(2);
+				try {
+					IMonitor subTask = workMonitor.subTask(1);
+					subTask.setTaskName(CHECK_VALIDITY_OF);
+					// unchanged configurations are taken from the cache of the validator
+					final List<ConfigurationValidator.Result> results =
+						configurationValidator.validate(featureModelManager.getObject(), paths, subTask);
+					subTask.done();
+					if (results == null) {
+						return true;
+					}
 
+					subTask = workMonitor.subTask(1);
+					subTask.setTaskName(DELETE_CONFIGURATION_MARKERS);
+					subTask.setRemainingWork(files.size());
+					for (int i = 0; i < files.size(); i++) {
+						final IFile file = files.get(i);
+						final ConfigurationValidator.Result result = results.get(i);
+						deleteConfigurationMarkers(file, IResource.DEPTH_ZERO);
+						if (!result.isValid()) {
+							String name = file.getName();
+							final int extIndex = name.lastIndexOf('.');
+							if (extIndex > 0) {
+								name = name.substring(0, extIndex);
 							}
-							// create warnings (e.g., for features that are not available anymore)
-							for (final Problem warning : lastProblems) {
-								createConfigurationMarker(file, warning.getMessage(), warning.getLine(), IMarker.SEVERITY_WARNING);
-							}
-							subTask.step();
+							final String message = CONFIGURATION_ + name + IS_INVALID;
+							createConfigurationMarker(file, message, 0, IMarker.SEVERITY_ERROR);
 						}
-						subTask.done();
-					} catch (final OutOfMemoryError e) {
-						LOGGER.logError(e);
-						return false;
-					} finally {
-						workMonitor.done();
+						// create warnings (e.g., for features that are not available anymore)
+						for (final Problem warning : result.getProblems()) {
+							createConfigurationMarker(file, warning.getMessage(), warning.getLine(), IMarker.SEVERITY_WARNING);
+						}
+						subTask.step();
 					}
-					return true;
+					subTask.done();
+				} catch (final OutOfMemoryError e) {
+					LOGGER.logError(e);
+					return false;
+				} finally {
+					workMonitor.done();
 				}
 				return true;
 			}
@@ -1152,8 +1161,8 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 		return getFalseOptionalConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
 	}
 
-	public Collection<String> getFalseOptionalConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, false, concreteFeatures);
+	public Collection<String> getFalseOptionalConfigurationFeatures(SelectionMatrix selections, final List<String> concreteFeatures) {
+		return selections.getAlwaysSelectedFeatures(concreteFeatures);
 	}
 
 	@Override
@@ -1161,51 +1170,37 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 		return getUnusedConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
 	}
 
-	public Collection<String> getUnusedConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, true, concreteFeatures);
+	public Collection<String> getUnusedConfigurationFeatures(SelectionMatrix selections, final List<String> concreteFeatures) {
+		return selections.getUnusedFeatures(concreteFeatures);
 	}
 
-	private List<String> checkValidSelections(boolean[][] selections, boolean selectionState, final List<String> concreteFeatures) {
-		if (selections.length == 0) {
-			return Collections.emptyList();
-		}
-		final List<String> falseOptionalFeatures = new ArrayList<>();
-		columnLoop: for (int column = 0; column < concreteFeatures.size(); column++) {
-			for (int conf = 0; conf < selections.length; conf++) {
-				if (selections[conf][column] == selectionState) {
-					continue columnLoop;
-				}
+	/**
+	 * Returns the selection matrix of all configurations of this project. Only configuration files that changed since the last call are read again. The matrix
+	 * is persisted in the working location of this project, such that it is also reused after a restart.
+	 */
+	private synchronized SelectionMatrix getSelectionMatrix() {
+		final IFeatureModel featureModel = featureModelManager.getObject();
+		final List<String> featureNames = FeatureUtils.getFeatureNamesPreorder(featureModel);
+		final java.nio.file.Path cacheFile = Paths.get(project.getWorkingLocation(CorePlugin.PLUGIN_ID).append(SELECTION_MATRIX_CACHE_FILE).toOSString());
+		if ((selectionMatrix == null) || !selectionMatrix.getFeatureNames().equals(featureNames)) {
+			selectionMatrix = SelectionMatrix.readCache(cacheFile, featureNames);
+			if (selectionMatrix == null) {
+				selectionMatrix = new SelectionMatrix(featureNames);
 			}
-			falseOptionalFeatures.add(concreteFeatures.get(column));
 		}
-		return falseOptionalFeatures;
-	}
 
-	private boolean[][] getSelectionMatrix() {
-		return getSelectionMatrix(getOptionalConcreteFeatures());
-	}
-
-	private boolean[][] getSelectionMatrix(final Collection<String> concreteFeatures) {
-		final List<IFile> configurations = getAllConfigurations();
-
-		final boolean[][] selections = new boolean[configurations.size()][concreteFeatures.size()];
-		final Configuration configuration = new Configuration(featureModelManager.getObject(), Configuration.PARAM_IGNOREABSTRACT | Configuration.PARAM_LAZY);
-
-		int row = 0;
-		for (final IFile file : configurations) {
-			final boolean[] currentRow = selections[row++];
-			ConfigurationManager.load(Paths.get(file.getLocationURI()), configuration);
-
-			int column = 0;
-			for (final String feature : concreteFeatures) {
-				final SelectableFeature selectablefeature = configuration.getSelectablefeature(feature);
-				if (selectablefeature != null) {
-					currentRow[column] = selectablefeature.getSelection() == Selection.SELECTED;
-				}
-				column++;
+		final List<java.nio.file.Path> configurations = new ArrayList<>();
+		for (final IFile file : getAllConfigurations()) {
+			configurations.add(Paths.get(file.getLocationURI()));
+		}
+		if (selectionMatrix.updateAll(configurations, featureModel)) {
+			try {
+				selectionMatrix.writeCache(cacheFile);
+			} catch (final IOException e) {
+				LOGGER.logError(e);
 			}
 		}
-		return selections;
+		return selectionMatrix;
 	}
 
 	private List<String> getOptionalConcreteFeatures() {
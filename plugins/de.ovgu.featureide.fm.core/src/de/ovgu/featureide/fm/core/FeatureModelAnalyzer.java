@@ -45,6 +45,7 @@ import org.prop4j.Not;
 import org.prop4j.Or;
 import org.prop4j.SatSolver;
 import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.IncrementalAnalysisCache;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -64,7 +65,10 @@ import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanation;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCache;
 import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreatorFactory;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationJob;
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanationCreator;
 import de.ovgu.featureide.fm.core.functional.Functional;
@@ -113,6 +117,10 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 */
 	private final RedundantConstraintExplanationCreator redundantConstraintExplanationCreator =
 		explanationCreatorFactory.getRedundantConstraintExplanationCreator();
+	/**
+	 * Remembers the explanations computed by a {@link FeatureModelExplanationJob} together with the revision of the feature model.
+	 */
+	private final FeatureModelExplanationCache explanationCache = new FeatureModelExplanationCache();
 
 	public static enum Attribute {
 		Mandatory, Optional, Alternative, Or, Abstract, Concrete, Hidden, Dead, FalseOptional, IndetHidden, UnsatisfiableConst, TautologyConst, VoidModelConst, RedundantConst
@@ -158,6 +166,11 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 */
 	public boolean runCalculationAutomatically = true;
 
+	/**
+	 * Number of solvers among which the checks for core and dead features are distributed.
+	 */
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
 	/**
 	 * A flag indicating that the calculation should be canceled.
 	 */
@@ -167,6 +180,18 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private FeatureDependencies dependencies;
 
+	/**
+	 * Results of previous analyses. Subsequent analyses compare their CNF with the CNF of the previous analysis and only check features and constraints whose
+	 * results cannot be reused.
+	 */
+	private final IncrementalAnalysisCache analysisCache = new IncrementalAnalysisCache();
+
+	/**
+	 * Number of changes of the feature model reported by events. Together with the revision of the {@link #analysisCache}, it identifies the state of the
+	 * feature model that cached explanations refer to (see {@link #getExplanationRevision()}).
+	 */
+	private volatile long modelRevision = 0;
+
 	/**
 	 * Returns the cached value. Calculated on the first call and on each call of updateFeatureModel().
 	 *
@@ -201,6 +226,21 @@ public class FeatureModelAnalyzer implements IEventListener {
 		calculateRedundantConstraints = oldAnalyzer.calculateRedundantConstraints;
 		calculateTautologyConstraints = oldAnalyzer.calculateTautologyConstraints;
 		runCalculationAutomatically = oldAnalyzer.runCalculationAutomatically;
+		numberOfThreads = oldAnalyzer.numberOfThreads;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of solvers among which the checks for core and dead features are distributed (see
+	 * {@link FeatureModelAnalysis#setNumberOfThreads(int)}). Default is the number of available processors.
+	 *
+	 * @param numberOfThreads the number of solvers
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
 	}
 
 	/**
@@ -602,6 +642,8 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		analysis.setCache(analysisCache);
+		analysis.setNumberOfThreads(numberOfThreads);
 		final HashMap<Object, Object> newAttributes = LongRunningWrapper.runMethod(analysis, this.monitor);
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
@@ -624,6 +666,8 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		analysis.setCache(analysisCache);
+		analysis.setNumberOfThreads(numberOfThreads);
 		analysis.updateConstraints();
 		cachedValidity = analysis.isValid();
 	}
@@ -641,6 +685,8 @@ public class FeatureModelAnalyzer implements IEventListener {
 		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
 		analysis.setCalculateFeatures(true);
 		analysis.setCalculateConstraints(false);
+		analysis.setCache(analysisCache);
+		analysis.setNumberOfThreads(numberOfThreads);
 		analysis.updateFeatures();
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
@@ -836,6 +882,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 		case PARENT_CHANGED:
 		case STRUCTURE_CHANGED:
 			cnf = null;
+			modelRevision++;
 			break;
 		default:
 			break;
@@ -885,6 +932,12 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * @return an explanation; null if it cannot be explained
 	 */
 	public Explanation<?> getExplanation(IFeatureModel fm, IFeatureModelElement modelElement) {
+		if (fm == this.fm) {
+			final FeatureModelExplanation<?> cachedExplanation = explanationCache.get(modelElement, getExplanationRevision());
+			if (cachedExplanation != null) {
+				return cachedExplanation;
+			}
+		}
 		Explanation<?> explanation = null;
 		if (modelElement instanceof IFeature) {
 			final IFeature feature = (IFeature) modelElement;
@@ -1059,6 +1112,51 @@ public class FeatureModelAnalyzer implements IEventListener {
 		redundantConstraintExplanations.put(constraint, creator.getExplanation());
 	}
 
+	/**
+	 * Creates a job that computes explanations for all dead features, false-optional features, and redundant constraints found by the last analysis. After
+	 * the job is finished, {@link #getExplanation(IFeatureModelElement)} returns these explanations until the feature model changes.
+	 *
+	 * @return a new job; not null
+	 */
+	public FeatureModelExplanationJob createExplanationJob() {
+		final List<IConstraint> redundantConstraints = new ArrayList<>();
+		for (final IConstraint constraint : fm.getConstraints()) {
+			switch (constraint.getConstraintAttribute()) {
+			case REDUNDANT:
+			case IMPLICIT:
+				redundantConstraints.add(constraint);
+				break;
+			default:
+				break;
+			}
+		}
+		final FeatureModelExplanationJob job = new FeatureModelExplanationJob(fm, explanationCreatorFactory, explanationCache, getExplanationRevision());
+		job.setDeadFeatures(new ArrayList<>(cachedDeadFeatures));
+		job.setFalseOptionalFeatures(new ArrayList<>(cachedFalseOptionalFeatures));
+		job.setRedundantConstraints(redundantConstraints);
+		return job;
+	}
+
+	/**
+	 * Computes explanations for all defects found by the last analysis.
+	 *
+	 * @param monitor the monitor; not null
+	 * @see #createExplanationJob()
+	 */
+	public void explainDefects(IMonitor monitor) {
+		LongRunningWrapper.runMethod(createExplanationJob(), monitor);
+	}
+
+	/**
+	 * Returns the revision that cached explanations are stored with. It changes with every event that changes the feature model and whenever an analysis finds
+	 * a CNF that differs from the previously analyzed one, such that changes without an event are detected by the next analysis.
+	 *
+	 * @return the current revision for explanations
+	 */
+	private long getExplanationRevision() {
+		return modelRevision + analysisCache.getRevision();
+	}
+
 	/**
 	 * Clears all explanations.
 	 */
@@ -1066,6 +1164,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 		deadFeatureExplanations.clear();
 		falseOptionalFeatureExplanations.clear();
 		redundantConstraintExplanations.clear();
+		explanationCache.clear();
 		deadFeatureExplanationCreator.setFeatureModel(fm);
 		falseOptionalFeatureExplanationCreator.setFeatureModel(fm);
 		redundantConstraintExplanationCreator.setFeatureModel(fm);
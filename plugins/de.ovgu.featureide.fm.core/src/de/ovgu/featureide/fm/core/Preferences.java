@@ -37,9 +37,12 @@ public abstract class Preferences {
 
 	public static int defaultCompletion;
 
+	public static boolean knowledgeCompilation;
+
 	static {
 		final String pref = preferences.get("configCompletion", Integer.toString(COMPLETION_ONE_CLICK));
 		defaultCompletion = castToInt(pref, COMPLETION_ONE_CLICK);
+		knowledgeCompilation = castToInt(preferences.get("knowledgeCompilation", "1"), 1) != 0;
 	}
 
 	/**
@@ -54,6 +57,18 @@ public abstract class Preferences {
 		store("configCompletion", defaultCompletion);
 	}
 
+	/**
+	 * @return whether the configuration editor compiles the feature model into a binary decision diagram for propagation
+	 */
+	public static boolean isKnowledgeCompilation() {
+		return knowledgeCompilation;
+	}
+
+	public static void setKnowledgeCompilation(boolean knowledgeCompilation) {
+		Preferences.knowledgeCompilation = knowledgeCompilation;
+		store("knowledgeCompilation", knowledgeCompilation ? 1 : 0);
+	}
+
 	private static int castToInt(String pref, int defaultValue) {
 		try {
 			return Integer.parseInt(pref);
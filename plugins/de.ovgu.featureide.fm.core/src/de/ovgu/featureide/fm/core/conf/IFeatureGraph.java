@@ -32,6 +32,16 @@ public interface IFeatureGraph extends Serializable {
 
 	byte getValue(int fromIndex, int toIndex, boolean fromSelected);
 
+	/**
+	 * Returns the first neighbor of a feature that has an index greater or equal than the given index. This allows to iterate over all edges of a feature
+	 * without testing all other features.
+	 *
+	 * @param fromIndex the index of the feature
+	 * @param toIndex the smallest index of a neighbor to return
+	 * @return the index of the neighbor or {@code -1} if there is no further neighbor
+	 */
+	int getNextNeighbor(int fromIndex, int toIndex);
+
 	int getSize();
 
 	int[] getIndex();
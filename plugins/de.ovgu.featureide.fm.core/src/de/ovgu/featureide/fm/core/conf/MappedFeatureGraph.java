@@ -0,0 +1,124 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
+
+/**
+ * Read-only feature graph whose edges are stored in a (memory-mapped) buffer in the sparse layout of the {@link FeatureGraphFormat}. For each feature, the
+ * buffer contains the sorted indices of its neighbors and the corresponding edge types. Edges are only read when they are accessed, such that the operating
+ * system can page them in lazily.
+ */
+public class MappedFeatureGraph extends AFeatureGraph {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient IntBuffer rowOffsets;
+	private final transient IntBuffer neighbors;
+	private final transient ByteBuffer edges;
+
+	/**
+	 * @param satInstance the variables of the graph
+	 * @param index the mapping of variables to features of the graph
+	 * @param rowOffsets for each feature the position of its first edge (size + 1 entries)
+	 * @param neighbors for each edge the index of the target feature (ascending for each feature)
+	 * @param edges for each edge its type
+	 */
+	public MappedFeatureGraph(SatInstance satInstance, int[] index, IntBuffer rowOffsets, IntBuffer neighbors, ByteBuffer edges) {
+		super(satInstance, index);
+		this.rowOffsets = rowOffsets;
+		this.neighbors = neighbors;
+		this.edges = edges;
+	}
+
+	@Override
+	public boolean setEdge(int from, int to, byte edgeType) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void copyValues(IFeatureGraph otherGraph) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public byte getEdge(int fromIndex, int toIndex) {
+		int low = rowOffsets.get(fromIndex);
+		int high = rowOffsets.get(fromIndex + 1) - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int neighbor = neighbors.get(mid);
+			if (neighbor < toIndex) {
+				low = mid + 1;
+			} else if (neighbor > toIndex) {
+				high = mid - 1;
+			} else {
+				return edges.get(mid);
+			}
+		}
+		return EDGE_NONE;
+	}
+
+	@Override
+	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
+		final byte edge = getEdge(fromIndex, toIndex);
+		return (byte) (((fromSelected ? (edge >>> 4) : edge)) & 0x0000000f);
+	}
+
+	@Override
+	public byte getValueInternal(int fromIndex, int toIndex, boolean fromSelected) {
+		final int internalFrom = index[fromIndex];
+		final int internalTo = index[toIndex];
+		if ((internalFrom < 0) || (internalTo < 0)) {
+			return -1;
+		}
+		return getValue(internalFrom, internalTo, fromSelected);
+	}
+
+	@Override
+	public int getNextNeighbor(int fromIndex, int toIndex) {
+		int low = rowOffsets.get(fromIndex);
+		int high = rowOffsets.get(fromIndex + 1);
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (neighbors.get(mid) < toIndex) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return (low < rowOffsets.get(fromIndex + 1)) ? neighbors.get(low) : -1;
+	}
+
+	/**
+	 * @param fromIndex the index of a feature
+	 * @return the number of edges starting at the given feature
+	 */
+	public int getNumberOfEdges(int fromIndex) {
+		return rowOffsets.get(fromIndex + 1) - rowOffsets.get(fromIndex);
+	}
+
+}
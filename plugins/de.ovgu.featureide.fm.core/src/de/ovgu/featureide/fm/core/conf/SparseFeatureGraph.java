@@ -0,0 +1,204 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import java.util.Arrays;
+
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Feature graph that stores only existing edges. For each feature, the graph holds a sorted adjacency list in a primitive int array, in which every entry
+ * packs the index of the neighbor (upper 24 bits) and the edge type (lower 8 bits). Thus, the required memory grows with the number of edges instead of the
+ * square of the number of features as for the {@link MatrixFeatureGraph}.
+ */
+public class SparseFeatureGraph extends AFeatureGraph {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int INITIAL_CAPACITY = 4;
+
+	private static final int EDGE_MASK = 0x000000ff;
+
+	private int[][] adjList;
+	private int[] degrees;
+
+	public SparseFeatureGraph(SatInstance satInstance, int[] index) {
+		super(satInstance, index);
+		if (size > (Integer.MAX_VALUE >>> 8)) {
+			throw new IllegalArgumentException("Too many features: " + size);
+		}
+		adjList = new int[size][];
+		degrees = new int[size];
+	}
+
+	public SparseFeatureGraph() {
+		super();
+	}
+
+	@Override
+	public void copyValues(IFeatureGraph otherGraph) {
+		super.copyValues(otherGraph);
+		adjList = new int[size][];
+		degrees = new int[size];
+		if (otherGraph instanceof SparseFeatureGraph) {
+			final SparseFeatureGraph sparseGraph = (SparseFeatureGraph) otherGraph;
+			for (int from = 0; from < size; from++) {
+				final int degree = sparseGraph.degrees[from];
+				if (degree > 0) {
+					adjList[from] = Arrays.copyOf(sparseGraph.adjList[from], degree);
+					degrees[from] = degree;
+				}
+			}
+		} else {
+			for (int from = 0; from < size; from++) {
+				for (int to = otherGraph.getNextNeighbor(from, 0); to >= 0; to = otherGraph.getNextNeighbor(from, to + 1)) {
+					insert(from, degrees[from], (to << 8) | (otherGraph.getEdge(from, to) & EDGE_MASK));
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean setEdge(int from, int to, byte edgeType) {
+		if (from == to) {
+			return false;
+		}
+		final int position = find(from, to);
+
+		final byte oldValue = (position >= 0) ? (byte) adjList[from][position] : EDGE_NONE;
+		final byte newValue = mergeEdge(oldValue, edgeType);
+		if (oldValue == newValue) {
+			return false;
+		}
+
+		if (position >= 0) {
+			if (newValue == EDGE_NONE) {
+				remove(from, position);
+			} else {
+				adjList[from][position] = (to << 8) | (newValue & EDGE_MASK);
+			}
+		} else {
+			insert(from, -(position + 1), (to << 8) | (newValue & EDGE_MASK));
+		}
+		return true;
+	}
+
+	@Override
+	public byte getEdge(int fromIndex, int toIndex) {
+		final int position = find(fromIndex, toIndex);
+		return (position >= 0) ? (byte) adjList[fromIndex][position] : EDGE_NONE;
+	}
+
+	@Override
+	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
+		final byte edge = getEdge(fromIndex, toIndex);
+		return (byte) (((fromSelected ? (edge >>> 4) : edge)) & 0x0000000f);
+	}
+
+	@Override
+	public byte getValueInternal(int fromIndex, int toIndex, boolean fromSelected) {
+		final int internalFrom = index[fromIndex];
+		final int internalTo = index[toIndex];
+		if ((internalFrom < 0) || (internalTo < 0)) {
+			return -1;
+		}
+		return getValue(internalFrom, internalTo, fromSelected);
+	}
+
+	@Override
+	public int getNextNeighbor(int fromIndex, int toIndex) {
+		final int position = find(fromIndex, toIndex);
+		final int next = (position >= 0) ? position : -(position + 1);
+		return (next < degrees[fromIndex]) ? (adjList[fromIndex][next] >>> 8) : -1;
+	}
+
+	/**
+	 * @param fromIndex the index of a feature
+	 * @return the number of edges starting at the given feature
+	 */
+	public int getNumberOfEdges(int fromIndex) {
+		return degrees[fromIndex];
+	}
+
+	/**
+	 * Releases unused capacity of all adjacency lists. Should be called after the graph was built.
+	 */
+	public void trimToSize() {
+		for (int from = 0; from < size; from++) {
+			final int degree = degrees[from];
+			if (degree == 0) {
+				adjList[from] = null;
+			} else if (adjList[from].length > degree) {
+				adjList[from] = Arrays.copyOf(adjList[from], degree);
+			}
+		}
+	}
+
+	/**
+	 * Binary search for the neighbor in the adjacency list of a feature.
+	 *
+	 * @return the position of the neighbor, if it is contained, otherwise <code>(-(insertion point) - 1)</code>
+	 */
+	private int find(int from, int to) {
+		final int[] row = adjList[from];
+		int low = 0;
+		int high = degrees[from] - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int neighbor = row[mid] >>> 8;
+			if (neighbor < to) {
+				low = mid + 1;
+			} else if (neighbor > to) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private void insert(int from, int position, int entry) {
+		int[] row = adjList[from];
+		final int degree = degrees[from];
+		if (row == null) {
+			row = new int[INITIAL_CAPACITY];
+			adjList[from] = row;
+		} else if (degree == row.length) {
+			final int[] newRow = new int[Math.max(INITIAL_CAPACITY, degree + (degree >>> 1) + 1)];
+			System.arraycopy(row, 0, newRow, 0, position);
+			System.arraycopy(row, position, newRow, position + 1, degree - position);
+			newRow[position] = entry;
+			adjList[from] = newRow;
+			degrees[from]++;
+			return;
+		}
+		System.arraycopy(row, position, row, position + 1, degree - position);
+		row[position] = entry;
+		degrees[from]++;
+	}
+
+	private void remove(int from, int position) {
+		final int[] row = adjList[from];
+		final int degree = --degrees[from];
+		System.arraycopy(row, position + 1, row, position, degree - position);
+	}
+
+}
@@ -23,13 +23,15 @@ package de.ovgu.featureide.fm.core.configuration;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
-import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
+import de.ovgu.featureide.fm.core.configuration.io.ISelectionLoaderCallback;
 
 /**
  * Reads all configuration file from a certain folder and saves their content in form of a selection matrix.
@@ -40,11 +42,13 @@ import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
  */
 public class ConfigurationMatrix {
 
-	private final List<Config> configurationMatrix;
+	private final SelectionMatrix configurationMatrix;
 	private final ConfigurationLoader loader;
+	private final ISelectionLoaderCallback callback;
 	private final IFeatureModel featureModel;
 	private final Path path;
 
+	private ConfigurationRecommender recommender = null;
 	private double[] rec = null;
 
 	public ConfigurationMatrix(IFeatureModel featureModel, String path) {
@@ -54,112 +58,112 @@ public class ConfigurationMatrix {
 	public ConfigurationMatrix(IFeatureModel featureModel, Path path) {
 		this.featureModel = featureModel;
 		this.path = path;
-		configurationMatrix = new ArrayList<>();
-		loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
+		configurationMatrix = new SelectionMatrix(FeatureUtils.getFeatureNamesPreorder(featureModel));
+		loader = new ConfigurationLoader();
+		loader.setNumberOfThreads(Runtime.getRuntime().availableProcessors());
+		callback = new ISelectionLoaderCallback() {
 
 			@Override
-			public void onLoadingStarted() {
+			public void onLoadingStarted(List<String> featureNames) {
 				configurationMatrix.clear();
+				recommender = null;
 			}
 
 			@Override
 			public void onLoadingError(IOException exception) {}
 
 			@Override
-			public void onConfigurationLoaded(Configuration configuration, Path path) {
-				configurationMatrix.add(createConfig(configuration));
+			public void onSelectionLoaded(BitSet selection, Path path) {
+				configurationMatrix.set(path, selection);
 			}
 
 			@Override
-			public void onLoadingFinished() {
-				// TODO Auto-generated method stub
-
-			}
-		});
+			public void onLoadingFinished() {}
+		};
 	}
 
 	public void readConfigurations() {
-		loader.loadConfigurations(featureModel, path);
+		loader.loadSelections(featureModel, path, null, callback);
 	}
 
 	public void readConfigurations(String excludeFile) {
-		loader.loadConfigurations(featureModel, path, excludeFile);
+		loader.loadSelections(featureModel, path, excludeFile, callback);
+	}
+
+	/**
+	 * Synchronizes the matrix with the configuration files in its folder. Only files that were added, removed, or modified (i.e., whose modification time
+	 * or size changed) since they were read are (re-)read.
+	 *
+	 * @param excludeFile the name of a file that should not be read (may be {@code null})
+	 * @return {@code true} if the matrix changed
+	 */
+	public boolean update(String excludeFile) {
+		final List<Path> files;
+		try {
+			files = loader.getConfigurationFiles(path, excludeFile);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return false;
+		}
+		if (configurationMatrix.updateAll(files, featureModel)) {
+			recommender = null;
+			return true;
+		}
+		return false;
+	}
+
+	public IFeatureModel getFeatureModel() {
+		return featureModel;
+	}
+
+	public Path getPath() {
+		return path;
 	}
 
-	private Config createConfig(Configuration configuration) {
+	public SelectionMatrix getSelectionMatrix() {
+		return configurationMatrix;
+	}
+
+	private boolean[] createConfig(Configuration configuration) {
 		final List<SelectableFeature> features = configuration.getFeatures();
-		final byte[] configArray = new byte[features.size()];
+		final boolean[] configArray = new boolean[features.size()];
 		int i = 0;
 		for (final SelectableFeature feature : features) {
-			switch (feature.getSelection()) {
-			case SELECTED:
-				configArray[i++] = 1;
-				break;
-			case UNDEFINED:
-			case UNSELECTED:
-			default:
-				configArray[i++] = 0;
-				break;
-			}
+			configArray[i++] = feature.getSelection() == Selection.SELECTED;
 		}
-		return new Config(configArray);
+		return configArray;
 	}
 
 	public double[] getRec() {
 		return rec;
 	}
 
+	/**
+	 * Computes the recommendation values for the given configuration. Subsequent calls for slightly changed configurations only update the previous values.
+	 */
 	public void calcRec(Configuration configuration) {
-		if (configurationMatrix.isEmpty()) {
+		if (configurationMatrix.getNumberOfConfigurations() == 0) {
+			rec = null;
 			return;
 		}
-
-		final Config curConfig = createConfig(configuration);
-
-		rec = new double[configurationMatrix.get(0).configArray.length];
-		Arrays.fill(rec, 0);
-
-		final int[] w = new int[configurationMatrix.size()];
-		int wSum = 0;
-		{
-			int j = 0;
-			for (final Config config : configurationMatrix) {
-				final int delta = curConfig.getDelta(config);
-				w[j++] = delta;
-				wSum += delta;
-			}
-		}
-
-		for (int i = 0; i < rec.length; i++) {
-			int fSum = 0;
-			for (int j = 0; j < w.length; j++) {
-				fSum += configurationMatrix.get(j).configArray[i] * w[j];
-			}
-			double recValue = ((double) fSum) / wSum;
-			if (curConfig.configArray[i] == 1) {
-				recValue = 1 - recValue;
-			}
-			rec[i] = recValue;
+		if (recommender == null) {
+			recommender = new ConfigurationRecommender(configurationMatrix);
 		}
+		recommender.setSelection(createConfig(configuration));
+		rec = recommender.getRecommendations();
 	}
 
-	private static class Config {
-
-		private final byte[] configArray;
-
-		public Config(byte[] configArray) {
-			this.configArray = configArray;
+	/**
+	 * Returns the configurations that are most similar to the configuration of the last call of {@link #calcRec(Configuration)}.
+	 *
+	 * @param k the maximal number of configurations
+	 * @return the paths of the most similar configurations in descending order of their similarity
+	 */
+	public List<Path> getNearestConfigurations(int k) {
+		if (recommender == null) {
+			return Collections.emptyList();
 		}
-
-		public int getDelta(Config otherConfig) {
-			int count = 0;
-			for (int i = 0; i < configArray.length; i++) {
-				if (configArray[i] == otherConfig.configArray[i]) {
-					count++;
-				}
-			}
-			return count;
-		}
-
+		return recommender.getNearestConfigurations(k);
 	}
+
 }
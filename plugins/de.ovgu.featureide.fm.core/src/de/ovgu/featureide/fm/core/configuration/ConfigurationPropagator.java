@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -39,6 +40,7 @@ import org.prop4j.analyses.GetSolutionAnalysis;
 import org.prop4j.analyses.RedundantAnalysis;
 import org.prop4j.analyses.ResolveAnalysis;
 import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.BinaryDecisionDiagram;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.ContradictionException;
@@ -126,6 +128,19 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
+			Iterable<SelectableFeature> features = getFeatures();
+			features = includeHiddenFeatures ? features : Functional.filter(features, visibleFilter);
+			features = includeUndefinedFeatures ? features : Functional.filter(features, selectedFilter);
+
+			final BinaryDecisionDiagram knowledgeBase = getKnowledgeBase(monitor);
+			if (knowledgeBase != null) {
+				final List<Literal> literals = new ArrayList<>();
+				for (final SelectableFeature feature : features) {
+					literals.add(getLiteral(feature));
+				}
+				return knowledgeBase.isSatisfiable(rootNode.convertToInt(literals));
+			}
+
 			final BasicSolver solver;
 			try {
 				solver = new BasicSolver(rootNode);
@@ -134,9 +149,6 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
-			Iterable<SelectableFeature> features = getFeatures();
-			features = includeHiddenFeatures ? features : Functional.filter(features, visibleFilter);
-			features = includeUndefinedFeatures ? features : Functional.filter(features, selectedFilter);
 			for (final SelectableFeature feature : features) {
 				final int variable = rootNode.getVariable(feature.getFeature().getName());
 				solver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
@@ -197,6 +209,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		private final long timeout;
 		private final boolean includeHiddenFeatures;
 
+		private BigInteger numberOfSolutions = null;
+
 		public CountSolutionsMethod(long timeout, boolean includeHiddenFeatures) {
 			this.timeout = timeout;
 			this.includeHiddenFeatures = includeHiddenFeatures;
@@ -216,11 +230,25 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			}
 
 			final SatInstance node = includeHiddenFeatures ? rootNode : rootNodeWithoutHidden;
+			final BinaryDecisionDiagram knowledgeBase = includeHiddenFeatures ? getKnowledgeBase(monitor) : null;
+			if (knowledgeBase != null) {
+				numberOfSolutions = knowledgeBase.countSolutions(node.convertToInt(definedFeatures));
+				return (numberOfSolutions.bitLength() < Long.SIZE) ? numberOfSolutions.longValue() : Long.MIN_VALUE;
+			}
+
 			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(node, timeout);
 			analysis.setAssumptions(node.convertToInt(definedFeatures));
 			final Long result = LongRunningWrapper.runMethod(analysis);
+			numberOfSolutions = result == null ? BigInteger.ZERO : analysis.getNumberOfSolutions();
 			return result == null ? 0 : result;
 		}
+
+		/**
+		 * @return the exact number of solutions computed by the last execution or {@code null} if it could not be computed within the timeout
+		 */
+		public BigInteger getNumberOfSolutions() {
+			return numberOfSolutions;
+		}
 	}
 
 	public class FindClause implements LongRunningMethod<List<Node>> {
@@ -525,6 +553,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				new SatInstance(buildThread1.getResults(), Functional.mapToList(features, new InverseFilter<>(filter1), FeatureUtils.GET_FEATURE_NAME));
 			rootNode = new SatInstance(buildThread2.getResults(),
 					Functional.mapToList(features, filter2 == null ? null : new InverseFilter<>(filter2), FeatureUtils.GET_FEATURE_NAME));
+			// compile the knowledge base while still in the background, so that the first update does not have to wait for it
+			getKnowledgeBase(monitor);
 			return null;
 		}
 
@@ -568,10 +598,17 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(rootNode);
 			final int[] intLiterals = rootNode.convertToInt(manualLiterals);
-			analysis.setAssumptions(intLiterals);
-			final int[] impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final BinaryDecisionDiagram knowledgeBase = getKnowledgeBase(workMonitor);
+			final int[] impliedFeatures;
+			if (knowledgeBase != null) {
+				impliedFeatures = knowledgeBase.getImpliedLiterals(intLiterals);
+				workMonitor.worked();
+			} else {
+				final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(rootNode);
+				analysis.setAssumptions(intLiterals);
+				impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			}
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -592,11 +629,32 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			}
 
 			if (redundantManual) {
-				computeRedundantManual(workMonitor, intLiterals);
+				if (knowledgeBase != null) {
+					computeRedundantManual(workMonitor, intLiterals, knowledgeBase);
+				} else {
+					computeRedundantManual(workMonitor, intLiterals);
+				}
 			}
 			return null;
 		}
 
+		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals, BinaryDecisionDiagram knowledgeBase) {
+			int literalCount = intLiterals.length;
+			for (int i = 0; i < literalCount; i++) {
+				final int oLiteral = intLiterals[i];
+				final SelectableFeature feature = configuration.getSelectablefeature((String) rootNode.getVariableObject(oLiteral));
+				intLiterals[i] = -oLiteral;
+				if (knowledgeBase.isSatisfiable(Arrays.copyOf(intLiterals, literalCount))) {
+					intLiterals[i] = oLiteral;
+				} else {
+					configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					intLiterals[i--] = intLiterals[--literalCount];
+				}
+				workMonitor.invoke(feature);
+				workMonitor.worked();
+			}
+		}
+
 		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals) {
 			final BasicSolver solver;
 			try {
@@ -642,6 +700,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	private SatInstance rootNode = null, rootNodeWithoutHidden = null;
 
+	private boolean useKnowledgeCompilation = false;
+	private BinaryDecisionDiagram knowledgeBase = null;
+	private boolean knowledgeBaseCompiled = false;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 *
@@ -660,7 +722,45 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		if (propagator.isLoaded()) {
 			rootNode = propagator.rootNode;
 			rootNodeWithoutHidden = propagator.rootNodeWithoutHidden;
+			synchronized (propagator) {
+				useKnowledgeCompilation = propagator.useKnowledgeCompilation;
+				knowledgeBase = propagator.knowledgeBase;
+				knowledgeBaseCompiled = propagator.knowledgeBaseCompiled;
+			}
+		}
+	}
+
+	public synchronized boolean isUseKnowledgeCompilation() {
+		return useKnowledgeCompilation;
+	}
+
+	/**
+	 * If enabled, the CNF of the feature model is compiled into a {@link BinaryDecisionDiagram} once, which then replaces the SAT solver for propagation,
+	 * validity checks, and counting. If the diagram exceeds {@link BinaryDecisionDiagram#DEFAULT_MAX_NUMBER_OF_NODES}, the SAT solver is used as before.
+	 * Must be set before {@link #load()} to compile the diagram while loading. Default is {@code false}; the configuration editor enables it according
+	 * to {@link de.ovgu.featureide.fm.core.Preferences#isKnowledgeCompilation()}.
+	 *
+	 * @param useKnowledgeCompilation whether to use knowledge compilation
+	 */
+	public synchronized void setUseKnowledgeCompilation(boolean useKnowledgeCompilation) {
+		this.useKnowledgeCompilation = useKnowledgeCompilation;
+	}
+
+	/**
+	 * Returns the compiled knowledge base for the feature model (compiling it on first use).
+	 *
+	 * @param monitor the monitor used to check for cancel requests
+	 * @return the knowledge base or {@code null} if knowledge compilation is disabled or the diagram exceeds the node limit
+	 */
+	private synchronized BinaryDecisionDiagram getKnowledgeBase(IMonitor monitor) {
+		if (!useKnowledgeCompilation || (rootNode == null)) {
+			return null;
+		}
+		if (!knowledgeBaseCompiled) {
+			knowledgeBase = BinaryDecisionDiagram.compile(rootNode, BinaryDecisionDiagram.DEFAULT_MAX_NUMBER_OF_NODES, monitor);
+			knowledgeBaseCompiled = true;
 		}
+		return knowledgeBase;
 	}
 
 	@Override
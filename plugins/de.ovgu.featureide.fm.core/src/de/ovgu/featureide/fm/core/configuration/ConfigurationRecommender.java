@@ -0,0 +1,348 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Computes recommendation values for the features of a configuration from a set of existing configurations (see {@link SelectionMatrix}).<br> Each existing
+ * configuration is weighted by its similarity to the current selection, i.e., the number of features with equal selection. The recommendation value of a
+ * feature is the weighted share of configurations that select the feature, or that deselect it, if it is selected in the current selection. If all weights
+ * are zero, the configurations are weighted equally.<br> Existing
+ * configurations are stored row-wise as bitsets, such that a similarity is the popcount of an XOR, and column-wise, such that a change of a single feature
+ * updates all weights and weighted sums incrementally. A full recomputation is split across multiple threads.
+ */
+public class ConfigurationRecommender {
+
+	/**
+	 * The default minimal number of configurations that are processed by one thread during a full recomputation.
+	 */
+	public static final int DEFAULT_MIN_ROWS_PER_THREAD = 4096;
+
+	private final List<Path> configurations;
+	private final int numberOfFeatures;
+	private final int numberOfRows;
+
+	private final long[][] rows;
+	private final long[][] columns;
+	private final int[] columnCounts;
+
+	private final int[] weights;
+	private final long[] featureSums;
+	private long weightSum;
+	private boolean[] selection;
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+	private int minRowsPerThread = DEFAULT_MIN_ROWS_PER_THREAD;
+
+	/**
+	 * Creates a recommender for a snapshot of the given matrix. Later changes of the matrix are not reflected.
+	 *
+	 * @param matrix the selection matrix of the existing configurations
+	 */
+	public ConfigurationRecommender(SelectionMatrix matrix) {
+		synchronized (matrix) {
+			configurations = matrix.getConfigurations();
+			columns = matrix.copyColumns();
+		}
+		numberOfFeatures = columns.length;
+		numberOfRows = configurations.size();
+
+		final int rowWords = (numberOfFeatures + 63) >>> 6;
+		rows = new long[numberOfRows][rowWords];
+		columnCounts = new int[numberOfFeatures];
+		for (int i = 0; i < numberOfFeatures; i++) {
+			final long[] column = columns[i];
+			final int featureWord = i >>> 6;
+			final long featureMask = 1L << i;
+			int count = 0;
+			for (int k = 0; k < column.length; k++) {
+				long word = column[k];
+				count += Long.bitCount(word);
+				while (word != 0) {
+					final int row = (k << 6) + Long.numberOfTrailingZeros(word);
+					rows[row][featureWord] |= featureMask;
+					word &= word - 1;
+				}
+			}
+			columnCounts[i] = count;
+		}
+
+		weights = new int[numberOfRows];
+		featureSums = new long[numberOfFeatures];
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public int getMinRowsPerThread() {
+		return minRowsPerThread;
+	}
+
+	/**
+	 * Sets the minimal number of configurations that are processed by one thread during a full recomputation. Default is
+	 * {@value #DEFAULT_MIN_ROWS_PER_THREAD}.
+	 *
+	 * @param minRowsPerThread the minimal number of configurations per thread
+	 */
+	public void setMinRowsPerThread(int minRowsPerThread) {
+		this.minRowsPerThread = Math.max(1, minRowsPerThread);
+	}
+
+	public int getNumberOfConfigurations() {
+		return numberOfRows;
+	}
+
+	/**
+	 * Sets the current selection. If only a few features changed since the last call, the weights are updated incrementally, otherwise they are recomputed.
+	 *
+	 * @param newSelection the selection state of each feature in the column order of the matrix
+	 */
+	public synchronized void setSelection(boolean[] newSelection) {
+		if (newSelection.length != numberOfFeatures) {
+			throw new IllegalArgumentException("Expected " + numberOfFeatures + " features, but got " + newSelection.length);
+		}
+		if (selection != null) {
+			int changes = 0;
+			for (int i = 0; i < numberOfFeatures; i++) {
+				if (selection[i] != newSelection[i]) {
+					changes++;
+				}
+			}
+			// an incremental update costs one pass over all columns per changed feature
+			if ((changes * ((numberOfRows + 63) >>> 6)) <= numberOfRows) {
+				for (int i = 0; i < numberOfFeatures; i++) {
+					if (selection[i] != newSelection[i]) {
+						setSelected(i, newSelection[i]);
+					}
+				}
+				return;
+			}
+		}
+		selection = newSelection.clone();
+		recompute();
+	}
+
+	/**
+	 * Changes the selection of a single feature and updates all weights incrementally.
+	 *
+	 * @param feature the index of the feature
+	 * @param selected the new selection state
+	 */
+	public synchronized void setSelected(int feature, boolean selected) {
+		if (selection == null) {
+			throw new IllegalStateException("No selection set");
+		}
+		if (selection[feature] == selected) {
+			return;
+		}
+		selection[feature] = selected;
+
+		// all rows that now agree with the selection gain one, all others lose one
+		final long[] column = columns[feature];
+		final long flip = selected ? 0 : -1L;
+		for (int row = 0; row < numberOfRows; row++) {
+			weights[row] += ((((column[row >>> 6] ^ flip) >>> row) & 1) != 0) ? 1 : -1;
+		}
+		final int agreeingRows = selected ? columnCounts[feature] : numberOfRows - columnCounts[feature];
+		weightSum += (2 * agreeingRows) - numberOfRows;
+
+		for (int i = 0; i < numberOfFeatures; i++) {
+			final long[] otherColumn = columns[i];
+			long commonCount = 0;
+			for (int k = 0; k < column.length; k++) {
+				commonCount += Long.bitCount(otherColumn[k] & column[k]);
+			}
+			final long delta = (2 * commonCount) - columnCounts[i];
+			featureSums[i] += selected ? delta : -delta;
+		}
+	}
+
+	private void recompute() {
+		weightSum = 0;
+		Arrays.fill(featureSums, 0);
+
+		final int threads = Math.max(1, Math.min(numberOfThreads, numberOfRows / minRowsPerThread));
+		final long[] selectionBits = new long[(numberOfFeatures + 63) >>> 6];
+		for (int i = 0; i < numberOfFeatures; i++) {
+			if (selection[i]) {
+				selectionBits[i >>> 6] |= 1L << i;
+			}
+		}
+
+		if (threads <= 1) {
+			weightSum = computeRows(selectionBits, 0, numberOfRows, featureSums);
+			return;
+		}
+
+		final List<Future<long[]>> futures = new ArrayList<>(threads);
+		try {
+			for (int t = 0; t < threads; t++) {
+				final int start = (int) (((long) numberOfRows * t) / threads);
+				final int end = (int) (((long) numberOfRows * (t + 1)) / threads);
+				futures.add(SharedExecutor.submit(new Callable<long[]>() {
+
+					@Override
+					public long[] call() throws Exception {
+						final long[] partialSums = new long[numberOfFeatures + 1];
+						partialSums[numberOfFeatures] = computeRows(selectionBits, start, end, partialSums);
+						return partialSums;
+					}
+				}));
+			}
+			for (final Future<long[]> future : futures) {
+				final long[] partialSums;
+				try {
+					partialSums = future.get();
+				} catch (final ExecutionException e) {
+					if (e.getCause() instanceof MethodCancelException) {
+						throw (MethodCancelException) e.getCause();
+					}
+					throw new RuntimeException(e.getCause());
+				}
+				for (int i = 0; i < numberOfFeatures; i++) {
+					featureSums[i] += partialSums[i];
+				}
+				weightSum += partialSums[numberOfFeatures];
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MethodCancelException();
+		} finally {
+			SharedExecutor.cancel(futures);
+		}
+	}
+
+	/**
+	 * Computes the weights of the given rows and adds the weighted selections to the given sums.
+	 *
+	 * @return the sum of all computed weights
+	 */
+	private long computeRows(long[] selectionBits, int start, int end, long[] sums) {
+		long partialWeightSum = 0;
+		for (int row = start; row < end; row++) {
+			final long[] rowBits = rows[row];
+			int distance = 0;
+			for (int k = 0; k < rowBits.length; k++) {
+				distance += Long.bitCount(rowBits[k] ^ selectionBits[k]);
+			}
+			final int weight = numberOfFeatures - distance;
+			weights[row] = weight;
+			partialWeightSum += weight;
+			for (int k = 0; k < rowBits.length; k++) {
+				long word = rowBits[k];
+				while (word != 0) {
+					sums[(k << 6) + Long.numberOfTrailingZeros(word)] += weight;
+					word &= word - 1;
+				}
+			}
+		}
+		return partialWeightSum;
+	}
+
+	/**
+	 * @return the recommendation value of each feature in the column order of the matrix or {@code null}, if there are no configurations or no selection
+	 */
+	public synchronized double[] getRecommendations() {
+		if ((numberOfRows == 0) || (selection == null)) {
+			return null;
+		}
+		final double[] recommendations = new double[numberOfFeatures];
+		for (int i = 0; i < numberOfFeatures; i++) {
+			// if no configuration shares a selection with the current one, all configurations are weighted equally
+			final double recommendation = (weightSum == 0) ? ((double) columnCounts[i]) / numberOfRows : ((double) featureSums[i]) / weightSum;
+			recommendations[i] = selection[i] ? 1 - recommendation : recommendation;
+		}
+		return recommendations;
+	}
+
+	/**
+	 * @return the number of features that have the same selection in the given configuration and in the current selection
+	 */
+	public synchronized int getSimilarity(int row) {
+		return weights[row];
+	}
+
+	/**
+	 * Returns the configurations that are most similar to the current selection. Configurations with equal similarity are returned in the row order of the
+	 * matrix.
+	 *
+	 * @param k the maximal number of configurations
+	 * @return the paths of the most similar configurations in descending order of their similarity
+	 */
+	public synchronized List<Path> getNearestConfigurations(int k) {
+		if ((selection == null) || (k <= 0)) {
+			return Collections.emptyList();
+		}
+		final int[] histogram = new int[numberOfFeatures + 1];
+		for (int row = 0; row < numberOfRows; row++) {
+			histogram[weights[row]]++;
+		}
+		int threshold = numberOfFeatures;
+		int count = histogram[threshold];
+		while ((count < k) && (threshold > 0)) {
+			count += histogram[--threshold];
+		}
+		int remainingAtThreshold = k - (count - histogram[threshold]);
+
+		final List<Integer> nearestRows = new ArrayList<>(Math.min(k, numberOfRows));
+		for (int row = 0; row < numberOfRows; row++) {
+			final int weight = weights[row];
+			if (weight > threshold) {
+				nearestRows.add(row);
+			} else if ((weight == threshold) && (remainingAtThreshold > 0)) {
+				nearestRows.add(row);
+				remainingAtThreshold--;
+			}
+		}
+		Collections.sort(nearestRows, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer row1, Integer row2) {
+				final int diff = weights[row2] - weights[row1];
+				return diff != 0 ? diff : row1 - row2;
+			}
+		});
+
+		final List<Path> nearestConfigurations = new ArrayList<>(nearestRows.size());
+		for (final Integer row : nearestRows) {
+			nearestConfigurations.add(configurations.get(row));
+		}
+		return nearestConfigurations;
+	}
+
+}
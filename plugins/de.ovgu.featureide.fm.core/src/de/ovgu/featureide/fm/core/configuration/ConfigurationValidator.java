@@ -0,0 +1,359 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ClauseDatabase;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
+import de.ovgu.featureide.fm.core.base.impl.FormatManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Checks the validity of many configuration files against one feature model.<br> All files share the CNF of the feature model. Each worker thread uses its
+ * own solver and checks the selection of a configuration as a set of assumptions. Abstract features are not assumed, such that the check is equivalent to
+ * {@link Configuration#isValid()}, where undefined features are treated as unselected.<br> Results are cached by the hash of the file content and a
+ * revision of the feature model, which is derived from its CNF. Thus, only configurations that changed since the last check, or all configurations after
+ * the formula of the feature model changed, are parsed and checked again. Results of files that do not exist anymore are removed from the cache with each
+ * validation.
+ */
+public class ConfigurationValidator {
+
+	private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+
+	private static final String DIGEST_ALGORITHM = "SHA-1";
+
+	/**
+	 * The validation result of one configuration file.
+	 */
+	public static class Result {
+
+		private final Path path;
+		private final boolean valid;
+		private final ProblemList problems;
+
+		public Result(Path path, boolean valid, ProblemList problems) {
+			this.path = path;
+			this.valid = valid;
+			this.problems = problems;
+		}
+
+		public Path getPath() {
+			return path;
+		}
+
+		public boolean isValid() {
+			return valid;
+		}
+
+		/**
+		 * @return the problems that occurred while reading the file (e.g., for features that are not available anymore)
+		 */
+		public ProblemList getProblems() {
+			return problems;
+		}
+
+		@Override
+		public String toString() {
+			return "Result [path=" + path + ", valid=" + valid + "]";
+		}
+	}
+
+	private static class CacheEntry {
+
+		private final byte[] contentHash;
+		private final byte[] revision;
+		private final Result result;
+
+		public CacheEntry(byte[] contentHash, byte[] revision, Result result) {
+			this.contentHash = contentHash;
+			this.revision = revision;
+			this.result = result;
+		}
+	}
+
+	private final ConcurrentHashMap<Path, CacheEntry> cache = new ConcurrentHashMap<>();
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	private byte[] revision;
+	private SatInstance satInstance;
+	private BasicSolver solver;
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * Removes all cached results.
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+
+	/**
+	 * Removes the cached result of a single file (e.g., if the file was deleted).
+	 */
+	public void removeFromCache(Path path) {
+		cache.remove(path);
+	}
+
+	/**
+	 * Checks the validity of the given configuration files.
+	 *
+	 * @param featureModel the feature model
+	 * @param files the configuration files
+	 * @param monitor the monitor
+	 * @return the results in the same order as the given files or {@code null} if the feature model is void
+	 */
+	public synchronized List<Result> validate(final IFeatureModel featureModel, final List<Path> files, IMonitor monitor) {
+		if (!updateModel(featureModel)) {
+			return null;
+		}
+		final byte[] currentRevision = revision;
+		pruneCache();
+		final Result[] results = new Result[files.size()];
+		final List<Integer> uncheckedIndexes = new ArrayList<>();
+		final List<byte[]> contents = new ArrayList<>();
+		final List<byte[]> contentHashes = new ArrayList<>();
+
+		monitor.setRemainingWork(files.size());
+
+		for (int i = 0; i < results.length; i++) {
+			final Path path = files.get(i);
+			final byte[] content;
+			try {
+				content = FileSystem.read(path);
+			} catch (final Exception e) {
+				cache.remove(path);
+				final ProblemList problems = new ProblemList();
+				problems.add(new Problem(e));
+				results[i] = new Result(path, false, problems);
+				monitor.step();
+				continue;
+			}
+			final byte[] contentHash = createDigest().digest(content);
+			final CacheEntry entry = cache.get(path);
+			if ((entry != null) && Arrays.equals(entry.contentHash, contentHash) && Arrays.equals(entry.revision, currentRevision)) {
+				results[i] = entry.result;
+				monitor.step();
+			} else {
+				uncheckedIndexes.add(i);
+				contents.add(content);
+				contentHashes.add(contentHash);
+			}
+		}
+
+		if (!uncheckedIndexes.isEmpty()) {
+			final int threads = Math.min(numberOfThreads, uncheckedIndexes.size());
+			if (threads <= 1) {
+				final BasicSolver workerSolver = solver.clone();
+				for (int i = 0; i < uncheckedIndexes.size(); i++) {
+					monitor.checkCancel();
+					final int index = uncheckedIndexes.get(i);
+					results[index] = check(featureModel, workerSolver, files.get(index), contents.get(i));
+					cache.put(files.get(index), new CacheEntry(contentHashes.get(i), currentRevision, results[index]));
+					monitor.step();
+				}
+			} else {
+				// at most one check per worker is submitted, thus, a solver is always available
+				final BlockingQueue<BasicSolver> workerSolvers = new ArrayBlockingQueue<>(threads);
+				for (int i = 0; i < threads; i++) {
+					workerSolvers.add(solver.clone());
+				}
+				final CompletionService<Integer> completionService = new ExecutorCompletionService<>(SharedExecutor.getExecutor());
+				final List<Future<Integer>> futures = new ArrayList<>(uncheckedIndexes.size());
+				try {
+					int submitted = 0;
+					for (; submitted < threads; submitted++) {
+						futures.add(completionService.submit(createCheck(featureModel, workerSolvers, files, uncheckedIndexes, contents, results, submitted)));
+					}
+					for (int finished = 0; finished < uncheckedIndexes.size(); finished++) {
+						monitor.checkCancel();
+						final int i;
+						try {
+							i = completionService.take().get();
+						} catch (final ExecutionException e) {
+							if (e.getCause() instanceof MethodCancelException) {
+								throw (MethodCancelException) e.getCause();
+							}
+							throw new RuntimeException(e.getCause());
+						}
+						final int index = uncheckedIndexes.get(i);
+						cache.put(files.get(index), new CacheEntry(contentHashes.get(i), currentRevision, results[index]));
+						monitor.step();
+						if (submitted < uncheckedIndexes.size()) {
+							futures.add(completionService.submit(createCheck(featureModel, workerSolvers, files, uncheckedIndexes, contents, results, submitted++)));
+						}
+					}
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MethodCancelException();
+				} finally {
+					SharedExecutor.cancel(futures);
+				}
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	private Callable<Integer> createCheck(final IFeatureModel featureModel, final BlockingQueue<BasicSolver> workerSolvers, final List<Path> files,
+			final List<Integer> uncheckedIndexes, final List<byte[]> contents, final Result[] results, final int i) {
+		return new Callable<Integer>() {
+
+			@Override
+			public Integer call() throws Exception {
+				final int index = uncheckedIndexes.get(i);
+				final BasicSolver workerSolver = workerSolvers.take();
+				try {
+					results[index] = check(featureModel, workerSolver, files.get(index), contents.get(i));
+				} finally {
+					workerSolvers.add(workerSolver);
+				}
+				return i;
+			}
+		};
+	}
+
+	private void pruneCache() {
+		for (final Iterator<Path> iterator = cache.keySet().iterator(); iterator.hasNext();) {
+			if (!Files.exists(iterator.next())) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Computes the CNF of the feature model and its revision. The solver is only rebuilt if the revision changed.
+	 *
+	 * @return {@code true} if the feature model is satisfiable
+	 */
+	private boolean updateModel(IFeatureModel featureModel) {
+		final ClauseDatabase clauses = AdvancedNodeCreator.createClauseDatabase(featureModel);
+
+		final MessageDigest digest = createDigest();
+		for (int i = 1; i <= clauses.getNumberOfVariables(); i++) {
+			digest.update(clauses.getVariableObject(i).toString().getBytes(DEFAULT_CHARSET));
+			digest.update((byte) 0);
+		}
+		final ByteBuffer literals = ByteBuffer.allocate(4);
+		for (int i = 0; i < clauses.getNumberOfClauses(); i++) {
+			for (int j = 0; j < clauses.getClauseLength(i); j++) {
+				literals.clear();
+				digest.update(literals.putInt(clauses.getLiteral(i, j)).array());
+			}
+			// literals are never 0, thus, 0 separates the clauses
+			literals.clear();
+			digest.update(literals.putInt(0).array());
+		}
+		final byte[] newRevision = digest.digest();
+
+		if (!Arrays.equals(newRevision, revision)) {
+			revision = newRevision;
+			satInstance = new SatInstance(clauses);
+			try {
+				solver = new BasicSolver(satInstance);
+				if (solver.isSatisfiable() != SatResult.TRUE) {
+					solver = null;
+				}
+			} catch (final ContradictionException e) {
+				solver = null;
+			}
+		}
+		return solver != null;
+	}
+
+	private Result check(IFeatureModel featureModel, BasicSolver workerSolver, Path path, byte[] content) {
+		final ProblemList problems = new ProblemList();
+		final Configuration configuration = new Configuration(featureModel, Configuration.PARAM_LAZY);
+
+		final String source = new String(content, DEFAULT_CHARSET);
+		final String fileName = path.getFileName().toString();
+		final IPersistentFormat<Configuration> format = ConfigFormatManager.getInstance().getFormatByContent(source, fileName);
+		if (format == null) {
+			problems.add(new Problem(new FormatManager.NoSuchExtensionException("No format found for file \"" + fileName + "\"!")));
+		} else {
+			try {
+				final List<Problem> parsingProblems = format.getInstance().read(configuration, source);
+				if (parsingProblems != null) {
+					problems.addAll(parsingProblems);
+				}
+			} catch (final Exception e) {
+				problems.add(new Problem(e));
+			}
+		}
+
+		workerSolver.assignmentClear(0);
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			if (feature.getFeature().getStructure().isConcrete()) {
+				final int variable = satInstance.getVariable(feature.getName());
+				workerSolver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
+			}
+		}
+		final boolean valid = workerSolver.isSatisfiable() == SatResult.TRUE;
+		workerSolver.assignmentClear(0);
+
+		return new Result(path, valid, problems);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+}
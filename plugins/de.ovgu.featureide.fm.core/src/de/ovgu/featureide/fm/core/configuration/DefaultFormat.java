@@ -28,12 +28,16 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.IS_CORRUPT__NO
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.RenamingsManager;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -58,6 +62,11 @@ public class DefaultFormat extends APersistentFormat<Configuration> implements I
 
 	@Override
 	public ProblemList read(Configuration configuration, CharSequence source) {
+		return read(configuration, new StringReader(source.toString()));
+	}
+
+	@Override
+	public ProblemList read(Configuration configuration, Reader source) {
 		final RenamingsManager renamingsManager = configuration.getFeatureModel().getRenamingsManager();
 		final ProblemList warnings = new ProblemList();
 
@@ -67,7 +76,8 @@ public class DefaultFormat extends APersistentFormat<Configuration> implements I
 
 		String line = null;
 		int lineNumber = 1;
-		try (BufferedReader reader = new BufferedReader(new StringReader(source.toString()))) {
+		try {
+			final BufferedReader reader = new BufferedReader(source);
 			while ((line = reader.readLine()) != null) {
 				if (line.startsWith("#") || line.isEmpty() || line.equals(" ")) {
 					continue;
@@ -131,37 +141,46 @@ public class DefaultFormat extends APersistentFormat<Configuration> implements I
 
 	@Override
 	public String write(Configuration configuration) {
-		final StringBuilder buffer = new StringBuilder();
+		final StringWriter writer = new StringWriter();
+		try {
+			write(configuration, writer);
+		} catch (final IOException e) {
+			Logger.logError(e);
+		}
+		return writer.toString();
+	}
+
+	@Override
+	public void write(Configuration configuration, Writer target) throws IOException {
 		final IFeatureModel featureModel = configuration.getFeatureModel();
 		if (featureModel.isFeatureOrderUserDefined()) {
 			final List<String> list = Functional.toList(featureModel.getFeatureOrderList());
 			final Set<String> featureSet = configuration.getSelectedFeatureNames();
 			for (final String s : list) {
 				if (featureSet.contains(s)) {
-					if (s.contains(" ")) {
-						buffer.append("\"" + s + "\"" + NEWLINE);
-					} else {
-						buffer.append(s + NEWLINE);
-					}
+					writeFeatureName(s, target);
 				}
 			}
-			return buffer.toString();
+			return;
 		}
 
-		writeSelectedFeatures(configuration.getRoot(), buffer);
-		return buffer.toString();
+		writeSelectedFeatures(configuration.getRoot(), target);
 	}
 
-	private void writeSelectedFeatures(SelectableFeature feature, StringBuilder buffer) {
+	private void writeSelectedFeatures(SelectableFeature feature, Writer target) throws IOException {
 		if (feature.getFeature().getStructure().isConcrete() && (feature.getSelection() == Selection.SELECTED)) {
-			if (feature.getName().contains(" ")) {
-				buffer.append("\"" + feature.getName() + "\"" + NEWLINE);
-			} else {
-				buffer.append(feature.getName() + NEWLINE);
-			}
+			writeFeatureName(feature.getName(), target);
 		}
 		for (final TreeElement child : feature.getChildren()) {
-			writeSelectedFeatures((SelectableFeature) child, buffer);
+			writeSelectedFeatures((SelectableFeature) child, target);
+		}
+	}
+
+	private void writeFeatureName(String name, Writer target) throws IOException {
+		if (name.contains(" ")) {
+			target.write("\"" + name + "\"" + NEWLINE);
+		} else {
+			target.write(name + NEWLINE);
 		}
 	}
 
@@ -27,8 +27,12 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_CONFIGUR
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.RenamingsManager;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
@@ -52,6 +56,11 @@ public class FeatureIDEFormat extends APersistentFormat<Configuration> implement
 
 	@Override
 	public ProblemList read(Configuration configuration, CharSequence source) {
+		return read(configuration, new StringReader(source.toString()));
+	}
+
+	@Override
+	public ProblemList read(Configuration configuration, Reader source) {
 		final RenamingsManager renamingsManager = configuration.getFeatureModel().getRenamingsManager();
 		final ProblemList warnings = new ProblemList();
 
@@ -61,7 +70,8 @@ public class FeatureIDEFormat extends APersistentFormat<Configuration> implement
 
 		String line = null;
 		int lineNumber = 1;
-		try (BufferedReader reader = new BufferedReader(new StringReader(source.toString()))) {
+		try {
+			final BufferedReader reader = new BufferedReader(source);
 			while ((line = reader.readLine()) != null) {
 				if (line.startsWith("#")) {
 					continue;
@@ -126,22 +136,28 @@ public class FeatureIDEFormat extends APersistentFormat<Configuration> implement
 
 	@Override
 	public String write(Configuration configuration) {
-		final StringBuilder buffer = new StringBuilder();
-		buffer.append("# Lists all features from the model with manual (first digit) and automatic (second digit) selection");
-		buffer.append(NEWLINE);
-		buffer.append("# 0 = deselected, 1 = selected, 2 = undefined");
-		buffer.append(NEWLINE);
+		final StringWriter writer = new StringWriter();
+		try {
+			write(configuration, writer);
+		} catch (final IOException e) {
+			Logger.logError(e);
+		}
+		return writer.toString();
+	}
+
+	@Override
+	public void write(Configuration configuration, Writer target) throws IOException {
+		target.write("# Lists all features from the model with manual (first digit) and automatic (second digit) selection");
+		target.write(NEWLINE);
+		target.write("# 0 = deselected, 1 = selected, 2 = undefined");
+		target.write(NEWLINE);
 
 		for (final SelectableFeature feature : configuration.getFeatures()) {
-			buffer.append(Integer.toString(getSelectionCode(feature.getManual())));
-			// buffer.append(',');
-			buffer.append(Integer.toString(getSelectionCode(feature.getAutomatic())));
-			// buffer.append(',');
-			buffer.append(feature.getName());
-			buffer.append(NEWLINE);
+			target.write(Integer.toString(getSelectionCode(feature.getManual())));
+			target.write(Integer.toString(getSelectionCode(feature.getAutomatic())));
+			target.write(feature.getName());
+			target.write(NEWLINE);
 		}
-
-		return buffer.toString();
 	}
 
 	private int getSelectionCode(Selection selection) {
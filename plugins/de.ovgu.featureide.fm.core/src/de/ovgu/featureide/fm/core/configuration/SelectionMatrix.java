@@ -0,0 +1,505 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Stores the selections of many configurations in a column-oriented, bit-packed matrix.<br> Each feature has a column of bits, one bit per configuration
+ * (row). Thus, queries over all configurations, such as the number of configurations that select a feature, are computed via popcount.<br> Rows are identified
+ * by the path of their configuration file and can be updated individually. For each row, the last modification time and size of its file are stored, such
+ * that only changed files need to be read again. The matrix can optionally be persisted to a cache file.
+ */
+public class SelectionMatrix {
+
+	private static final int CACHE_FORMAT_VERSION = 1;
+
+	private final List<String> featureNames;
+	private final Map<String, Integer> featureIndexes;
+
+	private final List<Path> rowPaths = new ArrayList<>();
+	private final Map<Path, Integer> rowIndexes = new HashMap<>();
+	private long[] rowModificationTimes = new long[16];
+	private long[] rowSizes = new long[16];
+
+	private long[][] columns;
+
+	/**
+	 * @param featureNames the names of all features that are stored in the matrix (defines the column order)
+	 */
+	public SelectionMatrix(List<String> featureNames) {
+		this.featureNames = Collections.unmodifiableList(new ArrayList<>(featureNames));
+		featureIndexes = new HashMap<>(featureNames.size() << 1);
+		for (final String featureName : featureNames) {
+			featureIndexes.put(featureName, featureIndexes.size());
+		}
+		columns = new long[featureNames.size()][1];
+	}
+
+	public List<String> getFeatureNames() {
+		return featureNames;
+	}
+
+	public int getFeatureIndex(String featureName) {
+		final Integer index = featureIndexes.get(featureName);
+		return index == null ? -1 : index;
+	}
+
+	public synchronized int getNumberOfConfigurations() {
+		return rowPaths.size();
+	}
+
+	/**
+	 * @return the paths of all stored configurations in row order
+	 */
+	public synchronized List<Path> getConfigurations() {
+		return new ArrayList<>(rowPaths);
+	}
+
+	public synchronized boolean contains(Path file) {
+		return rowIndexes.containsKey(file);
+	}
+
+	public synchronized boolean isSelected(Path file, int featureIndex) {
+		final Integer row = rowIndexes.get(file);
+		if (row == null) {
+			return false;
+		}
+		return (columns[featureIndex][row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * Reads the given configuration file and stores its selection, if the file was modified since it was stored the last time.<br> If the file does not
+	 * exist anymore, its row is removed.
+	 *
+	 * @param file the configuration file
+	 * @param featureModel the corresponding feature model
+	 * @return {@code true} if the matrix changed
+	 */
+	public synchronized boolean update(Path file, IFeatureModel featureModel) {
+		final long modificationTime, size;
+		try {
+			modificationTime = Files.getLastModifiedTime(file).toMillis();
+			size = Files.size(file);
+		} catch (final NoSuchFileException e) {
+			return remove(file);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return remove(file);
+		}
+
+		final Integer row = rowIndexes.get(file);
+		if ((row != null) && (rowModificationTimes[row] == modificationTime) && (rowSizes[row] == size)) {
+			return false;
+		}
+		final Configuration configuration = new Configuration(featureModel, Configuration.PARAM_IGNOREABSTRACT | Configuration.PARAM_LAZY);
+		SimpleFileHandler.load(file, configuration, ConfigFormatManager.getInstance());
+		set(file, getSelection(configuration), modificationTime, size);
+		return true;
+	}
+
+	/**
+	 * Updates all given configuration files (see {@link #update(Path, IFeatureModel)}) and removes the rows of all other files.
+	 *
+	 * @param files the current configuration files
+	 * @param featureModel the corresponding feature model
+	 * @return {@code true} if the matrix changed
+	 */
+	public synchronized boolean updateAll(Collection<Path> files, IFeatureModel featureModel) {
+		boolean changed = retainAll(files);
+		for (final Path file : files) {
+			changed |= update(file, featureModel);
+		}
+		return changed;
+	}
+
+	/**
+	 * Stores the selection of the given configuration. The modification time and size of the file are taken from the file system, if the file exists.
+	 *
+	 * @param file the path that identifies the configuration
+	 * @param configuration the configuration
+	 */
+	public synchronized void set(Path file, Configuration configuration) {
+		setWithFileAttributes(file, getSelection(configuration));
+	}
+
+	/**
+	 * Stores the given selection. The modification time and size of the file are taken from the file system, if the file exists.
+	 *
+	 * @param file the path that identifies the configuration
+	 * @param selection contains the indexes of all selected features in column order
+	 */
+	public synchronized void set(Path file, BitSet selection) {
+		final boolean[] selectionArray = new boolean[featureNames.size()];
+		for (int i = selection.nextSetBit(0); (i >= 0) && (i < selectionArray.length); i = selection.nextSetBit(i + 1)) {
+			selectionArray[i] = true;
+		}
+		setWithFileAttributes(file, selectionArray);
+	}
+
+	private void setWithFileAttributes(Path file, boolean[] selection) {
+		long modificationTime = -1, size = -1;
+		try {
+			if (Files.exists(file)) {
+				modificationTime = Files.getLastModifiedTime(file).toMillis();
+				size = Files.size(file);
+			}
+		} catch (final IOException e) {
+			Logger.logError(e);
+		}
+		set(file, selection, modificationTime, size);
+	}
+
+	private boolean[] getSelection(Configuration configuration) {
+		final boolean[] selection = new boolean[featureNames.size()];
+		for (int i = 0; i < selection.length; i++) {
+			final SelectableFeature feature = configuration.getSelectablefeature(featureNames.get(i));
+			selection[i] = (feature != null) && (feature.getSelection() == Selection.SELECTED);
+		}
+		return selection;
+	}
+
+	/**
+	 * Stores the given selection.
+	 *
+	 * @param file the path that identifies the configuration
+	 * @param selection the selection state of each feature in column order
+	 */
+	public synchronized void set(Path file, boolean[] selection) {
+		set(file, selection, -1, -1);
+	}
+
+	private void set(Path file, boolean[] selection, long modificationTime, long size) {
+		Integer row = rowIndexes.get(file);
+		if (row == null) {
+			row = rowPaths.size();
+			ensureCapacity(row + 1);
+			rowPaths.add(file);
+			rowIndexes.put(file, row);
+		}
+		final int word = row >>> 6;
+		final long mask = 1L << row;
+		for (int i = 0; i < selection.length; i++) {
+			if (selection[i]) {
+				columns[i][word] |= mask;
+			} else {
+				columns[i][word] &= ~mask;
+			}
+		}
+		rowModificationTimes[row] = modificationTime;
+		rowSizes[row] = size;
+	}
+
+	/**
+	 * Removes the row of the given configuration. The last row is moved to the position of the removed row.
+	 *
+	 * @return {@code true} if the configuration was contained in the matrix
+	 */
+	public synchronized boolean remove(Path file) {
+		final Integer row = rowIndexes.remove(file);
+		if (row == null) {
+			return false;
+		}
+		final int lastRow = rowPaths.size() - 1;
+		final Path lastPath = rowPaths.remove(lastRow);
+		final int lastWord = lastRow >>> 6;
+		final long lastMask = 1L << lastRow;
+		if (row != lastRow) {
+			final int word = row >>> 6;
+			final long mask = 1L << row;
+			for (final long[] column : columns) {
+				if ((column[lastWord] & lastMask) != 0) {
+					column[word] |= mask;
+				} else {
+					column[word] &= ~mask;
+				}
+			}
+			rowPaths.set(row, lastPath);
+			rowIndexes.put(lastPath, row);
+			rowModificationTimes[row] = rowModificationTimes[lastRow];
+			rowSizes[row] = rowSizes[lastRow];
+		}
+		for (final long[] column : columns) {
+			column[lastWord] &= ~lastMask;
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the rows of all configurations that are not contained in the given collection.
+	 *
+	 * @return {@code true} if the matrix changed
+	 */
+	public synchronized boolean retainAll(Collection<Path> files) {
+		final HashSet<Path> fileSet = new HashSet<>(files);
+		boolean changed = false;
+		for (final Path file : new ArrayList<>(rowPaths)) {
+			if (!fileSet.contains(file)) {
+				changed |= remove(file);
+			}
+		}
+		return changed;
+	}
+
+	public synchronized void clear() {
+		rowPaths.clear();
+		rowIndexes.clear();
+		columns = new long[featureNames.size()][1];
+	}
+
+	private void ensureCapacity(int numberOfRows) {
+		final int words = (numberOfRows + 63) >>> 6;
+		if ((columns.length > 0) && (columns[0].length < words)) {
+			final int newLength = Math.max(words, columns[0].length << 1);
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.copyOf(columns[i], newLength);
+			}
+		}
+		if (rowSizes.length < numberOfRows) {
+			final int newLength = Math.max(numberOfRows, rowSizes.length << 1);
+			rowModificationTimes = Arrays.copyOf(rowModificationTimes, newLength);
+			rowSizes = Arrays.copyOf(rowSizes, newLength);
+		}
+	}
+
+	/**
+	 * @return a copy of all columns, trimmed to the current number of rows
+	 */
+	synchronized long[][] copyColumns() {
+		final int words = (rowPaths.size() + 63) >>> 6;
+		final long[][] columnsCopy = new long[columns.length][];
+		for (int i = 0; i < columns.length; i++) {
+			columnsCopy[i] = Arrays.copyOf(columns[i], words);
+		}
+		return columnsCopy;
+	}
+
+	/**
+	 * @return the number of configurations that select the given feature
+	 */
+	public synchronized int getSelectionCount(int featureIndex) {
+		int count = 0;
+		for (final long word : columns[featureIndex]) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * @return all given features that are not selected in any configuration
+	 */
+	public synchronized List<String> getUnusedFeatures(Collection<String> features) {
+		return getFeaturesWithSelectionCount(features, 0);
+	}
+
+	/**
+	 * @return all given features that are selected in every configuration
+	 */
+	public synchronized List<String> getAlwaysSelectedFeatures(Collection<String> features) {
+		return getFeaturesWithSelectionCount(features, rowPaths.size());
+	}
+
+	private List<String> getFeaturesWithSelectionCount(Collection<String> features, int selectionCount) {
+		if (rowPaths.isEmpty()) {
+			return Collections.emptyList();
+		}
+		final List<String> result = new ArrayList<>();
+		for (final String feature : features) {
+			final int featureIndex = getFeatureIndex(feature);
+			if ((featureIndex < 0) ? (selectionCount == 0) : (getSelectionCount(featureIndex) == selectionCount)) {
+				result.add(feature);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes for each feature how strongly the stored configurations recommend to change its selection in the given configuration.<br> Each stored
+	 * configuration is weighted by its similarity to the given selection (i.e., the number of features with equal selection). The recommendation value of a
+	 * feature is the weighted share of configurations that select the feature, or that deselect it, if it is selected in the given configuration. If all
+	 * weights are zero, the configurations are weighted equally.<br> The weights are stored in bit-sliced counters (one bit vector over all rows per bit of the weight), such that all weighted sums are computed via popcount.
+	 *
+	 * @param selection the selection state of each feature in column order
+	 * @return the recommendation value of each feature in column order or {@code null}, if the matrix is empty
+	 */
+	public synchronized double[] getRecommendations(boolean[] selection) {
+		final int numberOfRows = rowPaths.size();
+		if (numberOfRows == 0) {
+			return null;
+		}
+		final int words = (numberOfRows + 63) >>> 6;
+		final long lastWordMask = ((numberOfRows & 63) == 0) ? -1L : ((1L << numberOfRows) - 1);
+		final int bits = 32 - Integer.numberOfLeadingZeros(featureNames.size());
+
+		// weights: bit-sliced counters of equal selections per row
+		final long[][] weights = new long[bits][words];
+		for (int i = 0; i < columns.length; i++) {
+			final long[] column = columns[i];
+			final long flip = selection[i] ? 0 : -1L;
+			for (int k = 0; k < words; k++) {
+				long carry = column[k] ^ flip;
+				if (k == (words - 1)) {
+					carry &= lastWordMask;
+				}
+				for (int b = 0; (b < bits) && (carry != 0); b++) {
+					final long[] weightBits = weights[b];
+					final long nextCarry = weightBits[k] & carry;
+					weightBits[k] ^= carry;
+					carry = nextCarry;
+				}
+			}
+		}
+		long weightSum = 0;
+		for (int b = 0; b < bits; b++) {
+			long count = 0;
+			for (final long word : weights[b]) {
+				count += Long.bitCount(word);
+			}
+			weightSum += count << b;
+		}
+
+		final double[] recommendations = new double[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			final long[] column = columns[i];
+			long featureSum = 0;
+			for (int b = 0; b < bits; b++) {
+				final long[] weightBits = weights[b];
+				long count = 0;
+				for (int k = 0; k < words; k++) {
+					count += Long.bitCount(column[k] & weightBits[k]);
+				}
+				featureSum += count << b;
+			}
+			final double recommendation;
+			if (weightSum == 0) {
+				// no configuration shares a selection with the given one, thus, all configurations are weighted equally
+				long count = 0;
+				for (int k = 0; k < words; k++) {
+					count += Long.bitCount(column[k]);
+				}
+				recommendation = ((double) count) / numberOfRows;
+			} else {
+				recommendation = ((double) featureSum) / weightSum;
+			}
+			recommendations[i] = selection[i] ? 1 - recommendation : recommendation;
+		}
+		return recommendations;
+	}
+
+	/**
+	 * Writes this matrix to a cache file.
+	 *
+	 * @param cacheFile the cache file
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized void writeCache(Path cacheFile) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile)))) {
+			out.writeInt(CACHE_FORMAT_VERSION);
+			out.writeInt(featureNames.size());
+			for (final String featureName : featureNames) {
+				out.writeUTF(featureName);
+			}
+			final int numberOfRows = rowPaths.size();
+			out.writeInt(numberOfRows);
+			for (int row = 0; row < numberOfRows; row++) {
+				out.writeUTF(rowPaths.get(row).toString());
+				out.writeLong(rowModificationTimes[row]);
+				out.writeLong(rowSizes[row]);
+			}
+			final int words = (numberOfRows + 63) >>> 6;
+			for (final long[] column : columns) {
+				for (int k = 0; k < words; k++) {
+					out.writeLong(column[k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a matrix from a cache file.
+	 *
+	 * @param cacheFile the cache file
+	 * @param featureNames the names of all features of the current feature model
+	 * @return the matrix or {@code null}, if the cache file does not exist, cannot be read, or was created for other features
+	 */
+	public static SelectionMatrix readCache(Path cacheFile, List<String> featureNames) {
+		if (!Files.isReadable(cacheFile)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+			if (in.readInt() != CACHE_FORMAT_VERSION) {
+				return null;
+			}
+			final int numberOfFeatures = in.readInt();
+			if (numberOfFeatures != featureNames.size()) {
+				return null;
+			}
+			for (final String featureName : featureNames) {
+				if (!featureName.equals(in.readUTF())) {
+					return null;
+				}
+			}
+			final SelectionMatrix matrix = new SelectionMatrix(featureNames);
+			final int numberOfRows = in.readInt();
+			matrix.ensureCapacity(numberOfRows);
+			for (int row = 0; row < numberOfRows; row++) {
+				final Path path = Paths.get(in.readUTF());
+				matrix.rowIndexes.put(path, row);
+				matrix.rowPaths.add(path);
+				matrix.rowModificationTimes[row] = in.readLong();
+				matrix.rowSizes[row] = in.readLong();
+			}
+			final int words = (numberOfRows + 63) >>> 6;
+			for (final long[] column : matrix.columns) {
+				for (int k = 0; k < words; k++) {
+					column[k] = in.readLong();
+				}
+			}
+			return matrix;
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return null;
+		}
+	}
+
+}
@@ -20,12 +20,16 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.io.Reader;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.io.IConfigurationFormat;
@@ -33,7 +37,6 @@ import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
 import de.ovgu.featureide.fm.core.io.xml.AXMLFormat;
-import de.ovgu.featureide.fm.core.io.xml.PositionalXMLHandler;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 
 /**
@@ -59,67 +62,82 @@ public class XMLConfFormat extends AXMLFormat<Configuration> implements IConfigu
 
 	@Override
 	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
-		object.resetValues();
-
-		final Element root = doc.getDocumentElement();
-		if (root == null) {
-			warnings.add(new Problem("No root element specified", 1, Problem.Severity.ERROR));
-			return;
-		}
-		if (root.getNodeName().equals("configuration")) {
-			for (final Element feature : getElements(root.getElementsByTagName(NODE_FEATURE))) {
-				final SelectableFeature selectablefeature;
-				if (feature.hasAttribute(ATTRIBUTE_NAME)) {
-					final String featureName = feature.getAttribute(ATTRIBUTE_NAME);
-					selectablefeature = object.getSelectablefeature(object.getFeatureModel().getRenamingsManager().getNewName(featureName));
-					if (selectablefeature == null) {
-						createWarning("Invalid feature name: " + featureName, feature, warnings);
-						continue;
-					}
-				} else {
-					createError("No feature name specified", feature, warnings);
-					continue;
-				}
+		readDocumentAsSource(doc, warnings);
+	}
 
-				if (feature.hasAttribute(ATTRIBUTE_MANUAL)) {
-					selectablefeature.setManual(getSelection(feature.getAttribute(ATTRIBUTE_MANUAL), feature, warnings));
-				}
-				if (feature.hasAttribute(ATTRIBUTE_AUTOMATIC)) {
-					selectablefeature.setAutomatic(getSelection(feature.getAttribute(ATTRIBUTE_AUTOMATIC), feature, warnings));
-				}
+	@Override
+	protected void readSource(Reader source, List<Problem> warnings) throws XMLStreamException {
+		object.resetValues();
 
-				final NamedNodeMap attributes = feature.getAttributes();
-				if (attributes.getLength() > 3) {
-					for (int i = 0; i < attributes.getLength(); i++) {
-						final String attributeName = attributes.item(i).getNodeName();
-						switch (attributeName) {
-						case ATTRIBUTE_NAME:
-						case ATTRIBUTE_MANUAL:
-						case ATTRIBUTE_AUTOMATIC:
-							break;
-						default:
-							createWarning("Unknown attribute: " + attributeName, feature, warnings);
-							break;
-						}
+		final XMLStreamReader reader = createStreamReader(source);
+		try {
+			if (!nextRootElement(reader)) {
+				warnings.add(new Problem("No root element specified", 1, Problem.Severity.ERROR));
+				return;
+			}
+			if (reader.getLocalName().equals("configuration")) {
+				while (reader.hasNext()) {
+					if ((reader.next() == XMLStreamConstants.START_ELEMENT) && reader.getLocalName().equals(NODE_FEATURE)) {
+						readFeature(reader, warnings);
 					}
 				}
+			} else {
+				warnings.add(new Problem("Root element must be <configuration>", 1, Problem.Severity.ERROR));
 			}
-		} else {
-			warnings.add(new Problem("Root element must be <configuration>", 1, Problem.Severity.ERROR));
+		} finally {
+			reader.close();
 		}
 	}
 
-	protected void createWarning(final String message, Element element, List<Problem> warnings) {
-		final Object lineNumber = element.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
-		warnings.add(new Problem(message, (lineNumber instanceof Integer) ? (int) lineNumber : 1, Problem.Severity.WARNING));
+	private static boolean nextRootElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			}
+		}
+		return false;
 	}
 
-	protected void createError(final String message, Element element, List<Problem> warnings) {
-		final Object lineNumber = element.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
-		warnings.add(new Problem(message, (lineNumber instanceof Integer) ? (int) lineNumber : 1, Problem.Severity.ERROR));
+	private void readFeature(XMLStreamReader reader, List<Problem> warnings) {
+		final int lineNumber = getLineNumber(reader);
+		final String featureName = reader.getAttributeValue(null, ATTRIBUTE_NAME);
+		if (featureName == null) {
+			warnings.add(new Problem("No feature name specified", lineNumber, Problem.Severity.ERROR));
+			return;
+		}
+		final SelectableFeature selectablefeature =
+			object.getSelectablefeature(object.getFeatureModel().getRenamingsManager().getNewName(featureName));
+		if (selectablefeature == null) {
+			warnings.add(new Problem("Invalid feature name: " + featureName, lineNumber, Problem.Severity.WARNING));
+			return;
+		}
+
+		final String manual = reader.getAttributeValue(null, ATTRIBUTE_MANUAL);
+		if (manual != null) {
+			selectablefeature.setManual(getSelection(manual));
+		}
+		final String automatic = reader.getAttributeValue(null, ATTRIBUTE_AUTOMATIC);
+		if (automatic != null) {
+			selectablefeature.setAutomatic(getSelection(automatic));
+		}
+
+		if (reader.getAttributeCount() > 3) {
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				switch (attributeName) {
+				case ATTRIBUTE_NAME:
+				case ATTRIBUTE_MANUAL:
+				case ATTRIBUTE_AUTOMATIC:
+					break;
+				default:
+					warnings.add(new Problem("Unknown attribute: " + attributeName, lineNumber, Problem.Severity.WARNING));
+					break;
+				}
+			}
+		}
 	}
 
-	private Selection getSelection(String selection, Element feature, List<Problem> warnings) {
+	private Selection getSelection(String selection) {
 		if (selection == null) {
 			return Selection.UNDEFINED;
 		} else {
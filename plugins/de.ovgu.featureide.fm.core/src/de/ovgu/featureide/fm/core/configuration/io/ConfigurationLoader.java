@@ -28,18 +28,34 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 
 /**
- * This class loads all configurations of a given IFeatureModel.
+ * This class loads all configurations of a given IFeatureModel.<br> If more than one thread is used, the files are listed first and then parsed by a fixed
+ * number of worker tasks. The parsed configurations are passed to the callback through a bounded queue. Thus, at most {@link #getQueueCapacity()} parsed
+ * configurations are held in memory, if the callback is slower than the parsing. The callback is always notified by the calling thread, but the order of
+ * the configurations is not deterministic.
  *
  * @author Paul Maximilian Bittner
  * @author Antje Moench
@@ -47,8 +63,57 @@ import de.ovgu.featureide.fm.core.io.manager.FileHandler;
  */
 public class ConfigurationLoader {
 
+	/**
+	 * The default maximal number of parsed configurations that wait for the callback.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+	/**
+	 * Parses a single configuration file. May be called by multiple threads at once.
+	 */
+	private interface IParser<T> {
+
+		/**
+		 * @return the parsed object or {@code null}, if the file contains errors
+		 */
+		T parse(Path file);
+	}
+
+	/**
+	 * Receives parsed configurations. Is always called by the calling thread.
+	 */
+	private interface IReceiver<T> {
+
+		void receive(T object, Path file);
+	}
+
+	/**
+	 * Visits all configuration files of a folder.
+	 */
+	private interface IFileVisitor {
+
+		void visit(Path file);
+	}
+
+	/**
+	 * A parsed configuration that waits in the queue. The object is {@code null}, if the file could not be parsed.
+	 */
+	private static class Entry<T> {
+
+		private final T object;
+		private final Path file;
+
+		public Entry(T object, Path file) {
+			this.object = object;
+			this.file = file;
+		}
+	}
+
 	private final IConfigurationLoaderCallback callback;
 	private boolean propagateConfigs;
+	private boolean collectConfigurations = true;
+	private int numberOfThreads = 1;
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
 
 	public ConfigurationLoader() {
 		this(null);
@@ -74,6 +139,42 @@ public class ConfigurationLoader {
 		this.propagateConfigs = propagateConfigs;
 	}
 
+	/**
+	 * @return If the loaded configurations are returned as list. The default value is true.
+	 */
+	public boolean isCollectingConfigurations() {
+		return collectConfigurations;
+	}
+
+	/**
+	 * @param collectConfigurations If {@code false}, the loaded configurations are only passed to the callback and an empty list is returned.
+	 */
+	public void setCollectConfigurations(boolean collectConfigurations) {
+		this.collectConfigurations = collectConfigurations;
+	}
+
+	/**
+	 * @return The number of threads that parse configuration files. The default value is 1.
+	 */
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * @return The maximal number of parsed configurations that wait for the callback, if more than one thread is used.
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = Math.max(1, queueCapacity);
+	}
+
 	public List<Configuration> loadConfigurations(IFeatureModel featureModel, String path) {
 		return loadConfigurations(featureModel, Paths.get(path));
 	}
@@ -88,34 +189,30 @@ public class ConfigurationLoader {
 
 	public List<Configuration> loadConfigurations(final IFeatureModel featureModel, Path path, final String excludeFile) {
 		final List<Configuration> configs = new ArrayList<>();
-		final HashSet<String> configurationNames = new HashSet<>();
 
 		if (callback != null) {
 			callback.onLoadingStarted();
 		}
 
 		try {
-			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+			load(path, excludeFile, new IParser<Configuration>() {
 
 				@Override
-				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-					final String fileName = file.getFileName().toString();
-					if (!fileName.equals(excludeFile) && !fileName.endsWith("." + new FeatureIDEFormat().getSuffix()) && Files.isReadable(file)
-						&& Files.isRegularFile(file)) {
-						final int extensionIndex = fileName.lastIndexOf('.');
-						final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
-						if (configurationNames.add(configurationName)) {
-							final Configuration currentConfiguration = new Configuration(featureModel, propagateConfigs);
-							final FileHandler<Configuration> fileHandler = ConfigurationManager.load(file, currentConfiguration);
-							if (!fileHandler.getLastProblems().containsError()) {
-								configs.add(currentConfiguration);
-								if (callback != null) {
-									callback.onConfigurationLoaded(currentConfiguration, file);
-								}
-							}
-						}
+				public Configuration parse(Path file) {
+					final Configuration currentConfiguration = new Configuration(featureModel, propagateConfigs);
+					final FileHandler<Configuration> fileHandler = ConfigurationManager.load(file, currentConfiguration);
+					return fileHandler.getLastProblems().containsError() ? null : currentConfiguration;
+				}
+			}, new IReceiver<Configuration>() {
+
+				@Override
+				public void receive(Configuration configuration, Path file) {
+					if (collectConfigurations) {
+						configs.add(configuration);
+					}
+					if (callback != null) {
+						callback.onConfigurationLoaded(configuration, file);
 					}
-					return super.visitFile(file, attrs);
 				}
 			});
 		} catch (final IOException e) {
@@ -132,4 +229,182 @@ public class ConfigurationLoader {
 		return configs;
 	}
 
+	/**
+	 * Loads all configurations as compact selection vectors instead of {@link Configuration} objects. Each thread parses all of its files into the same
+	 * configuration object, such that the memory usage does not depend on the number of files.
+	 *
+	 * @param featureModel the feature model
+	 * @param path the folder that contains the configuration files
+	 * @param excludeFile the name of a file that should not be loaded (may be {@code null})
+	 * @param selectionCallback the callback that receives the selection vectors
+	 */
+	public void loadSelections(final IFeatureModel featureModel, Path path, final String excludeFile, final ISelectionLoaderCallback selectionCallback) {
+		selectionCallback.onLoadingStarted(FeatureUtils.getFeatureNamesPreorder(featureModel));
+
+		final ThreadLocal<Configuration> configurations = new ThreadLocal<Configuration>() {
+
+			@Override
+			protected Configuration initialValue() {
+				return new Configuration(featureModel, propagateConfigs);
+			}
+		};
+		try {
+			load(path, excludeFile, new IParser<BitSet>() {
+
+				@Override
+				public BitSet parse(Path file) {
+					final Configuration configuration = configurations.get();
+					final FileHandler<Configuration> fileHandler = ConfigurationManager.load(file, configuration);
+					if (fileHandler.getLastProblems().containsError()) {
+						return null;
+					}
+					final List<SelectableFeature> features = configuration.getFeatures();
+					final BitSet selection = new BitSet(features.size());
+					for (int i = 0; i < features.size(); i++) {
+						if (features.get(i).getSelection() == Selection.SELECTED) {
+							selection.set(i);
+						}
+					}
+					return selection;
+				}
+			}, new IReceiver<BitSet>() {
+
+				@Override
+				public void receive(BitSet selection, Path file) {
+					selectionCallback.onSelectionLoaded(selection, file);
+				}
+			});
+		} catch (final IOException e) {
+			Logger.logError(e);
+			selectionCallback.onLoadingError(e);
+		}
+
+		selectionCallback.onLoadingFinished();
+	}
+
+	private <T> void load(Path path, final String excludeFile, final IParser<T> parser, final IReceiver<T> receiver) throws IOException {
+		if (numberOfThreads <= 1) {
+			walk(path, excludeFile, new IFileVisitor() {
+
+				@Override
+				public void visit(Path file) {
+					final T object = parser.parse(file);
+					if (object != null) {
+						receiver.receive(object, file);
+					}
+				}
+			});
+			return;
+		}
+
+		final List<Path> files = getConfigurationFiles(path, excludeFile);
+		final BlockingQueue<Entry<T>> queue = new ArrayBlockingQueue<>(queueCapacity);
+		final AtomicInteger nextFile = new AtomicInteger();
+		final int numberOfWorkers = Math.min(numberOfThreads, files.size());
+		final List<Future<Void>> futures = new ArrayList<>(numberOfWorkers);
+		try {
+			for (int i = 0; i < numberOfWorkers; i++) {
+				futures.add(SharedExecutor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws InterruptedException {
+						for (int index = nextFile.getAndIncrement(); index < files.size(); index = nextFile.getAndIncrement()) {
+							final Path file = files.get(index);
+							T object = null;
+							try {
+								object = parser.parse(file);
+							} catch (final Exception e) {
+								Logger.logError(e);
+							} finally {
+								// every claimed file has to be reported, otherwise the calling thread waits for it
+								queue.put(new Entry<>(object, file));
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			for (int received = 0; received < files.size();) {
+				final Entry<T> entry = queue.poll(1, TimeUnit.SECONDS);
+				if (entry != null) {
+					received++;
+					if (entry.object != null) {
+						receiver.receive(entry.object, entry.file);
+					}
+				} else if (isDone(futures) && queue.isEmpty()) {
+					// all workers terminated abnormally
+					break;
+				}
+			}
+			for (final Future<Void> future : futures) {
+				if (future.isDone()) {
+					try {
+						future.get();
+					} catch (final ExecutionException e) {
+						final Throwable cause = e.getCause();
+						if (cause instanceof Error) {
+							throw (Error) cause;
+						}
+						throw new RuntimeException(cause);
+					}
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MethodCancelException();
+		} finally {
+			SharedExecutor.cancel(futures);
+		}
+	}
+
+	private static boolean isDone(List<? extends Future<?>> futures) {
+		for (final Future<?> future : futures) {
+			if (!future.isDone()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns all files in the given folder that are loaded by {@link #loadConfigurations(IFeatureModel, Path, String)} and
+	 * {@link #loadSelections(IFeatureModel, Path, String, ISelectionLoaderCallback)}.
+	 *
+	 * @param path the folder that contains the configuration files
+	 * @param excludeFile the name of a file that should not be loaded (may be {@code null})
+	 * @return the configuration files
+	 * @throws IOException if the folder cannot be read
+	 */
+	public List<Path> getConfigurationFiles(Path path, String excludeFile) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		walk(path, excludeFile, new IFileVisitor() {
+
+			@Override
+			public void visit(Path file) {
+				files.add(file);
+			}
+		});
+		return files;
+	}
+
+	private void walk(Path path, final String excludeFile, final IFileVisitor fileVisitor) throws IOException {
+		final HashSet<String> configurationNames = new HashSet<>();
+		Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				final String fileName = file.getFileName().toString();
+				if (!fileName.equals(excludeFile) && !fileName.endsWith("." + new FeatureIDEFormat().getSuffix()) && Files.isReadable(file)
+					&& Files.isRegularFile(file)) {
+					final int extensionIndex = fileName.lastIndexOf('.');
+					final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
+					if (configurationNames.add(configurationName)) {
+						fileVisitor.visit(file);
+					}
+				}
+				return super.visitFile(file, attrs);
+			}
+		});
+	}
+
 }
@@ -0,0 +1,47 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Callback for {@link ConfigurationLoader#loadSelections}. Gets notified for progress of loading configurations as compact selection vectors.
+ */
+public interface ISelectionLoaderCallback {
+
+	/**
+	 * @param featureNames the names of all features in preorder, which defines the indexes of the selection vectors
+	 */
+	public void onLoadingStarted(List<String> featureNames);
+
+	/**
+	 * @param selection contains the indexes of all selected features
+	 * @param path the path of the configuration file
+	 */
+	public void onSelectionLoaded(BitSet selection, Path path);
+
+	public void onLoadingFinished();
+
+	public void onLoadingError(IOException exception);
+}
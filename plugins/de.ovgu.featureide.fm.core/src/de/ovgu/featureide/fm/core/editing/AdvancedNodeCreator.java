@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -33,6 +34,7 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
+import org.prop4j.solver.ClauseDatabase;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
@@ -55,7 +57,12 @@ import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	public static enum CNFType {
-		None, Compact, Regular
+		None, Compact, Regular,
+		/**
+		 * Regular CNF that is created by a {@link TseitinEncoder}. Constraints are encoded in linear size using auxiliary variables (see
+		 * {@link AdvancedNodeCreator#getAuxiliaryVariables()}). The resulting formula is equisatisfiable to the feature model.
+		 */
+		Tseitin
 	}
 
 	public static enum ModelType {
@@ -79,6 +86,13 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		return new AdvancedNodeCreator(featureModel).createNodes();
 	}
 
+	public static ClauseDatabase createClauseDatabase(IFeatureModel featureModel) {
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(featureModel);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		return nodeCreator.createClauseDatabase();
+	}
+
 	public static Node createNodes(IFeatureModel featureModel, Collection<String> excludedFeatureNames, CNFType cnfType, ModelType modelType,
 			boolean includeBooleanValues) {
 		return new AdvancedNodeCreator(featureModel, excludedFeatureNames, cnfType, modelType, includeBooleanValues).createNodes();
@@ -107,6 +121,9 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private Collection<String> excludedFeatureNames = null;
 
+	/** Encoder for {@link CNFType#Tseitin}; keeps track of the introduced auxiliary variables. */
+	private TseitinEncoder tseitinEncoder = null;
+
 	/** The trace model. */
 	private FeatureModelToNodeTraceModel traceModel;
 	/** True to create the trace model while creating nodes. */
@@ -174,7 +191,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 	 */
 	public Node createConstraintNode(IConstraint constraint, boolean positive) {
 		final List<Node> clauses = createConstraintNodes(constraint, new LinkedList<Node>(), positive);
-		if ((cnfType != CNFType.Regular) && (clauses.size() == 1)) {
+		if ((cnfType != CNFType.Regular) && (cnfType != CNFType.Tseitin) && (clauses.size() == 1)) {
 			return clauses.get(0);
 		}
 		return new And(clauses.toArray(new Node[clauses.size()]));
@@ -202,6 +219,15 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 				traceModel.addTraceConstraint(constraint);
 			}
 			break;
+		case Tseitin:
+			final int oldSize = clauses.size();
+			getTseitinEncoder().encode(clause, positive, clauses);
+			if (isRecordingTraceModel()) {
+				for (int i = clauses.size() - oldSize; i > 0; i--) {
+					traceModel.addTraceConstraint(constraint);
+				}
+			}
+			break;
 		case Regular:
 			compact = false;
 		case Compact:
@@ -239,6 +265,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 			final Or emptyNode = includeBooleanValues ? new Or(new Literal(NodeCreator.varTrue), new Literal(NodeCreator.varFalse, false)) : new Or();
 			switch (cnfType) {
 			case Regular:
+			case Tseitin:
 				return new And(emptyNode);
 			case None:
 			case Compact:
@@ -248,12 +275,133 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		}
 
 		monitor.setRemainingWork(10);
+		tseitinEncoder = null;
 		final Node[] basicFormula = createFormula(monitor.subTask(1));
 		final Node newFormula = removeFeatures(basicFormula, monitor.subTask(9));
 
 		return newFormula;
 	}
 
+	public ClauseDatabase createClauseDatabase() {
+		return createClauseDatabase(new NullMonitor());
+	}
+
+	/**
+	 * Creates the CNF of the feature model as a {@link ClauseDatabase}. The variables are numbered in preorder of the features, followed by <b>True</b> and
+	 * <b>False</b> (if {@link #includeBooleanValues()}) and all auxiliary variables.</br> The clauses of the feature tree are added to the database directly,
+	 * only constraints are converted via {@link Node nodes}. If features are excluded or a trace model is recorded, the CNF is created by
+	 * {@link #createNodes(IMonitor)} and converted afterwards.
+	 *
+	 * @param monitor the monitor
+	 * @return the clause database
+	 *
+	 * @throws IllegalStateException if the CNF type is neither {@link CNFType#Regular} nor {@link CNFType#Tseitin}
+	 */
+	public ClauseDatabase createClauseDatabase(IMonitor monitor) {
+		if ((cnfType != CNFType.Regular) && (cnfType != CNFType.Tseitin)) {
+			throw new IllegalStateException("Clause databases require a regular CNF, but CNF type is " + cnfType);
+		}
+		if ((featureModel == null) || ((excludedFeatureNames != null) && !excludedFeatureNames.isEmpty()) || isRecordingTraceModel()) {
+			final Node cnf = createNodes(monitor);
+			final ClauseDatabase clauses = new ClauseDatabase(getVariableNames(), getAuxiliaryVariables());
+			clauses.addCNF(cnf);
+			return clauses;
+		}
+
+		monitor.setRemainingWork(2);
+		monitor.setTaskName("Creating Formula");
+		tseitinEncoder = null;
+		final boolean structure = (modelType == ModelType.All) || (modelType == ModelType.OnlyStructure);
+		final boolean constraints = (modelType == ModelType.All) || (modelType == ModelType.OnlyConstraints);
+
+		// auxiliary variables are only known after all constraints are encoded
+		final Node[] constraintClauses = constraints ? createConstraintNodes().getChildren() : new Node[0];
+		monitor.step();
+
+		final ClauseDatabase clauses = new ClauseDatabase(getVariableNames(), getAuxiliaryVariables());
+		if (structure) {
+			addStructuralClauses(clauses);
+		}
+		for (final Node clause : constraintClauses) {
+			clauses.addClause(clause);
+		}
+		if (includeBooleanValues) {
+			clauses.addClause(clauses.getVariable(NodeCreator.varTrue));
+			clauses.addClause(-clauses.getVariable(NodeCreator.varFalse));
+		}
+		monitor.step();
+		return clauses;
+	}
+
+	private List<String> getVariableNames() {
+		final List<String> variables = new ArrayList<>();
+		if (featureModel != null) {
+			for (final IFeature feature : FeatureUtils.getFeaturesPreorder(featureModel)) {
+				final String name = getVariable(feature).toString();
+				if ((excludedFeatureNames == null) || !excludedFeatureNames.contains(name)) {
+					variables.add(name);
+				}
+			}
+		}
+		if (includeBooleanValues) {
+			variables.add(NodeCreator.varTrue.toString());
+			variables.add(NodeCreator.varFalse.toString());
+		}
+		return variables;
+	}
+
+	/**
+	 * Adds the same clauses as {@link #createStructuralNodes()} (in the same order) to the given database.
+	 */
+	private void addStructuralClauses(ClauseDatabase clauses) {
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root == null) {
+			return;
+		}
+		if (!optionalRoot) {
+			clauses.addClause(getVariable(clauses, root));
+		}
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final int featureVariable = getVariable(clauses, feature);
+			final List<IFeatureStructure> children = feature.getStructure().getChildren();
+			for (final IFeatureStructure child : children) {
+				clauses.addClause(featureVariable, -getVariable(clauses, child.getFeature()));
+			}
+
+			if (feature.getStructure().hasChildren()) {
+				if (feature.getStructure().isAnd()) {
+					for (final IFeatureStructure child : children) {
+						if (child.isMandatory()) {
+							clauses.addClause(getVariable(clauses, child.getFeature()), -featureVariable);
+						}
+					}
+				} else {
+					final int[] childVariables = new int[children.size()];
+					int i = 0;
+					for (final IFeatureStructure child : children) {
+						childVariables[i++] = getVariable(clauses, child.getFeature());
+					}
+					if (feature.getStructure().isOr() || feature.getStructure().isAlternative()) {
+						final int[] orClause = Arrays.copyOf(childVariables, childVariables.length + 1);
+						orClause[childVariables.length] = -featureVariable;
+						clauses.addClause(orClause);
+					}
+					if (feature.getStructure().isAlternative()) {
+						for (int j = 0; j < childVariables.length; j++) {
+							for (int k = j + 1; k < childVariables.length; k++) {
+								clauses.addClause(-childVariables[j], -childVariables[k]);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private int getVariable(ClauseDatabase clauses, IFeature feature) {
+		return clauses.getVariable(getVariable(feature));
+	}
+
 	private Node[] createFormula(IMonitor monitor) {
 		monitor.setTaskName("Creating Formula");
 		monitor.setRemainingWork(2);
@@ -287,6 +435,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 			switch (cnfType) {
 			case Regular:
+			case Tseitin:
 				nodeArray[length] = new Or(new Literal[] { new Literal(NodeCreator.varTrue) });
 				nodeArray[length + 1] = new Or(new Literal[] { new Literal(NodeCreator.varFalse, false) });
 				break;
@@ -309,7 +458,8 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private Node removeFeatures(final Node[] nodeArray, IMonitor monitor) {
 		if ((excludedFeatureNames != null) && !excludedFeatureNames.isEmpty()) {
-			final FeatureRemover remover = new FeatureRemover(new And(nodeArray), excludedFeatureNames, includeBooleanValues, cnfType == CNFType.Regular);
+			final FeatureRemover remover = new FeatureRemover(new And(nodeArray), excludedFeatureNames, includeBooleanValues,
+					(cnfType == CNFType.Regular) || (cnfType == CNFType.Tseitin));
 			return remover.createNewClauseList(LongRunningWrapper.runMethod(remover, monitor));
 		} else {
 			return new And(nodeArray);
@@ -326,6 +476,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 				clause = getLiteral(root, true);
 				switch (cnfType) {
 				case Regular:
+				case Tseitin:
 					clause = new Or(clause);
 					break;
 				case None:
@@ -415,6 +566,29 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		return new And(new Node[0]);
 	}
 
+	private TseitinEncoder getTseitinEncoder() {
+		if (tseitinEncoder == null) {
+			final HashSet<String> variableNames = new HashSet<>();
+			for (final IFeature feature : featureModel.getFeatures()) {
+				variableNames.add(feature.getName());
+				variableNames.add(getVariable(feature).toString());
+			}
+			tseitinEncoder = new TseitinEncoder(variableNames);
+		}
+		return tseitinEncoder;
+	}
+
+	/**
+	 * Returns the names of all auxiliary variables that were introduced by the last call of {@link #createNodes()} (or the calls of
+	 * {@link #createConstraintNode(IConstraint)} since then). Auxiliary variables only occur if the CNF type is {@link CNFType#Tseitin}. They should be passed
+	 * to a {@link org.prop4j.solver.SatInstance SatInstance} to hide them from analyses.
+	 *
+	 * @return list of variable names; not null
+	 */
+	public List<String> getAuxiliaryVariables() {
+		return tseitinEncoder == null ? Collections.<String> emptyList() : tseitinEncoder.getAuxiliaryVariables();
+	}
+
 	private Literal getLiteral(IFeature feature, boolean positive) {
 		return new Literal(getVariable(feature), positive);
 	}
@@ -472,6 +646,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 	public void setFeatureModel(IFeatureModel featureModel, Collection<String> excludedFeatureNames) {
 		this.featureModel = featureModel;
 		this.excludedFeatureNames = excludedFeatureNames;
+		tseitinEncoder = null;
 		traceModel = isRecordingTraceModel() ? new FeatureModelToNodeTraceModel() : null; // Reset the trace model.
 	}
 
@@ -28,6 +28,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.prop4j.And;
+import org.prop4j.Formula;
+import org.prop4j.FormulaFactory;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
@@ -80,6 +82,9 @@ public class ModelComparator {
 
 	private ExampleCalculator removedProducts;
 
+	/** Interns the compared formulas, such that identical rules are detected in constant time. */
+	private FormulaFactory formulaFactory;
+
 	public ModelComparator(long timeout) {
 		this(timeout, 3);
 	}
@@ -100,6 +105,7 @@ public class ModelComparator {
 	public Comparison compare(IFeatureModel oldModel, IFeatureModel newModel) {
 		this.oldModel = oldModel;
 		this.newModel = newModel;
+		formulaFactory = new FormulaFactory();
 		try {
 			addedFeatures = calculateAddedFeatures(oldModel, newModel);
 			deletedFeatures = calculateAddedFeatures(newModel, oldModel);
@@ -166,7 +172,7 @@ public class ModelComparator {
 			if (newMap.containsKey(var)) {
 				final Node oldRepl = entry.getValue();
 				final Node newRepl = newMap.get(var);
-				if ((oldRepl != null) && oldRepl.equals(newRepl)) {
+				if ((oldRepl != null) && (newRepl != null) && (formulaFactory.intern(oldRepl) == formulaFactory.intern(newRepl))) {
 					toBeRemoved.add(var);
 				}
 			}
@@ -199,9 +205,13 @@ public class ModelComparator {
 		if (!strategy.contains(Strategy.WithoutIdenticalRules)) {
 			return node;
 		}
+		final Set<Formula> referenceFormulas = new HashSet<>();
+		for (final Node referenceChild : referenceNode.getChildren()) {
+			referenceFormulas.add(formulaFactory.intern(referenceChild));
+		}
 		final LinkedList<Node> updatedNodes = new LinkedList<Node>();
 		for (final Node child : node.getChildren()) {
-			if (!containedIn(child, referenceNode.getChildren())) {
+			if (!referenceFormulas.contains(formulaFactory.intern(child))) {
 				updatedNodes.add(child);
 			}
 		}
@@ -224,15 +234,6 @@ public class ModelComparator {
 		return !example.findSatisfiable(strategy.contains(Strategy.SingleTestingAborted));
 	}
 
-	private boolean containedIn(Node node, Node[] nodes) {
-		for (final Node child : nodes) {
-			if (node.equals(child)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	public Configuration calculateExample(boolean added) throws TimeoutException {
 		return added ? addedProducts.nextExample() : removedProducts.nextExample();
 	}
@@ -0,0 +1,233 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.NodeWriter;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+/**
+ * Transforms arbitrary formulas into an equisatisfiable CNF using the Plaisted-Greenbaum variant of the Tseitin encoding.<br> Each compound subformula is
+ * replaced by an auxiliary variable that implies the subformula (or is implied by it, depending on its polarity). Thus, the number of clauses is linear in
+ * the size of the formula, whereas the distributive transformation of {@link Node#toRegularCNF()} may grow exponentially. Clauses and literals at the top
+ * level of a formula are emitted directly without auxiliary variables. Cardinality operators are expanded into conjunctions and disjunctions before encoding.
+ * <br> Every solution of the resulting CNF is a solution of the original formula (when restricted to the original variables) and every solution of the
+ * original formula can be extended to a solution of the CNF.
+ */
+public class TseitinEncoder {
+
+	public static final String DEFAULT_PREFIX = "__aux_";
+
+	private static final int POSITIVE = 1;
+	private static final int NEGATIVE = 2;
+	private static final int BOTH = POSITIVE | NEGATIVE;
+
+	private static final String[] CARDINALITY_SYMBOLS =
+		new String[] { "-", "&", "|", "=>", "<=>", ", ", NodeWriter.noSymbol, NodeWriter.noSymbol, NodeWriter.noSymbol };
+
+	private final List<String> auxiliaryVariables = new ArrayList<>();
+	private final Collection<?> reservedNames;
+	private final String prefix;
+
+	private int counter = 0;
+
+	public TseitinEncoder() {
+		this(Collections.emptySet());
+	}
+
+	/**
+	 * @param reservedNames variable names that must not be used for auxiliary variables (e.g., all feature names)
+	 */
+	public TseitinEncoder(Collection<?> reservedNames) {
+		this(reservedNames, DEFAULT_PREFIX);
+	}
+
+	public TseitinEncoder(Collection<?> reservedNames, String prefix) {
+		this.reservedNames = reservedNames;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Returns the names of all auxiliary variables that were introduced by this encoder in the order of their creation.
+	 *
+	 * @return list of variable names
+	 */
+	public List<String> getAuxiliaryVariables() {
+		return Collections.unmodifiableList(auxiliaryVariables);
+	}
+
+	/**
+	 * Encodes the given formula and adds the resulting clauses to the given list. Each clause is an {@link Or} of {@link Literal literals}.
+	 *
+	 * @param node the formula to encode; is not modified
+	 * @param positive false to encode the negation of the formula
+	 * @param clauses clauses to add to; out variable
+	 * @return given clauses plus new clauses
+	 */
+	public List<Node> encode(Node node, boolean positive, List<Node> clauses) {
+		if (node instanceof Literal) {
+			clauses.add(new Or(getLiteral((Literal) node, positive)));
+		} else if (node instanceof Not) {
+			encode(node.getChildren()[0], !positive, clauses);
+		} else if (((node instanceof And) && positive) || ((node instanceof Or) && !positive)) {
+			for (final Node child : node.getChildren()) {
+				encode(child, positive, clauses);
+			}
+		} else if ((node instanceof Implies) && !positive) {
+			encode(node.getChildren()[0], true, clauses);
+			encode(node.getChildren()[1], false, clauses);
+		} else {
+			final List<Literal> literals = new ArrayList<>();
+			collectClause(node, positive, literals, clauses);
+			clauses.add(new Or(literals.toArray(new Literal[literals.size()])));
+		}
+		return clauses;
+	}
+
+	/**
+	 * Collects the literals of a single clause that represents the given formula. Nested disjunctions are flattened into the clause.
+	 */
+	private void collectClause(Node node, boolean positive, List<Literal> literals, List<Node> clauses) {
+		if (node instanceof Literal) {
+			literals.add(getLiteral((Literal) node, positive));
+		} else if (node instanceof Not) {
+			collectClause(node.getChildren()[0], !positive, literals, clauses);
+		} else if (((node instanceof Or) && positive) || ((node instanceof And) && !positive)) {
+			for (final Node child : node.getChildren()) {
+				collectClause(child, positive, literals, clauses);
+			}
+		} else if ((node instanceof Implies) && positive) {
+			collectClause(node.getChildren()[0], false, literals, clauses);
+			collectClause(node.getChildren()[1], true, literals, clauses);
+		} else {
+			literals.add(getLiteral(define(node, positive ? POSITIVE : NEGATIVE, clauses), positive));
+		}
+	}
+
+	/**
+	 * Returns a literal that represents the given formula. If the polarity contains {@link #POSITIVE}, the literal implies the formula. If the polarity
+	 * contains {@link #NEGATIVE}, the formula implies the literal.
+	 */
+	private Literal define(Node node, int polarity, List<Node> clauses) {
+		if (node instanceof Literal) {
+			return (Literal) node;
+		} else if (node instanceof Not) {
+			return getLiteral(define(node.getChildren()[0], invert(polarity), clauses), false);
+		} else if ((node instanceof And) || (node instanceof Or)) {
+			final boolean and = node instanceof And;
+			final Node[] children = node.getChildren();
+			final Literal[] childLiterals = new Literal[children.length];
+			for (int i = 0; i < children.length; i++) {
+				childLiterals[i] = define(children[i], polarity, clauses);
+			}
+			if (childLiterals.length == 1) {
+				return childLiterals[0];
+			}
+			final Literal auxiliary = createAuxiliaryVariable();
+			// for an And node: a => ci (strong), -a => -(c1 & ... & cn) (weak); vice versa for an Or node
+			final int strongPolarity = and ? POSITIVE : NEGATIVE;
+			if ((polarity & strongPolarity) != 0) {
+				for (final Literal childLiteral : childLiterals) {
+					clauses.add(new Or(getLiteral(auxiliary, !and), getLiteral(childLiteral, and)));
+				}
+			}
+			if ((polarity & invert(strongPolarity)) != 0) {
+				final Literal[] literals = new Literal[childLiterals.length + 1];
+				for (int i = 0; i < childLiterals.length; i++) {
+					literals[i] = getLiteral(childLiterals[i], !and);
+				}
+				literals[childLiterals.length] = getLiteral(auxiliary, and);
+				clauses.add(new Or(literals));
+			}
+			return auxiliary;
+		} else if (node instanceof Implies) {
+			final Node[] children = node.getChildren();
+			final Literal left = define(children[0], invert(polarity), clauses);
+			final Literal right = define(children[1], polarity, clauses);
+			final Literal auxiliary = createAuxiliaryVariable();
+			if ((polarity & POSITIVE) != 0) {
+				clauses.add(new Or(getLiteral(auxiliary, false), getLiteral(left, false), right.clone()));
+			}
+			if ((polarity & NEGATIVE) != 0) {
+				clauses.add(new Or(auxiliary.clone(), left.clone()));
+				clauses.add(new Or(auxiliary.clone(), getLiteral(right, false)));
+			}
+			return auxiliary;
+		} else if (node instanceof Equals) {
+			final Node[] children = node.getChildren();
+			final Literal left = define(children[0], BOTH, clauses);
+			final Literal right = define(children[1], BOTH, clauses);
+			final Literal auxiliary = createAuxiliaryVariable();
+			if ((polarity & POSITIVE) != 0) {
+				clauses.add(new Or(getLiteral(auxiliary, false), getLiteral(left, false), right.clone()));
+				clauses.add(new Or(getLiteral(auxiliary, false), left.clone(), getLiteral(right, false)));
+			}
+			if ((polarity & NEGATIVE) != 0) {
+				clauses.add(new Or(auxiliary.clone(), left.clone(), right.clone()));
+				clauses.add(new Or(auxiliary.clone(), getLiteral(left, false), getLiteral(right, false)));
+			}
+			return auxiliary;
+		} else if ((node instanceof Choose) || (node instanceof AtLeast) || (node instanceof AtMost)) {
+			// children are encoded once, the cardinality expansion only refers to their literals
+			final Node[] children = node.getChildren();
+			final Node[] childLiterals = new Node[children.length];
+			for (int i = 0; i < children.length; i++) {
+				childLiterals[i] = define(children[i], BOTH, clauses);
+			}
+			final Node cardinalityNode = node.clone();
+			cardinalityNode.setChildren(childLiterals);
+			return define(cardinalityNode.eliminateNotSupportedSymbols(CARDINALITY_SYMBOLS), polarity, clauses);
+		} else {
+			throw new IllegalArgumentException("Unsupported node type: " + node.getClass().getSimpleName());
+		}
+	}
+
+	private static int invert(int polarity) {
+		return ((polarity & POSITIVE) != 0 ? NEGATIVE : 0) | ((polarity & NEGATIVE) != 0 ? POSITIVE : 0);
+	}
+
+	private static Literal getLiteral(Literal literal, boolean positive) {
+		return new Literal(literal.var, positive == literal.positive);
+	}
+
+	private Literal createAuxiliaryVariable() {
+		String name;
+		do {
+			name = prefix + counter++;
+		} while (reservedNames.contains(name));
+		auxiliaryVariables.add(name);
+		return new Literal(name);
+	}
+
+}
@@ -29,6 +29,7 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
 import org.prop4j.SatSolver;
+import org.prop4j.solver.ClauseDatabase;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
 import org.sat4j.specs.ContradictionException;
@@ -126,6 +127,37 @@ public class CNFSolver implements ICNFSolver {
 		}
 	}
 
+	/**
+	 * Creates a solver for the given clauses. The variables of the solver are numbered as in the database.
+	 *
+	 * @param clauses the clause database
+	 */
+	public CNFSolver(ClauseDatabase clauses) {
+		final int size = clauses.getNumberOfVariables();
+		varToInt = new HashMap<Object, Integer>(size << 1);
+		for (int i = 1; i <= size; i++) {
+			varToInt.put(clauses.getVariableObject(i), i);
+		}
+		solver = createSolver(size);
+		try {
+			final int numberOfClauses = clauses.getNumberOfClauses();
+			final VecInt clause = new VecInt();
+			for (int i = 0; i < numberOfClauses; i++) {
+				solver.addClause(clauses.getClause(i, clause));
+			}
+			if (size > 0) {
+				final VecInt pseudoClause = new VecInt(size + 1);
+				for (int i = 1; i <= size; i++) {
+					pseudoClause.push(i);
+				}
+				pseudoClause.push(-1);
+				solver.addClause(pseudoClause);
+			}
+		} catch (final ContradictionException e) {
+			notSolveable = true;
+		}
+	}
+
 	public CNFSolver(Collection<? extends Clause> clauses, int size) {
 		solver = createSolver(size);
 		addClauses(clauses);
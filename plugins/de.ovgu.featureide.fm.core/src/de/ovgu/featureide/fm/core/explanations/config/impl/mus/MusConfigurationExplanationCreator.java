@@ -47,7 +47,7 @@ public abstract class MusConfigurationExplanationCreator<S, E extends Configurat
 	 */
 	protected MusConfigurationExplanationCreator(SatSolverFactory solverFactory) {
 		if (solverFactory == null) {
-			solverFactory = SatSolverFactory.getDefault();
+			solverFactory = SatSolverFactory.getExplanationDefault();
 		}
 		this.solverFactory = solverFactory;
 	}
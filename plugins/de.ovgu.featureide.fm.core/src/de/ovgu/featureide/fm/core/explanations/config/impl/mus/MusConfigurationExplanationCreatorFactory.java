@@ -51,7 +51,7 @@ public class MusConfigurationExplanationCreatorFactory extends ConfigurationExpl
 	 */
 	public MusConfigurationExplanationCreatorFactory(SatSolverFactory solverFactory) {
 		if (solverFactory == null) {
-			solverFactory = SatSolverFactory.getDefault();
+			solverFactory = SatSolverFactory.getExplanationDefault();
 		}
 		this.solverFactory = solverFactory;
 	}
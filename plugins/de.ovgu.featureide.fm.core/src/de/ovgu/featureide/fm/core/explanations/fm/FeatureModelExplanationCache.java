@@ -0,0 +1,71 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+
+/**
+ * Stores explanations for defects of one feature model together with the revision of the feature model they were computed for. Explanations of an older
+ * revision are discarded as soon as explanations of a newer revision are added, and are never returned for a different revision.
+ */
+public class FeatureModelExplanationCache {
+
+	private final Map<IFeatureModelElement, FeatureModelExplanation<?>> explanations = new HashMap<>();
+
+	private long revision = -1;
+
+	/**
+	 * Returns the stored explanation for the given element.
+	 *
+	 * @param element the defect feature model element
+	 * @param revision the current revision of the feature model
+	 * @return the explanation or {@code null} if there is none for the given revision
+	 */
+	public synchronized FeatureModelExplanation<?> get(IFeatureModelElement element, long revision) {
+		return this.revision == revision ? explanations.get(element) : null;
+	}
+
+	/**
+	 * Stores the given explanations. If the revision differs from the revision of the stored explanations, all stored explanations are removed first.
+	 *
+	 * @param newExplanations the explanations by their subject
+	 * @param revision the revision of the feature model the explanations were computed for
+	 */
+	public synchronized void putAll(Map<? extends IFeatureModelElement, ? extends FeatureModelExplanation<?>> newExplanations, long revision) {
+		if (this.revision != revision) {
+			explanations.clear();
+			this.revision = revision;
+		}
+		explanations.putAll(newExplanations);
+	}
+
+	/**
+	 * Removes all stored explanations.
+	 */
+	public synchronized void clear() {
+		explanations.clear();
+		revision = -1;
+	}
+
+}
@@ -0,0 +1,238 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Computes explanations for all given defects of a feature model in one pass.<br> Each parallel worker uses one explanation creator per defect type. Thus,
+ * the CNF and the oracle of a creator are built once per worker and reused for all defects of its type, which are explained incrementally by pushing and
+ * popping the assumptions and constraints of each defect. The defects are explained by tasks of the {@link SharedExecutor}.<br> The explanations are stored in a {@link FeatureModelExplanationCache} for the revision of the
+ * feature model the job was created for.
+ */
+public class FeatureModelExplanationJob implements LongRunningMethod<Map<IFeatureModelElement, FeatureModelExplanation<?>>> {
+
+	/**
+	 * Explanation creators of one worker.
+	 */
+	private class Creators {
+
+		private DeadFeatureExplanationCreator deadFeatureExplanationCreator;
+		private FalseOptionalFeatureExplanationCreator falseOptionalFeatureExplanationCreator;
+		private RedundantConstraintExplanationCreator redundantConstraintExplanationCreator;
+
+		FeatureModelExplanation<?> getExplanation(IFeatureModelElement defect, boolean dead) {
+			if (defect instanceof IConstraint) {
+				if (redundantConstraintExplanationCreator == null) {
+					redundantConstraintExplanationCreator = factory.getRedundantConstraintExplanationCreator();
+					redundantConstraintExplanationCreator.setFeatureModel(fm);
+				}
+				redundantConstraintExplanationCreator.setSubject((IConstraint) defect);
+				return redundantConstraintExplanationCreator.getExplanation();
+			} else if (dead) {
+				if (deadFeatureExplanationCreator == null) {
+					deadFeatureExplanationCreator = factory.getDeadFeatureExplanationCreator();
+					deadFeatureExplanationCreator.setFeatureModel(fm);
+				}
+				deadFeatureExplanationCreator.setSubject((IFeature) defect);
+				return deadFeatureExplanationCreator.getExplanation();
+			} else {
+				if (falseOptionalFeatureExplanationCreator == null) {
+					falseOptionalFeatureExplanationCreator = factory.getFalseOptionalFeatureExplanationCreator();
+					falseOptionalFeatureExplanationCreator.setFeatureModel(fm);
+				}
+				falseOptionalFeatureExplanationCreator.setSubject((IFeature) defect);
+				return falseOptionalFeatureExplanationCreator.getExplanation();
+			}
+		}
+	}
+
+	private final IFeatureModel fm;
+	private final FeatureModelExplanationCreatorFactory factory;
+	private final FeatureModelExplanationCache cache;
+	private final long revision;
+
+	private Collection<IFeature> deadFeatures = Collections.emptyList();
+	private Collection<IFeature> falseOptionalFeatures = Collections.emptyList();
+	private Collection<IConstraint> redundantConstraints = Collections.emptyList();
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Constructs a new instance of this class.
+	 *
+	 * @param fm the feature model containing the defects; not null
+	 * @param factory the factory used to create the explanation creators; not null
+	 * @param cache the cache for the results; may be null
+	 * @param revision the revision of the feature model used as key for the cache
+	 */
+	public FeatureModelExplanationJob(IFeatureModel fm, FeatureModelExplanationCreatorFactory factory, FeatureModelExplanationCache cache, long revision) {
+		this.fm = fm;
+		this.factory = factory;
+		this.cache = cache;
+		this.revision = revision;
+	}
+
+	public void setDeadFeatures(Collection<IFeature> deadFeatures) {
+		this.deadFeatures = deadFeatures;
+	}
+
+	public void setFalseOptionalFeatures(Collection<IFeature> falseOptionalFeatures) {
+		this.falseOptionalFeatures = falseOptionalFeatures;
+	}
+
+	public void setRedundantConstraints(Collection<IConstraint> redundantConstraints) {
+		this.redundantConstraints = redundantConstraints;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return the explanations by their subject; defects that cannot be explained are omitted
+	 */
+	@Override
+	public Map<IFeatureModelElement, FeatureModelExplanation<?>> execute(IMonitor monitor) throws Exception {
+		final Set<IFeature> deadFeatureSet = new LinkedHashSet<>(deadFeatures);
+		final List<IFeatureModelElement> defects = new ArrayList<>(deadFeatureSet.size() + falseOptionalFeatures.size() + redundantConstraints.size());
+		defects.addAll(deadFeatureSet);
+		for (final IFeature feature : falseOptionalFeatures) {
+			if (!deadFeatureSet.contains(feature)) {
+				defects.add(feature);
+			}
+		}
+		defects.addAll(redundantConstraints);
+
+		final FeatureModelExplanation<?>[] results = new FeatureModelExplanation<?>[defects.size()];
+		monitor.setRemainingWork(defects.size());
+
+		final int threads = Math.min(numberOfThreads, defects.size());
+		if (threads <= 1) {
+			final Creators creators = new Creators();
+			for (int i = 0; i < defects.size(); i++) {
+				monitor.checkCancel();
+				results[i] = explain(creators, defects.get(i), deadFeatureSet);
+				monitor.step();
+			}
+		} else {
+			// at most one defect per worker is submitted, thus, creators are always available
+			final BlockingQueue<Creators> workerCreators = new ArrayBlockingQueue<>(threads);
+			for (int i = 0; i < threads; i++) {
+				workerCreators.add(new Creators());
+			}
+			final CompletionService<Integer> completionService = new ExecutorCompletionService<>(SharedExecutor.getExecutor());
+			final List<Future<Integer>> futures = new ArrayList<>(defects.size());
+			try {
+				int submitted = 0;
+				for (; submitted < threads; submitted++) {
+					futures.add(completionService.submit(createTask(workerCreators, defects, deadFeatureSet, results, submitted)));
+				}
+				for (int finished = 0; finished < defects.size(); finished++) {
+					monitor.checkCancel();
+					try {
+						completionService.take().get();
+					} catch (final ExecutionException e) {
+						throw new RuntimeException(e.getCause());
+					}
+					monitor.step();
+					if (submitted < defects.size()) {
+						futures.add(completionService.submit(createTask(workerCreators, defects, deadFeatureSet, results, submitted++)));
+					}
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MethodCancelException();
+			} finally {
+				SharedExecutor.cancel(futures);
+			}
+		}
+
+		final Map<IFeatureModelElement, FeatureModelExplanation<?>> explanations = new LinkedHashMap<>();
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != null) {
+				explanations.put(defects.get(i), results[i]);
+			}
+		}
+		if (cache != null) {
+			cache.putAll(explanations, revision);
+		}
+		return explanations;
+	}
+
+	private static Callable<Integer> createTask(final BlockingQueue<Creators> workerCreators, final List<IFeatureModelElement> defects,
+			final Set<IFeature> deadFeatures, final FeatureModelExplanation<?>[] results, final int i) {
+		return new Callable<Integer>() {
+
+			@Override
+			public Integer call() throws Exception {
+				final Creators creators = workerCreators.take();
+				try {
+					results[i] = explain(creators, defects.get(i), deadFeatures);
+				} finally {
+					workerCreators.add(creators);
+				}
+				return i;
+			}
+		};
+	}
+
+	private static FeatureModelExplanation<?> explain(Creators creators, IFeatureModelElement defect, Set<IFeature> deadFeatures) {
+		try {
+			return creators.getExplanation(defect, deadFeatures.contains(defect));
+		} catch (final IllegalStateException e) {
+			// the element is not defect (anymore)
+			Logger.logError(e);
+			return null;
+		}
+	}
+
+}
@@ -47,7 +47,7 @@ public abstract class MusFeatureModelExplanationCreator<S, E extends FeatureMode
 	 */
 	protected MusFeatureModelExplanationCreator(SatSolverFactory solverFactory) {
 		if (solverFactory == null) {
-			solverFactory = SatSolverFactory.getDefault();
+			solverFactory = SatSolverFactory.getExplanationDefault();
 		}
 		this.solverFactory = solverFactory;
 	}
@@ -53,7 +53,7 @@ public class MusFeatureModelExplanationCreatorFactory extends FeatureModelExplan
 	 */
 	public MusFeatureModelExplanationCreatorFactory(SatSolverFactory solverFactory) {
 		if (solverFactory == null) {
-			solverFactory = SatSolverFactory.getDefault();
+			solverFactory = SatSolverFactory.getExplanationDefault();
 		}
 		this.solverFactory = solverFactory;
 	}
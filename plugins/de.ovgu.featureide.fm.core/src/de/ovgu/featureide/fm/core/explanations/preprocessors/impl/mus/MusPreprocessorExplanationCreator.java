@@ -47,7 +47,7 @@ public abstract class MusPreprocessorExplanationCreator<S, E extends Preprocesso
 	 */
 	protected MusPreprocessorExplanationCreator(SatSolverFactory solverFactory) {
 		if (solverFactory == null) {
-			solverFactory = SatSolverFactory.getDefault();
+			solverFactory = SatSolverFactory.getExplanationDefault();
 		}
 		this.solverFactory = solverFactory;
 	}
@@ -51,7 +51,7 @@ public class MusPreprocessorExplanationCreatorFactory extends PreprocessorExplan
 	 */
 	public MusPreprocessorExplanationCreatorFactory(SatSolverFactory solverFactory) {
 		if (solverFactory == null) {
-			solverFactory = SatSolverFactory.getDefault();
+			solverFactory = SatSolverFactory.getExplanationDefault();
 		}
 		this.solverFactory = solverFactory;
 	}
@@ -20,6 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
 /**
  * Reads / Writes a feature order file.
  *
@@ -37,11 +41,39 @@ public abstract class APersistentFormat<T> implements IPersistentFormat<T> {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Reads the complete source into memory and delegates to {@link #read(Object, CharSequence)}.<br/> Formats that are able to process their content
+	 * incrementally should override this method.
+	 */
+	@Override
+	public ProblemList read(T object, Reader source) {
+		final StringBuilder content = new StringBuilder();
+		final char[] buffer = new char[8192];
+		try {
+			for (int length; (length = source.read(buffer)) >= 0;) {
+				content.append(buffer, 0, length);
+			}
+		} catch (final IOException e) {
+			final ProblemList problems = new ProblemList();
+			problems.add(new Problem(e));
+			return problems;
+		}
+		return read(object, content);
+	}
+
 	@Override
 	public String write(T object) {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Delegates to {@link #write(Object)}.<br/> Formats that are able to produce their content incrementally should override this method.
+	 */
+	@Override
+	public void write(T object, Writer target) throws IOException {
+		target.write(write(object));
+	}
+
 	@Override
 	public boolean supportsRead() {
 		return false;
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.io;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.LinkedList;
@@ -89,6 +90,11 @@ public class EclipseFileSystem implements IFileSystem {
 		return Files.readAllBytes(path);
 	}
 
+	@Override
+	public ReadableByteChannel openRead(Path path) throws IOException {
+		return JAVA.openRead(path);
+	}
+
 	@Override
 	public void mkDir(Path path) throws IOException {
 		IContainer container = ResourcesPlugin.getWorkspace().getRoot().getContainerForLocation(getIPath(path));
@@ -20,69 +20,217 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.prop4j.solver.ClauseDatabase;
+import org.prop4j.solver.SatInstance;
 
-import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.MappedFeatureGraph;
 
 /**
- * Reads / Writes a feature graph.
- *
- * @author Sebastian Krieter
+ * Reads / Writes a feature graph.</br> The graph is stored in a binary format (all numbers are big-endian): <ol> <li>Header: magic number, version</li>
+ * <li>Variable index: number of variables n, number of auxiliary variables a, n variable names (length in bytes followed by the UTF-8 encoded name), number of
+ * indices m, m feature indices (mapping of variables to features of the graph)</li> <li>Clauses: number of clauses c, number of literals l, c + 1 clause
+ * offsets, l literals</li> <li>Adjacency: number of features s, number of edges e, s + 1 row offsets, e neighbor indices (ascending for each feature), e
+ * edge types</li> </ol> As the adjacency is stored sparsely, reading a graph only maps the file into memory and decodes the variable index. Edges are read
+ * on demand, such that the load time does not depend on the density of the graph. The clauses are decoded when reading, such that the graph provides the
+ * same {@link SatInstance} as the written one.</br> A graph is written to a temporary file first, which then replaces the target file. Thus, graphs that are
+ * still mapped from a previous version of the file remain valid.</br> As the content is binary, graphs can only be read and written via
+ * {@link #read(Path)} and {@link #write(IFeatureGraph, Path)}.
  */
 public class FeatureGraphFormat extends APersistentFormat<IFeatureGraph> implements IFeatureGraphFormat {
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fg." + FeatureGraphFormat.class.getSimpleName();
 
-	@Override
-	public ProblemList read(IFeatureGraph object, CharSequence source) {
-		final ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
-			final IFeatureGraph featureGraph = (IFeatureGraph) in.readObject();
-			object.copyValues(featureGraph);
-		} catch (IOException | ClassNotFoundException e) {
-			problems.add(new Problem(e));
+	public static final int MAGIC_NUMBER = 0x46494647;
+	public static final int VERSION = 2;
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Writes the given feature graph to a file. An existing file is replaced atomically, if supported by the file system.
+	 *
+	 * @param featureGraph the graph
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(IFeatureGraph featureGraph, Path path) throws IOException {
+		final SatInstance satInstance = featureGraph.getSatInstance();
+		final ClauseDatabase clauses = satInstance.getClauses();
+		final int[] index = featureGraph.getIndex();
+		final int size = featureGraph.getSize();
+
+		final int[] rowOffsets = new int[size + 1];
+		for (int from = 0; from < size; from++) {
+			int count = 0;
+			for (int to = featureGraph.getNextNeighbor(from, 0); to >= 0; to = featureGraph.getNextNeighbor(from, to + 1)) {
+				count++;
+			}
+			// the file is mapped into memory as a whole and, thus, must not exceed 2 GB (5 bytes per edge)
+			if ((rowOffsets[from] + (long) count) > (Integer.MAX_VALUE / 5)) {
+				throw new IOException("Feature graph has too many edges.");
+			}
+			rowOffsets[from + 1] = rowOffsets[from] + count;
+		}
+
+		final Path target = path.toAbsolutePath();
+		final Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(VERSION);
+				writeVariables(out, satInstance, index);
+				writeClauses(out, clauses);
+				writeAdjacency(out, featureGraph, rowOffsets);
+			}
+			try {
+				Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
 		}
-		return problems;
 	}
 
-	@Override
-	public String write(IFeatureGraph object) {
-		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		String ret = null;
-		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
-			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
-		} catch (final IOException e) {
-			Logger.logError(e);
+	private void writeVariables(DataOutputStream out, SatInstance satInstance, int[] index) throws IOException {
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		out.writeInt(numberOfVariables);
+		out.writeInt(satInstance.getNumberOfAuxiliaryVariables());
+		for (int i = 1; i <= numberOfVariables; i++) {
+			final byte[] name = satInstance.getVariableObject(i).toString().getBytes(CHARSET);
+			out.writeInt(name.length);
+			out.write(name);
+		}
+		out.writeInt(index.length);
+		for (final int featureIndex : index) {
+			out.writeInt(featureIndex);
 		}
-		return ret;
 	}
 
-	@Override
-	public String getSuffix() {
-		return "fg";
+	private void writeClauses(DataOutputStream out, ClauseDatabase clauses) throws IOException {
+		final int numberOfClauses = clauses.getNumberOfClauses();
+		out.writeInt(numberOfClauses);
+		out.writeInt(clauses.getNumberOfLiterals());
+		int offset = 0;
+		out.writeInt(offset);
+		for (int i = 0; i < numberOfClauses; i++) {
+			offset += clauses.getClauseLength(i);
+			out.writeInt(offset);
+		}
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int clauseLength = clauses.getClauseLength(i);
+			for (int j = 0; j < clauseLength; j++) {
+				out.writeInt(clauses.getLiteral(i, j));
+			}
+		}
 	}
 
-	@Override
-	public FeatureGraphFormat getInstance() {
-		return this;
+	private void writeAdjacency(DataOutputStream out, IFeatureGraph featureGraph, int[] rowOffsets) throws IOException {
+		final int size = featureGraph.getSize();
+		out.writeInt(size);
+		out.writeInt(rowOffsets[size]);
+		for (final int rowOffset : rowOffsets) {
+			out.writeInt(rowOffset);
+		}
+		for (int from = 0; from < size; from++) {
+			for (int to = featureGraph.getNextNeighbor(from, 0); to >= 0; to = featureGraph.getNextNeighbor(from, to + 1)) {
+				out.writeInt(to);
+			}
+		}
+		for (int from = 0; from < size; from++) {
+			for (int to = featureGraph.getNextNeighbor(from, 0); to >= 0; to = featureGraph.getNextNeighbor(from, to + 1)) {
+				out.writeByte(featureGraph.getEdge(from, to));
+			}
+		}
+	}
+
+	/**
+	 * Reads a feature graph from a file. The file is mapped into memory and the edges are read lazily, while the clauses are decoded immediately.
+	 *
+	 * @param path the path of the file
+	 * @return the (read-only) feature graph
+	 * @throws IOException if the file cannot be read or is no valid feature graph file
+	 */
+	public IFeatureGraph read(Path path) throws IOException {
+		final ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			if (buffer.getInt() != MAGIC_NUMBER) {
+				throw new IOException("No feature graph file: " + path);
+			}
+			final int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported feature graph version " + version + ": " + path);
+			}
+
+			final int numberOfVariables = buffer.getInt();
+			final int numberOfAuxiliaryVariables = buffer.getInt();
+			final List<String> variableNames = new ArrayList<>(numberOfVariables - numberOfAuxiliaryVariables);
+			final List<String> auxiliaryVariableNames = new ArrayList<>(numberOfAuxiliaryVariables);
+			for (int i = 0; i < numberOfVariables; i++) {
+				final byte[] name = new byte[buffer.getInt()];
+				buffer.get(name);
+				(i < (numberOfVariables - numberOfAuxiliaryVariables) ? variableNames : auxiliaryVariableNames).add(new String(name, CHARSET));
+			}
+			final int[] index = new int[buffer.getInt()];
+			slice(buffer, index.length << 2).asIntBuffer().get(index);
+
+			final ClauseDatabase clauses = new ClauseDatabase(variableNames, auxiliaryVariableNames);
+			final int numberOfClauses = buffer.getInt();
+			final int numberOfLiterals = buffer.getInt();
+			final IntBuffer clauseOffsets = slice(buffer, (numberOfClauses + 1) << 2).asIntBuffer();
+			final IntBuffer literals = slice(buffer, numberOfLiterals << 2).asIntBuffer();
+			for (int i = 0; i < numberOfClauses; i++) {
+				final int[] clause = new int[clauseOffsets.get(i + 1) - clauseOffsets.get(i)];
+				literals.get(clause);
+				clauses.addClause(clause);
+			}
+
+			final int size = buffer.getInt();
+			final int numberOfEdges = buffer.getInt();
+			final IntBuffer rowOffsets = slice(buffer, (size + 1) << 2).asIntBuffer();
+			final IntBuffer neighbors = slice(buffer, numberOfEdges << 2).asIntBuffer();
+			final ByteBuffer edges = slice(buffer, numberOfEdges);
+
+			return new MappedFeatureGraph(new SatInstance(clauses), index, rowOffsets, neighbors, edges);
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt feature graph file: " + path, e);
+		}
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int length) {
+		final ByteBuffer slice = buffer.slice();
+		slice.limit(length);
+		buffer.position(buffer.position() + length);
+		return slice;
 	}
 
 	@Override
-	public boolean supportsRead() {
-		return true;
+	public String getSuffix() {
+		return "fg";
 	}
 
 	@Override
-	public boolean supportsWrite() {
-		return true;
+	public FeatureGraphFormat getInstance() {
+		return this;
 	}
 
 	@Override
@@ -21,7 +21,11 @@
 package de.ovgu.featureide.fm.core.io;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.nio.file.Path;
 
 /**
@@ -38,6 +42,8 @@ public final class FileSystem {
 
 		byte[] read(Path path) throws IOException;
 
+		ReadableByteChannel openRead(Path path) throws IOException;
+
 		void mkDir(Path path) throws IOException;
 
 		void delete(Path path) throws IOException;
@@ -59,6 +65,24 @@ public final class FileSystem {
 		return INSTANCE.read(path);
 	}
 
+	public static ReadableByteChannel openRead(Path path) throws IOException {
+		return INSTANCE.openRead(path);
+	}
+
+	/**
+	 * Opens a character stream for the given file that decodes the file content while it is read.<br/> As with {@link String#String(byte[], Charset)},
+	 * malformed input is replaced instead of causing an error.
+	 *
+	 * @param path the file to read
+	 * @param charset the charset of the file content
+	 * @return a reader, which must be closed by the caller
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static Reader openReader(Path path, Charset charset) throws IOException {
+		return Channels.newReader(openRead(path),
+				charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE), -1);
+	}
+
 	public static void mkDir(Path path) throws IOException {
 		INSTANCE.mkDir(path);
 	}
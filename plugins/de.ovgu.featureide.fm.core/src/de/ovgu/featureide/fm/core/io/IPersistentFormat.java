@@ -20,6 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
 import de.ovgu.featureide.fm.core.IExtension;
 
 /**
@@ -31,8 +35,28 @@ public interface IPersistentFormat<T> extends IExtension {
 
 	ProblemList read(T object, CharSequence source);
 
+	/**
+	 * Reads the content of the given character stream into the given object.<br/> In contrast to {@link #read(Object, CharSequence)}, formats may process
+	 * the source incrementally without holding its complete content in memory. The stream is not closed by this method.
+	 *
+	 * @param object the object to fill
+	 * @param source the character stream to read from
+	 * @return a list of problems that occurred during reading
+	 */
+	ProblemList read(T object, Reader source);
+
 	String write(T object);
 
+	/**
+	 * Writes the given object to the given character stream.<br/> In contrast to {@link #write(Object)}, formats may produce their output incrementally
+	 * without building a string of the complete content. The stream is neither flushed nor closed by this method.
+	 *
+	 * @param object the object to write
+	 * @param target the character stream to write to
+	 * @throws IOException if the target cannot be written
+	 */
+	void write(T object, Writer target) throws IOException;
+
 	String getSuffix();
 
 	String getName();
@@ -21,6 +21,8 @@
 package de.ovgu.featureide.fm.core.io;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -44,6 +46,11 @@ public class JavaFileSystem implements IFileSystem {
 		return Files.readAllBytes(path);
 	}
 
+	@Override
+	public ReadableByteChannel openRead(Path path) throws IOException {
+		return FileChannel.open(path, StandardOpenOption.READ);
+	}
+
 	@Override
 	public void mkDir(Path path) throws IOException {
 		Files.createDirectories(path);
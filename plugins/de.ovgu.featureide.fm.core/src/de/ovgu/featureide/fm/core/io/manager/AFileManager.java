@@ -20,15 +20,23 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 import javax.annotation.CheckForNull;
 
@@ -114,6 +122,18 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 
 	public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
 
+	private static final String DIGEST_ALGORITHM = "SHA-1";
+
+	private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+
+		@Override
+		public void write(int b) {}
+
+		@Override
+		public void write(byte[] b, int off, int len) {}
+
+	};
+
 	private static final Map<FileIdentifier<?>, IFileManager<?>> idMap = new HashMap<>();
 	private static final Map<Path, List<IFileManager<?>>> pathMap = new HashMap<>();
 
@@ -296,7 +316,10 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 
 	protected final FileIdentifier<T> identifier;
 
-	protected String persistentObjectSource;
+	/**
+	 * Digest of the serialized persistent object. Used to detect changes without keeping the serialized content in memory.
+	 */
+	protected byte[] persistentObjectDigest;
 	protected T persistentObject;
 	protected T variableObject;
 
@@ -308,9 +331,8 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 		variableObject = object;
 
 		if (FileSystem.exists(identifier.getPath())) {
-			try {
-				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final ProblemList problems = identifier.getFormat().getInstance().read(variableObject, content);
+			try (Reader reader = FileSystem.openReader(identifier.getPath(), DEFAULT_CHARSET)) {
+				final ProblemList problems = identifier.getFormat().getInstance().read(variableObject, reader);
 				if (problems != null) {
 					lastProblems.addAll(problems);
 				}
@@ -366,14 +388,40 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	}
 
 	protected void setPersistentObject(T persistentObject) {
+		setPersistentObject(persistentObject, (persistentObject == null) ? null : computeDigest(persistentObject));
+	}
+
+	private void setPersistentObject(T persistentObject, byte[] persistentObjectDigest) {
 		this.persistentObject = persistentObject;
-		if (persistentObject == null) {
-			persistentObjectSource = null;
-		} else {
-			persistentObjectSource = identifier.getFormat().getInstance().write(persistentObject);
+		this.persistentObjectDigest = persistentObjectDigest;
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
 		}
 	}
 
+	/**
+	 * Computes the digest of the serialized form of the given object. The object is written directly into the digest, such that its serialized content is
+	 * never held in memory.
+	 *
+	 * @param object the object to serialize
+	 * @return the digest or {@code null} if the object cannot be written
+	 */
+	private byte[] computeDigest(T object) {
+		final MessageDigest digest = createDigest();
+		try (Writer writer = new OutputStreamWriter(new DigestOutputStream(NULL_OUTPUT_STREAM, digest), DEFAULT_CHARSET)) {
+			identifier.getFormat().getInstance().write(object, writer);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return null;
+		}
+		return digest.digest();
+	}
+
 	@Override
 	public boolean read() {
 		if (!FileSystem.exists(identifier.getPath())) {
@@ -386,9 +434,8 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 			}
 			lastProblems.clear();
 			final T tempObject = copyObject(persistentObject);
-			try {
-				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final List<Problem> problemList = identifier.getFormat().getInstance().read(tempObject, content);
+			try (Reader reader = FileSystem.openReader(identifier.getPath(), DEFAULT_CHARSET)) {
+				final List<Problem> problemList = identifier.getFormat().getInstance().read(tempObject, reader);
 				if (problemList != null) {
 					lastProblems.addAll(problemList);
 				}
@@ -429,13 +476,15 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	}
 
 	/**
-	 * Compares the persistent with the given object for equality.<br/> Subclasses could override this method.
+	 * Compares the persistent with the given object for equality by comparing the digests of their serialized forms.<br/> Subclasses could override this
+	 * method.<br/> If a digest cannot be computed, the objects are considered different.
 	 *
 	 * @param newObject The given object.
 	 * @return {@code true} if objects differ, {@code false} otherwise.
 	 */
 	protected boolean hasChanged(T newObject) {
-		return !Objects.equals(identifier.getFormat().getInstance().write(newObject), persistentObjectSource);
+		final byte[] newObjectDigest = computeDigest(newObject);
+		return (newObjectDigest == null) || (persistentObjectDigest == null) || !Arrays.equals(newObjectDigest, persistentObjectDigest);
 	}
 
 	/**
@@ -459,8 +508,13 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 				}
 				modifying = true;
 				final T tempObject = copyObject(variableObject);
-				FileSystem.write(identifier.getPath(), identifier.getFormat().getInstance().write(tempObject).getBytes(DEFAULT_CHARSET));
-				setPersistentObject(copyObject(tempObject));
+				final ByteArrayOutputStream content = new ByteArrayOutputStream();
+				final MessageDigest digest = createDigest();
+				try (Writer writer = new OutputStreamWriter(new DigestOutputStream(content, digest), DEFAULT_CHARSET)) {
+					identifier.getFormat().getInstance().write(tempObject, writer);
+				}
+				FileSystem.write(identifier.getPath(), content.toByteArray());
+				setPersistentObject(copyObject(tempObject), digest.digest());
 			} catch (final Exception e) {
 				handleException(e);
 				return false;
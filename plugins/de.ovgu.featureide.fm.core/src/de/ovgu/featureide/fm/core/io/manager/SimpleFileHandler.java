@@ -21,9 +21,13 @@
 package de.ovgu.featureide.fm.core.io.manager;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -196,12 +200,27 @@ public class SimpleFileHandler<T> {
 
 	public boolean read() {
 		problemList.clear();
-		return parse(getContent());
+		if (!Files.exists(path)) {
+			problemList.add(new Problem(new FileNotFoundException(path.toString())));
+			return false;
+		}
+
+		try (Reader reader = FileSystem.openReader(path, DEFAULT_CHARSET)) {
+			return parse(reader);
+		} catch (final Exception e) {
+			problemList.add(new Problem(e));
+			return false;
+		}
 	}
 
 	public boolean read(InputStream inputStream) {
 		problemList.clear();
-		return parse(getContent(inputStream));
+		try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, DEFAULT_CHARSET))) {
+			return parse(reader);
+		} catch (final Exception e) {
+			problemList.add(new Problem(e));
+			return false;
+		}
 	}
 
 	String getContent() {
@@ -218,22 +237,6 @@ public class SimpleFileHandler<T> {
 		}
 	}
 
-	private String getContent(InputStream inputStream) {
-		try {
-			final StringBuilder sb = new StringBuilder();
-			try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, DEFAULT_CHARSET))) {
-				for (String line; (line = br.readLine()) != null;) {
-					sb.append(line);
-					sb.append(System.lineSeparator());
-				}
-			}
-			return sb.toString();
-		} catch (final Exception e) {
-			problemList.add(new Problem(e));
-			return null;
-		}
-	}
-
 	boolean parse(String content) {
 		if (content != null) {
 			try {
@@ -249,11 +252,27 @@ public class SimpleFileHandler<T> {
 		return !problemList.containsError();
 	}
 
+	private boolean parse(Reader source) {
+		try {
+			final List<Problem> parsingProblemList = format.getInstance().read(object, source);
+			if (parsingProblemList != null) {
+				problemList.addAll(parsingProblemList);
+			}
+		} catch (final Exception e) {
+			problemList.add(new Problem(e));
+		}
+
+		return !problemList.containsError();
+	}
+
 	public boolean write() {
 		problemList.clear();
 		try {
-			final byte[] content = format.getInstance().write(object).getBytes(DEFAULT_CHARSET);
-			FileSystem.write(path, content);
+			final ByteArrayOutputStream content = new ByteArrayOutputStream();
+			try (Writer writer = new OutputStreamWriter(content, DEFAULT_CHARSET)) {
+				format.getInstance().write(object, writer);
+			}
+			FileSystem.write(path, content.toByteArray());
 		} catch (final Exception e) {
 			problemList.add(new Problem(e));
 		}
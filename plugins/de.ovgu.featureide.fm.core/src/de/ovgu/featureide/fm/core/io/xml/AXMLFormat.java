@@ -23,8 +23,10 @@ package de.ovgu.featureide.fm.core.io.xml;
 import static de.ovgu.featureide.fm.core.localization.StringTable.YES;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -34,6 +36,10 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -45,6 +51,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
 import de.ovgu.featureide.fm.core.Logger;
@@ -64,6 +71,8 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 
 	public static final String FILE_EXTENSION = "xml";
 
+	private static final String STREAM_MESSAGE_PREFIX = "Message: ";
+
 	protected T object;
 
 	/**
@@ -82,6 +91,64 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return elements;
 	}
 
+	/**
+	 * Creates a pull parser for the given source. The parser is not namespace aware, such that element and attribute names are reported as they appear in
+	 * the document, and coalesces adjacent text.
+	 *
+	 * @param source the character stream to parse
+	 * @return a new stream reader
+	 * @throws XMLStreamException if the parser cannot be created
+	 */
+	protected static final XMLStreamReader createStreamReader(Reader source) throws XMLStreamException {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return factory.createXMLStreamReader(source);
+	}
+
+	/**
+	 * Moves the reader to the next child element of the current element.
+	 *
+	 * @param reader a stream reader positioned at a start element or at the end element of a previous child
+	 * @return {@code true} if the reader is positioned at the start of a child element, {@code false} if the end of the current element was reached
+	 * @throws XMLStreamException if the document is not well-formed
+	 */
+	protected static final boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Skips the current element including all of its children.
+	 *
+	 * @param reader a stream reader positioned at a start element
+	 * @throws XMLStreamException if the document is not well-formed
+	 */
+	protected static final void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		while (nextElement(reader)) {
+			skipElement(reader);
+		}
+	}
+
+	/**
+	 * @param reader a stream reader
+	 * @return the line number of the current event
+	 */
+	protected static final int getLineNumber(XMLStreamReader reader) {
+		final int lineNumber = reader.getLocation().getLineNumber();
+		return lineNumber > 0 ? lineNumber : 1;
+	}
+
 	@Override
 	public String getSuffix() {
 		return FILE_EXTENSION;
@@ -89,16 +156,24 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 
 	@Override
 	public ProblemList read(T object, CharSequence source) {
+		return read(object, new StringReader(source.toString()));
+	}
+
+	@Override
+	public ProblemList read(T object, Reader source) {
 		this.object = object;
 
 		final ProblemList lastWarnings = new ProblemList();
 		try {
-			final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-			SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(new StringReader(source.toString())), new PositionalXMLHandler(doc));
-			doc.getDocumentElement().normalize();
-			readDocument(doc, lastWarnings);
+			readSource(source, lastWarnings);
 		} catch (final SAXParseException e) {
 			lastWarnings.add(new Problem(e, e.getLineNumber()));
+		} catch (final XMLStreamException e) {
+			// The message of the stream reader is prefixed with the location, which is already contained in the problem.
+			final String message = e.getMessage();
+			final int messageIndex = (message != null) ? message.indexOf(STREAM_MESSAGE_PREFIX) : -1;
+			lastWarnings.add(new Problem((messageIndex >= 0) ? message.substring(messageIndex + STREAM_MESSAGE_PREFIX.length()) : message,
+					(e.getLocation() != null) ? Math.max(e.getLocation().getLineNumber(), 1) : 1, e));
 		} catch (final UnsupportedModelException e) {
 			lastWarnings.add(new Problem(e, e.lineNumber));
 		} catch (final Exception e) {
@@ -108,8 +183,34 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return lastWarnings;
 	}
 
+	/**
+	 * Reads an XML-Document from a character stream.<br/> By default, the stream is parsed into a DOM tree, which is then passed to
+	 * {@link #readDocument(Document, List)}. Formats that process the stream directly (e.g., using {@link #createStreamReader(Reader)}) override this method.
+	 *
+	 * @param source the stream to read
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	protected void readSource(Reader source, List<Problem> warnings)
+			throws IOException, ParserConfigurationException, SAXException, XMLStreamException, UnsupportedModelException {
+		final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(source), new PositionalXMLHandler(doc));
+		doc.getDocumentElement().normalize();
+		readDocument(doc, warnings);
+	}
+
 	@Override
 	public String write(T object) {
+		try (StringWriter stringWriter = new StringWriter()) {
+			write(object, stringWriter);
+			return stringWriter.toString();
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return "";
+		}
+	}
+
+	@Override
+	public void write(T object, Writer target) throws IOException {
 		this.object = object;
 
 		// Create Empty DOM Document
@@ -123,25 +224,21 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		try {
 			db = dbf.newDocumentBuilder();
 		} catch (final ParserConfigurationException pce) {
-			Logger.logError(pce);
-			return "";
+			throw new IOException(pce);
 		}
 		final Document doc = db.newDocument();
 		// Create the XML Representation
 		writeDocument(doc);
 
-		try (StringWriter stringWriter = new StringWriter()) {
-			final StreamResult streamResult = new StreamResult(stringWriter);
+		try {
 			final TransformerFactory factory = TransformerFactory.newInstance();
 			factory.setAttribute("indent-number", new Integer(4));
 			final Transformer transformer = factory.newTransformer();
 			transformer.setOutputProperty(OutputKeys.METHOD, FILE_EXTENSION);
 			transformer.setOutputProperty(OutputKeys.INDENT, YES);
-			transformer.transform(new DOMSource(doc), streamResult);
-			return streamResult.getWriter().toString();
-		} catch (final IOException | TransformerException e) {
-			Logger.logError(e);
-			return "";
+			transformer.transform(new DOMSource(doc), new StreamResult(target));
+		} catch (final TransformerException e) {
+			throw new IOException(e);
 		}
 	}
 
@@ -176,6 +273,24 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	 */
 	protected abstract void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException;
 
+	/**
+	 * Reads an XML-Document by serializing it and passing it to {@link #readSource(Reader, List)}.<br/> Can be used by formats that override
+	 * {@link #readSource(Reader, List)} to implement {@link #readDocument(Document, List)}.
+	 *
+	 * @param doc document to read
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	protected final void readDocumentAsSource(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+		try (StringWriter writer = new StringWriter()) {
+			TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(writer));
+			readSource(new StringReader(writer.toString()), warnings);
+		} catch (final UnsupportedModelException e) {
+			throw e;
+		} catch (final Exception e) {
+			throw new UnsupportedModelException(e.getMessage(), 1);
+		}
+	}
+
 	/**
 	 * Writes an XML-Document.
 	 *
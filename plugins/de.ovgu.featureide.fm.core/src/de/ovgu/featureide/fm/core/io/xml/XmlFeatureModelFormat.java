@@ -28,13 +28,20 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
@@ -44,9 +51,7 @@ import org.prop4j.Not;
 import org.prop4j.Or;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.w3c.dom.Text;
 
 import de.ovgu.featureide.fm.core.PluginID;
@@ -63,7 +68,6 @@ import de.ovgu.featureide.fm.core.io.IFeatureNameValidator;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
-import de.ovgu.featureide.fm.core.io.xml.XmlPropertyLoader.PropertiesParser;
 
 /**
  * Reads / Writes a feature model in the FeatureIDE XML format
@@ -85,6 +89,48 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 
 	private final List<Problem> localProblems = new ArrayList<>();
 
+	/**
+	 * A reference to a feature by name that is checked after the complete document was read.
+	 */
+	private static final class FeatureReference {
+
+		private final String name;
+		private final int lineNumber;
+
+		public FeatureReference(String name, int lineNumber) {
+			this.name = name;
+			this.lineNumber = lineNumber;
+		}
+
+	}
+
+	/**
+	 * A constraint that is added after the complete document was read.
+	 */
+	private static final class PendingConstraint {
+
+		private final org.prop4j.Node node;
+		private final String description;
+
+		public PendingConstraint(org.prop4j.Node node, String description) {
+			this.node = node;
+			this.description = description;
+		}
+
+	}
+
+	/**
+	 * Collects the information of the sections that are evaluated after the complete document was read.
+	 */
+	private static final class ReadState {
+
+		private final List<PendingConstraint> constraints = new ArrayList<>();
+		private final List<FeatureReference> constraintReferences = new ArrayList<>();
+		private final List<FeatureReference> orderReferences = new ArrayList<>();
+		private final Map<String, Set<Entry<String, Type, Object>>> featureProperties = new LinkedHashMap<>();
+
+	}
+
 	public XmlFeatureModelFormat() {}
 
 	protected XmlFeatureModelFormat(XmlFeatureModelFormat oldFormat) {
@@ -104,31 +150,60 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 
 	@Override
 	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+		readDocumentAsSource(doc, warnings);
+	}
+
+	@Override
+	protected void readSource(Reader source, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
 		object.reset();
 
 		factory = FMFactoryManager.getFactory(object);
 
-		final Collection<PropertiesParser> customProperties = new ArrayList<>();
+		final ReadState state = new ReadState();
+		final XMLStreamReader reader = createStreamReader(source);
+		try {
+			while (reader.hasNext()) {
+				if ((reader.next() == XMLStreamConstants.START_ELEMENT) && reader.getLocalName().equals(FEATURE_MODEL)) {
+					parseFeatureModel(reader, state);
+				}
+			}
+		} catch (final UnsupportedModelException e) {
+			// A syntax error in the remaining document takes precedence, as the content error may be a result of it.
+			while (reader.hasNext()) {
+				reader.next();
+			}
+			throw e;
+		} finally {
+			reader.close();
+		}
 
-		for (final Element e : getElements(doc.getElementsByTagName(FEATURE_MODEL))) {
-			parseStruct(e.getElementsByTagName(STRUCT));
-			parseConstraints(e.getElementsByTagName(CONSTRAINTS));
-			parseCalculations(e.getElementsByTagName(CALCULATIONS));
-			parseComments(e.getElementsByTagName(COMMENTS));
-			parseFeatureOrder(e.getElementsByTagName(FEATURE_ORDER));
+		checkFeatureReferences(state.constraintReferences);
+		for (final PendingConstraint pendingConstraint : state.constraints) {
+			final IConstraint c = factory.createConstraint(object, pendingConstraint.node);
+			if (pendingConstraint.description != null) {
+				c.setDescription(pendingConstraint.description);
+			}
+			object.addConstraint(c);
+		}
 
-			final XmlPropertyLoader propertyLoader = new XmlPropertyLoader(e.getElementsByTagName(PROPERTIES));
-			customProperties.addAll(propertyLoader.parseProperties());
+		checkFeatureReferences(state.orderReferences);
+		if (!state.orderReferences.isEmpty()) {
+			final ArrayList<String> order = new ArrayList<>(state.orderReferences.size());
+			for (final FeatureReference reference : state.orderReferences) {
+				order.add(reference.name);
+			}
+			object.setFeatureOrderList(order);
 		}
 
 		if (object.getStructure().getRoot() == null) {
 			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
 		}
 
-		importCustomProperties(customProperties, object);
+		for (final Map.Entry<String, Set<Entry<String, Type, Object>>> featureProperties : state.featureProperties.entrySet()) {
+			object.getFeature(featureProperties.getKey()).getCustomProperties().setEntrySet(featureProperties.getValue());
+		}
 		warnings.addAll(localProblems);
 	}
-
 	@Override
 	protected void writeDocument(Document doc) {
 		final Element root = doc.createElement(FEATURE_MODEL);
@@ -328,89 +403,64 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		// ...
 	}
 
-	private void importCustomProperties(Collection<PropertiesParser> customProperties, IFeatureModel object) {
-		for (final PropertiesParser parser : customProperties) {
-			switch (parser.getType()) {
-			case FEATURE_PROPERTIES_PARSER: {
-				for (final String featureName : parser.getIdentifier()) {
-					object.getFeature(featureName).getCustomProperties().setEntrySet(parser.getPropertyEntries(featureName));
-				}
-				break;
-			}
-			default:
-				throw new UnsupportedOperationException("Unkown property container parser type " + parser.getType());
-			}
-		}
-	}
-
 	/**
-	 * Parses the calculations.
+	 * Parses the sections of a feature model element. References to features from constraints and the feature order are only checked after the whole
+	 * document was read, such that they do not depend on the order of the sections.
 	 */
-	private void parseCalculations(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String nodeName = node.getNodeName();
-					final boolean value = node.getNodeValue().equals(TRUE);
-					if (nodeName.equals(CALCULATE_AUTO)) {
-						object.getAnalyser().runCalculationAutomatically = value;
-					} else if (nodeName.equals(CALCULATE_CONSTRAINTS)) {
-						object.getAnalyser().calculateConstraints = value;
-					} else if (nodeName.equals(CALCULATE_REDUNDANT)) {
-						object.getAnalyser().calculateRedundantConstraints = value;
-					} else if (nodeName.equals(CALCULATE_FEATURES)) {
-						object.getAnalyser().calculateFeatures = value;
-					} else if (nodeName.equals(CALCULATE_TAUTOLOGY)) {
-						object.getAnalyser().calculateTautologyConstraints = value;
-					} else {
-						throwError("Unknown calculations attribute: " + nodeName, e);
-					}
-
-				}
+	private void parseFeatureModel(XMLStreamReader reader, ReadState state) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(STRUCT)) {
+				parseFeatures(reader, null);
+			} else if (nodeName.equals(CONSTRAINTS)) {
+				parseConstraints(reader, state);
+			} else if (nodeName.equals(CALCULATIONS)) {
+				parseCalculations(reader);
+			} else if (nodeName.equals(COMMENTS)) {
+				parseComments(reader);
+			} else if (nodeName.equals(FEATURE_ORDER)) {
+				parseFeatureOrder(reader, state.orderReferences);
+			} else if (nodeName.equals(PROPERTIES)) {
+				XmlPropertyLoader.parseProperties(reader, state.featureProperties);
+			} else {
+				skipElement(reader);
 			}
 		}
 	}
 
 	/**
-	 * Parses the comment section.
+	 * Parses the calculations.
 	 */
-	private void parseComments(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasChildNodes()) {
-				parseComments2(e.getChildNodes());
-			}
-		}
-	}
-
-	private void parseComments2(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.getNodeName().equals(C)) {
-				object.getProperty().addComment(e.getTextContent());
+	private void parseCalculations(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String nodeName = reader.getAttributeLocalName(i);
+			final boolean value = reader.getAttributeValue(i).equals(TRUE);
+			if (nodeName.equals(CALCULATE_AUTO)) {
+				object.getAnalyser().runCalculationAutomatically = value;
+			} else if (nodeName.equals(CALCULATE_CONSTRAINTS)) {
+				object.getAnalyser().calculateConstraints = value;
+			} else if (nodeName.equals(CALCULATE_REDUNDANT)) {
+				object.getAnalyser().calculateRedundantConstraints = value;
+			} else if (nodeName.equals(CALCULATE_FEATURES)) {
+				object.getAnalyser().calculateFeatures = value;
+			} else if (nodeName.equals(CALCULATE_TAUTOLOGY)) {
+				object.getAnalyser().calculateTautologyConstraints = value;
 			} else {
-				throwError("Unknown comment attribute: " + e.getNodeName(), e);
+				throwError("Unknown calculations attribute: " + nodeName, reader);
 			}
 		}
+		skipElement(reader);
 	}
 
 	/**
-	 * Parses the description of a constraint
-	 *
-	 * @param constraint Output parameter: the constraint will have the description set
-	 * @param parentOfDescription The parent tag of the description tag
+	 * Parses the comment section.
 	 */
-	private void parseConstraintDescription(IConstraint constraint, final Element parentOfDescription) {
-		for (final Element childOfRule : getElements(parentOfDescription.getChildNodes())) {
-			if (childOfRule.getNodeName().equals(DESCRIPTION)) {
-				String description = childOfRule.getTextContent();
-
-				if ((description != null) && !description.isEmpty()) {
-					description = description.replace("\t", "");
-					description = description.trim();
-				}
-
-				constraint.setDescription(description);
+	private void parseComments(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			if (reader.getLocalName().equals(C)) {
+				object.getProperty().addComment(reader.getElementText());
+			} else {
+				throwError("Unknown comment attribute: " + reader.getLocalName(), reader);
 			}
 		}
 	}
@@ -418,118 +468,118 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	/**
 	 * Parses the constraint section.
 	 */
-	private void parseConstraints(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			for (final Element child : getElements(e.getChildNodes())) {
-				final String nodeName = child.getNodeName();
-				if (nodeName.equals(RULE)) {
-					final IConstraint c = factory.createConstraint(object, parseConstraints2(child.getChildNodes()).getFirst());
-					if (child.hasAttributes()) {
-						final NamedNodeMap nodeMap = child.getAttributes();
-						for (int i = 0; i < nodeMap.getLength(); i++) {
-							final org.w3c.dom.Node node = nodeMap.item(i);
-							final String attributeName = node.getNodeName();
-							if (attributeName.equals(COORDINATES)) {
-								// Legacy case, for backwards compatibility
-							} else {
-								throwError("Unknown constraint attribute: " + attributeName, node);
-							}
+	private void parseConstraints(XMLStreamReader reader, ReadState state) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(RULE)) {
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					final String attributeName = reader.getAttributeLocalName(i);
+					if (attributeName.equals(COORDINATES)) {
+						// Legacy case, for backwards compatibility
+					} else {
+						throwError("Unknown constraint attribute: " + attributeName, reader);
+					}
+				}
+				final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
+				String description = null;
+				while (nextElement(reader)) {
+					if (reader.getLocalName().equals(DESCRIPTION)) {
+						description = reader.getElementText();
+						if (!description.isEmpty()) {
+							description = description.replace("\t", "");
+							description = description.trim();
 						}
+					} else {
+						nodes.add(parseConstraintNode(reader, state.constraintReferences));
 					}
-					parseConstraintDescription(c, child);
-					object.addConstraint(c);
-				} else {
-					throwError("Unknown constraint node: " + nodeName, child);
 				}
+				state.constraints.add(new PendingConstraint(nodes.getFirst(), description));
+			} else {
+				throwError("Unknown constraint node: " + nodeName, reader);
 			}
 		}
 	}
 
-	private LinkedList<org.prop4j.Node> parseConstraints2(NodeList nodeList) throws UnsupportedModelException {
+	private LinkedList<org.prop4j.Node> parseConstraintNodes(XMLStreamReader reader, List<FeatureReference> references)
+			throws XMLStreamException, UnsupportedModelException {
 		final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
-		LinkedList<org.prop4j.Node> children;
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
-			if (nodeName.equals(DISJ)) {
-				nodes.add(new Or(parseConstraints2(e.getChildNodes())));
-			} else if (nodeName.equals(CONJ)) {
-				nodes.add(new And(parseConstraints2(e.getChildNodes())));
-			} else if (nodeName.equals(EQ)) {
-				children = parseConstraints2(e.getChildNodes());
-				nodes.add(new Equals(children.get(0), children.get(1)));
-			} else if (nodeName.equals(IMP)) {
-				children = parseConstraints2(e.getChildNodes());
-				nodes.add(new Implies(children.get(0), children.get(1)));
-			} else if (nodeName.equals(NOT)) {
-				nodes.add(new Not((parseConstraints2(e.getChildNodes())).getFirst()));
-			} else if (nodeName.equals(ATMOST1)) {
-				nodes.add(new AtMost(1, parseConstraints2(e.getChildNodes())));
-			} else if (nodeName.equals(VAR)) {
-				final String featureName = e.getTextContent();
-				if (object.getFeature(featureName) != null) {
-					nodes.add(new Literal(featureName));
-				} else {
-					throwError("Feature \"" + featureName + "\" does not exists", e);
-				}
-			} else if (nodeName.equals(DESCRIPTION)) {
-				/**
-				 * The method should return without adding any nodes, and traverse deeper into the tree, because description, has no children just return the
-				 * current list. The actual readout of the description happens at a different point.
-				 */
-			} else {
-				throwError("Unknown constraint type: " + nodeName, e);
+		while (nextElement(reader)) {
+			final org.prop4j.Node node = parseConstraintNode(reader, references);
+			if (node != null) {
+				nodes.add(node);
 			}
 		}
 		return nodes;
 	}
 
 	/**
-	 * Parses the feature order section.
+	 * Parses the current element of a constraint.
+	 *
+	 * @return the parsed node or {@code null} if the element is a description
 	 */
-	private void parseFeatureOrder(NodeList nodeList) throws UnsupportedModelException {
-		final ArrayList<String> order = new ArrayList<>(object.getNumberOfFeatures());
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(USER_DEFINED)) {
-						object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
-					} else if (attributeName.equals(NAME)) {
-						if (object.getFeature(attributeValue) != null) {
-							order.add(attributeValue);
-						} else {
-							throwError("Feature \"" + attributeValue + "\" does not exists", e);
-						}
-					} else {
-						throwError("Unknown feature order attribute: " + attributeName, e);
-					}
+	private org.prop4j.Node parseConstraintNode(XMLStreamReader reader, List<FeatureReference> references)
+			throws XMLStreamException, UnsupportedModelException {
+		final String nodeName = reader.getLocalName();
+		LinkedList<org.prop4j.Node> children;
+		if (nodeName.equals(DISJ)) {
+			return new Or(parseConstraintNodes(reader, references));
+		} else if (nodeName.equals(CONJ)) {
+			return new And(parseConstraintNodes(reader, references));
+		} else if (nodeName.equals(EQ)) {
+			children = parseConstraintNodes(reader, references);
+			return new Equals(children.get(0), children.get(1));
+		} else if (nodeName.equals(IMP)) {
+			children = parseConstraintNodes(reader, references);
+			return new Implies(children.get(0), children.get(1));
+		} else if (nodeName.equals(NOT)) {
+			return new Not((parseConstraintNodes(reader, references)).getFirst());
+		} else if (nodeName.equals(ATMOST1)) {
+			return new AtMost(1, parseConstraintNodes(reader, references));
+		} else if (nodeName.equals(VAR)) {
+			final int lineNumber = getLineNumber(reader);
+			final String featureName = reader.getElementText();
+			references.add(new FeatureReference(featureName, lineNumber));
+			return new Literal(featureName);
+		} else if (nodeName.equals(DESCRIPTION)) {
+			// Descriptions within a constraint are only read for the rule itself.
+			skipElement(reader);
+			return null;
+		} else {
+			throwError("Unknown constraint type: " + nodeName, reader);
+			return null;
+		}
+	}
 
-				}
-			}
-			if (e.hasChildNodes()) {
-				parseFeatureOrder(e.getChildNodes());
+	/**
+	 * Parses the feature order section.
+	 */
+	private void parseFeatureOrder(XMLStreamReader reader, List<FeatureReference> references) throws XMLStreamException, UnsupportedModelException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+			} else if (attributeName.equals(NAME)) {
+				references.add(new FeatureReference(attributeValue, getLineNumber(reader)));
+			} else {
+				throwError("Unknown feature order attribute: " + attributeName, reader);
 			}
 		}
-		if (!order.isEmpty()) {
-			object.setFeatureOrderList(order);
+		while (nextElement(reader)) {
+			parseFeatureOrder(reader, references);
 		}
 	}
 
-	private void parseFeatures(NodeList nodeList, IFeature parent) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
+	private void parseFeatures(XMLStreamReader reader, IFeature parent) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
 			if (nodeName.equals(DESCRIPTION)) {
 				/* case: description */
-				if (e.getFirstChild() != null) {
-					String nodeValue = e.getFirstChild().getNodeValue();
-					if ((nodeValue != null) && !nodeValue.isEmpty()) {
-						nodeValue = nodeValue.replace("\t", "");
-						nodeValue = nodeValue.substring(1, nodeValue.length() - 1);
-						nodeValue = nodeValue.trim();
-					}
+				String nodeValue = reader.getElementText();
+				if (!nodeValue.isEmpty()) {
+					nodeValue = nodeValue.replace("\t", "");
+					nodeValue = nodeValue.substring(1, nodeValue.length() - 1);
+					nodeValue = nodeValue.trim();
 					parent.getProperty().setDescription(nodeValue);
 				}
 				continue;
@@ -538,36 +588,30 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 			boolean _abstract = false;
 			boolean hidden = false;
 			String name = "";
-			// FMPoint featureLocation = null;
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(ABSTRACT)) {
-						_abstract = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(MANDATORY)) {
-						mandatory = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(NAME)) {
-						name = attributeValue;
-					} else if (attributeName.equals(HIDDEN)) {
-						hidden = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(COORDINATES)) {
-						// Legacy case, for backwards compatibility
-					} else {
-						throwError("Unknown feature attribute: " + attributeName, e);
-					}
-
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				final String attributeValue = reader.getAttributeValue(i);
+				if (attributeName.equals(ABSTRACT)) {
+					_abstract = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(MANDATORY)) {
+					mandatory = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(NAME)) {
+					name = attributeValue;
+				} else if (attributeName.equals(HIDDEN)) {
+					hidden = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(COORDINATES)) {
+					// Legacy case, for backwards compatibility
+				} else {
+					throwError("Unknown feature attribute: " + attributeName, reader);
 				}
 			}
 
 			if (object.getFeature(name) != null) {
-				throwError("Duplicate entry for feature: " + name, e);
+				throwError("Duplicate entry for feature: " + name, reader);
 			}
 
 			if ((validator != null) && !validator.isValidFeatureName(name)) {
-				addToProblemsList(name + " is not a valid feature name", e);
+				localProblems.add(new Problem(name + " is not a valid feature name", getLineNumber(reader), Problem.Severity.ERROR));
 			}
 
 			final IFeature f = factory.createFeature(object, name);
@@ -581,7 +625,7 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 			} else if (nodeName.equals(FEATURE)) {
 
 			} else {
-				throwError("Unknown feature type: " + nodeName, e);
+				throwError("Unknown feature type: " + nodeName, reader);
 			}
 			f.getStructure().setAbstract(_abstract);
 			f.getStructure().setMandatory(mandatory);
@@ -593,19 +637,15 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 			} else {
 				parent.getStructure().addChild(f.getStructure());
 			}
-			if (e.hasChildNodes()) {
-				parseFeatures(e.getChildNodes(), f);
-			}
+			parseFeatures(reader, f);
 		}
-
 	}
 
-	/**
-	 * Parse the struct section to add features to the model.
-	 */
-	private void parseStruct(NodeList struct) throws UnsupportedModelException {
-		for (final Element e : getElements(struct)) {
-			parseFeatures(e.getChildNodes(), null);
+	private void checkFeatureReferences(List<FeatureReference> references) throws UnsupportedModelException {
+		for (final FeatureReference reference : references) {
+			if (object.getFeature(reference.name) == null) {
+				throw new UnsupportedModelException("Feature \"" + reference.name + "\" does not exists", reference.lineNumber);
+			}
 		}
 	}
 
@@ -613,21 +653,10 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	 * Throws an error that will be used for error markers
 	 *
 	 * @param message The error message
-	 * @param tempNode The node that causes the error. this node is used for positioning.
+	 * @param reader The reader positioned at the element that causes the error. Its location is used for positioning.
 	 */
-	private void throwError(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
-		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()));
-	}
-
-	private void addToProblemsList(String message, org.w3c.dom.Node node) {
-		localProblems.add(new Problem(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()),
-				de.ovgu.featureide.fm.core.io.Problem.Severity.ERROR));
-	}
-
-	// TODO implement warnings
-	@SuppressWarnings("unused")
-	private void throwWarning(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
-		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()));
+	private void throwError(String message, XMLStreamReader reader) throws UnsupportedModelException {
+		throw new UnsupportedModelException(message, getLineNumber(reader));
 	}
 
 	private void writeAttributes(Element node, Element fnod, IFeature feat) {
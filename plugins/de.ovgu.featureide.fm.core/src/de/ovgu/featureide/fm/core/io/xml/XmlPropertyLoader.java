@@ -28,6 +28,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
@@ -149,25 +152,69 @@ public class XmlPropertyLoader {
 				throw new UnsupportedOperationException("One property of container " + propertyContainerNode.getAttribute(NAME)
 					+ " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
 			} else {
-				final String key = property.getAttribute(KEY);
-				final Type type = Type.valueOf(property.getAttribute(TYPE));
-				final Object value = castValue(type, property.getAttribute(VALUE));
-				final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
-				if (result.contains(entry)) {
-					for (final Entry<String, Type, Object> e : result) {
-						if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
-							throw new IllegalStateException("Ambigous property definition for key: " + key);
-						}
-					}
-				} else {
-					result.add(entry);
-				}
+				addPropertyEntry(result, property.getAttribute(KEY), property.getAttribute(TYPE), property.getAttribute(VALUE));
 			}
 		}
 		return result;
 	}
 
-	private Object castValue(Type type, String value) {
+	/**
+	 * Parses the content of a properties element with a pull parser. The result is equivalent to {@link #parseProperties()} for the corresponding DOM tree.
+	 *
+	 * @param reader a stream reader positioned at the start of a properties element; afterwards positioned at its end
+	 * @param featureProperties the map, to which the property entries of each feature are added
+	 * @throws XMLStreamException if the document is not well-formed
+	 */
+	static void parseProperties(XMLStreamReader reader, Map<String, Set<Entry<String, Type, Object>>> featureProperties) throws XMLStreamException {
+		while (AXMLFormat.nextElement(reader)) {
+			final String tagName = reader.getLocalName();
+			if (tagName.equals(FEATURE)) {
+				final String featureName = reader.getAttributeValue(null, NAME);
+				if (featureName == null) {
+					throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
+				}
+				final Set<Entry<String, Type, Object>> result = new HashSet<>();
+				parsePropertyEntries(reader, featureName, result);
+				featureProperties.put(featureName, result);
+			} else {
+				throw new UnsupportedOperationException("Unkown domain which contains properties. Don't know where to attach them:" + tagName);
+			}
+		}
+	}
+
+	private static void parsePropertyEntries(XMLStreamReader reader, String containerName, Set<Entry<String, Type, Object>> result)
+			throws XMLStreamException {
+		while (AXMLFormat.nextElement(reader)) {
+			if (reader.getLocalName().equals(PROPERTY)) {
+				final String key = reader.getAttributeValue(null, KEY);
+				final String value = reader.getAttributeValue(null, VALUE);
+				final String type = reader.getAttributeValue(null, TYPE);
+				if ((key == null) || (value == null) || (type == null)) {
+					throw new UnsupportedOperationException(
+							"One property of container " + containerName + " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
+				}
+				addPropertyEntry(result, key, type, value);
+			}
+			parsePropertyEntries(reader, containerName, result);
+		}
+	}
+
+	private static void addPropertyEntry(Set<Entry<String, Type, Object>> result, String key, String typeName, String valueString) {
+		final Type type = Type.valueOf(typeName);
+		final Object value = castValue(type, valueString);
+		final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
+		if (result.contains(entry)) {
+			for (final Entry<String, Type, Object> e : result) {
+				if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
+					throw new IllegalStateException("Ambigous property definition for key: " + key);
+				}
+			}
+		} else {
+			result.add(entry);
+		}
+	}
+
+	private static Object castValue(Type type, String value) {
 		if ((value == null) || value.trim().isEmpty()) {
 			throw new RuntimeException("Property value is not allowed to be empty");
 		}
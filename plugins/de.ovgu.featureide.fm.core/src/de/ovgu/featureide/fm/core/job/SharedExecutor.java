@@ -0,0 +1,87 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for the short parallel computations of analyses, configuration tools, and explanations.</br>
+ * All callers share one pool of daemon threads that is created on first use, such that threads are reused between calls. Idle threads terminate after a
+ * minute. Each caller bounds its own parallelism by the number of tasks it submits. Instead of shutting down the executor, callers cancel their tasks with
+ * {@link #cancel(Collection)}.
+ */
+public final class SharedExecutor {
+
+	private static final class Holder {
+
+		private static final ExecutorService EXECUTOR;
+		static {
+			final ThreadPoolExecutor executor =
+				new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+
+					private final AtomicInteger threadCount = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						final Thread thread = new Thread(runnable, "FeatureIDE Worker " + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			EXECUTOR = Executors.unconfigurableExecutorService(executor);
+		}
+
+	}
+
+	private SharedExecutor() {}
+
+	/**
+	 * @return the shared executor; cannot be shut down
+	 */
+	public static ExecutorService getExecutor() {
+		return Holder.EXECUTOR;
+	}
+
+	public static <T> Future<T> submit(Callable<T> task) {
+		return Holder.EXECUTOR.submit(task);
+	}
+
+	/**
+	 * Cancels the given tasks and interrupts the ones that are running.
+	 *
+	 * @param futures the futures of the tasks to cancel
+	 */
+	public static void cancel(Collection<? extends Future<?>> futures) {
+		for (final Future<?> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+}
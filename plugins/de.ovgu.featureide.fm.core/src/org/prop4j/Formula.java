@@ -0,0 +1,256 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * An immutable propositional formula that is created and interned by a {@link FormulaFactory}.<br> Structurally equal formulas of the same factory are
+ * represented by the same object, such that formulas form a directed acyclic graph with shared subterms. Thus, {@link #equals(Object)} only compares the
+ * direct children by identity and {@link #hashCode()} is computed once on creation.<br> Use {@link #toNode()} to obtain a (mutable) {@link Node}.
+ */
+public final class Formula {
+
+	public static enum Type {
+		LITERAL, NOT, AND, OR, IMPLIES, EQUALS, CHOOSE, AT_LEAST, AT_MOST
+	}
+
+	private static final Formula[] NO_CHILDREN = new Formula[0];
+
+	final Type type;
+	final Object variable;
+	final boolean positive;
+	final int bound;
+	final Formula[] children;
+	final int id;
+
+	private final int hashCode;
+
+	Formula(Object variable, boolean positive, int id) {
+		this(Type.LITERAL, variable, positive, 0, NO_CHILDREN, id);
+	}
+
+	Formula(Type type, int bound, Formula[] children, int id) {
+		this(type, null, true, bound, children, id);
+	}
+
+	private Formula(Type type, Object variable, boolean positive, int bound, Formula[] children, int id) {
+		this.type = type;
+		this.variable = variable;
+		this.positive = positive;
+		this.bound = bound;
+		this.children = children;
+		this.id = id;
+
+		int hash = (type.ordinal() * 31) + bound;
+		if (variable != null) {
+			hash = (hash * 31) + variable.hashCode();
+			hash = (hash * 31) + (positive ? 1 : 2);
+		}
+		for (final Formula child : children) {
+			hash = (hash * 31) + child.hashCode;
+		}
+		hashCode = hash;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public boolean isLiteral() {
+		return type == Type.LITERAL;
+	}
+
+	/**
+	 * @return the variable of a literal or {@code null} for all other formulas
+	 */
+	public Object getVariable() {
+		return variable;
+	}
+
+	/**
+	 * @return {@code false} if this is a negative literal
+	 */
+	public boolean isPositive() {
+		return positive;
+	}
+
+	/**
+	 * @return the number of the cardinality operators {@link Type#CHOOSE choose}, {@link Type#AT_LEAST at least}, and {@link Type#AT_MOST at most}
+	 */
+	public int getBound() {
+		return bound;
+	}
+
+	public int getNumberOfChildren() {
+		return children.length;
+	}
+
+	public Formula getChild(int index) {
+		return children[index];
+	}
+
+	/**
+	 * @return a copy of the array of children
+	 */
+	public Formula[] getChildren() {
+		return Arrays.copyOf(children, children.length);
+	}
+
+	/**
+	 * Evaluates this formula. Each shared subterm is evaluated only once.
+	 *
+	 * @param assignment truth value assignment from variable to true or false
+	 * @return the result of evaluation of this formula
+	 */
+	public boolean getValue(Map<Object, Boolean> assignment) {
+		return getValue(assignment, new IdentityHashMap<Formula, Boolean>());
+	}
+
+	private boolean getValue(Map<Object, Boolean> assignment, Map<Formula, Boolean> values) {
+		if (type == Type.LITERAL) {
+			return positive == assignment.get(variable);
+		}
+		final Boolean knownValue = values.get(this);
+		if (knownValue != null) {
+			return knownValue;
+		}
+		final boolean value;
+		switch (type) {
+		case NOT:
+			value = !children[0].getValue(assignment, values);
+			break;
+		case AND:
+			value = countTrueChildren(assignment, values) == children.length;
+			break;
+		case OR:
+			value = countTrueChildren(assignment, values) > 0;
+			break;
+		case IMPLIES:
+			value = !children[0].getValue(assignment, values) || children[1].getValue(assignment, values);
+			break;
+		case EQUALS:
+			value = children[0].getValue(assignment, values) == children[1].getValue(assignment, values);
+			break;
+		case CHOOSE:
+			value = countTrueChildren(assignment, values) == bound;
+			break;
+		case AT_LEAST:
+			value = countTrueChildren(assignment, values) >= bound;
+			break;
+		case AT_MOST:
+			value = countTrueChildren(assignment, values) <= bound;
+			break;
+		default:
+			throw new IllegalStateException(type.toString());
+		}
+		values.put(this, value);
+		return value;
+	}
+
+	private int countTrueChildren(Map<Object, Boolean> assignment, Map<Formula, Boolean> values) {
+		int count = 0;
+		for (final Formula child : children) {
+			if (child.getValue(assignment, values)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Creates a new {@link Node} tree for this formula. Shared subterms are copied for each occurrence.
+	 *
+	 * @return a new node
+	 */
+	public Node toNode() {
+		switch (type) {
+		case LITERAL:
+			return new Literal(variable, positive);
+		case NOT:
+			return new Not(children[0].toNode());
+		case AND:
+			return new And(toNodes());
+		case OR:
+			return new Or(toNodes());
+		case IMPLIES:
+			return new Implies(children[0].toNode(), children[1].toNode());
+		case EQUALS:
+			return new Equals(children[0].toNode(), children[1].toNode());
+		case CHOOSE:
+			return new Choose(bound, toNodes());
+		case AT_LEAST:
+			return new AtLeast(bound, toNodes());
+		case AT_MOST:
+			return new AtMost(bound, toNodes());
+		default:
+			throw new IllegalStateException(type.toString());
+		}
+	}
+
+	private Node[] toNodes() {
+		final Node[] nodes = new Node[children.length];
+		for (int i = 0; i < children.length; i++) {
+			nodes[i] = children[i].toNode();
+		}
+		return nodes;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	/**
+	 * Compares the type, variable, bound, and the identity of the children. For formulas of the same factory this is equivalent to structural equality.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Formula)) {
+			return false;
+		}
+		final Formula other = (Formula) obj;
+		if ((hashCode != other.hashCode) || (type != other.type) || (bound != other.bound) || (positive != other.positive)
+			|| (children.length != other.children.length)) {
+			return false;
+		}
+		if ((variable != null) ? !variable.equals(other.variable) : (other.variable != null)) {
+			return false;
+		}
+		for (int i = 0; i < children.length; i++) {
+			if (children[i] != other.children[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return toNode().toString();
+	}
+
+}
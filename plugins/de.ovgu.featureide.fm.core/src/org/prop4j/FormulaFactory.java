@@ -0,0 +1,185 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.prop4j.Formula.Type;
+
+/**
+ * Creates {@link Formula formulas} using hash-consing, i.e., each structurally distinct formula is created only once and then shared.<br> The factory applies
+ * some normalizations, such that equivalent formulas are more likely to be identical: Children of {@link And}, {@link Or}, and {@link Equals} are sorted,
+ * negations of literals are replaced by negative literals, and double negations are removed. Formulas of different factories must not be mixed.<br> This
+ * class is thread-safe. All formulas are kept until the factory is garbage collected.
+ */
+public class FormulaFactory {
+
+	private static final Comparator<Formula> ID_COMPARATOR = new Comparator<Formula>() {
+
+		@Override
+		public int compare(Formula o1, Formula o2) {
+			return o1.id - o2.id;
+		}
+	};
+
+	private final ConcurrentHashMap<Formula, Formula> formulas = new ConcurrentHashMap<>();
+	private final AtomicInteger idCounter = new AtomicInteger();
+
+	private Formula intern(Formula formula) {
+		final Formula existingFormula = formulas.putIfAbsent(formula, formula);
+		return existingFormula != null ? existingFormula : formula;
+	}
+
+	private Formula create(Type type, int bound, Formula[] children) {
+		for (final Formula child : children) {
+			if (formulas.get(child) != child) {
+				throw new IllegalArgumentException("Formula was created by another factory: " + child);
+			}
+		}
+		return intern(new Formula(type, bound, children, idCounter.getAndIncrement()));
+	}
+
+	private Formula createCommutative(Type type, Formula[] children) {
+		final Formula[] sortedChildren = Arrays.copyOf(children, children.length);
+		Arrays.sort(sortedChildren, ID_COMPARATOR);
+		return create(type, 0, sortedChildren);
+	}
+
+	/**
+	 * @return the number of distinct formulas created by this factory
+	 */
+	public int getNumberOfFormulas() {
+		return formulas.size();
+	}
+
+	public Formula literal(Object variable) {
+		return literal(variable, true);
+	}
+
+	public Formula literal(Object variable, boolean positive) {
+		if (variable == null) {
+			throw new IllegalArgumentException("Variable must not be null");
+		}
+		return intern(new Formula(variable, positive, idCounter.getAndIncrement()));
+	}
+
+	public Formula not(Formula formula) {
+		switch (formula.type) {
+		case LITERAL:
+			return literal(formula.variable, !formula.positive);
+		case NOT:
+			return formula.children[0];
+		default:
+			return create(Type.NOT, 0, new Formula[] { formula });
+		}
+	}
+
+	public Formula and(Formula... children) {
+		return createCommutative(Type.AND, children);
+	}
+
+	public Formula and(Collection<Formula> children) {
+		return and(children.toArray(new Formula[children.size()]));
+	}
+
+	public Formula or(Formula... children) {
+		return createCommutative(Type.OR, children);
+	}
+
+	public Formula or(Collection<Formula> children) {
+		return or(children.toArray(new Formula[children.size()]));
+	}
+
+	public Formula implies(Formula left, Formula right) {
+		return create(Type.IMPLIES, 0, new Formula[] { left, right });
+	}
+
+	public Formula iff(Formula left, Formula right) {
+		return createCommutative(Type.EQUALS, new Formula[] { left, right });
+	}
+
+	public Formula choose(int n, Formula... children) {
+		return create(Type.CHOOSE, n, Arrays.copyOf(children, children.length));
+	}
+
+	public Formula atLeast(int min, Formula... children) {
+		return create(Type.AT_LEAST, min, Arrays.copyOf(children, children.length));
+	}
+
+	public Formula atMost(int max, Formula... children) {
+		return create(Type.AT_MOST, max, Arrays.copyOf(children, children.length));
+	}
+
+	/**
+	 * Converts the given node into a formula of this factory. The node is not modified.
+	 *
+	 * @param node the node to convert
+	 * @return the interned formula
+	 */
+	public Formula intern(Node node) {
+		return intern(node, new IdentityHashMap<Node, Formula>());
+	}
+
+	private Formula intern(Node node, Map<Node, Formula> convertedNodes) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			return literal(literal.var, literal.positive);
+		}
+		final Formula convertedNode = convertedNodes.get(node);
+		if (convertedNode != null) {
+			return convertedNode;
+		}
+		final Node[] nodeChildren = node.getChildren();
+		final Formula[] children = new Formula[nodeChildren.length];
+		for (int i = 0; i < nodeChildren.length; i++) {
+			children[i] = intern(nodeChildren[i], convertedNodes);
+		}
+		final Formula formula;
+		if (node instanceof Not) {
+			formula = not(children[0]);
+		} else if (node instanceof And) {
+			formula = and(children);
+		} else if (node instanceof Or) {
+			formula = or(children);
+		} else if (node instanceof Implies) {
+			formula = implies(children[0], children[1]);
+		} else if (node instanceof Equals) {
+			formula = iff(children[0], children[1]);
+		} else if (node instanceof Choose) {
+			formula = create(Type.CHOOSE, ((Choose) node).n, children);
+		} else if (node instanceof AtLeast) {
+			formula = create(Type.AT_LEAST, ((AtLeast) node).min, children);
+		} else if (node instanceof AtMost) {
+			formula = create(Type.AT_MOST, ((AtMost) node).max, children);
+		} else {
+			throw new IllegalArgumentException("Unsupported node type: " + node.getClass().getSimpleName());
+		}
+		convertedNodes.put(node, formula);
+		return formula;
+	}
+
+}
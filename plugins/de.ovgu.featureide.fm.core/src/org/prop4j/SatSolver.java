@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.prop4j.solver.ClauseDatabase;
 import org.sat4j.core.ConstrGroup;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
@@ -90,6 +91,45 @@ public class SatSolver {
 		initSolver(node, timeout, createCNF);
 	}
 
+	/**
+	 * Creates a solver for the given clauses. The variables of the solver are numbered as in the database.
+	 *
+	 * @param clauses the clause database
+	 * @param timeout the timeout in milliseconds
+	 */
+	public SatSolver(ClauseDatabase clauses, long timeout) {
+		final int numberOfVariables = clauses.getNumberOfVariables();
+		varToInt = new HashMap<Object, Integer>(numberOfVariables << 1);
+		intToVar = new HashMap<Integer, Object>(numberOfVariables << 1);
+		for (int i = 1; i <= numberOfVariables; i++) {
+			final Object var = clauses.getVariableObject(i);
+			varToInt.put(var, i);
+			intToVar.put(i, var);
+		}
+
+		solver = SolverFactory.newDefault();
+		solver.setTimeoutMs(timeout);
+		solver.newVar(numberOfVariables);
+		try {
+			final int numberOfClauses = clauses.getNumberOfClauses();
+			final VecInt clause = new VecInt();
+			for (int i = 0; i < numberOfClauses; i++) {
+				solver.addClause(clauses.getClause(i, clause));
+			}
+			// tautology that contains all variables (see getIntOfLiteral)
+			if (numberOfVariables > 0) {
+				final VecInt pseudoClause = new VecInt(numberOfVariables + 1);
+				for (int i = 1; i <= numberOfVariables; i++) {
+					pseudoClause.push(i);
+				}
+				pseudoClause.push(-1);
+				solver.addClause(pseudoClause);
+			}
+		} catch (final ContradictionException e) {
+			contradiction = true;
+		}
+	}
+
 	protected void readVars(Node node) {
 		if (node instanceof Literal) {
 			final Object var = ((Literal) node).var;
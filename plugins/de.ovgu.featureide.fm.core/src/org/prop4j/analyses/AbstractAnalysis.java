@@ -39,24 +39,35 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 
 	protected int[] assumptions = null;
 
+	private final boolean solverOnDemand;
+
 	public AbstractAnalysis(SatInstance satInstance) {
 		try {
 			this.solver = new BasicSolver(satInstance);
 		} catch (final ContradictionException e) {
 			this.solver = null;
 		}
+		solverOnDemand = false;
 	}
 
 	public AbstractAnalysis(ISatSolver solver) {
 		this.solver = solver;
+		solverOnDemand = false;
+	}
+
+	/**
+	 * Creates an analysis without a solver. The subclass creates the solver on demand and pushes the {@link #assumptions} to it.
+	 */
+	protected AbstractAnalysis() {
+		solverOnDemand = true;
 	}
 
 	@Override
 	public final T execute(IMonitor monitor) throws Exception {
-		if (solver == null) {
+		if ((solver == null) && !solverOnDemand) {
 			return null;
 		}
-		if (assumptions != null) {
+		if ((solver != null) && (assumptions != null)) {
 			for (final int assumption : assumptions) {
 				solver.assignmentPush(assumption);
 			}
@@ -67,7 +78,9 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 		} catch (final Throwable e) {
 			throw e;
 		} finally {
-			solver.assignmentClear(0);
+			if (solver != null) {
+				solver.assignmentClear(0);
+			}
 		}
 	}
 
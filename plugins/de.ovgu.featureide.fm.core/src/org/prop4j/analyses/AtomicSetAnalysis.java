@@ -26,6 +26,7 @@ import java.util.List;
 
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.PortfolioSolver;
 import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.fm.core.base.util.RingList;
@@ -63,23 +64,29 @@ public class AtomicSetAnalysis extends AbstractAnalysis<List<int[]>> {
 			final int[] model1Copy = Arrays.copyOf(model1, model1.length);
 
 			SatInstance.updateModel(model1Copy, model2);
-			for (int i = 0; i < model1Copy.length; i++) {
-				final int varX = model1Copy[i];
-				if (varX != 0) {
-					solver.assignmentPush(-varX);
-					switch (solver.isSatisfiable()) {
-					case FALSE:
-						done[i] = 2;
-						solver.assignmentReplaceLast(varX);
-						break;
-					case TIMEOUT:
-						solver.assignmentPop();
-						break;
-					case TRUE:
-						solver.assignmentPop();
-						SatInstance.updateModel(model1Copy, solver.getModel());
-						solver.shuffleOrder();
-						break;
+			if (solver instanceof PortfolioSolver) {
+				for (final int varX : ((PortfolioSolver) solver).findFixedLiterals(model1Copy, monitor)) {
+					done[Math.abs(varX) - 1] = 2;
+				}
+			} else {
+				for (int i = 0; i < model1Copy.length; i++) {
+					final int varX = model1Copy[i];
+					if (varX != 0) {
+						solver.assignmentPush(-varX);
+						switch (solver.isSatisfiable()) {
+						case FALSE:
+							done[i] = 2;
+							solver.assignmentReplaceLast(varX);
+							break;
+						case TIMEOUT:
+							solver.assignmentPop();
+							break;
+						case TRUE:
+							solver.assignmentPop();
+							SatInstance.updateModel(model1Copy, solver.getModel());
+							solver.shuffleOrder();
+							break;
+						}
 					}
 				}
 			}
@@ -23,6 +23,7 @@ package org.prop4j.analyses;
 import org.prop4j.solver.FixedLiteralSelectionStrategy;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.PortfolioSolver;
 import org.prop4j.solver.SatInstance;
 import org.prop4j.solver.VarOrderHeap2;
 import org.sat4j.minisat.core.Solver;
@@ -58,6 +59,11 @@ public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
 				model1[Math.abs(assumptions[i]) - 1] = 0;
 			}
 
+			if (solver instanceof PortfolioSolver) {
+				((PortfolioSolver) solver).findFixedLiterals(model1, monitor);
+				return solver.getAssignmentArray(assumptions.length, solver.getAssignment().size());
+			}
+
 			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
 
 			for (int i = 0; i < model1.length; i++) {
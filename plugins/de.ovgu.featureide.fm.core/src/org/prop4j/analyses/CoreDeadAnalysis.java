@@ -23,6 +23,7 @@ package org.prop4j.analyses;
 import org.prop4j.solver.FixedLiteralSelectionStrategy;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.PortfolioSolver;
 import org.prop4j.solver.SatInstance;
 import org.prop4j.solver.VarOrderHeap2;
 import org.sat4j.minisat.core.Solver;
@@ -75,9 +76,23 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 					}
 				}
 				model1 = model3;
+			} else {
+				// auxiliary variables are never reported as core or dead
+				final SatInstance satInstance = solver.getSatInstance();
+				for (int i = satInstance.getNumberOfFeatureVariables(); i < model1.length; i++) {
+					model1[i] = 0;
+				}
 			}
 
 			SatInstance.updateModel(model1, model2);
+
+			if (solver instanceof PortfolioSolver) {
+				for (final int varX : ((PortfolioSolver) solver).findFixedLiterals(model1, monitor)) {
+					monitor.invoke(varX);
+				}
+				return solver.getAssignmentArray(orgAssignmentSize, solver.getAssignment().size());
+			}
+
 			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
 
 			for (int i = 0; i < model1.length; i++) {
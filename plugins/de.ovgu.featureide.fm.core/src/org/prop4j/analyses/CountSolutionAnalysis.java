@@ -20,9 +20,12 @@
  */
 package org.prop4j.analyses;
 
+import java.math.BigInteger;
+
 import org.prop4j.solver.BasicSolver;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.ModelCounter;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.core.Solver;
@@ -31,18 +34,28 @@ import org.sat4j.specs.ContradictionException;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Computes the number of valid solutions for the given {@link SatInstance}.
+ * Computes the number of valid solutions for the given {@link SatInstance}.</br> The solutions are counted by a {@link ModelCounter}. If it does not finish
+ * within the timeout, the solutions are enumerated instead to at least compute a lower bound.</br> The result is encoded as follows: A non-negative value is
+ * the exact number of solutions, a negative value {@code -1 - n} denotes that there are more than {@code n} solutions. The exact number (also for numbers
+ * exceeding the range of long) can be retrieved via {@link #getNumberOfSolutions()}.</br> The timeout applies to the whole analysis, i.e., the enumeration only
+ * gets the time that the model counter left. The solver for the enumeration is only created if it is needed.
  *
  * @author Sebastian Krieter
  */
 public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
 
+	private final SatInstance satInstance;
+	private final long timeout;
+
+	private BigInteger numberOfSolutions = null;
+
 	public CountSolutionAnalysis(SatInstance satInstance) {
 		this(satInstance, ISatSolver.DEFAULT_TIMEOUT);
 	}
 
 	public CountSolutionAnalysis(SatInstance satInstance, long globalTimeout) {
-		super(createSolver(satInstance, globalTimeout));
+		this.satInstance = satInstance;
+		timeout = globalTimeout;
 	}
 
 	private static BasicSolver createSolver(SatInstance satInstance, final long timeout) {
@@ -63,7 +76,26 @@ public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
 
 	@Override
 	public Long analyze(IMonitor monitor) throws Exception {
+		final long startTime = System.currentTimeMillis();
+		numberOfSolutions = new ModelCounter(satInstance).count(assumptions, timeout, monitor);
+		if (numberOfSolutions != null) {
+			return (numberOfSolutions.bitLength() < Long.SIZE) ? numberOfSolutions.longValue() : Long.MIN_VALUE;
+		}
+
 		long lowerBound = 0;
+		final long remainingTime = timeout - (System.currentTimeMillis() - startTime);
+		if (remainingTime <= 0) {
+			return -1 - lowerBound;
+		}
+		solver = createSolver(satInstance, remainingTime);
+		if (solver == null) {
+			return lowerBound;
+		}
+		if (assumptions != null) {
+			for (final int assumption : assumptions) {
+				solver.assignmentPush(assumption);
+			}
+		}
 		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
 		solutionLoop: while (true) {
 			switch (solver.isSatisfiable()) {
@@ -87,4 +119,11 @@ public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
 		return lowerBound;
 	}
 
+	/**
+	 * @return the exact number of solutions computed by the last run of this analysis or {@code null} if the number could not be computed within the timeout
+	 */
+	public BigInteger getNumberOfSolutions() {
+		return numberOfSolutions;
+	}
+
 }
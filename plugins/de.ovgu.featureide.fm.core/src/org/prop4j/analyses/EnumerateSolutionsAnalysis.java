@@ -0,0 +1,177 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Enumerates all solutions of a formula that differ in a given set of variables. The variables are decided in the given order by a depth-first search on one
+ * solver, whose assumption stack always contains the current partial assignment. As the search follows the model of the last satisfiable call, only branches
+ * that deviate from this model require a call of the solver and every call either finds a new solution or prunes a subtree.<br> <br> Each solution is passed
+ * as bitset (bit {@code var - 1} is set iff the variable {@code var} is selected) to the intermediate function of the monitor. Variables that are not
+ * enumerated get the value of an arbitrary model that is consistent with the enumerated variables. The result of the analysis is the number of found
+ * solutions.
+ */
+public class EnumerateSolutionsAnalysis extends AbstractAnalysis<Long> {
+
+	private final int[] variables;
+	private final long maxNumber;
+
+	private boolean timeoutOccured = false;
+
+	/**
+	 * @param satInstance the formula
+	 * @param variables the variables to enumerate (in this order)
+	 * @param maxNumber the maximal number of solutions to enumerate
+	 */
+	public EnumerateSolutionsAnalysis(SatInstance satInstance, int[] variables, long maxNumber) {
+		super(satInstance);
+		this.variables = variables;
+		this.maxNumber = maxNumber;
+	}
+
+	public EnumerateSolutionsAnalysis(ISatSolver solver, int[] variables, long maxNumber) {
+		super(solver);
+		this.variables = variables;
+		this.maxNumber = maxNumber;
+	}
+
+	@Override
+	public Long analyze(IMonitor monitor) throws Exception {
+		timeoutOccured = false;
+		long count = 0;
+		if (maxNumber <= 0) {
+			return count;
+		}
+
+		int[] model = findModel();
+		if (model == null) {
+			return count;
+		}
+
+		final int numberOfVariables = solver.getSatInstance().getNumberOfVariables();
+		final long[] selection = new long[(numberOfVariables + Long.SIZE - 1) / Long.SIZE];
+
+		final boolean[] enumerated = new boolean[numberOfVariables];
+		for (final int variable : variables) {
+			enumerated[variable - 1] = true;
+		}
+		int numberOfFreeVariables = 0;
+		for (int i = 0; i < numberOfVariables; i++) {
+			if (!enumerated[i]) {
+				numberOfFreeVariables++;
+			}
+		}
+		final int[] freeVariables = new int[numberOfFreeVariables];
+		for (int i = 0, j = 0; i < numberOfVariables; i++) {
+			if (!enumerated[i]) {
+				freeVariables[j++] = i + 1;
+			}
+		}
+
+		// for each depth whether the second branch was already taken
+		final boolean[] switched = new boolean[variables.length];
+		int depth = 0;
+		while (true) {
+			// descend along the current model
+			for (; depth < variables.length; depth++) {
+				final int literal = model[variables[depth] - 1];
+				solver.assignmentPush(literal);
+				setBit(selection, literal);
+				switched[depth] = false;
+			}
+
+			for (final int variable : freeVariables) {
+				setBit(selection, model[variable - 1]);
+			}
+			monitor.invoke(selection.clone());
+			if (++count >= maxNumber) {
+				return count;
+			}
+			monitor.checkCancel();
+
+			// backtrack to the deepest variable whose second branch is open and is satisfiable
+			model = null;
+			while (model == null) {
+				if (depth == 0) {
+					return count;
+				}
+				depth--;
+				if (switched[depth]) {
+					solver.assignmentPop();
+				} else {
+					switched[depth] = true;
+					final int literal = -solver.getAssignment().last();
+					solver.assignmentReplaceLast(literal);
+					setBit(selection, literal);
+					model = findModel();
+					if (model == null) {
+						solver.assignmentPop();
+					}
+				}
+			}
+			depth++;
+		}
+	}
+
+	private int[] findModel() {
+		switch (solver.isSatisfiable()) {
+		case TRUE:
+			return solver.getModel();
+		case TIMEOUT:
+			timeoutOccured = true;
+			return null;
+		case FALSE:
+		default:
+			return null;
+		}
+	}
+
+	private static void setBit(long[] bitset, int literal) {
+		final int index = Math.abs(literal) - 1;
+		if (literal > 0) {
+			bitset[index >>> 6] |= 1L << index;
+		} else {
+			bitset[index >>> 6] &= ~(1L << index);
+		}
+	}
+
+	/**
+	 * @return {@code true} if at least one call of the solver timed out, such that some solutions may be missing.
+	 */
+	public boolean hasTimeoutOccured() {
+		return timeoutOccured;
+	}
+
+	/**
+	 * @param solution a solution passed to the intermediate function
+	 * @param variable a variable
+	 * @return {@code true} if the variable is selected in the solution
+	 */
+	public static boolean isSelected(long[] solution, int variable) {
+		final int index = variable - 1;
+		return (solution[index >>> 6] & (1L << index)) != 0;
+	}
+
+}
@@ -33,6 +33,7 @@ import org.prop4j.solver.SatInstance;
 import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -52,6 +53,8 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	private int[] index;
 	private IFeatureGraph featureGraph;
 
+	private boolean sparseGraph = true;
+
 	public FGBuilder(ISatSolver solver) {
 		super(solver);
 	}
@@ -60,6 +63,16 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 		super(satInstance);
 	}
 
+	/**
+	 * Whether the resulting graph is a {@link SparseFeatureGraph} (default) or a {@link MatrixFeatureGraph}. The matrix requires memory quadratic in the number
+	 * of features, but allows slightly faster access for dense graphs.
+	 *
+	 * @param sparseGraph {@code true} for a sparse graph
+	 */
+	public void setSparseGraph(boolean sparseGraph) {
+		this.sparseGraph = sparseGraph;
+	}
+
 	@Override
 	public IFeatureGraph analyze(IMonitor monitor) throws Exception {
 		parentStack.clear();
@@ -125,7 +138,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 			}
 
 			final SatInstance satInstance = solver.getSatInstance();
-			featureGraph = new MatrixFeatureGraph(satInstance, index);
+			featureGraph = sparseGraph ? new SparseFeatureGraph(satInstance, index) : new MatrixFeatureGraph(satInstance, index);
 
 			final Node cnf = satInstance.getCnf();
 			outer: for (final Node clause : cnf.getChildren()) {
@@ -221,6 +234,9 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				complete[i] = true;
 			}
 
+			if (featureGraph instanceof SparseFeatureGraph) {
+				((SparseFeatureGraph) featureGraph).trimToSize();
+			}
 			return featureGraph;
 		}
 		return null;
@@ -333,7 +349,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	private void dfs(byte[] visited, boolean[] complete, int curFeature, boolean selected) {
 		visited[curFeature] = 5;
 
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextNeighbor(curFeature, 0); j >= 0; j = featureGraph.getNextNeighbor(curFeature, j + 1)) {
 			final byte visit = visited[j];
 			if (visit < 5) {
 				final byte childSelected;
@@ -398,7 +414,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
 	private void dfs_rec(byte[] visited, boolean[] complete, int curFeature, int parentFeature, byte selected, boolean parentSelected) {
 		final boolean incomplete = !complete[curFeature];
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextNeighbor(curFeature, 0); j >= 0; j = featureGraph.getNextNeighbor(curFeature, j + 1)) {
 			final byte visit = visited[j];
 			byte childSelected = -1;
 
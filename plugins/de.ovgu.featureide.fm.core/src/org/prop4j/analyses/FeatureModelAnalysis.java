@@ -21,16 +21,21 @@
 package org.prop4j.analyses;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.ModifiableSolver;
+import org.prop4j.solver.PortfolioSolver;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IConstr;
@@ -42,6 +47,7 @@ import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.util.RingList;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
@@ -81,6 +87,11 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 	public boolean calculateDeadConstraints = true;
 
+	/**
+	 * Defines among how many solvers the checks for core and dead features should be distributed (see {@link PortfolioSolver}).
+	 */
+	private int numberOfThreads = 1;
+
 	/**
 	 * Defines whether constraints that are tautologies should be calculated.
 	 */
@@ -98,6 +109,11 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 	private IMonitor monitor = new NullMonitor();
 
+	/**
+	 * Results of previous analyses that are reused if possible. May be {@code null}.
+	 */
+	private IncrementalAnalysisCache cache = null;
+
 	public FeatureModelAnalysis(IFeatureModel fm) {
 		this.fm = fm;
 
@@ -167,6 +183,28 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		this.calculateDeadConstraints = calculateDeadConstraints;
 	}
 
+	public IncrementalAnalysisCache getCache() {
+		return cache;
+	}
+
+	public void setCache(IncrementalAnalysisCache cache) {
+		this.cache = cache;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of solvers among which the checks for core and dead features are distributed (see {@link PortfolioSolver}). Default is 1, i.e., the
+	 * checks are performed sequentially.
+	 *
+	 * @param numberOfThreads the number of solvers
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 	/**
 	 * @return Hashmap: key entry is Feature/Constraint, value usually indicating the kind of attribute (non-Javadoc)
 	 */
@@ -216,20 +254,42 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		monitor.step();
 
 		nodeCreator.setModelType(ModelType.All);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		final SatInstance si = new SatInstance(nodeCreator.createClauseDatabase());
+		final Set<String> clauseKeys = (cache != null) ? IncrementalAnalysisCache.getClauseKeys(si) : null;
+		final List<int[]> witnesses = (cache != null) ? cache.getWitnesses(si) : Collections.<int[]> emptyList();
 
-		checkValidity(si);
+		if (witnesses.isEmpty()) {
+			checkValidity(si);
+		} else {
+			valid = true;
+		}
 		monitor.step();
 
 		if (valid) {
-			checkFeatureFalseOptional(features, si);
+			final RingList<int[]> newWitnesses = new RingList<>(ISatSolver.MAX_SOLUTION_BUFFER);
+			for (final int[] witness : witnesses) {
+				newWitnesses.add(witness);
+			}
+
+			checkFeatureFalseOptional(features, si, clauseKeys, witnesses, newWitnesses);
 			monitor.step();
 
-			checkFeatureDead(si);
+			checkFeatureDead(si, clauseKeys, witnesses, newWitnesses);
 			monitor.step();
 
 			checkFeatureHidden(features);
 			monitor.step();
+
+			if (cache != null) {
+				final List<int[]> newWitnessList = new ArrayList<>();
+				for (final int[] witness : newWitnesses) {
+					newWitnessList.add(witness);
+				}
+				cache.setFeatureResults(clauseKeys, si, newWitnessList, Functional.mapToList(coreFeatures, FeatureUtils.GET_FEATURE_NAME),
+						Functional.mapToList(deadFeatures, FeatureUtils.GET_FEATURE_NAME), Functional.mapToList(falseOptionalFeatures, FeatureUtils.GET_FEATURE_NAME));
+			}
+		} else if (cache != null) {
+			cache.setFeatureResults(clauseKeys, si, Collections.<int[]> emptyList(), null, null, null);
 		}
 	}
 
@@ -243,7 +303,14 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 
 		if (!calculateFeatures) {
-			checkValidity(new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm)));
+			checkValidity(new SatInstance(nodeCreator.createClauseDatabase()));
+		}
+		if (cache != null) {
+			final List<String> constraintKeys = new ArrayList<>(constraints.size());
+			for (final IConstraint constraint : constraints) {
+				constraintKeys.add(constraint.getNode().toString());
+			}
+			cache.retainTautologies(constraintKeys);
 		}
 
 		try {
@@ -271,7 +338,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			return;
 		}
 		nodeCreator.setModelType(ModelType.OnlyStructure);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		final SatInstance si = new SatInstance(nodeCreator.createClauseDatabase());
 		final BasicSolver modSat = new BasicSolver(si);
 
 		final List<IFeature> deadList = new LinkedList<>(deadFeatures);
@@ -316,7 +383,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	private void checkConstraintRedundant(final List<IConstraint> constraints) throws ContradictionException {
 		if (calculateRedundantConstraints) {
 			nodeCreator.setModelType(ModelType.OnlyStructure);
-			final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+			final SatInstance si = new SatInstance(nodeCreator.createClauseDatabase());
 			final ModifiableSolver redundantSat = new ModifiableSolver(si);
 
 			final List<List<IConstr>> constraintMarkers = new ArrayList<>();
@@ -375,12 +442,21 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	}
 
 	private boolean checkConstraintTautology(Node constraintNode) {
-		return checkConstraintContradiction(new Not(constraintNode).toRegularCNF());
+		if (cache == null) {
+			return checkConstraintContradiction(new Not(constraintNode).toRegularCNF());
+		}
+		final String key = constraintNode.toString();
+		Boolean tautology = cache.getTautology(key);
+		if (tautology == null) {
+			tautology = checkConstraintContradiction(new Not(constraintNode).toRegularCNF());
+			cache.setTautology(key, tautology);
+		}
+		return tautology;
 	}
 
 	private void checkConstraintUnsatisfiable(final List<IConstraint> constraints) throws ContradictionException {
 		nodeCreator.setModelType(ModelType.OnlyStructure);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		final SatInstance si = new SatInstance(nodeCreator.createClauseDatabase());
 		final ModifiableSolver unsat = new ModifiableSolver(si);
 		monitor.checkCancel();
 
@@ -417,10 +493,81 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
-	private void checkFeatureDead(final SatInstance si) {
+	private void checkFeatureDead(final SatInstance si, Set<String> clauseKeys, List<int[]> witnesses, RingList<int[]> newWitnesses) {
 		deadFeatures.clear();
 		coreFeatures.clear();
-		final int[] solution2 = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si), monitor.subTask(0));
+		final BasicSolver solver;
+		try {
+			solver = (numberOfThreads > 1) ? new PortfolioSolver(si, numberOfThreads) : new BasicSolver(si);
+		} catch (final ContradictionException e) {
+			Logger.logError(e);
+			return;
+		}
+		if (cache != null) {
+			solver.initSolutionList(ISatSolver.MAX_SOLUTION_BUFFER);
+		}
+
+		final int numberOfVariables = si.getNumberOfVariables();
+		final List<Integer> knownLiterals = new ArrayList<>();
+		final Set<String> knownCore = (cache != null) ? cache.getCoreFeatures(clauseKeys) : null;
+		final Set<String> knownDead = (cache != null) ? cache.getDeadFeatures(clauseKeys) : null;
+		final boolean complete = (knownCore != null) && (knownDead != null) && cache.isUnchanged(clauseKeys);
+		if ((knownCore != null) && (knownDead != null)) {
+			for (int i = 1; i <= numberOfVariables; i++) {
+				final String name = si.getVariableObject(i).toString();
+				if (knownCore.contains(name)) {
+					knownLiterals.add(i);
+				} else if (knownDead.contains(name)) {
+					knownLiterals.add(-i);
+				}
+			}
+		}
+
+		final CoreDeadAnalysis analysis;
+		if (complete) {
+			// the CNF did not change, so the known literals are all core and dead features
+			analysis = null;
+		} else if (witnesses.isEmpty() && knownLiterals.isEmpty()) {
+			analysis = new CoreDeadAnalysis(solver);
+		} else {
+			final byte[] refuted = new byte[numberOfVariables];
+			for (final int[] witness : witnesses) {
+				for (int i = 0; i < numberOfVariables; i++) {
+					refuted[i] |= witness[i] > 0 ? 1 : 2;
+				}
+			}
+			for (final int literal : knownLiterals) {
+				refuted[Math.abs(literal) - 1] = 3;
+			}
+			final int[] candidates = new int[numberOfVariables];
+			int numberOfCandidates = 0;
+			for (int i = 0; i < numberOfVariables; i++) {
+				if (refuted[i] != 3) {
+					candidates[numberOfCandidates++] = i + 1;
+				}
+			}
+			final int[] assumptions = new int[knownLiterals.size()];
+			for (int i = 0; i < assumptions.length; i++) {
+				assumptions[i] = knownLiterals.get(i);
+			}
+			analysis = new CoreDeadAnalysis(solver, Arrays.copyOf(candidates, numberOfCandidates));
+			analysis.setAssumptions(assumptions);
+		}
+		final int[] newLiterals = (analysis != null) ? LongRunningWrapper.runMethod(analysis, monitor.subTask(0)) : new int[0];
+		if (newLiterals == null) {
+			return;
+		}
+		if (solver.getSolutionList() != null) {
+			for (final int[] solution : solver.getSolutionList()) {
+				newWitnesses.add(solution);
+			}
+		}
+
+		final int[] solution2 = new int[knownLiterals.size() + newLiterals.length];
+		for (int i = 0; i < knownLiterals.size(); i++) {
+			solution2[i] = knownLiterals.get(i);
+		}
+		System.arraycopy(newLiterals, 0, solution2, knownLiterals.size(), newLiterals.length);
 		monitor.checkCancel();
 		for (int i = 0; i < solution2.length; i++) {
 			monitor.checkCancel();
@@ -455,22 +602,62 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return result;
 	}
 
-	private void checkFeatureFalseOptional(final Iterable<IFeature> features, final SatInstance si) {
+	private void checkFeatureFalseOptional(final Iterable<IFeature> features, final SatInstance si, Set<String> clauseKeys, List<int[]> witnesses,
+			RingList<int[]> newWitnesses) {
+		final Set<String> knownFalseOptional = (cache != null) ? cache.getFalseOptionalFeatures(clauseKeys) : null;
+		final boolean complete = (knownFalseOptional != null) && cache.isUnchanged(clauseKeys);
 		final List<int[]> possibleFOFeatures = new ArrayList<>();
-		for (final IFeature feature : features) {
+		final Set<String> falseOptionalNames = new HashSet<>();
+		pairLoop: for (final IFeature feature : features) {
 			final IFeature parent = FeatureUtils.getParent(feature);
 			if ((parent != null) && (!feature.getStructure().isMandatorySet() || !parent.getStructure().isAnd())) {
-				possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
+				final int parentVar = si.getVariable(parent.getName());
+				final int featureVar = si.getVariable(feature.getName());
+				if ((knownFalseOptional != null) && knownFalseOptional.contains(feature.getName())) {
+					falseOptionalNames.add(feature.getName());
+					continue;
+				}
+				if (complete) {
+					continue;
+				}
+				for (final int[] witness : witnesses) {
+					if ((witness[parentVar - 1] > 0) && (witness[featureVar - 1] < 0)) {
+						continue pairLoop;
+					}
+				}
+				possibleFOFeatures.add(new int[] { -parentVar, featureVar });
+			}
+		}
+		final BasicSolver solver;
+		try {
+			solver = new BasicSolver(si);
+		} catch (final ContradictionException e) {
+			Logger.logError(e);
+			return;
+		}
+		if (cache != null) {
+			solver.initSolutionList(ISatSolver.MAX_SOLUTION_BUFFER);
+		}
+		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(solver, possibleFOFeatures), monitor.subTask(0));
+		if (solution3 == null) {
+			return;
+		}
+		if (solver.getSolutionList() != null) {
+			for (final int[] solution : solver.getSolutionList()) {
+				newWitnesses.add(solution);
 			}
 		}
-		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(si, possibleFOFeatures), monitor.subTask(0));
+		for (final int[] pair : solution3) {
+			falseOptionalNames.add((String) si.getVariableObject(pair[1]));
+		}
 		monitor.checkCancel();
 		falseOptionalFeatures.clear();
-		for (final int[] pair : solution3) {
+		for (final IFeature feature : features) {
 			monitor.checkCancel();
-			final IFeature feature = fm.getFeature((CharSequence) si.getVariableObject(pair[1]));
-			setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
-			falseOptionalFeatures.add(feature);
+			if (falseOptionalNames.contains(feature.getName())) {
+				setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
+				falseOptionalFeatures.add(feature);
+			}
 		}
 	}
 
@@ -505,7 +692,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 
 		nodeCreator.setModelType(ModelType.All);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		final SatInstance si = new SatInstance(nodeCreator.createClauseDatabase());
 
 		final Iterable<IFeature> hiddenFeatures = Functional.filter(features, new HiddenFeatureFilter());
 		final List<String> hiddenLiterals = Functional.toList(Functional.map(hiddenFeatures, new Functional.IFunction<IFeature, String>() {
@@ -0,0 +1,429 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+
+/**
+ * Implication graph over the literals of a formula, which computes the transitive closure of its implications.<br/> Each literal is a node and each
+ * binary clause {@code (a | b)} yields the edges {@code -a -> b} and {@code -b -> a}. The closure is computed on the condensation of the graph: literals
+ * within the same strongly connected component are equivalent and share one row of the closure, which is stored as a word-packed bit set. Components are
+ * processed in topological order (successors first), such that each row is the union of the rows of its successors. All components with the same distance
+ * to a sink are independent of each other and are processed in parallel blocks.
+ */
+public class ImplicationGraph {
+
+	/**
+	 * Default number of components that are processed as one block.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 256;
+
+	private final int numberOfVariables;
+	private final int numberOfNodes;
+	private final int numberOfWords;
+
+	private int[] edgeSources = new int[16];
+	private int[] edgeTargets = new int[16];
+	private int numberOfEdges = 0;
+
+	private int[] componentOf;
+	private long[][] componentRows;
+
+	private int blockSize = DEFAULT_BLOCK_SIZE;
+
+	/**
+	 * @param numberOfVariables the number of variables of the formula (variables are numbered from 1 to numberOfVariables)
+	 */
+	public ImplicationGraph(int numberOfVariables) {
+		this.numberOfVariables = numberOfVariables;
+		numberOfNodes = numberOfVariables << 1;
+		numberOfWords = (numberOfNodes + (Long.SIZE - 1)) >>> 6;
+	}
+
+	private static int getNode(int literal) {
+		return ((Math.abs(literal) - 1) << 1) | (literal < 0 ? 1 : 0);
+	}
+
+	private static int getLiteral(int node) {
+		final int variable = (node >>> 1) + 1;
+		return ((node & 1) == 0) ? variable : -variable;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Sets the number of components that are processed as one block. Levels with fewer components are processed sequentially. Default is
+	 * {@value #DEFAULT_BLOCK_SIZE}.
+	 *
+	 * @param blockSize the number of components per block
+	 */
+	public void setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Adds the implications of a binary clause to the graph. Must be called before {@link #computeClosure(int)}.
+	 *
+	 * @param literal1 the first literal of the clause
+	 * @param literal2 the second literal of the clause
+	 */
+	public void addClause(int literal1, int literal2) {
+		if (componentOf != null) {
+			throw new IllegalStateException("Closure was already computed");
+		}
+		addEdge(getNode(-literal1), getNode(literal2));
+		addEdge(getNode(-literal2), getNode(literal1));
+	}
+
+	private void addEdge(int source, int target) {
+		if (numberOfEdges == edgeSources.length) {
+			edgeSources = Arrays.copyOf(edgeSources, numberOfEdges << 1);
+			edgeTargets = Arrays.copyOf(edgeTargets, numberOfEdges << 1);
+		}
+		edgeSources[numberOfEdges] = source;
+		edgeTargets[numberOfEdges] = target;
+		numberOfEdges++;
+	}
+
+	/**
+	 * Computes the transitive closure of all implications added by {@link #addClause(int, int)}.
+	 *
+	 * @param numberOfThreads the maximal number of threads used to compute the rows of the closure
+	 * @throws InterruptedException if the current thread is interrupted while waiting for the worker threads
+	 */
+	public void computeClosure(int numberOfThreads) throws InterruptedException {
+		// adjacency lists in compressed form
+		final int[] edgeOffsets = new int[numberOfNodes + 1];
+		for (int i = 0; i < numberOfEdges; i++) {
+			edgeOffsets[edgeSources[i] + 1]++;
+		}
+		for (int i = 0; i < numberOfNodes; i++) {
+			edgeOffsets[i + 1] += edgeOffsets[i];
+		}
+		final int[] adjacency = new int[numberOfEdges];
+		final int[] position = Arrays.copyOf(edgeOffsets, numberOfNodes);
+		for (int i = 0; i < numberOfEdges; i++) {
+			adjacency[position[edgeSources[i]]++] = edgeTargets[i];
+		}
+		edgeSources = null;
+		edgeTargets = null;
+
+		final int numberOfComponents = computeComponents(edgeOffsets, adjacency);
+
+		// members of each component
+		final int[] memberOffsets = new int[numberOfComponents + 1];
+		for (int node = 0; node < numberOfNodes; node++) {
+			memberOffsets[componentOf[node] + 1]++;
+		}
+		for (int i = 0; i < numberOfComponents; i++) {
+			memberOffsets[i + 1] += memberOffsets[i];
+		}
+		final int[] members = new int[numberOfNodes];
+		System.arraycopy(memberOffsets, 0, position, 0, numberOfComponents);
+		for (int node = 0; node < numberOfNodes; node++) {
+			members[position[componentOf[node]]++] = node;
+		}
+
+		// successors and level of each component (components are numbered in reverse topological order)
+		final int[] successorOffsets = new int[numberOfComponents + 1];
+		int[] successors = new int[Math.max(numberOfEdges, 1)];
+		final boolean[] cyclic = new boolean[numberOfComponents];
+		final int[] level = new int[numberOfComponents];
+		final int[] lastSeen = new int[numberOfComponents];
+		Arrays.fill(lastSeen, -1);
+		int numberOfSuccessors = 0;
+		int maxLevel = 0;
+		for (int component = 0; component < numberOfComponents; component++) {
+			int componentLevel = 0;
+			for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+				final int node = members[i];
+				for (int j = edgeOffsets[node]; j < edgeOffsets[node + 1]; j++) {
+					final int successor = componentOf[adjacency[j]];
+					if (successor == component) {
+						cyclic[component] = true;
+					} else if (lastSeen[successor] != component) {
+						lastSeen[successor] = component;
+						if (numberOfSuccessors == successors.length) {
+							successors = Arrays.copyOf(successors, numberOfSuccessors << 1);
+						}
+						successors[numberOfSuccessors++] = successor;
+						componentLevel = Math.max(componentLevel, level[successor] + 1);
+					}
+				}
+			}
+			successorOffsets[component + 1] = numberOfSuccessors;
+			level[component] = componentLevel;
+			maxLevel = Math.max(maxLevel, componentLevel);
+		}
+
+		// components grouped by level
+		final int[] levelOffsets = new int[maxLevel + 2];
+		for (int component = 0; component < numberOfComponents; component++) {
+			levelOffsets[level[component] + 1]++;
+		}
+		for (int i = 0; i <= maxLevel; i++) {
+			levelOffsets[i + 1] += levelOffsets[i];
+		}
+		final int[] levelComponents = new int[numberOfComponents];
+		final int[] levelPosition = Arrays.copyOf(levelOffsets, maxLevel + 1);
+		for (int component = 0; component < numberOfComponents; component++) {
+			levelComponents[levelPosition[level[component]]++] = component;
+		}
+
+		componentRows = new long[numberOfComponents][];
+		final RowBuilder rowBuilder = new RowBuilder(memberOffsets, members, successorOffsets, successors, cyclic);
+
+		for (int currentLevel = 0; currentLevel <= maxLevel; currentLevel++) {
+			final int start = levelOffsets[currentLevel];
+			final int end = levelOffsets[currentLevel + 1];
+			if ((numberOfThreads > 1) && ((end - start) > blockSize)) {
+				final AtomicInteger nextBlock = new AtomicInteger(start);
+				final int numberOfTasks = Math.min(numberOfThreads, ((end - start) + (blockSize - 1)) / blockSize);
+				final List<Future<Void>> futures = new ArrayList<>(numberOfTasks);
+				try {
+					for (int i = 0; i < numberOfTasks; i++) {
+						futures.add(SharedExecutor.submit(rowBuilder.createTask(levelComponents, nextBlock, end)));
+					}
+					for (final Future<Void> future : futures) {
+						try {
+							future.get();
+						} catch (final ExecutionException e) {
+							final Throwable cause = e.getCause();
+							if (cause instanceof RuntimeException) {
+								throw (RuntimeException) cause;
+							}
+							throw new RuntimeException(cause);
+						}
+					}
+				} finally {
+					SharedExecutor.cancel(futures);
+				}
+			} else {
+				rowBuilder.buildRows(levelComponents, start, end);
+			}
+		}
+	}
+
+	/**
+	 * Computes the strongly connected components with an iterative version of Tarjan's algorithm. A component is only completed after all components that
+	 * are reachable from it, thus the components are numbered in reverse topological order.
+	 *
+	 * @return the number of components
+	 */
+	private int computeComponents(int[] edgeOffsets, int[] adjacency) {
+		componentOf = new int[numberOfNodes];
+		final int[] index = new int[numberOfNodes];
+		final int[] lowLink = new int[numberOfNodes];
+		final int[] nextEdge = new int[numberOfNodes];
+		final boolean[] onStack = new boolean[numberOfNodes];
+		final int[] stack = new int[numberOfNodes];
+		final int[] callStack = new int[numberOfNodes];
+		Arrays.fill(index, -1);
+
+		int numberOfComponents = 0;
+		int counter = 0;
+		int stackSize = 0;
+		for (int root = 0; root < numberOfNodes; root++) {
+			if (index[root] >= 0) {
+				continue;
+			}
+			int callStackSize = 0;
+			index[root] = lowLink[root] = counter++;
+			nextEdge[root] = edgeOffsets[root];
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			callStack[callStackSize++] = root;
+
+			while (callStackSize > 0) {
+				final int node = callStack[callStackSize - 1];
+				if (nextEdge[node] < edgeOffsets[node + 1]) {
+					final int successor = adjacency[nextEdge[node]++];
+					if (index[successor] < 0) {
+						index[successor] = lowLink[successor] = counter++;
+						nextEdge[successor] = edgeOffsets[successor];
+						stack[stackSize++] = successor;
+						onStack[successor] = true;
+						callStack[callStackSize++] = successor;
+					} else if (onStack[successor]) {
+						lowLink[node] = Math.min(lowLink[node], index[successor]);
+					}
+				} else {
+					callStackSize--;
+					if (callStackSize > 0) {
+						final int parent = callStack[callStackSize - 1];
+						lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+					}
+					if (lowLink[node] == index[node]) {
+						int member;
+						do {
+							member = stack[--stackSize];
+							onStack[member] = false;
+							componentOf[member] = numberOfComponents;
+						} while (member != node);
+						numberOfComponents++;
+					}
+				}
+			}
+		}
+		return numberOfComponents;
+	}
+
+	/**
+	 * Computes the closure rows of components whose successors are already complete.
+	 */
+	private final class RowBuilder {
+
+		private final int[] memberOffsets;
+		private final int[] members;
+		private final int[] successorOffsets;
+		private final int[] successors;
+		private final boolean[] cyclic;
+
+		private RowBuilder(int[] memberOffsets, int[] members, int[] successorOffsets, int[] successors, boolean[] cyclic) {
+			this.memberOffsets = memberOffsets;
+			this.members = members;
+			this.successorOffsets = successorOffsets;
+			this.successors = successors;
+			this.cyclic = cyclic;
+		}
+
+		private Callable<Void> createTask(final int[] components, final AtomicInteger nextBlock, final int end) {
+			return new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					for (int start = nextBlock.getAndAdd(blockSize); start < end; start = nextBlock.getAndAdd(blockSize)) {
+						buildRows(components, start, Math.min(start + blockSize, end));
+					}
+					return null;
+				}
+			};
+		}
+
+		private void buildRows(int[] components, int start, int end) {
+			for (int i = start; i < end; i++) {
+				final int component = components[i];
+				if (!cyclic[component] && (successorOffsets[component] == successorOffsets[component + 1])) {
+					continue;
+				}
+				final long[] row = new long[numberOfWords];
+				if (cyclic[component]) {
+					setMembers(row, component);
+				}
+				for (int j = successorOffsets[component]; j < successorOffsets[component + 1]; j++) {
+					final int successor = successors[j];
+					final long[] successorRow = componentRows[successor];
+					if (successorRow != null) {
+						for (int k = 0; k < numberOfWords; k++) {
+							row[k] |= successorRow[k];
+						}
+					}
+					setMembers(row, successor);
+				}
+				componentRows[component] = row;
+			}
+		}
+
+		private void setMembers(long[] row, int component) {
+			for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+				final int node = members[i];
+				row[node >>> 6] |= 1L << node;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether one literal implies another one. Must be called after {@link #computeClosure(int)}.
+	 *
+	 * @param fromLiteral the premise
+	 * @param toLiteral the conclusion
+	 * @return {@code true} if the implication is contained in the closure
+	 */
+	public boolean isImplied(int fromLiteral, int toLiteral) {
+		final long[] row = componentRows[componentOf[getNode(fromLiteral)]];
+		final int node = getNode(toLiteral);
+		return (row != null) && ((row[node >>> 6] & (1L << node)) != 0);
+	}
+
+	/**
+	 * Returns all literals that are implied by the given literal. Must be called after {@link #computeClosure(int)}.
+	 *
+	 * @param fromLiteral the premise
+	 * @return the implied literals ordered by their variable
+	 */
+	public int[] getImpliedLiterals(int fromLiteral) {
+		final long[] row = componentRows[componentOf[getNode(fromLiteral)]];
+		if (row == null) {
+			return new int[0];
+		}
+		int count = 0;
+		for (final long word : row) {
+			count += Long.bitCount(word);
+		}
+		final int[] literals = new int[count];
+		int index = 0;
+		for (int i = 0; i < numberOfWords; i++) {
+			long word = row[i];
+			while (word != 0) {
+				literals[index++] = getLiteral((i << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+		return literals;
+	}
+
+	/**
+	 * Adds an implication (and its contrapositive) to the closure. Must be called after {@link #computeClosure(int)}. The implication is added to all literals
+	 * that are equivalent to the premise, but not to literals that imply the premise.
+	 *
+	 * @param fromLiteral the premise
+	 * @param toLiteral the conclusion
+	 */
+	public void addImplication(int fromLiteral, int toLiteral) {
+		setBit(getNode(fromLiteral), getNode(toLiteral));
+		setBit(getNode(-toLiteral), getNode(-fromLiteral));
+	}
+
+	private void setBit(int source, int target) {
+		final int component = componentOf[source];
+		long[] row = componentRows[component];
+		if (row == null) {
+			row = new long[numberOfWords];
+			componentRows[component] = row;
+		}
+		row[target >>> 6] |= 1L << target;
+	}
+
+}
@@ -26,9 +26,7 @@ import static org.prop4j.analyses.ImplicationSetsAnalysis.Relationship.BIT_10;
 import static org.prop4j.analyses.ImplicationSetsAnalysis.Relationship.BIT_11;
 
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Set;
 
 import org.prop4j.Literal;
@@ -121,23 +119,15 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 		}
 	}
 
-	private static final byte BIT_CHECK = 1 << 6;
-	private static final byte BITS_POSITIVE_IMPLY = BIT_11 | BIT_10;
-	private static final byte BITS_NEGATIVE_IMPLY = BIT_01 | BIT_00;
-
-	private byte[] combinations = new byte[0];
 	private byte[] core = new byte[0];
-	private byte[] recArray = new byte[0];
-	private int numVariables = 0;
-
-	private final Deque<Integer> parentStack = new LinkedList<>();
+	private int[] components = new int[0];
+	private ImplicationGraph graph;
 
 	private final HashMap<Relationship, Relationship> relationSet = new HashMap<>();
 
 	@Override
 	public Set<Relationship> analyze(IMonitor monitor) throws Exception {
 		relationSet.clear();
-		parentStack.clear();
 
 		solver.initSolutionList(Math.min(solver.getSatInstance().getNumberOfVariables(), ISatSolver.MAX_SOLUTION_BUFFER));
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
@@ -151,7 +141,6 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 
 			// find core/dead features
 			core = new byte[model1.length];
-			recArray = new byte[model1.length];
 			final int[] model1Copy = Arrays.copyOf(model1, model1.length);
 			SatInstance.updateModel(model1Copy, model2);
 			for (int i = 0; i < model1Copy.length; i++) {
@@ -175,8 +164,14 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 					}
 				}
 			}
-			numVariables = model1.length;
-			combinations = new byte[numVariables * numVariables];
+			final int numVariables = model1.length;
+
+			// variables that occur together in a (reduced) clause and their implications from binary clauses
+			components = new int[numVariables];
+			for (int i = 0; i < numVariables; i++) {
+				components[i] = i;
+			}
+			graph = new ImplicationGraph(numVariables);
 
 			outer: for (final Node clause : solver.getSatInstance().getCnf().getChildren()) {
 				final Node[] literals = clause.getChildren();
@@ -198,287 +193,136 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = solver.getSatInstance().getSignedVariable((Literal) literals[0]);
-					final int y = solver.getSatInstance().getSignedVariable((Literal) literals[1]);
-					if (Math.abs(x) < Math.abs(y)) {
-						addRelation(-x, y);
-					} else {
-						addRelation(-y, x);
-					}
+					graph.addClause(solver.getSatInstance().getSignedVariable((Literal) literals[0]),
+							solver.getSatInstance().getSignedVariable((Literal) literals[1]));
 				}
-				for (int i = 0; i < (childrenCount - 1); i++) {
-					final int x = solver.getSatInstance().getVariable((Literal) literals[i]) - 1;
-					for (int j = i + 1; j < childrenCount; j++) {
-						final int y = solver.getSatInstance().getVariable((Literal) literals[j]) - 1;
-						combinations[(x * numVariables) + y] |= BIT_CHECK;
-						combinations[(y * numVariables) + x] |= BIT_CHECK;
-					}
+				final int x = solver.getSatInstance().getVariable((Literal) literals[0]) - 1;
+				for (int i = 1; i < childrenCount; i++) {
+					union(x, solver.getSatInstance().getVariable((Literal) literals[i]) - 1);
 				}
 			}
+			for (int i = 0; i < numVariables; i++) {
+				components[i] = find(i);
+			}
 
-			boolean incomplete;
-
-			do {
-				incomplete = false;
-				for (int x1 = 0; x1 < model1Copy.length; x1++) {
-					for (int y1 = 0; y1 < model1Copy.length; y1++) {
-						final int combinationIndexX1Y1 = (x1 * numVariables) + y1;
-						if ((combinations[combinationIndexX1Y1] & BIT_CHECK) != 0) {
-							for (int x2 = 0; x2 < model1Copy.length; x2++) {
-								final int combinationIndexY1X2 = (y1 * numVariables) + x2;
-								if ((combinations[combinationIndexY1X2] & BIT_CHECK) != 0) {
-									final int combinationIndexX1X2 = (x1 * numVariables) + x2;
-									if ((combinations[combinationIndexX1X2] & BIT_CHECK) == 0) {
-										combinations[combinationIndexX1X2] |= BIT_CHECK;
-										incomplete = true;
-									}
-								}
-							}
-						}
-					}
-				}
-			} while (incomplete);
-
-			do {
-				incomplete = false;
-				for (int i = 0; i < model1.length; i++) {
-					parentStack.add((i + 1));
-					if (testVariable2()) {
-						incomplete = true;
-					}
-					parentStack.add(-(i + 1));
-					if (testVariable2()) {
-						incomplete = true;
-					}
+			graph.computeClosure(Runtime.getRuntime().availableProcessors());
+
+			// relations between variables of the same component (known implications are taken from the graph)
+			for (int i = 0; i < numVariables; i++) {
+				if (core[i] == 0) {
+					testVariable(i + 1);
+					testVariable(-(i + 1));
 				}
-			} while (incomplete);
-
-			Arrays.fill(recArray, (byte) 0);
-			for (int i = 0; i < model1.length; i++) {
-				parentStack.add((i + 1));
-				testVariable();
-				parentStack.add(-(i + 1));
-				testVariable();
 			}
 		}
 		return relationSet.keySet();
 	}
 
-	private boolean testVariable2() {
-		boolean changed = false;
-		final int mx1 = parentStack.peek();
-		final int i = Math.abs(mx1) - 1;
-		final boolean positive = mx1 > 0;
-		final byte compareB = (byte) (positive ? 1 : 2);
-
-		if ((core[i] == 0) && ((recArray[i] & compareB) == 0)) {
-			recArray[i] |= compareB;
-
-			final int rowIndex = i * numVariables;
-
-			for (int j = 0; j < numVariables; j++) {
-				if ((i != j) && (core[j] == 0)) {
-					final byte b = combinations[rowIndex + j];
-					int my1 = 0;
-					if (positive) {
-						if ((b & BIT_11) == BIT_11) {
-							my1 = (j + 1);
-						} else if ((b & BIT_10) == BIT_10) {
-							my1 = -(j + 1);
-						}
-					} else {
-						if ((b & BIT_01) == BIT_01) {
-							my1 = (j + 1);
-						} else if ((b & BIT_00) == BIT_00) {
-							my1 = -(j + 1);
-						}
-					}
-					if (my1 != 0) {
-						for (final int mx0 : parentStack) {
-							if (addRelation2(mx0, my1)) {
-								changed = true;
-							}
-						}
-						parentStack.push(my1);
-						if (testVariable2()) {
-							changed = true;
-						}
-					}
-				}
-			}
+	private int find(int x) {
+		while (components[x] != x) {
+			components[x] = components[components[x]];
+			x = components[x];
 		}
-		parentStack.pop();
-		return changed;
+		return x;
 	}
 
-	private void testVariable() {
-		final int mx1 = parentStack.peek();
+	private void union(int x, int y) {
+		final int rootX = find(x);
+		final int rootY = find(y);
+		if (rootX != rootY) {
+			components[Math.max(rootX, rootY)] = Math.min(rootX, rootY);
+		}
+	}
+
+	private void testVariable(final int mx1) {
 		final int i = Math.abs(mx1) - 1;
-		final boolean positive = mx1 > 0;
-		final byte compareB = (byte) (positive ? 1 : 2);
 
-		if ((core[i] == 0) && ((recArray[i] & compareB) == 0)) {
-			recArray[i] |= compareB;
+		solver.assignmentPush(mx1);
 
-			int[] xModel1 = null;
-			for (final int[] solution : solver.getSolutionList()) {
-				if (mx1 == solution[i]) {
-					xModel1 = solution;
-					break;
-				}
+		int[] xModel1 = null;
+		for (final int[] solution : solver.getSolutionList()) {
+			if (mx1 == solution[i]) {
+				xModel1 = solution;
+				break;
 			}
-			if (xModel1 == null) {
-				throw new RuntimeException();
+		}
+		if (xModel1 == null) {
+			switch (solver.isSatisfiable()) {
+			case TRUE:
+				xModel1 = solver.getModel();
+				break;
+			case FALSE:
+			case TIMEOUT:
+			default:
+				solver.assignmentPop();
+				return;
 			}
+		}
 
-			int c = 0;
-
-			solver.assignmentPush(mx1);
-			final int rowIndex = i * numVariables;
+		int c = 0;
 
-			inner1: for (int j = i + 1; j < xModel1.length; j++) {
-				final byte b = combinations[rowIndex + j];
-				if ((core[j] == 0) && ((b & BIT_CHECK) != 0)
-					&& ((positive && ((b & BITS_POSITIVE_IMPLY) == 0)) || (!positive && ((b & BITS_NEGATIVE_IMPLY) == 0)))) {
+		inner1: for (int j = i + 1; j < xModel1.length; j++) {
+			if ((core[j] == 0) && (components[i] == components[j])) {
+				if (graph.isImplied(mx1, j + 1)) {
+					addRelation(mx1, j + 1);
+					continue;
+				} else if (graph.isImplied(mx1, -(j + 1))) {
+					addRelation(mx1, -(j + 1));
+					continue;
+				}
 
-					final int my1 = xModel1[j];
-					for (final int[] solution : solver.getSolutionList()) {
-						final int mxI = solution[i];
-						final int myI = solution[j];
-						if ((mx1 == mxI) && (my1 != myI)) {
-							continue inner1;
-						}
+				final int my1 = xModel1[j];
+				for (final int[] solution : solver.getSolutionList()) {
+					final int mxI = solution[i];
+					final int myI = solution[j];
+					if ((mx1 == mxI) && (my1 != myI)) {
+						continue inner1;
 					}
+				}
 
-					solver.assignmentPush(-my1);
-					solver.setSelectionStrategy(((c++ % 2) != 0) ? SelectionStrategy.POSITIVE : SelectionStrategy.NEGATIVE);
-
-					switch (solver.isSatisfiable()) {
-					case FALSE:
-						for (final int mx0 : parentStack) {
-							addRelation(mx0, my1);
+				solver.assignmentPush(-my1);
+				solver.setSelectionStrategy(((c++ % 2) != 0) ? SelectionStrategy.POSITIVE : SelectionStrategy.NEGATIVE);
+
+				switch (solver.isSatisfiable()) {
+				case FALSE:
+					graph.addImplication(mx1, my1);
+					addRelation(mx1, my1);
+					for (final int my2 : graph.getImpliedLiterals(my1)) {
+						final int k = Math.abs(my2) - 1;
+						if ((k != i) && (core[k] == 0) && !graph.isImplied(mx1, my2)) {
+							graph.addImplication(mx1, my2);
+							addRelation(mx1, my2);
 						}
-						parentStack.push(my1);
-						solver.assignmentPop();
-						solver.assignmentPop();
-						testVariable();
-						solver.assignmentPush(mx1);
-						break;
-					case TIMEOUT:
-						solver.assignmentPop();
-						break;
-					case TRUE:
-						solver.shuffleOrder();
-						solver.assignmentPop();
-						// combinations[rowIndex + j] &= ~BIT_CHECK;
-						break;
 					}
+					break;
+				case TIMEOUT:
+					break;
+				case TRUE:
+					solver.shuffleOrder();
+					break;
 				}
+				solver.assignmentPop();
 			}
-			solver.assignmentPop();
 		}
-		parentStack.pop();
+		solver.assignmentPop();
 	}
 
+	/**
+	 * Adds an implication to the relation set. The relationship is always stored for the ordered pair of variables, thus implications from a greater to a
+	 * lesser variable are stored as their contrapositive.
+	 */
 	private void addRelation(final int mx0, final int my0) {
-		final Relationship newRelationship = new Relationship(Math.abs(mx0), Math.abs(my0));
-		Relationship curRelationship = relationSet.get(newRelationship);
-		if (curRelationship == null) {
-			relationSet.put(newRelationship, newRelationship);
-			curRelationship = newRelationship;
-		}
-
-		final int indexX = Math.abs(mx0) - 1;
-		final int indexY = Math.abs(my0) - 1;
-		final int combinationIndexXY = (indexX * numVariables) + indexY;
-		final int combinationIndexYX = (indexY * numVariables) + indexX;
-
-		if (mx0 > 0) {
-			if (my0 > 0) {
-				combinations[combinationIndexXY] |= BIT_11;
-				combinations[combinationIndexYX] |= BIT_00;
-				curRelationship.addRelation(BIT_11);
-			} else {
-				combinations[combinationIndexXY] |= BIT_10;
-				combinations[combinationIndexYX] |= BIT_10;
-				curRelationship.addRelation(BIT_10);
-			}
-		} else {
-			if (my0 > 0) {
-				combinations[combinationIndexXY] |= BIT_01;
-				combinations[combinationIndexYX] |= BIT_01;
-				curRelationship.addRelation(BIT_01);
-			} else {
-				combinations[combinationIndexXY] |= BIT_00;
-				combinations[combinationIndexYX] |= BIT_11;
-				curRelationship.addRelation(BIT_00);
-			}
-		}
-	}
-
-	private boolean addRelation2(final int mx0, final int my0) {
-		final int indexX = Math.abs(mx0) - 1;
-		final int indexY = Math.abs(my0) - 1;
-		if (indexX == indexY) {
-			return false;
-		}
-		final int combinationIndexXY = (indexX * numVariables) + indexY;
-		final int combinationIndexYX = (indexY * numVariables) + indexX;
-
-		final Relationship newRelationship;
-		if (indexX < indexY) {
-			newRelationship = new Relationship(Math.abs(mx0), Math.abs(my0));
-		} else {
-			newRelationship = new Relationship(Math.abs(my0), Math.abs(mx0));
+		if (Math.abs(mx0) > Math.abs(my0)) {
+			addRelation(-my0, -mx0);
+			return;
 		}
+		final Relationship newRelationship = new Relationship(Math.abs(mx0), Math.abs(my0));
 		Relationship curRelationship = relationSet.get(newRelationship);
 		if (curRelationship == null) {
 			relationSet.put(newRelationship, newRelationship);
 			curRelationship = newRelationship;
 		}
-
-		final byte oldXY = combinations[combinationIndexXY];
-		final byte oldYX = combinations[combinationIndexYX];
-
-		if (mx0 > 0) {
-			if (my0 > 0) {
-				combinations[combinationIndexXY] |= BIT_11;
-				combinations[combinationIndexYX] |= BIT_00;
-				if (indexX < indexY) {
-					curRelationship.addRelation(BIT_11);
-				} else {
-					curRelationship.addRelation(BIT_00);
-				}
-			} else {
-				combinations[combinationIndexXY] |= BIT_10;
-				combinations[combinationIndexYX] |= BIT_10;
-				if (indexX < indexY) {
-					curRelationship.addRelation(BIT_10);
-				} else {
-					curRelationship.addRelation(BIT_10);
-				}
-			}
-		} else {
-			if (my0 > 0) {
-				combinations[combinationIndexXY] |= BIT_01;
-				combinations[combinationIndexYX] |= BIT_01;
-				if (indexX < indexY) {
-					curRelationship.addRelation(BIT_01);
-				} else {
-					curRelationship.addRelation(BIT_01);
-				}
-			} else {
-				combinations[combinationIndexXY] |= BIT_00;
-				combinations[combinationIndexYX] |= BIT_11;
-				if (indexX < indexY) {
-					curRelationship.addRelation(BIT_00);
-				} else {
-					curRelationship.addRelation(BIT_11);
-				}
-			}
-		}
-
-		return (oldXY != combinations[combinationIndexXY]) || (oldYX != combinations[combinationIndexYX]);
+		curRelationship.addRelation(mx0 > 0 ? (my0 > 0 ? BIT_11 : BIT_10) : (my0 > 0 ? BIT_01 : BIT_00));
 	}
 
 }
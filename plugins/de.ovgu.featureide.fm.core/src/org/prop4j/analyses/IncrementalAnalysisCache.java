@@ -0,0 +1,247 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.prop4j.solver.ClauseDatabase;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Stores the results of a previous {@link FeatureModelAnalysis} together with the clauses of the CNF it analyzed.</br> </br> The following results are reused
+ * by subsequent analyses: <ul> <li>Witness models, i.e., satisfying assignments found during the previous analysis. Each witness that still satisfies the new
+ * CNF refutes the core, dead, and false-optional status of every feature it assigns accordingly, such that these features are not checked again.</li>
+ * <li>Core, dead, and false-optional features. These remain valid as long as the new CNF contains every clause of the analyzed CNF, i.e., the model was only
+ * restricted. If both CNFs contain the same clauses, the results are complete and no feature is checked again.</li> <li>Tautology results of constraints,
+ * which only depend on the constraint itself.</li> </ul> The clauses are compared by the names of their variables and independently of their order, such that
+ * every change of the CNF is detected regardless of whether the feature model fired an event for it.
+ */
+public class IncrementalAnalysisCache {
+
+	private Set<String> analyzedClauses = null;
+	private long revision = 0;
+
+	private Set<String> coreFeatures = null;
+	private Set<String> deadFeatures = null;
+	private Set<String> falseOptionalFeatures = null;
+
+	private Map<String, Integer> witnessVariables = Collections.emptyMap();
+	private List<int[]> witnesses = Collections.emptyList();
+
+	private Map<String, Boolean> tautologies = new HashMap<>();
+
+	/**
+	 * Returns a key for each clause of the CNF of the given instance. A key consists of the sorted literals of the clause, which are identified by the names of
+	 * their variables.
+	 *
+	 * @param satInstance the instance
+	 * @return the set of clause keys
+	 */
+	public static Set<String> getClauseKeys(SatInstance satInstance) {
+		final ClauseDatabase clauses = satInstance.getClauses();
+		final int numberOfClauses = clauses.getNumberOfClauses();
+		final Set<String> clauseKeys = new HashSet<>((numberOfClauses * 4) / 3);
+		final StringBuilder sb = new StringBuilder();
+		for (int clause = 0; clause < numberOfClauses; clause++) {
+			final String[] literals = new String[clauses.getClauseLength(clause)];
+			for (int i = 0; i < literals.length; i++) {
+				final int literal = clauses.getLiteral(clause, i);
+				literals[i] = (literal > 0 ? '+' : '-') + String.valueOf(clauses.getVariableObject(literal));
+			}
+			Arrays.sort(literals);
+			sb.setLength(0);
+			for (final String literal : literals) {
+				sb.append(literal).append('\0');
+			}
+			clauseKeys.add(sb.toString());
+		}
+		return clauseKeys;
+	}
+
+	/**
+	 * Removes all stored results.
+	 */
+	public synchronized void clear() {
+		revision++;
+		analyzedClauses = null;
+		coreFeatures = null;
+		deadFeatures = null;
+		falseOptionalFeatures = null;
+		witnessVariables = Collections.emptyMap();
+		witnesses = Collections.emptyList();
+		tautologies.clear();
+	}
+
+	/**
+	 * Returns the revision of the analyzed CNF. The revision changes whenever results for a CNF with different clauses are stored.
+	 *
+	 * @return the current revision
+	 */
+	public synchronized long getRevision() {
+		return revision;
+	}
+
+	/**
+	 * @param clauseKeys the clause keys of the current CNF (see {@link #getClauseKeys(SatInstance)})
+	 * @return whether the current CNF contains all clauses of the previously analyzed CNF
+	 */
+	public synchronized boolean isRestriction(Set<String> clauseKeys) {
+		return (analyzedClauses != null) && clauseKeys.containsAll(analyzedClauses);
+	}
+
+	/**
+	 * @param clauseKeys the clause keys of the current CNF (see {@link #getClauseKeys(SatInstance)})
+	 * @return whether the current CNF contains exactly the clauses of the previously analyzed CNF
+	 */
+	public synchronized boolean isUnchanged(Set<String> clauseKeys) {
+		return (analyzedClauses != null) && analyzedClauses.equals(clauseKeys);
+	}
+
+	/**
+	 * @param clauseKeys the clause keys of the current CNF (see {@link #getClauseKeys(SatInstance)})
+	 * @return the core features of the previous analysis or {@code null} if the current CNF is no restriction of the analyzed one
+	 */
+	public synchronized Set<String> getCoreFeatures(Set<String> clauseKeys) {
+		return isRestriction(clauseKeys) ? coreFeatures : null;
+	}
+
+	/**
+	 * @param clauseKeys the clause keys of the current CNF (see {@link #getClauseKeys(SatInstance)})
+	 * @return the dead features of the previous analysis or {@code null} if the current CNF is no restriction of the analyzed one
+	 */
+	public synchronized Set<String> getDeadFeatures(Set<String> clauseKeys) {
+		return isRestriction(clauseKeys) ? deadFeatures : null;
+	}
+
+	/**
+	 * @param clauseKeys the clause keys of the current CNF (see {@link #getClauseKeys(SatInstance)})
+	 * @return the false-optional features of the previous analysis or {@code null} if the current CNF is no restriction of the analyzed one
+	 */
+	public synchronized Set<String> getFalseOptionalFeatures(Set<String> clauseKeys) {
+		return isRestriction(clauseKeys) ? falseOptionalFeatures : null;
+	}
+
+	/**
+	 * Returns all stored witness models that satisfy the CNF of the given instance, translated to its variable indices.
+	 *
+	 * @param satInstance the current instance
+	 * @return a list of models for the given instance
+	 */
+	public synchronized List<int[]> getWitnesses(SatInstance satInstance) {
+		if (witnesses.isEmpty()) {
+			return Collections.emptyList();
+		}
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final int[] newToOld = new int[numberOfVariables + 1];
+		for (int i = 1; i <= numberOfVariables; i++) {
+			final Integer oldIndex = witnessVariables.get(satInstance.getVariableObject(i).toString());
+			if (oldIndex == null) {
+				return Collections.emptyList();
+			}
+			newToOld[i] = oldIndex;
+		}
+
+		final ClauseDatabase clauseDatabase = satInstance.getClauses();
+		final int[][] clauses = new int[clauseDatabase.getNumberOfClauses()][];
+		for (int i = 0; i < clauses.length; i++) {
+			clauses[i] = clauseDatabase.getClause(i);
+		}
+
+		final List<int[]> result = new ArrayList<>();
+		witnessLoop: for (final int[] witness : witnesses) {
+			final int[] model = new int[numberOfVariables];
+			for (int i = 1; i <= numberOfVariables; i++) {
+				model[i - 1] = witness[newToOld[i] - 1] > 0 ? i : -i;
+			}
+			clauseLoop: for (final int[] clause : clauses) {
+				for (final int literal : clause) {
+					if ((literal != 0) && (model[Math.abs(literal) - 1] == literal)) {
+						continue clauseLoop;
+					}
+				}
+				continue witnessLoop;
+			}
+			result.add(model);
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the feature results of an analysis.
+	 *
+	 * @param clauseKeys the clause keys of the analyzed CNF (see {@link #getClauseKeys(SatInstance)})
+	 * @param satInstance the analyzed instance
+	 * @param models witness models for the given instance
+	 * @param core names of all core features (or {@code null} if unknown)
+	 * @param dead names of all dead features (or {@code null} if unknown)
+	 * @param falseOptional names of all false-optional features (or {@code null} if unknown)
+	 */
+	public synchronized void setFeatureResults(Set<String> clauseKeys, SatInstance satInstance, Collection<int[]> models, Collection<String> core,
+			Collection<String> dead, Collection<String> falseOptional) {
+		if (!clauseKeys.equals(analyzedClauses)) {
+			revision++;
+			analyzedClauses = clauseKeys;
+		}
+		coreFeatures = core != null ? new HashSet<>(core) : null;
+		deadFeatures = dead != null ? new HashSet<>(dead) : null;
+		falseOptionalFeatures = falseOptional != null ? new HashSet<>(falseOptional) : null;
+
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		witnessVariables = new HashMap<>((numberOfVariables * 4) / 3);
+		for (int i = 1; i <= numberOfVariables; i++) {
+			witnessVariables.put(satInstance.getVariableObject(i).toString(), i);
+		}
+		final List<int[]> modelList = new ArrayList<>(models);
+		final int size = modelList.size();
+		witnesses = size > ISatSolver.MAX_SOLUTION_BUFFER ? new ArrayList<>(modelList.subList(size - ISatSolver.MAX_SOLUTION_BUFFER, size)) : modelList;
+	}
+
+	/**
+	 * @param constraint the constraint as string
+	 * @return whether the constraint is a tautology or {@code null} if the constraint was not checked yet
+	 */
+	public synchronized Boolean getTautology(String constraint) {
+		return tautologies.get(constraint);
+	}
+
+	public synchronized void setTautology(String constraint, boolean tautology) {
+		tautologies.put(constraint, tautology);
+	}
+
+	/**
+	 * Removes all tautology results for constraints that are not contained in the given collection.
+	 *
+	 * @param constraints the constraints as strings
+	 */
+	public synchronized void retainTautologies(Collection<String> constraints) {
+		tautologies.keySet().retainAll(new HashSet<>(constraints));
+	}
+
+}
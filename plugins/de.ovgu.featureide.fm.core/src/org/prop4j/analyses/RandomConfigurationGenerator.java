@@ -20,68 +20,156 @@
  */
 package org.prop4j.analyses;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
-import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
-import org.sat4j.core.VecInt;
-import org.sat4j.specs.ContradictionException;
+import org.prop4j.solver.SolutionSampler;
+import org.prop4j.solver.SolutionSampler.Mode;
 
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds random solutions of propositional formulas.
+ * Finds random solutions of propositional formulas.</br> The solutions are drawn by a {@link SolutionSampler}, thus the formula remains unchanged and the
+ * cost per solution is constant. Duplicate solutions are skipped (unless disabled). If too many consecutive solutions are duplicates, the generator
+ * assumes that all solutions were found.
  *
  * @author Sebastian Krieter
  */
 public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator {
 
+	/**
+	 * Default number of consecutive duplicate solutions after which the generation stops.
+	 */
+	public static final int DEFAULT_MAX_DUPLICATES = 1000;
+
+	private static final class SolutionKey {
+
+		private final long[] words;
+		private final int hashCode;
+
+		private SolutionKey(int[] solution) {
+			words = new long[(solution.length + (Long.SIZE - 1)) >>> 6];
+			for (int i = 0; i < solution.length; i++) {
+				if (solution[i] > 0) {
+					words[i >>> 6] |= 1L << i;
+				}
+			}
+			hashCode = Arrays.hashCode(words);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final SolutionKey other = (SolutionKey) obj;
+			return (hashCode == other.hashCode) && Arrays.equals(words, other.words);
+		}
+	}
+
+	private Mode mode = Mode.FAST;
+	private long seed = new Random().nextLong();
+	private int numberOfThreads = 1;
+	private boolean distinct = true;
+	private int maxDuplicates = DEFAULT_MAX_DUPLICATES;
+
 	public RandomConfigurationGenerator(SatInstance satInstance, int maxNumber) {
 		super(satInstance, maxNumber);
 	}
 
-	@Override
-	public List<List<String>> analyze(IMonitor monitor) throws Exception {
-		time = System.nanoTime();
-		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
+	public Mode getMode() {
+		return mode;
+	}
 
-		for (int i = 0; i < maxNumber; i++) {
-			monitor.checkCancel();
-			if (handleNewConfig(solver.findModel())) {
-				break;
-			}
-			solver.shuffleOrder();
-		}
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
 
-		return getConfigurations();
+	public long getSeed() {
+		return seed;
 	}
 
-	private boolean handleNewConfig(int[] curModel) {
-		if (curModel == null) {
-			System.out.println("Found everything!");
-			return true;
-		}
-		final int partCount = count(curModel);
-		final Configuration config = new Configuration(curModel, partCount - getLastCoverage(), partCount);
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
 
-		addCombinationsFromModel(curModel);
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
 
-		config.time = System.nanoTime() - time;
-		q.offer(config);
-		synchronized (tempConfigurationList) {
-			tempConfigurationList.add(config);
-		}
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public boolean isDistinct() {
+		return distinct;
+	}
+
+	/**
+	 * @param distinct whether duplicate solutions are skipped
+	 */
+	public void setDistinct(boolean distinct) {
+		this.distinct = distinct;
+	}
+
+	public int getMaxDuplicates() {
+		return maxDuplicates;
+	}
+
+	/**
+	 * Sets the number of consecutive duplicate solutions after which the generation stops. Default is {@value #DEFAULT_MAX_DUPLICATES}.
+	 *
+	 * @param maxDuplicates the maximal number of consecutive duplicates
+	 */
+	public void setMaxDuplicates(int maxDuplicates) {
+		this.maxDuplicates = maxDuplicates;
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
 		time = System.nanoTime();
+		final SolutionSampler sampler = new SolutionSampler(solver.getSatInstance(), mode, seed);
+		sampler.setNumberOfThreads(numberOfThreads);
+		sampler.setBatchSize(Math.max(1, Math.min(maxNumber, SolutionSampler.DEFAULT_BATCH_SIZE)));
 
-		try {
-			config.setBlockingClauseConstraint(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel))));
-		} catch (final ContradictionException e) {
-			e.printStackTrace();
-			System.out.println("Unsatisfiable1!");
-			return true;
+		final Set<SolutionKey> foundSolutions = new HashSet<>();
+		int duplicates = 0;
+		int count = 0;
+		for (final Iterator<int[]> iterator = sampler.iterator(); (count < maxNumber) && iterator.hasNext();) {
+			monitor.checkCancel();
+			final int[] solution = iterator.next();
+			if (distinct && !foundSolutions.add(new SolutionKey(solution))) {
+				if (++duplicates >= maxDuplicates) {
+					break;
+				}
+				continue;
+			}
+			duplicates = 0;
+			count++;
+
+			final Configuration config = new Configuration(solution, 0, 0);
+			config.time = System.nanoTime() - time;
+			q.offer(config);
+			synchronized (tempConfigurationList) {
+				tempConfigurationList.add(config);
+			}
+			time = System.nanoTime();
 		}
 
-		return false;
+		return getConfigurations();
 	}
 
 }
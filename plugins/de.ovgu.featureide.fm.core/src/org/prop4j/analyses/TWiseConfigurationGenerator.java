@@ -0,0 +1,489 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.IVecInt;
+
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Finds solutions that cover all valid t-wise interactions of the non-core features.</br> The interactions are processed one after another. Each
+ * interaction that is not covered yet is added to a partial configuration (candidate) that is compatible to it and remains satisfiable, or starts a new
+ * candidate. As soon as a candidate assigns all non-core features, it cannot change anymore and is passed to {@link #q}; all other candidates are passed
+ * after the last interaction. The coverage is tracked by a bit set over the candidates for each literal, thus an interaction is covered if the bit sets of its literals
+ * intersect. Interactions (and pairs of literals) that are proven to be unsatisfiable are pruned. If several candidates have to be checked for one
+ * interaction, the checks are distributed among cloned solvers.
+ */
+public class TWiseConfigurationGenerator extends PairWiseConfigurationGenerator {
+
+	/**
+	 * Default minimal number of candidates that have to be checked for one interaction, such that the checks are distributed among several solvers.
+	 */
+	public static final int DEFAULT_MIN_PARALLEL_CANDIDATES = 4;
+
+	private static final class Candidate {
+
+		private final int index;
+		private final int[] assignment;
+		private int[] literals = new int[16];
+		private int numberOfLiterals = 0;
+		private int[] solution;
+		private int numberOfInteractions = 0;
+		private int score;
+		private boolean finished = false;
+
+		public Candidate(int index, int numberOfVariables, int[] solution) {
+			this.index = index;
+			this.solution = solution;
+			assignment = new int[numberOfVariables];
+		}
+
+	}
+
+	private static final Comparator<Candidate> SCORE_COMPARATOR = new Comparator<Candidate>() {
+
+		@Override
+		public int compare(Candidate o1, Candidate o2) {
+			return o2.score - o1.score;
+		}
+	};
+
+	private final int t;
+	private int numberOfThreads = 1;
+	private int minParallelCandidates = DEFAULT_MIN_PARALLEL_CANDIDATES;
+
+	private final List<Candidate> candidates = new ArrayList<>();
+	private final Set<Long> invalidPairs = new HashSet<>();
+	private final Set<Long> validPairs = new HashSet<>();
+
+	private int[] variables;
+	private int[] interaction;
+	private long[][] literalColumns;
+	private long[][] prefixes;
+	private int numberOfWords;
+	private int numberOfFixedLiterals;
+	private int totalCoverage;
+
+	private ISatSolver[] workerSolvers;
+
+	/**
+	 * @param satInstance the formula
+	 * @param t the size of the interactions that are covered (at least 1)
+	 * @param maxNumber the maximal number of configurations
+	 */
+	public TWiseConfigurationGenerator(SatInstance satInstance, int t, int maxNumber) {
+		super(satInstance, maxNumber);
+		if (t < 1) {
+			throw new IllegalArgumentException("t must be positive: " + t);
+		}
+		this.t = t;
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public int getMinParallelCandidates() {
+		return minParallelCandidates;
+	}
+
+	/**
+	 * Sets the minimal number of candidates that have to be checked for one interaction, such that the checks are distributed among several solvers. Default
+	 * is {@value #DEFAULT_MIN_PARALLEL_CANDIDATES}.
+	 *
+	 * @param minParallelCandidates the minimal number of candidates
+	 */
+	public void setMinParallelCandidates(int minParallelCandidates) {
+		this.minParallelCandidates = minParallelCandidates;
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
+		if (maxNumber <= 0) {
+			return Collections.emptyList();
+		}
+		time = System.nanoTime();
+		synchronized (tempConfigurationList) {
+			tempConfigurationList.clear();
+		}
+		candidates.clear();
+		invalidPairs.clear();
+		validPairs.clear();
+		totalCoverage = 0;
+
+		if (solver.findModel() == null) {
+			return getConfigurations();
+		}
+
+		// core and dead features remain as assumptions in the solver
+		new CoreDeadAnalysis(solver).analyze(monitor);
+		solver.setSelectionStrategy(SelectionStrategy.ORG);
+		final IVecInt fixedLiterals = solver.getAssignment();
+		numberOfFixedLiterals = fixedLiterals.size();
+		final boolean[] fixed = new boolean[numVariables];
+		for (int i = 0; i < numberOfFixedLiterals; i++) {
+			fixed[Math.abs(fixedLiterals.get(i)) - 1] = true;
+		}
+		variables = new int[numVariables - numberOfFixedLiterals];
+		for (int i = 0, j = 0; i < numVariables; i++) {
+			if (!fixed[i]) {
+				variables[j++] = i + 1;
+			}
+		}
+
+		final int size = Math.min(t, variables.length);
+		interaction = new int[size];
+		numberOfWords = 1;
+		literalColumns = new long[numVariables << 1][numberOfWords];
+		prefixes = new long[size][numberOfWords];
+
+		try {
+			if (size > 0) {
+				coverInteractions(0, 0, monitor);
+			}
+			if (candidates.isEmpty()) {
+				final int[] model = solver.findModel();
+				if (model != null) {
+					addCandidate(model);
+				}
+			}
+		} finally {
+			workerSolvers = null;
+			solver.assignmentClear(0);
+		}
+
+		for (final Candidate candidate : candidates) {
+			if (!candidate.finished) {
+				finish(candidate);
+			}
+		}
+		return getConfigurations();
+	}
+
+	/**
+	 * Passes the solution of the given candidate to {@link #q}.
+	 */
+	private void finish(Candidate candidate) {
+		candidate.finished = true;
+		totalCoverage += candidate.numberOfInteractions;
+		final Configuration config = new Configuration(candidate.solution, candidate.numberOfInteractions, totalCoverage);
+		config.time = System.nanoTime() - time;
+		q.offer(config);
+		synchronized (tempConfigurationList) {
+			tempConfigurationList.add(config);
+		}
+		time = System.nanoTime();
+	}
+
+	private static int getNode(int literal) {
+		return ((Math.abs(literal) - 1) << 1) | (literal < 0 ? 1 : 0);
+	}
+
+	/**
+	 * Enumerates all interactions of the non-core variables in lexicographic order. The intersection of the bit sets of the first literals is computed once
+	 * for all interactions that share these literals. The intersection may miss candidates that were changed in the meantime, in this case the coverage is
+	 * checked again.
+	 */
+	private void coverInteractions(int depth, int start, IMonitor monitor) throws Exception {
+		final int size = interaction.length;
+		final int last = variables.length - (size - depth);
+		for (int i = start; i <= last; i++) {
+			if (depth == 0) {
+				monitor.checkCancel();
+			}
+			for (int sign = 1; sign >= -1; sign -= 2) {
+				final int literal = sign * variables[i];
+				interaction[depth] = literal;
+
+				final long[] column = literalColumns[getNode(literal)];
+				final long[] prefix = prefixes[depth];
+				boolean empty = true;
+				if (depth == 0) {
+					for (int k = 0; k < numberOfWords; k++) {
+						prefix[k] = column[k];
+						empty &= column[k] == 0;
+					}
+				} else {
+					final long[] lastPrefix = prefixes[depth - 1];
+					for (int k = 0; k < numberOfWords; k++) {
+						prefix[k] = lastPrefix[k] & column[k];
+						empty &= prefix[k] == 0;
+					}
+				}
+
+				if ((depth + 1) < size) {
+					coverInteractions(depth + 1, i + 1, monitor);
+				} else if (empty && !isCovered()) {
+					coverInteraction();
+				}
+			}
+		}
+	}
+
+	private boolean isCovered() {
+		for (int k = 0; k < numberOfWords; k++) {
+			long word = -1L;
+			for (final int literal : interaction) {
+				word &= literalColumns[getNode(literal)][k];
+			}
+			if (word != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void coverInteraction() throws Exception {
+		if (isPruned()) {
+			return;
+		}
+
+		// candidates that contain the interaction in their current solution need no further check
+		Candidate bestCandidate = null;
+		final List<Candidate> compatibleCandidates = new ArrayList<>();
+		candidateLoop: for (final Candidate candidate : candidates) {
+			int score = 0;
+			boolean contained = true;
+			for (final int literal : interaction) {
+				final int index = Math.abs(literal) - 1;
+				final int value = candidate.assignment[index];
+				if (value == -literal) {
+					continue candidateLoop;
+				} else if (value == literal) {
+					score++;
+				} else if (candidate.solution[index] != literal) {
+					contained = false;
+				}
+			}
+			candidate.score = score;
+			if (contained) {
+				if ((bestCandidate == null) || (score > bestCandidate.score)) {
+					bestCandidate = candidate;
+				}
+			} else {
+				compatibleCandidates.add(candidate);
+			}
+		}
+		if (bestCandidate != null) {
+			addInteraction(bestCandidate);
+			return;
+		}
+
+		Collections.sort(compatibleCandidates, SCORE_COMPARATOR);
+		final Candidate candidate = findSatisfiableCandidate(compatibleCandidates);
+		if (candidate != null) {
+			addInteraction(candidate);
+		} else if (candidates.size() < maxNumber) {
+			if (solve(solver, null, interaction) == SatResult.TRUE) {
+				addInteraction(addCandidate(solver.getModel()));
+			} else if (interaction.length > 2) {
+				addInvalidPairs();
+			}
+		}
+	}
+
+	private boolean isPruned() {
+		if (!invalidPairs.isEmpty()) {
+			for (int i = 0; i < interaction.length; i++) {
+				for (int j = i + 1; j < interaction.length; j++) {
+					if (invalidPairs.contains(getPairKey(interaction[i], interaction[j]))) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private void addInvalidPairs() {
+		for (int i = 0; i < interaction.length; i++) {
+			for (int j = i + 1; j < interaction.length; j++) {
+				final Long key = getPairKey(interaction[i], interaction[j]);
+				if (!validPairs.contains(key) && !invalidPairs.contains(key)) {
+					switch (solve(solver, null, interaction[i], interaction[j])) {
+					case FALSE:
+						invalidPairs.add(key);
+						break;
+					case TRUE:
+						validPairs.add(key);
+						break;
+					case TIMEOUT:
+					default:
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private static Long getPairKey(int literal1, int literal2) {
+		final int node1 = getNode(literal1);
+		final int node2 = getNode(literal2);
+		return (node1 < node2) ? ((((long) node1) << 32) | node2) : ((((long) node2) << 32) | node1);
+	}
+
+	private Candidate findSatisfiableCandidate(final List<Candidate> compatibleCandidates) {
+		if ((numberOfThreads > 1) && (compatibleCandidates.size() >= minParallelCandidates)) {
+			if (workerSolvers == null) {
+				workerSolvers = new ISatSolver[numberOfThreads];
+				for (int i = 0; i < numberOfThreads; i++) {
+					workerSolvers[i] = solver.clone();
+					workerSolvers[i].setSelectionStrategy(SelectionStrategy.ORG);
+				}
+			}
+			for (int i = 0; i < compatibleCandidates.size(); i += numberOfThreads) {
+				final int end = Math.min(i + numberOfThreads, compatibleCandidates.size());
+				final List<Future<int[]>> futures = new ArrayList<>(end - i);
+				// all checks have to be finished before the solvers can be reused
+				Candidate satisfiableCandidate = null;
+				try {
+					for (int j = i; j < end; j++) {
+						futures.add(SharedExecutor.submit(createCheck(workerSolvers[j - i], compatibleCandidates.get(j))));
+					}
+					for (int j = i; j < end; j++) {
+						final int[] model;
+						try {
+							model = futures.get(j - i).get();
+						} catch (final ExecutionException e) {
+							final Throwable cause = e.getCause();
+							if (cause instanceof MethodCancelException) {
+								throw (MethodCancelException) cause;
+							}
+							throw new RuntimeException(cause);
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+							throw new MethodCancelException();
+						}
+						if ((satisfiableCandidate == null) && (model != null)) {
+							satisfiableCandidate = compatibleCandidates.get(j);
+							satisfiableCandidate.solution = model;
+						}
+					}
+				} finally {
+					SharedExecutor.cancel(futures);
+				}
+				if (satisfiableCandidate != null) {
+					return satisfiableCandidate;
+				}
+			}
+		} else {
+			for (final Candidate candidate : compatibleCandidates) {
+				if (solve(solver, candidate, interaction) == SatResult.TRUE) {
+					candidate.solution = solver.getModel();
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
+	private Callable<int[]> createCheck(final ISatSolver workerSolver, final Candidate candidate) {
+		return new Callable<int[]>() {
+
+			@Override
+			public int[] call() {
+				return (solve(workerSolver, candidate, interaction) == SatResult.TRUE) ? workerSolver.getModel() : null;
+			}
+		};
+	}
+
+	/**
+	 * Checks whether the assignment of a candidate together with the given literals is satisfiable.
+	 */
+	private SatResult solve(ISatSolver checkSolver, Candidate candidate, int... literals) {
+		if (candidate != null) {
+			for (int i = 0; i < candidate.numberOfLiterals; i++) {
+				checkSolver.assignmentPush(candidate.literals[i]);
+			}
+		}
+		for (final int literal : literals) {
+			if ((candidate == null) || (candidate.assignment[Math.abs(literal) - 1] != literal)) {
+				checkSolver.assignmentPush(literal);
+			}
+		}
+		try {
+			return checkSolver.isSatisfiable();
+		} finally {
+			checkSolver.assignmentClear(numberOfFixedLiterals);
+		}
+	}
+
+	private Candidate addCandidate(int[] solution) {
+		final int index = candidates.size();
+		if (index == (numberOfWords << 6)) {
+			numberOfWords <<= 1;
+			for (int i = 0; i < literalColumns.length; i++) {
+				literalColumns[i] = Arrays.copyOf(literalColumns[i], numberOfWords);
+			}
+			for (int i = 0; i < prefixes.length; i++) {
+				prefixes[i] = Arrays.copyOf(prefixes[i], numberOfWords);
+			}
+		}
+		final Candidate candidate = new Candidate(index, numVariables, solution);
+		candidates.add(candidate);
+		return candidate;
+	}
+
+	private void addInteraction(Candidate candidate) {
+		for (final int literal : interaction) {
+			final int index = Math.abs(literal) - 1;
+			if (candidate.assignment[index] == 0) {
+				candidate.assignment[index] = literal;
+				if (candidate.numberOfLiterals == candidate.literals.length) {
+					candidate.literals = Arrays.copyOf(candidate.literals, candidate.numberOfLiterals << 1);
+				}
+				candidate.literals[candidate.numberOfLiterals++] = literal;
+				literalColumns[getNode(literal)][candidate.index >>> 6] |= 1L << candidate.index;
+			}
+		}
+		candidate.numberOfInteractions++;
+		// a candidate that assigns all variables covers all of its interactions, thus, it is not changed anymore
+		if (!candidate.finished && (candidate.numberOfLiterals == variables.length)) {
+			finish(candidate);
+		}
+	}
+
+}
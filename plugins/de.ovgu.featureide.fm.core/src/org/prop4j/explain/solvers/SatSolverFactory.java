@@ -29,6 +29,15 @@ import org.prop4j.explain.solvers.impl.sat4j.Sat4jSatSolverFactory;
  */
 public abstract class SatSolverFactory {
 
+	/**
+	 * The maximum number of MUSes enumerated for explanations.
+	 */
+	public static final int DEFAULT_EXPLANATION_MUS_COUNT = 10;
+	/**
+	 * The time in milliseconds after which the enumeration of MUSes for explanations stops.
+	 */
+	public static final long DEFAULT_EXPLANATION_MUS_TIMEOUT = 1000;
+
 	/**
 	 * Returns a default instance of this class.
 	 *
@@ -38,6 +47,30 @@ public abstract class SatSolverFactory {
 		return new Sat4jSatSolverFactory();
 	}
 
+	/**
+	 * Returns a default instance of this class, whose {@link #getMusExtractor() MUS extractors} enumerate multiple MUSes in parallel.
+	 *
+	 * @param maximumMusCount the maximum number of MUSes
+	 * @param timeout the time after which the enumeration stops in milliseconds; 0 for none
+	 * @return a default instance of this class
+	 */
+	public static SatSolverFactory getDefault(int maximumMusCount, long timeout) {
+		final Sat4jSatSolverFactory factory = new Sat4jSatSolverFactory();
+		factory.setMaximumMusCount(maximumMusCount);
+		factory.setMusTimeout(timeout);
+		return factory;
+	}
+
+	/**
+	 * Returns a default instance of this class for explanations.</br> Its {@link #getMusExtractor() MUS extractors} enumerate up to
+	 * {@value #DEFAULT_EXPLANATION_MUS_COUNT} MUSes within {@value #DEFAULT_EXPLANATION_MUS_TIMEOUT} milliseconds.
+	 *
+	 * @return a default instance of this class for explanations
+	 */
+	public static SatSolverFactory getExplanationDefault() {
+		return getDefault(DEFAULT_EXPLANATION_MUS_COUNT, DEFAULT_EXPLANATION_MUS_TIMEOUT);
+	}
+
 	/**
 	 * Returns an instance of {@link SatSolver}.
 	 *
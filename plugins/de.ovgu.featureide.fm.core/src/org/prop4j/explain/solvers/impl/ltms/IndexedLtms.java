@@ -0,0 +1,588 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.explain.solvers.MusExtractor;
+import org.prop4j.explain.solvers.impl.AbstractSatProblem;
+
+/**
+ * <p> An LTMS (logic truth maintenance system) that works on variable indexes instead of variable objects. Explains contradictions in the same way as
+ * {@link Ltms}: The premises (assumptions) are propagated using BCP (boolean constraint propagation) and each derived truth value records the clause it was
+ * derived from. When a clause is violated, the violated clause and the recursive reasons of its literals form an explanation. </p>
+ *
+ * <p> All data structures are arrays indexed by variable, literal, or clause. BCP uses two watched literals per clause, such that only clauses watching a
+ * literal that became false are visited. Derived truth values are recorded on a trail and undone by unwinding the trail. Assumptions of nested scopes are
+ * recorded on a stack as well, such that {@link #push()} and {@link #pop()} do not copy any data. </p>
+ *
+ * <p> Multiple explanations are generated by starting the propagation with each clause that is unit under the premises in turn. Some of the resulting
+ * explanations might be shorter than others. </p>
+ *
+ * <p> Clauses are referenced by their index in the CNF. </p>
+ *
+ * <p> Note that this class does not fulfill the entire contract of each of its interfaces. This is because BCP is inherently incomplete, meaning it does not
+ * always find a result. </p>
+ */
+public class IndexedLtms extends AbstractSatProblem implements MusExtractor {
+
+	private static final int UNKNOWN = 0;
+	private static final int TRUE = 1;
+	private static final int FALSE = -1;
+
+	/** The index of each variable. Indexes start at 1. */
+	private final Map<Object, Integer> variableIndexes = new HashMap<>();
+	/** The variable of each index. Index 0 is unused. */
+	private final List<Object> variables = new ArrayList<>();
+
+	/**
+	 * The literals of each clause as signed variable indexes. For clauses with at least two literals, the first two literals are watched. The order of the
+	 * literals changes during propagation.
+	 */
+	private int[][] clauses = new int[16][];
+	/** For each literal (see {@link #getLiteralIndex(int)}), the indexes of the clauses watching it. */
+	private int[][] watches = new int[0][];
+	/** The number of clauses watching each literal. */
+	private int[] watchCounts = new int[0];
+	/** The indexes of all clauses with exactly one literal. These are not watched. */
+	private int[] unitClauses = new int[16];
+	private int unitClauseCount = 0;
+
+	/** The current truth value of each variable. */
+	private int[] values = new int[1];
+	/** The index of the clause each truth value was derived from or -1 for premises. */
+	private int[] reasons = new int[1];
+	/** The assigned literals in the order of their assignment. */
+	private int[] trail = new int[1];
+	private int trailSize = 0;
+	/** The number of literals on the trail whose watches were already processed. */
+	private int propagatedSize = 0;
+	/** Marks the variables visited while collecting an explanation. */
+	private int[] visited = new int[1];
+	private int visitedStamp = 0;
+
+	/** The assumed truth value of each variable. */
+	private int[] assumedValues = new int[1];
+	/** The assumed variables in the order of their assumption together with their previously assumed value, i.e., pairs of variable and value. */
+	private int[] assumptionTrail = new int[16];
+	private int assumptionTrailSize = 0;
+
+	/** For each scope except the current one, the number of clauses and the size of the assumption trail at the time it was pushed. */
+	private int[] scopes = new int[8];
+	private int scopeCount = 0;
+
+	/** The clauses that are unit under the premises, computed by {@link #propagatePremises()}. */
+	private int[] premiseUnits = new int[16];
+	private int premiseUnitCount = 0;
+
+	public IndexedLtms() {
+		variables.add(null);
+	}
+
+	@Override
+	public Object getOracle() {
+		return this; // direct implementation
+	}
+
+	/**
+	 * Returns the index of the given variable. Creates a new index if necessary.
+	 *
+	 * @param variable the variable
+	 * @return the index of the variable
+	 */
+	private int getVariableIndex(Object variable) {
+		Integer index = variableIndexes.get(variable);
+		if (index == null) {
+			index = variables.size();
+			variableIndexes.put(variable, index);
+			variables.add(variable);
+			final int size = index + 1;
+			if (size > values.length) {
+				final int newLength = Math.max(size, values.length << 1);
+				values = Arrays.copyOf(values, newLength);
+				reasons = Arrays.copyOf(reasons, newLength);
+				trail = Arrays.copyOf(trail, newLength);
+				visited = Arrays.copyOf(visited, newLength);
+				assumedValues = Arrays.copyOf(assumedValues, newLength);
+			}
+			if ((2 * size) > watches.length) {
+				final int oldLength = watches.length;
+				watches = Arrays.copyOf(watches, Math.max(2 * size, oldLength << 1));
+				watchCounts = Arrays.copyOf(watchCounts, watches.length);
+				for (int i = oldLength; i < watches.length; i++) {
+					watches[i] = new int[4];
+				}
+			}
+		}
+		return index;
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return literal > 0 ? literal << 1 : ((-literal) << 1) | 1;
+	}
+
+	private int getValue(int literal) {
+		return literal > 0 ? values[literal] : -values[-literal];
+	}
+
+	private void addWatch(int literal, int clauseIndex) {
+		final int literalIndex = getLiteralIndex(literal);
+		final int count = watchCounts[literalIndex];
+		if (count == watches[literalIndex].length) {
+			watches[literalIndex] = Arrays.copyOf(watches[literalIndex], count << 1);
+		}
+		watches[literalIndex][count] = clauseIndex;
+		watchCounts[literalIndex] = count + 1;
+	}
+
+	private void removeWatch(int literal, int clauseIndex) {
+		final int literalIndex = getLiteralIndex(literal);
+		final int[] watchList = watches[literalIndex];
+		final int count = watchCounts[literalIndex];
+		// recently added clauses are usually at the end
+		for (int i = count - 1; i >= 0; i--) {
+			if (watchList[i] == clauseIndex) {
+				System.arraycopy(watchList, i + 1, watchList, i, count - i - 1);
+				watchCounts[literalIndex] = count - 1;
+				return;
+			}
+		}
+	}
+
+	@Override
+	public int addClause(Node clause) {
+		final int index = super.addClause(clause);
+		// remove duplicate literals
+		final Node[] children = clause.getChildren();
+		final int[] literals = new int[children.length];
+		int length = 0;
+		literalLoop: for (final Node child : children) {
+			final Literal literal = (Literal) child;
+			final int variable = getVariableIndex(literal.var);
+			final int intLiteral = literal.positive ? variable : -variable;
+			for (int i = 0; i < length; i++) {
+				if (literals[i] == intLiteral) {
+					continue literalLoop;
+				}
+			}
+			literals[length++] = intLiteral;
+		}
+
+		if (index == clauses.length) {
+			clauses = Arrays.copyOf(clauses, clauses.length << 1);
+		}
+		clauses[index] = length == literals.length ? literals : Arrays.copyOf(literals, length);
+		if (length == 1) {
+			if (unitClauseCount == unitClauses.length) {
+				unitClauses = Arrays.copyOf(unitClauses, unitClauseCount << 1);
+			}
+			unitClauses[unitClauseCount++] = index;
+		} else {
+			addWatch(literals[0], index);
+			addWatch(literals[1], index);
+		}
+		return index;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Only the most recently added clause can be removed, as the indexes of all other clauses must not change. </p>
+	 */
+	@Override
+	protected Node removeClause(int index) {
+		if (index != (getClauseCount() - 1)) {
+			throw new UnsupportedOperationException("Only the last clause can be removed");
+		}
+		final int[] literals = clauses[index];
+		if (literals.length == 1) {
+			unitClauseCount--;
+		} else {
+			removeWatch(literals[0], index);
+			removeWatch(literals[1], index);
+		}
+		clauses[index] = null;
+		return super.removeClause(index);
+	}
+
+	@Override
+	public void addAssumption(Object variable, boolean value) {
+		final int index = getVariableIndex(variable);
+		if ((assumptionTrailSize + 2) > assumptionTrail.length) {
+			assumptionTrail = Arrays.copyOf(assumptionTrail, assumptionTrail.length << 1);
+		}
+		assumptionTrail[assumptionTrailSize++] = index;
+		assumptionTrail[assumptionTrailSize++] = assumedValues[index];
+		assumedValues[index] = value ? TRUE : FALSE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Single assumptions cannot be removed, as they are undone in the order they were added when popping a scope. </p>
+	 */
+	@Override
+	protected boolean removeAssumption(Object variable) {
+		throw new UnsupportedOperationException("Assumptions can only be removed by popping their scope");
+	}
+
+	@Override
+	protected void clearAssumptions() {
+		undoAssumptions(scopeCount > 0 ? scopes[(2 * scopeCount) - 1] : 0);
+	}
+
+	private void undoAssumptions(int size) {
+		while (assumptionTrailSize > size) {
+			final int previousValue = assumptionTrail[--assumptionTrailSize];
+			final int variable = assumptionTrail[--assumptionTrailSize];
+			assumedValues[variable] = previousValue;
+		}
+	}
+
+	@Override
+	public Map<Object, Boolean> getAssumptions() {
+		final Map<Object, Boolean> assumptions = new LinkedHashMap<>();
+		for (int i = 0; i < assumptionTrailSize; i += 2) {
+			final int variable = assumptionTrail[i];
+			assumptions.put(variables.get(variable), assumedValues[variable] == TRUE);
+		}
+		return assumptions;
+	}
+
+	@Override
+	public Boolean getAssumption(Object variable) {
+		final Integer index = variableIndexes.get(variable);
+		if ((index == null) || (assumedValues[index] == UNKNOWN)) {
+			return null;
+		}
+		return assumedValues[index] == TRUE;
+	}
+
+	@Override
+	public void push() {
+		if ((2 * (scopeCount + 1)) > scopes.length) {
+			scopes = Arrays.copyOf(scopes, scopes.length << 1);
+		}
+		scopes[2 * scopeCount] = getClauseCount();
+		scopes[(2 * scopeCount) + 1] = assumptionTrailSize;
+		scopeCount++;
+	}
+
+	@Override
+	public List<Node> pop() throws NoSuchElementException {
+		if (scopeCount == 0) {
+			throw new NoSuchElementException();
+		}
+		scopeCount--;
+		final List<Node> removedClauses = removeClauses(getClauseCount() - scopes[2 * scopeCount]);
+		undoAssumptions(scopes[(2 * scopeCount) + 1]);
+		return removedClauses;
+	}
+
+	@Override
+	public boolean isSatisfiable() {
+		return (propagatePremises() < 0) && (propagateUnits(premiseUnitCount - 1) < 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Returns the truth values derived by BCP. Variables whose truth value cannot be derived are not contained. </p>
+	 */
+	@Override
+	public Map<Object, Boolean> getModel() throws IllegalStateException {
+		if (!isSatisfiable()) {
+			throw new IllegalStateException("Problem is unsatisfiable");
+		}
+		final Map<Object, Boolean> model = new LinkedHashMap<>();
+		for (int i = 0; i < trailSize; i++) {
+			final int literal = trail[i];
+			model.put(variables.get(Math.abs(literal)), literal > 0);
+		}
+		return model;
+	}
+
+	@Override
+	public Set<Node> getMinimalUnsatisfiableSubset() throws IllegalStateException {
+		return getClauseSet(getMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	private Set<Node> getClauseSet(Set<Integer> indexes) {
+		final Set<Node> clauseSet = new LinkedHashSet<>();
+		for (final int index : indexes) {
+			clauseSet.add(getClause(index));
+		}
+		return clauseSet;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Returns the shortest explanation found. </p>
+	 */
+	@Override
+	public Set<Integer> getMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
+		Set<Integer> smallest = null;
+		for (final Set<Integer> mus : getAllMinimalUnsatisfiableSubsetIndexes()) {
+			if ((smallest == null) || (mus.size() < smallest.size())) {
+				smallest = mus;
+			}
+		}
+		if (smallest == null) {
+			throw new IllegalStateException("No contradiction found");
+		}
+		return smallest;
+	}
+
+	@Override
+	public List<Set<Node>> getAllMinimalUnsatisfiableSubsets() throws IllegalStateException {
+		final List<Set<Integer>> indexSets = getAllMinimalUnsatisfiableSubsetIndexes();
+		final List<Set<Node>> subsets = new ArrayList<>(indexSets.size());
+		for (final Set<Integer> indexSet : indexSets) {
+			subsets.add(getClauseSet(indexSet));
+		}
+		return subsets;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Returns multiple explanations why the premises lead to a contradiction. Each clause that is unit under the premises is used once as the first
+	 * derivation, after which all other such clauses are propagated as well. Thus, each explanation is found by a complete BCP run. Duplicate explanations are
+	 * omitted. The list is empty if BCP does not find a contradiction. </p>
+	 */
+	@Override
+	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
+		final Set<Set<Integer>> explanations = new LinkedHashSet<>();
+		final int premiseConflict = propagatePremises();
+		if (premiseConflict >= 0) {
+			explanations.add(getExplanation(premiseConflict));
+		} else {
+			final int premiseTrailSize = trailSize;
+			for (int i = premiseUnitCount - 1; i >= 0; i--) {
+				final int conflict = propagateUnits(i);
+				if (conflict >= 0) {
+					explanations.add(getExplanation(conflict));
+				}
+				undo(premiseTrailSize);
+			}
+		}
+		return new ArrayList<>(explanations);
+	}
+
+	/**
+	 * Unassigns all truth values that were assigned after the trail had the given size.
+	 *
+	 * @param size the new size of the trail
+	 */
+	private void undo(int size) {
+		while (trailSize > size) {
+			final int variable = Math.abs(trail[--trailSize]);
+			values[variable] = UNKNOWN;
+			reasons[variable] = -1;
+		}
+		propagatedSize = Math.min(propagatedSize, size);
+	}
+
+	private void assign(int literal, int reason) {
+		final int variable = Math.abs(literal);
+		values[variable] = literal > 0 ? TRUE : FALSE;
+		reasons[variable] = reason;
+		trail[trailSize++] = literal;
+	}
+
+	/**
+	 * Resets all truth values to the premises and collects the clauses that are unit under the premises. Unit clauses are not propagated.
+	 *
+	 * @return the index of a clause that is violated by the premises or -1
+	 */
+	private int propagatePremises() {
+		undo(0);
+		premiseUnitCount = 0;
+		for (int i = 0; i < assumptionTrailSize; i += 2) {
+			final int variable = assumptionTrail[i];
+			if (values[variable] == UNKNOWN) {
+				assign(assumedValues[variable] == TRUE ? variable : -variable, -1);
+			}
+		}
+		for (int i = 0; i < unitClauseCount; i++) {
+			final int clauseIndex = unitClauses[i];
+			switch (getValue(clauses[clauseIndex][0])) {
+			case UNKNOWN:
+				addPremiseUnit(clauseIndex);
+				break;
+			case FALSE:
+				return clauseIndex;
+			default:
+				break;
+			}
+		}
+		return propagate(false);
+	}
+
+	private void addPremiseUnit(int clauseIndex) {
+		if (premiseUnitCount == premiseUnits.length) {
+			premiseUnits = Arrays.copyOf(premiseUnits, premiseUnitCount << 1);
+		}
+		premiseUnits[premiseUnitCount++] = clauseIndex;
+	}
+
+	/**
+	 * Derives the truth values of all clauses that are unit under the premises, starting with the given one, and propagates them.
+	 *
+	 * @param first the index of the unit clause to start with (see {@link #premiseUnits})
+	 * @return the index of a violated clause or -1
+	 */
+	private int propagateUnits(int first) {
+		for (int i = first; i > (first - premiseUnitCount); i--) {
+			final int clauseIndex = premiseUnits[(i + premiseUnitCount) % premiseUnitCount];
+			int unboundLiteral = 0;
+			clauseLoop: for (final int literal : clauses[clauseIndex]) {
+				switch (getValue(literal)) {
+				case TRUE:
+					unboundLiteral = 0;
+					break clauseLoop;
+				case UNKNOWN:
+					unboundLiteral = literal;
+					break;
+				default:
+					break;
+				}
+			}
+			if (unboundLiteral != 0) {
+				assign(unboundLiteral, clauseIndex);
+				final int conflict = propagate(true);
+				if (conflict >= 0) {
+					return conflict;
+				}
+			} else if (isViolated(clauseIndex)) {
+				return clauseIndex;
+			}
+		}
+		return -1;
+	}
+
+	private boolean isViolated(int clauseIndex) {
+		for (final int literal : clauses[clauseIndex]) {
+			if (getValue(literal) != FALSE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Visits all clauses watching a literal that became false since the last call. Moves the watch to another literal if possible.
+	 *
+	 * @param derive whether unit clauses are propagated; if false, they are collected in {@link #premiseUnits} instead
+	 * @return the index of a violated clause or -1
+	 */
+	private int propagate(boolean derive) {
+		while (propagatedSize < trailSize) {
+			final int falseLiteral = -trail[propagatedSize++];
+			final int literalIndex = getLiteralIndex(falseLiteral);
+			final int[] watchList = watches[literalIndex];
+			final int count = watchCounts[literalIndex];
+			int kept = 0;
+			watchLoop: for (int i = 0; i < count; i++) {
+				final int clauseIndex = watchList[i];
+				final int[] clause = clauses[clauseIndex];
+				if (clause[0] == falseLiteral) {
+					clause[0] = clause[1];
+					clause[1] = falseLiteral;
+				}
+				final int otherLiteral = clause[0];
+				final int otherValue = getValue(otherLiteral);
+				if (otherValue != TRUE) {
+					for (int j = 2; j < clause.length; j++) {
+						final int literal = clause[j];
+						if (getValue(literal) != FALSE) {
+							clause[1] = literal;
+							clause[j] = falseLiteral;
+							addWatch(literal, clauseIndex);
+							continue watchLoop;
+						}
+					}
+				}
+				watchList[kept++] = clauseIndex;
+				if (otherValue == FALSE) {
+					System.arraycopy(watchList, i + 1, watchList, kept, count - i - 1);
+					watchCounts[literalIndex] = (kept + count) - i - 1;
+					return clauseIndex;
+				} else if (otherValue == UNKNOWN) {
+					if (derive) {
+						assign(otherLiteral, clauseIndex);
+					} else {
+						addPremiseUnit(clauseIndex);
+					}
+				}
+			}
+			watchCounts[literalIndex] = kept;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns an explanation for the given violated clause, i.e., the clause itself and the reasons of all its literals recursively.
+	 *
+	 * @param violatedClause the index of the violated clause
+	 * @return indexes of clauses that serve as an explanation
+	 */
+	private Set<Integer> getExplanation(int violatedClause) {
+		final Set<Integer> explanation = new TreeSet<>();
+		explanation.add(violatedClause);
+		visitedStamp++;
+		final int[] stack = new int[trailSize];
+		int stackSize = 0;
+		for (final int literal : clauses[violatedClause]) {
+			final int variable = Math.abs(literal);
+			if (visited[variable] != visitedStamp) {
+				visited[variable] = visitedStamp;
+				stack[stackSize++] = variable;
+			}
+		}
+		while (stackSize > 0) {
+			final int reason = reasons[stack[--stackSize]];
+			if (reason >= 0) {
+				explanation.add(reason);
+				for (final int literal : clauses[reason]) {
+					final int variable = Math.abs(literal);
+					if (visited[variable] != visitedStamp) {
+						visited[variable] = visitedStamp;
+						stack[stackSize++] = variable;
+					}
+				}
+			}
+		}
+		return explanation;
+	}
+}
@@ -26,7 +26,7 @@ import org.prop4j.explain.solvers.SatSolver;
 import org.prop4j.explain.solvers.SatSolverFactory;
 
 /**
- * Provides instances of {@link SatSolver} using an {@link Ltms LTMS}.
+ * Provides instances of {@link SatSolver} using an {@link IndexedLtms LTMS}.
  *
  * @author Timo G&uuml;nther
  */
@@ -34,16 +34,16 @@ public class LtmsSatSolverFactory extends SatSolverFactory {
 
 	@Override
 	public SatSolver getSatSolver() {
-		return new Ltms();
+		return new IndexedLtms();
 	}
 
 	@Override
 	public MutableSatSolver getMutableSatSolver() {
-		return new Ltms();
+		return new IndexedLtms();
 	}
 
 	@Override
 	public MusExtractor getMusExtractor() {
-		return new Ltms();
+		return new IndexedLtms();
 	}
 }
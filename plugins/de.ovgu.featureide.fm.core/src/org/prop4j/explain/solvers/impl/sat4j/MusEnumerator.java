@@ -0,0 +1,520 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.sat4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.minisat.orders.PositiveLiteralSelectionStrategy;
+import org.sat4j.minisat.orders.VarOrderHeap;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+
+/**
+ * <p> Enumerates the minimal unsatisfiable subsets (MUSes) of a CNF using the duality of MUSes and minimal correction subsets (MCSes). A map solver keeps
+ * track of all subsets of clauses that have not been explored yet. Each unexplored subset (seed) is either unsatisfiable and shrunk to a new MUS or
+ * satisfiable and grown to a maximal satisfiable subset, whose complement is an MCS. Afterwards, all supersets of the MUS or all subsets of the maximal
+ * satisfiable subset are blocked in the map solver. </p>
+ *
+ * <p> Seeds are processed by several tasks of the {@link SharedExecutor} in parallel, each using its own Sat4J oracle. MUSes are returned as soon as they are
+ * found. The enumeration can be limited by a {@link #setMaximumCount(int) maximum number of MUSes} and a {@link #setTimeout(long) timeout}. If the iteration
+ * is stopped early, {@link #cancel()} must be called to stop all tasks. </p>
+ *
+ * <p> Clauses are referenced by their index in the given list. Assumptions are treated as hard constraints that are never part of a MUS. </p>
+ */
+public class MusEnumerator implements Iterator<Set<Integer>> {
+
+	/** Orders MUSes by their size. */
+	public static final Comparator<Set<Integer>> SHORTEST_FIRST = new Comparator<Set<Integer>>() {
+
+		@Override
+		public int compare(Set<Integer> o1, Set<Integer> o2) {
+			return o1.size() - o2.size();
+		}
+	};
+
+	/** Marks the end of the enumeration in the queue. Compared by identity, because an empty MUS is possible. */
+	private static final Set<Integer> END = new TreeSet<>();
+
+	private final List<int[]> clauses;
+	private final int[] assumptions;
+	private final int numberOfVariables;
+
+	private int maximumCount = Integer.MAX_VALUE;
+	private long timeout = 0;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
+	/** Solver over one variable per clause. Each model represents an unexplored subset of clauses. Guarded by this object. */
+	private ISolver map;
+	/** Whether the map solver has no more unexplored subsets. Guarded by this object. */
+	private boolean exhausted = false;
+	/** All MUSes found so far. Guarded by this object. */
+	private final Set<Set<Integer>> muses = new HashSet<>();
+
+	private final BlockingQueue<Set<Integer>> queue = new LinkedBlockingQueue<>();
+	private List<Future<?>> futures = null;
+	private int runningWorkers = 0;
+	private long deadline = Long.MAX_VALUE;
+	private volatile boolean cancelled = false;
+	private volatile RuntimeException failure = null;
+
+	private Set<Integer> nextMus = null;
+	private boolean finished = false;
+
+	/**
+	 * Constructs a new instance of this class.
+	 *
+	 * @param clauses the clauses as arrays of Sat4J literals; not null
+	 * @param assumptions literals that are assumed to be true; not null
+	 * @param numberOfVariables the highest variable index in the clauses and assumptions
+	 */
+	public MusEnumerator(List<int[]> clauses, int[] assumptions, int numberOfVariables) {
+		this.clauses = clauses;
+		this.assumptions = assumptions;
+		this.numberOfVariables = numberOfVariables;
+	}
+
+	public int getMaximumCount() {
+		return maximumCount;
+	}
+
+	/**
+	 * Sets the maximum number of MUSes to enumerate. Default is no limit.</br> The enumeration stops after the first MUSes found, which are not necessarily the
+	 * shortest ones.
+	 *
+	 * @param maximumCount the maximum number of MUSes
+	 */
+	public void setMaximumCount(int maximumCount) {
+		this.maximumCount = maximumCount;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the time after which the enumeration stops. Only MUSes found until then are returned. Default is no timeout.
+	 *
+	 * @param timeout the timeout in milliseconds; 0 for none
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Sets the number of parallel tasks used for the enumeration. Default is the number of available processors.
+	 *
+	 * @param threadCount the number of threads
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Computes a single MUS by shrinking the set of all clauses. Does not start any threads.
+	 *
+	 * @return any MUS; not null
+	 * @throws IllegalStateException if the clauses are satisfiable under the assumptions
+	 */
+	public Set<Integer> getMinimalUnsatisfiableSubset() throws IllegalStateException {
+		deadline = getDeadline();
+		final Worker worker = new Worker();
+		final List<Integer> subset = new ArrayList<>(clauses.size());
+		for (int i = 0; i < clauses.size(); i++) {
+			subset.add(i);
+		}
+		try {
+			if (worker.isSatisfiable(subset)) {
+				throw new IllegalStateException("Problem is satisfiable");
+			}
+			return new TreeSet<>(worker.shrink(subset));
+		} catch (final TimeoutException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Enumerates all MUSes within the limits and returns them shortest first.</br> If the enumeration is limited by a {@link #setMaximumCount(int) maximum
+	 * count} or a {@link #setTimeout(long) timeout}, only the MUSes found until then are sorted. These are not necessarily the shortest MUSes of the problem.
+	 *
+	 * @return all found MUSes ordered by their size; not null
+	 */
+	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsets() {
+		final List<Set<Integer>> result = new ArrayList<>();
+		try {
+			while (hasNext()) {
+				result.add(next());
+			}
+		} finally {
+			cancel();
+		}
+		Collections.sort(result, SHORTEST_FIRST);
+		return result;
+	}
+
+	/**
+	 * Stops the enumeration. All tasks are stopped and no further MUSes are returned.
+	 */
+	public void cancel() {
+		cancelled = true;
+		if (futures != null) {
+			SharedExecutor.cancel(futures);
+		}
+		finished = true;
+		nextMus = null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextMus != null) {
+			return true;
+		}
+		if (finished) {
+			return false;
+		}
+		if (futures == null) {
+			start();
+		}
+		try {
+			nextMus = queue.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel();
+			return false;
+		}
+		if (nextMus == END) {
+			cancel();
+			if (failure != null) {
+				throw failure;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public Set<Integer> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Set<Integer> mus = nextMus;
+		nextMus = null;
+		return mus;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	private long getDeadline() {
+		return timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+	}
+
+	private void start() {
+		deadline = getDeadline();
+		map = SolverFactory.newDefault();
+		// prefer large seeds, which are more likely to be unsatisfiable
+		((Solver<?>) map).setOrder(new VarOrderHeap(new PositiveLiteralSelectionStrategy()));
+		map.newVar(clauses.size());
+
+		runningWorkers = threadCount;
+		futures = new ArrayList<>(threadCount);
+		for (int i = 0; i < threadCount; i++) {
+			futures.add(SharedExecutor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					try {
+						new Worker().run();
+					} catch (final TimeoutException e) {
+						// stop
+					} catch (final RuntimeException e) {
+						failure = e;
+					} finally {
+						workerFinished();
+					}
+					return null;
+				}
+			}));
+		}
+	}
+
+	private synchronized void workerFinished() {
+		if (--runningWorkers == 0) {
+			queue.add(END);
+		}
+	}
+
+	/**
+	 * Returns the next unexplored subset of clauses.
+	 *
+	 * @return the indexes of the clauses in the subset or {@code null} if the enumeration is done
+	 */
+	private synchronized List<Integer> nextSeed() throws TimeoutException {
+		if (cancelled || exhausted || (muses.size() >= maximumCount) || (failure != null)) {
+			return null;
+		}
+		setTimeout(map);
+		if (!map.isSatisfiable()) {
+			exhausted = true;
+			return null;
+		}
+		// variables that do not occur in the map yet are missing in the model and are treated as true
+		final boolean[] excluded = new boolean[clauses.size()];
+		for (final int literal : map.model()) {
+			if (literal < 0) {
+				excluded[-literal - 1] = true;
+			}
+		}
+		final List<Integer> seed = new ArrayList<>();
+		final int[] blockingClause = new int[clauses.size()];
+		for (int i = 0; i < clauses.size(); i++) {
+			if (!excluded[i]) {
+				seed.add(i);
+				blockingClause[i] = -(i + 1);
+			} else {
+				blockingClause[i] = i + 1;
+			}
+		}
+		// prevent other threads from processing the same seed
+		addToMap(blockingClause);
+		return seed;
+	}
+
+	/**
+	 * Blocks all supersets of the given MUS and publishes it.
+	 */
+	private synchronized void addMus(List<Integer> mus) {
+		final int[] blockingClause = new int[mus.size()];
+		for (int i = 0; i < blockingClause.length; i++) {
+			blockingClause[i] = -(mus.get(i) + 1);
+		}
+		addToMap(blockingClause);
+		final Set<Integer> musSet = new TreeSet<>(mus);
+		if (!cancelled && (muses.size() < maximumCount) && muses.add(musSet)) {
+			queue.add(musSet);
+		}
+	}
+
+	/**
+	 * Blocks all subsets of the given maximal satisfiable subset, i.e., at least one clause of the corresponding MCS must be part of every further seed.
+	 */
+	private synchronized void addMss(boolean[] mss) {
+		final VecInt blockingClause = new VecInt();
+		for (int i = 0; i < mss.length; i++) {
+			if (!mss[i]) {
+				blockingClause.push(i + 1);
+			}
+		}
+		addToMap(blockingClause);
+	}
+
+	private void addToMap(int[] clause) {
+		addToMap(new VecInt(clause));
+	}
+
+	private void addToMap(IVecInt clause) {
+		if (exhausted) {
+			return;
+		}
+		try {
+			map.addClause(clause);
+		} catch (final ContradictionException e) {
+			exhausted = true;
+		}
+	}
+
+	private void setTimeout(ISolver solver) throws TimeoutException {
+		if (deadline != Long.MAX_VALUE) {
+			final long remainingTime = deadline - System.currentTimeMillis();
+			if (remainingTime <= 0) {
+				throw new TimeoutException();
+			}
+			solver.setTimeoutMs(remainingTime);
+		}
+	}
+
+	/**
+	 * Checks subsets of clauses using one oracle, in which each clause is extended by a selector variable.
+	 */
+	private class Worker {
+
+		private final ISolver solver = SolverFactory.newDefault();
+
+		Worker() {
+			solver.newVar(numberOfVariables + clauses.size());
+			try {
+				for (int i = 0; i < clauses.size(); i++) {
+					final int[] clause = clauses.get(i);
+					final int[] selectableClause = new int[clause.length + 1];
+					System.arraycopy(clause, 0, selectableClause, 0, clause.length);
+					selectableClause[clause.length] = -getSelector(i);
+					solver.addClause(new VecInt(selectableClause));
+				}
+			} catch (final ContradictionException e) {
+				// cannot happen, as each clause can be disabled by its selector
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private int getSelector(int clauseIndex) {
+			return numberOfVariables + 1 + clauseIndex;
+		}
+
+		void run() throws TimeoutException {
+			for (List<Integer> seed = nextSeed(); seed != null; seed = nextSeed()) {
+				if (isSatisfiable(seed)) {
+					addMss(grow(seed));
+				} else {
+					addMus(shrink(seed));
+				}
+			}
+		}
+
+		boolean isSatisfiable(List<Integer> subset) throws TimeoutException {
+			if (cancelled) {
+				throw new TimeoutException();
+			}
+			final VecInt literals = new VecInt(assumptions.length + subset.size());
+			for (final int assumption : assumptions) {
+				literals.push(assumption);
+			}
+			for (final int clauseIndex : subset) {
+				literals.push(getSelector(clauseIndex));
+			}
+			setTimeout(solver);
+			return solver.isSatisfiable(literals);
+		}
+
+		/**
+		 * Returns the clauses of the given unsatisfiable subset that are part of the unsatisfiable core of the last call of {@link #isSatisfiable(List)}.
+		 */
+		private List<Integer> getCore(List<Integer> subset) {
+			final IVecInt explanation = solver.unsatExplanation();
+			if (explanation == null) {
+				return subset;
+			}
+			final Set<Integer> coreSelectors = new HashSet<>();
+			for (int i = 0; i < explanation.size(); i++) {
+				coreSelectors.add(Math.abs(explanation.get(i)));
+			}
+			final List<Integer> core = new ArrayList<>(subset.size());
+			for (final int clauseIndex : subset) {
+				if (coreSelectors.contains(getSelector(clauseIndex))) {
+					core.add(clauseIndex);
+				}
+			}
+			return core;
+		}
+
+		/**
+		 * Shrinks an unsatisfiable subset to a MUS. Must be called directly after {@link #isSatisfiable(List)} returned {@code false} for the subset.
+		 */
+		List<Integer> shrink(List<Integer> subset) throws TimeoutException {
+			List<Integer> mus = getCore(subset);
+			for (int i = 0; i < mus.size();) {
+				final List<Integer> candidate = new ArrayList<>(mus);
+				candidate.remove(i);
+				if (isSatisfiable(candidate)) {
+					// the clause is necessary
+					i++;
+				} else {
+					// all necessary clauses before i are also part of the core
+					mus = getCore(candidate);
+				}
+			}
+			return mus;
+		}
+
+		/**
+		 * Grows a satisfiable subset to a maximal satisfiable subset. Must be called directly after {@link #isSatisfiable(List)} returned {@code true} for
+		 * the subset.
+		 */
+		boolean[] grow(List<Integer> subset) throws TimeoutException {
+			final boolean[] mss = new boolean[clauses.size()];
+			for (final int clauseIndex : subset) {
+				mss[clauseIndex] = true;
+			}
+			final List<Integer> candidate = new ArrayList<>(subset);
+			addSatisfiedClauses(mss, candidate, solver.model());
+			for (int i = 0; i < mss.length; i++) {
+				if (!mss[i]) {
+					candidate.add(i);
+					if (isSatisfiable(candidate)) {
+						mss[i] = true;
+						addSatisfiedClauses(mss, candidate, solver.model());
+					} else {
+						candidate.remove(candidate.size() - 1);
+					}
+				}
+			}
+			return mss;
+		}
+
+		/**
+		 * Adds all clauses to the given subset that are satisfied by the given model.
+		 */
+		private void addSatisfiedClauses(boolean[] subset, List<Integer> subsetIndexes, int[] model) {
+			final boolean[] values = new boolean[numberOfVariables + 1];
+			for (final int literal : model) {
+				if ((literal > 0) && (literal <= numberOfVariables)) {
+					values[literal] = true;
+				}
+			}
+			clauseLoop: for (int i = 0; i < subset.length; i++) {
+				if (!subset[i]) {
+					for (final int literal : clauses.get(i)) {
+						if (values[Math.abs(literal)] == (literal > 0)) {
+							subset[i] = true;
+							subsetIndexes.add(i);
+							continue clauseLoop;
+						}
+					}
+				}
+			}
+		}
+
+	}
+
+}
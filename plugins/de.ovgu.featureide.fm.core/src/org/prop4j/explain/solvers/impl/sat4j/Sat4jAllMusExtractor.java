@@ -23,40 +23,92 @@ package org.prop4j.explain.solvers.impl.sat4j;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import org.prop4j.Node;
 import org.prop4j.explain.solvers.MusExtractor;
-import org.sat4j.minisat.SolverFactory;
-import org.sat4j.specs.ISolver;
 import org.sat4j.specs.IVecInt;
-import org.sat4j.tools.AllMUSes;
 
 /**
- * A MUS extractor using a Sat4J oracle for all MUSes.
+ * A MUS extractor that enumerates all MUSes using a {@link MusEnumerator}. The enumeration can be limited by a maximum number of MUSes and a timeout.
  *
  * @author Timo G&uuml;nther
  */
 public class Sat4jAllMusExtractor extends Sat4jMutableSatSolver implements MusExtractor {
 
-	/** The oracle used to extract all MUSes. */
-	private AllMUSes allMusExtractor;
+	/** The maximum number of MUSes to enumerate. */
+	private int maximumMusCount = Integer.MAX_VALUE;
+	/** The timeout for the enumeration in milliseconds. */
+	private long timeout = 0;
+	/** The number of threads used for the enumeration. */
+	private int threadCount = Runtime.getRuntime().availableProcessors();
 
-	@Override
-	protected ISolver createOracle() {
-		allMusExtractor = new AllMUSes(SolverFactory.instance());
-		return allMusExtractor.getSolverInstance();
+	public int getMaximumMusCount() {
+		return maximumMusCount;
 	}
 
-	@Override
-	protected Node removeClause() throws UnsupportedOperationException {
-		/*
-		 * AllMUSes throws exceptions when clauses are removed. Specifically, when calling ISolver#removeSubsumedConstraint(IConstr), it throws an
-		 * IllegalArgumentException (with the message "Can only remove latest added constraint!!!"). When calling ISolver#removeConstraint(IConstr) instead, an
-		 * ArrayIndexOutOfBoundsException is thrown later while extracting the MUSes because it assumes the clause exists even though it was already removed.
-		 * Tested on Sat4J version 2.3.5.v20130525.
-		 */
-		throw new UnsupportedOperationException("Sat4J's AllMUSes does not support clause removal");
+	/**
+	 * Sets the maximum number of MUSes returned by {@link #getAllMinimalUnsatisfiableSubsetIndexes()}. Default is no limit.
+	 *
+	 * @param maximumMusCount the maximum number of MUSes
+	 */
+	public void setMaximumMusCount(int maximumMusCount) {
+		this.maximumMusCount = maximumMusCount;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the time after which the enumeration stops. Default is no timeout.
+	 *
+	 * @param timeout the timeout in milliseconds; 0 for none
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Sets the number of threads used for the enumeration. Default is the number of available processors.
+	 *
+	 * @param threadCount the number of threads
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Returns a new enumerator for the MUSes of the current problem. MUSes are computed in the background and returned as soon as they are found. If the
+	 * enumerator is not exhausted, {@link MusEnumerator#cancel()} must be called.
+	 *
+	 * @return an enumerator for the clause indexes of all MUSes; not null
+	 * @throws IllegalStateException if the formula in this solver is satisfiable
+	 */
+	public MusEnumerator getMinimalUnsatisfiableSubsetIndexIterator() throws IllegalStateException {
+		if (isSatisfiable()) {
+			throw new IllegalStateException("Problem is satisfiable");
+		}
+		final List<int[]> clauses = new ArrayList<>(getClauseCount());
+		for (final Node clause : getClauses()) {
+			clauses.add(toArray(getVectorFromClause(clause)));
+		}
+		final MusEnumerator enumerator = new MusEnumerator(clauses, toArray(getVectorFromAssumptions()), getOracle().nVars());
+		enumerator.setMaximumCount(maximumMusCount);
+		enumerator.setTimeout(timeout);
+		enumerator.setThreadCount(threadCount);
+		return enumerator;
+	}
+
+	private static int[] toArray(IVecInt vector) {
+		final int[] array = new int[vector.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = vector.get(i);
+		}
+		return array;
 	}
 
 	@Override
@@ -64,9 +116,14 @@ public class Sat4jAllMusExtractor extends Sat4jMutableSatSolver implements MusEx
 		return getClauseSetFromIndexSet(getMinimalUnsatisfiableSubsetIndexes());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Computes only a single MUS. </p>
+	 */
 	@Override
 	public Set<Integer> getMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
-		return getAllMinimalUnsatisfiableSubsetIndexes().get(0);
+		return getMinimalUnsatisfiableSubsetIndexIterator().getMinimalUnsatisfiableSubset();
 	}
 
 	@Override
@@ -74,21 +131,14 @@ public class Sat4jAllMusExtractor extends Sat4jMutableSatSolver implements MusEx
 		return getClauseSetsFromIndexSets(getAllMinimalUnsatisfiableSubsetIndexes());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> The MUSes are ordered by their size, shortest first. If the enumeration is limited, these are not necessarily the shortest MUSes of the problem
+	 * (see {@link MusEnumerator#getAllMinimalUnsatisfiableSubsets()}). </p>
+	 */
 	@Override
 	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
-		if (isSatisfiable()) {
-			throw new IllegalStateException("Problem is satisfiable");
-		}
-		final List<IVecInt> allIndexes = allMusExtractor.computeAllMUSes();
-		final List<Set<Integer>> allMuses = new ArrayList<>(allIndexes.size());
-		for (final IVecInt indexes : allIndexes) {
-			final Set<Integer> mus = new TreeSet<Integer>();
-			for (int i = 0; i < indexes.size(); i++) {
-				final int index = indexes.get(i);
-				mus.add(getClauseIndexFromIndex(index));
-			}
-			allMuses.add(mus);
-		}
-		return allMuses;
+		return getMinimalUnsatisfiableSubsetIndexIterator().getAllMinimalUnsatisfiableSubsets();
 	}
 }
@@ -32,6 +32,39 @@ import org.prop4j.explain.solvers.SatSolverFactory;
  */
 public class Sat4jSatSolverFactory extends SatSolverFactory {
 
+	/** Default maximum number of MUSes computed by the MUS extractors of this factory. */
+	public static final int DEFAULT_MAXIMUM_MUS_COUNT = 1;
+
+	private int maximumMusCount = DEFAULT_MAXIMUM_MUS_COUNT;
+	private long musTimeout = 0;
+
+	public int getMaximumMusCount() {
+		return maximumMusCount;
+	}
+
+	/**
+	 * Sets the maximum number of MUSes computed by the {@link #getMusExtractor() MUS extractors} of this factory. For a single MUS, a {@link Sat4jMusExtractor}
+	 * is used. Otherwise, the MUSes are enumerated by a {@link Sat4jAllMusExtractor}. Default is {@value #DEFAULT_MAXIMUM_MUS_COUNT}.
+	 *
+	 * @param maximumMusCount the maximum number of MUSes; {@link Integer#MAX_VALUE} for no limit
+	 */
+	public void setMaximumMusCount(int maximumMusCount) {
+		this.maximumMusCount = Math.max(1, maximumMusCount);
+	}
+
+	public long getMusTimeout() {
+		return musTimeout;
+	}
+
+	/**
+	 * Sets the time after which the enumeration of multiple MUSes stops (see {@link Sat4jAllMusExtractor#setTimeout(long)}). Default is no timeout.
+	 *
+	 * @param musTimeout the timeout in milliseconds; 0 for none
+	 */
+	public void setMusTimeout(long musTimeout) {
+		this.musTimeout = musTimeout;
+	}
+
 	@Override
 	public SatSolver getSatSolver() {
 		return new Sat4jSatSolver();
@@ -44,6 +77,12 @@ public class Sat4jSatSolverFactory extends SatSolverFactory {
 
 	@Override
 	public MusExtractor getMusExtractor() {
-		return new Sat4jMusExtractor();
+		if (maximumMusCount == 1) {
+			return new Sat4jMusExtractor();
+		}
+		final Sat4jAllMusExtractor musExtractor = new Sat4jAllMusExtractor();
+		musExtractor.setMaximumMusCount(maximumMusCount);
+		musExtractor.setTimeout(musTimeout);
+		return musExtractor;
 	}
 }
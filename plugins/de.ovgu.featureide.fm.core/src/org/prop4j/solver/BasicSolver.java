@@ -90,8 +90,9 @@ public class BasicSolver implements ISatSolver {
 		final int size = satInstance.getNumberOfVariables();
 		if (size > 0) {
 			solver.newVar(size);
-			solver.setExpectedNumberOfClauses(satInstance.getCnf().getChildren().length + 1);
-			addCNF(satInstance.getCnf().getChildren());
+			final ClauseDatabase clauses = satInstance.getClauses();
+			solver.setExpectedNumberOfClauses(clauses.getNumberOfClauses() + 1);
+			addCNF(clauses);
 			final VecInt pseudoClause = new VecInt(size + 1);
 			for (int i = 1; i <= size; i++) {
 				pseudoClause.push(i);
@@ -124,6 +125,17 @@ public class BasicSolver implements ISatSolver {
 		return result;
 	}
 
+	/**
+	 * Adds all clauses of the given database.
+	 */
+	protected void addCNF(ClauseDatabase clauses) throws ContradictionException {
+		final int numberOfClauses = clauses.getNumberOfClauses();
+		final VecInt clause = new VecInt();
+		for (int i = 0; i < numberOfClauses; i++) {
+			solver.addClause(clauses.getClause(i, clause));
+		}
+	}
+
 	protected IConstr addClause(final Node node) throws ContradictionException {
 		final Node[] children = node.getChildren();
 		final int[] clause = new int[children.length];
@@ -0,0 +1,528 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Reduced ordered binary decision diagram of the CNF of a {@link SatInstance}.</br> The diagram is compiled once (using the variable order of the instance)
+ * and afterwards answers the following queries with respect to a set of assumptions in time linear in its size: satisfiability, implied (i.e.,
+ * conditionally core and dead) literals, and the number of solutions.</br> Compilation stops if the diagram exceeds a given number of nodes. In this case the
+ * queries have to be answered by a SAT solver instead.</br> In addition, the diagram can draw solutions uniformly at random.</br> A compiled diagram is
+ * immutable and can be queried concurrently.
+ */
+public class BinaryDecisionDiagram {
+
+	/**
+	 * Default maximal number of nodes during compilation.
+	 */
+	public static final int DEFAULT_MAX_NUMBER_OF_NODES = 1 << 21;
+
+	private static final int FALSE = 0;
+	private static final int TRUE = 1;
+
+	private static final int CACHE_SIZE = 1 << 18;
+
+	private static class NodeLimitException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Compiles the CNF of the given instance into a diagram.
+	 *
+	 * @param satInstance the instance
+	 * @param maxNumberOfNodes the maximal number of nodes
+	 * @param monitor the monitor used to check for cancel requests (may be {@code null})
+	 *
+	 * @return the compiled diagram or {@code null} if the diagram exceeds the maximal number of nodes
+	 */
+	public static BinaryDecisionDiagram compile(SatInstance satInstance, int maxNumberOfNodes, IMonitor monitor) {
+		final ClauseDatabase clauseDatabase = satInstance.getClauses();
+		final List<int[]> clauses = new ArrayList<>(clauseDatabase.getNumberOfClauses());
+		for (int i = 0; i < clauseDatabase.getNumberOfClauses(); i++) {
+			clauses.add(clauseDatabase.getClause(i));
+		}
+		return compile(satInstance.getNumberOfVariables(), clauses, maxNumberOfNodes, monitor);
+	}
+
+	public static BinaryDecisionDiagram compile(SatInstance satInstance) {
+		return compile(satInstance, DEFAULT_MAX_NUMBER_OF_NODES, null);
+	}
+
+	/**
+	 * Compiles the given CNF into a diagram.
+	 *
+	 * @param numberOfVariables the number of variables (variables are numbered from 1 to numberOfVariables)
+	 * @param clauses the clauses of the CNF; a value of 0 within a clause is ignored
+	 * @param maxNumberOfNodes the maximal number of nodes
+	 * @param monitor the monitor used to check for cancel requests (may be {@code null})
+	 *
+	 * @return the compiled diagram or {@code null} if the diagram exceeds the maximal number of nodes
+	 */
+	public static BinaryDecisionDiagram compile(int numberOfVariables, List<int[]> clauses, int maxNumberOfNodes, IMonitor monitor) {
+		final BinaryDecisionDiagram bdd = new BinaryDecisionDiagram(numberOfVariables, maxNumberOfNodes);
+
+		// conjoin clauses bottom-up (clauses with the lowest top variable first) to keep the intermediate diagrams small
+		final List<int[]> sortedClauses = new ArrayList<>(clauses);
+		Collections.sort(sortedClauses, new Comparator<int[]>() {
+			@Override
+			public int compare(int[] o1, int[] o2) {
+				return getTopVariable(o2) - getTopVariable(o1);
+			}
+		});
+
+		try {
+			int root = TRUE;
+			int compactThreshold = maxNumberOfNodes >> 1;
+			for (final int[] clause : sortedClauses) {
+				if (monitor != null) {
+					monitor.checkCancel();
+				}
+				if (bdd.size > compactThreshold) {
+					root = bdd.compact(root);
+					compactThreshold = bdd.size + ((maxNumberOfNodes - bdd.size) >> 1);
+				}
+				root = bdd.and(root, bdd.createClause(clause));
+				if (root == FALSE) {
+					break;
+				}
+			}
+			bdd.root = bdd.compact(root);
+		} catch (final NodeLimitException e) {
+			return null;
+		}
+		bdd.uniqueTable = null;
+		bdd.cacheKeys = null;
+		bdd.cacheResults = null;
+		return bdd;
+	}
+
+	private static int getTopVariable(int[] clause) {
+		int top = Integer.MAX_VALUE;
+		for (final int literal : clause) {
+			if (literal != 0) {
+				top = Math.min(top, Math.abs(literal));
+			}
+		}
+		return top;
+	}
+
+	private final int numberOfVariables;
+	private final int maxNumberOfNodes;
+
+	private int[] variables;
+	private int[] lows;
+	private int[] highs;
+	private int size;
+	private int root;
+
+	private int[] uniqueTable;
+	private long[] cacheKeys;
+	private int[] cacheResults;
+
+	private double[] highProbabilities;
+
+	private BinaryDecisionDiagram(int numberOfVariables, int maxNumberOfNodes) {
+		this.numberOfVariables = numberOfVariables;
+		this.maxNumberOfNodes = Math.max(maxNumberOfNodes, 2);
+		final int initialCapacity = Math.min(1 << 10, this.maxNumberOfNodes);
+		variables = new int[initialCapacity];
+		lows = new int[initialCapacity];
+		highs = new int[initialCapacity];
+		variables[FALSE] = numberOfVariables + 1;
+		variables[TRUE] = numberOfVariables + 1;
+		size = 2;
+		uniqueTable = new int[getTableSize(initialCapacity)];
+		Arrays.fill(uniqueTable, -1);
+		cacheKeys = new long[CACHE_SIZE];
+		Arrays.fill(cacheKeys, -1);
+		cacheResults = new int[CACHE_SIZE];
+	}
+
+	private int createClause(int[] clause) {
+		// literals sorted by variable (encoded as variable * 2 + sign)
+		final int[] keys = new int[clause.length];
+		int numberOfLiterals = 0;
+		for (final int literal : clause) {
+			if (literal != 0) {
+				keys[numberOfLiterals++] = (Math.abs(literal) << 1) | (literal > 0 ? 1 : 0);
+			}
+		}
+		Arrays.sort(keys, 0, numberOfLiterals);
+
+		int node = FALSE;
+		int lastKey = 0;
+		for (int i = numberOfLiterals - 1; i >= 0; i--) {
+			final int key = keys[i];
+			final int variable = key >>> 1;
+			if (variable == (lastKey >>> 1)) {
+				if (key != lastKey) {
+					// clause contains a literal and its negation
+					return TRUE;
+				}
+				continue;
+			}
+			node = ((key & 1) == 1) ? getNode(variable, node, TRUE) : getNode(variable, TRUE, node);
+			lastKey = key;
+		}
+		return node;
+	}
+
+	private int and(int a, int b) {
+		if ((a == b) || (b == TRUE)) {
+			return a;
+		}
+		if ((a == FALSE) || (b == FALSE)) {
+			return FALSE;
+		}
+		if (a == TRUE) {
+			return b;
+		}
+		if (a > b) {
+			final int temp = a;
+			a = b;
+			b = temp;
+		}
+		final long key = ((long) a << 32) | b;
+		final int cacheIndex = (int) (((key ^ (key >>> 29)) * 0x9E3779B97F4A7C15L) >>> 46) & (CACHE_SIZE - 1);
+		if (cacheKeys[cacheIndex] == key) {
+			return cacheResults[cacheIndex];
+		}
+
+		final int variableA = variables[a];
+		final int variableB = variables[b];
+		final int variable = Math.min(variableA, variableB);
+		final int low = and((variableA == variable) ? lows[a] : a, (variableB == variable) ? lows[b] : b);
+		final int high = and((variableA == variable) ? highs[a] : a, (variableB == variable) ? highs[b] : b);
+		final int result = getNode(variable, low, high);
+
+		cacheKeys[cacheIndex] = key;
+		cacheResults[cacheIndex] = result;
+		return result;
+	}
+
+	private int getNode(int variable, int low, int high) {
+		if (low == high) {
+			return low;
+		}
+		final int mask = uniqueTable.length - 1;
+		int index = hash(variable, low, high) & mask;
+		for (int node = uniqueTable[index]; node >= 0; node = uniqueTable[index]) {
+			if ((variables[node] == variable) && (lows[node] == low) && (highs[node] == high)) {
+				return node;
+			}
+			index = (index + 1) & mask;
+		}
+
+		if (size == variables.length) {
+			if (size >= maxNumberOfNodes) {
+				throw new NodeLimitException();
+			}
+			final int newCapacity = (int) Math.min((long) size << 1, maxNumberOfNodes);
+			variables = Arrays.copyOf(variables, newCapacity);
+			lows = Arrays.copyOf(lows, newCapacity);
+			highs = Arrays.copyOf(highs, newCapacity);
+			rebuildUniqueTable(getTableSize(newCapacity));
+			return getNode(variable, low, high);
+		}
+		final int node = size++;
+		variables[node] = variable;
+		lows[node] = low;
+		highs[node] = high;
+		uniqueTable[index] = node;
+		return node;
+	}
+
+	/**
+	 * @return the smallest power of two that is at least twice the given capacity
+	 */
+	private static int getTableSize(int capacity) {
+		return Integer.highestOneBit((Math.max(capacity, 1) << 1) - 1) << 1;
+	}
+
+	private static int hash(int variable, int low, int high) {
+		final long hash = ((((long) variable * 0x9E3779B1L) + low) * 0x85EBCA77L) + high;
+		return (int) (((hash ^ (hash >>> 31)) * 0xC2B2AE3D27D4EB4FL) >>> 32);
+	}
+
+	private void rebuildUniqueTable(int tableSize) {
+		uniqueTable = new int[tableSize];
+		Arrays.fill(uniqueTable, -1);
+		final int mask = tableSize - 1;
+		for (int node = 2; node < size; node++) {
+			int index = hash(variables[node], lows[node], highs[node]) & mask;
+			while (uniqueTable[index] >= 0) {
+				index = (index + 1) & mask;
+			}
+			uniqueTable[index] = node;
+		}
+	}
+
+	/**
+	 * Removes all nodes that are not reachable from the given root. As children are always created before their parents, each child has a smaller index than
+	 * its parent, which is preserved by the compaction.
+	 *
+	 * @return the new index of the root
+	 */
+	private int compact(int oldRoot) {
+		final int[] newIndex = new int[size];
+		newIndex[oldRoot] = 1;
+		for (int node = oldRoot; node > TRUE; node--) {
+			if (newIndex[node] != 0) {
+				newIndex[lows[node]] = 1;
+				newIndex[highs[node]] = 1;
+			}
+		}
+		newIndex[FALSE] = FALSE;
+		newIndex[TRUE] = TRUE;
+		int newSize = 2;
+		for (int node = 2; node <= oldRoot; node++) {
+			if (newIndex[node] != 0) {
+				variables[newSize] = variables[node];
+				lows[newSize] = newIndex[lows[node]];
+				highs[newSize] = newIndex[highs[node]];
+				newIndex[node] = newSize++;
+			}
+		}
+		size = newSize;
+		if (uniqueTable != null) {
+			rebuildUniqueTable(uniqueTable.length);
+			Arrays.fill(cacheKeys, -1);
+		}
+		return newIndex[oldRoot];
+	}
+
+	/**
+	 * Converts the given assumptions into an array of values indexed by variable (1 = true, -1 = false, 0 = unassigned).
+	 *
+	 * @return the values or {@code null} if the assumptions are contradicting
+	 */
+	private int[] getValues(int[] assumptions) {
+		final int[] values = new int[numberOfVariables + 2];
+		if (assumptions != null) {
+			for (final int literal : assumptions) {
+				if (literal != 0) {
+					final int variable = Math.abs(literal);
+					final int value = literal > 0 ? 1 : -1;
+					if (values[variable] == -value) {
+						return null;
+					}
+					values[variable] = value;
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * @return for each node, whether there is a path to the true terminal that is consistent with the given values
+	 */
+	private boolean[] getSatisfiableNodes(int[] values) {
+		final boolean[] satisfiable = new boolean[size];
+		satisfiable[TRUE] = true;
+		for (int node = 2; node < size; node++) {
+			switch (values[variables[node]]) {
+			case 1:
+				satisfiable[node] = satisfiable[highs[node]];
+				break;
+			case -1:
+				satisfiable[node] = satisfiable[lows[node]];
+				break;
+			default:
+				satisfiable[node] = satisfiable[lows[node]] || satisfiable[highs[node]];
+				break;
+			}
+		}
+		return satisfiable;
+	}
+
+	/**
+	 * @param assumptions literals that must be satisfied
+	 * @return whether there is a solution that satisfies all assumptions
+	 */
+	public boolean isSatisfiable(int[] assumptions) {
+		final int[] values = getValues(assumptions);
+		return (values != null) && getSatisfiableNodes(values)[root];
+	}
+
+	/**
+	 * Computes all literals that are satisfied by every solution that satisfies the given assumptions (i.e., conditionally core and dead features).
+	 *
+	 * @param assumptions literals that must be satisfied
+	 * @return the implied literals in ascending variable order (without the assumptions), an empty array if the assumptions cannot be
+	 *         satisfied, or {@code null} if the formula itself is a contradiction (as {@link org.prop4j.analyses.ConditionallyCoreDeadAnalysis})
+	 */
+	public int[] getImpliedLiterals(int[] assumptions) {
+		final int[] values = getValues(assumptions);
+		if (root == FALSE) {
+			return null;
+		}
+		if (values == null) {
+			return new int[0];
+		}
+		final boolean[] satisfiable = getSatisfiableNodes(values);
+		if (!satisfiable[root]) {
+			return new int[0];
+		}
+
+		final boolean[] reachable = new boolean[size];
+		final boolean[] canBeTrue = new boolean[numberOfVariables + 2];
+		final boolean[] canBeFalse = new boolean[numberOfVariables + 2];
+		// difference array for ranges of variables that are skipped by a path and, thus, can have both values
+		final int[] skipped = new int[numberOfVariables + 3];
+		skipped[1]++;
+		skipped[variables[root]]--;
+		reachable[root] = true;
+		for (int node = root; node > TRUE; node--) {
+			if (reachable[node]) {
+				final int variable = variables[node];
+				if ((values[variable] != 1) && satisfiable[lows[node]]) {
+					canBeFalse[variable] = true;
+					reachable[lows[node]] = true;
+					skipped[variable + 1]++;
+					skipped[variables[lows[node]]]--;
+				}
+				if ((values[variable] != -1) && satisfiable[highs[node]]) {
+					canBeTrue[variable] = true;
+					reachable[highs[node]] = true;
+					skipped[variable + 1]++;
+					skipped[variables[highs[node]]]--;
+				}
+			}
+		}
+
+		final int[] result = new int[numberOfVariables];
+		int resultSize = 0;
+		int skipCount = 0;
+		for (int variable = 1; variable <= numberOfVariables; variable++) {
+			skipCount += skipped[variable];
+			if ((values[variable] == 0) && (skipCount == 0) && (canBeTrue[variable] != canBeFalse[variable])) {
+				result[resultSize++] = canBeTrue[variable] ? variable : -variable;
+			}
+		}
+		return Arrays.copyOf(result, resultSize);
+	}
+
+	/**
+	 * @param assumptions literals that must be satisfied
+	 * @return the number of solutions that satisfy all assumptions
+	 */
+	public BigInteger countSolutions(int[] assumptions) {
+		final int[] values = getValues(assumptions);
+		if (values == null) {
+			return BigInteger.ZERO;
+		}
+		// number of unassigned variables with an index less or equal than i
+		final int[] freeVariables = new int[numberOfVariables + 2];
+		for (int variable = 1; variable <= (numberOfVariables + 1); variable++) {
+			freeVariables[variable] = freeVariables[variable - 1] + (((variable <= numberOfVariables) && (values[variable] == 0)) ? 1 : 0);
+		}
+
+		final BigInteger[] counts = new BigInteger[size];
+		counts[FALSE] = BigInteger.ZERO;
+		counts[TRUE] = BigInteger.ONE;
+		for (int node = 2; node < size; node++) {
+			final int variable = variables[node];
+			BigInteger count = BigInteger.ZERO;
+			if (values[variable] != 1) {
+				final int low = lows[node];
+				count = count.add(counts[low].shiftLeft(freeVariables[variables[low] - 1] - freeVariables[variable]));
+			}
+			if (values[variable] != -1) {
+				final int high = highs[node];
+				count = count.add(counts[high].shiftLeft(freeVariables[variables[high] - 1] - freeVariables[variable]));
+			}
+			counts[node] = count;
+		}
+		return counts[root].shiftLeft(freeVariables[variables[root] - 1]);
+	}
+
+	/**
+	 * Draws a solution uniformly at random. The first call computes the probability of the high branch of each node (i.e., the fraction of solutions below
+	 * the node that pass its high branch), such that each further call only walks along one path of the diagram.
+	 *
+	 * @param random the source of randomness
+	 * @return a solution (as array of literals in ascending variable order) or {@code null} if there is no solution
+	 */
+	public int[] sampleSolution(Random random) {
+		if (root == FALSE) {
+			return null;
+		}
+		final double[] probabilities = getHighProbabilities();
+		final int[] solution = new int[numberOfVariables];
+		int variable = sampleFreeVariables(solution, 1, variables[root], random);
+		for (int node = root; node > TRUE;) {
+			final boolean high = random.nextDouble() < probabilities[node];
+			solution[variable - 1] = high ? variable : -variable;
+			node = high ? highs[node] : lows[node];
+			variable = sampleFreeVariables(solution, variable + 1, variables[node], random);
+		}
+		return solution;
+	}
+
+	private int sampleFreeVariables(int[] solution, int from, int to, Random random) {
+		for (int variable = from; variable < to; variable++) {
+			solution[variable - 1] = random.nextBoolean() ? variable : -variable;
+		}
+		return to;
+	}
+
+	private synchronized double[] getHighProbabilities() {
+		if (highProbabilities == null) {
+			final BigInteger[] counts = new BigInteger[size];
+			counts[FALSE] = BigInteger.ZERO;
+			counts[TRUE] = BigInteger.ONE;
+			final double[] probabilities = new double[size];
+			for (int node = 2; node < size; node++) {
+				final int variable = variables[node];
+				final BigInteger lowCount = counts[lows[node]].shiftLeft(variables[lows[node]] - variable - 1);
+				final BigInteger highCount = counts[highs[node]].shiftLeft(variables[highs[node]] - variable - 1);
+				final BigInteger count = lowCount.add(highCount);
+				counts[node] = count;
+				// scale both counts into the range of a double
+				final int shift = Math.max(0, count.bitLength() - Long.SIZE + 1);
+				probabilities[node] = highCount.shiftRight(shift).doubleValue() / count.shiftRight(shift).doubleValue();
+			}
+			highProbabilities = probabilities;
+		}
+		return highProbabilities;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	/**
+	 * @return the number of nodes of this diagram (including both terminals)
+	 */
+	public int size() {
+		return size;
+	}
+
+}
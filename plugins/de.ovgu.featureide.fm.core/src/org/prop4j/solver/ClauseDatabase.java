@@ -0,0 +1,252 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.sat4j.core.VecInt;
+
+/**
+ * Compact representation of a CNF.<br> All literals are stored in one flat array, the clauses are given by their start offsets within this array. Variables
+ * are numbered from 1 to {@link #getNumberOfVariables()} by a dictionary that maps each number to a variable name. Auxiliary variables (see
+ * {@link SatInstance#isAuxiliaryVariable(int)}) are numbered after all other variables.
+ */
+public class ClauseDatabase {
+
+	private final HashMap<Object, Integer> varToInt = new HashMap<>();
+	private final Object[] intToVar;
+	private final int numberOfAuxiliaryVariables;
+
+	private int[] literals;
+	private int[] offsets;
+	private int numberOfClauses = 0;
+
+	public ClauseDatabase(Collection<?> variables) {
+		this(variables, Collections.emptyList());
+	}
+
+	/**
+	 * @param variables the names of all variables
+	 * @param auxiliaryVariables the names of all auxiliary variables
+	 */
+	public ClauseDatabase(Collection<?> variables, Collection<?> auxiliaryVariables) {
+		intToVar = new Object[variables.size() + auxiliaryVariables.size() + 1];
+		numberOfAuxiliaryVariables = auxiliaryVariables.size();
+		int index = 0;
+		for (final Object variable : variables) {
+			index = addVariable(variable, index);
+		}
+		for (final Object variable : auxiliaryVariables) {
+			index = addVariable(variable, index);
+		}
+		literals = new int[Math.max(16, 2 * intToVar.length)];
+		offsets = new int[Math.max(16, intToVar.length)];
+	}
+
+	ClauseDatabase(Object[] intToVar, int numberOfAuxiliaryVariables) {
+		this.intToVar = intToVar;
+		this.numberOfAuxiliaryVariables = numberOfAuxiliaryVariables;
+		for (int i = 1; i < intToVar.length; i++) {
+			varToInt.put(intToVar[i], i);
+		}
+		literals = new int[Math.max(16, 2 * intToVar.length)];
+		offsets = new int[Math.max(16, intToVar.length)];
+	}
+
+	private int addVariable(Object variable, int index) {
+		final String name = variable.toString();
+		varToInt.put(name, ++index);
+		intToVar[index] = name;
+		return index;
+	}
+
+	/**
+	 * Adds a clause.
+	 *
+	 * @param clause the literals of the clause; is copied
+	 * @return the index of the new clause
+	 * @throws IllegalArgumentException if a literal is 0 or its variable does not exist
+	 */
+	public int addClause(int... clause) {
+		final int start = offsets[numberOfClauses];
+		ensureCapacity(start + clause.length);
+		for (int i = 0; i < clause.length; i++) {
+			final int literal = clause[i];
+			if ((literal == 0) || (Math.abs(literal) >= intToVar.length)) {
+				throw new IllegalArgumentException("Invalid literal " + literal);
+			}
+			literals[start + i] = literal;
+		}
+		offsets[++numberOfClauses] = start + clause.length;
+		return numberOfClauses - 1;
+	}
+
+	/**
+	 * Adds a clause given as a {@link Or disjunction} of {@link Literal literals} or as a single literal.
+	 *
+	 * @param clause the clause
+	 * @return the index of the new clause
+	 * @throws IllegalArgumentException if the clause is not a disjunction of literals or a variable does not exist
+	 */
+	public int addClause(Node clause) {
+		if (clause instanceof Literal) {
+			return addClause(new int[] { getLiteral((Literal) clause) });
+		}
+		if (!(clause instanceof Or)) {
+			throw new IllegalArgumentException("Not a clause: " + clause);
+		}
+		final Node[] children = clause.getChildren();
+		final int start = offsets[numberOfClauses];
+		ensureCapacity(start + children.length);
+		for (int i = 0; i < children.length; i++) {
+			if (!(children[i] instanceof Literal)) {
+				throw new IllegalArgumentException("Not a clause: " + clause);
+			}
+			literals[start + i] = getLiteral((Literal) children[i]);
+		}
+		offsets[++numberOfClauses] = start + children.length;
+		return numberOfClauses - 1;
+	}
+
+	/**
+	 * Adds all clauses of a CNF given as a {@link And conjunction} of clauses or as a single clause.
+	 *
+	 * @param cnf the CNF
+	 */
+	public void addCNF(Node cnf) {
+		if (cnf instanceof And) {
+			for (final Node clause : cnf.getChildren()) {
+				addClause(clause);
+			}
+		} else {
+			addClause(cnf);
+		}
+	}
+
+	private int getLiteral(Literal literal) {
+		final Integer variable = varToInt.get(literal.var.toString());
+		if (variable == null) {
+			throw new IllegalArgumentException("Unknown variable " + literal.var);
+		}
+		return literal.positive ? variable : -variable;
+	}
+
+	private void ensureCapacity(int numberOfLiterals) {
+		if (numberOfLiterals > literals.length) {
+			literals = Arrays.copyOf(literals, Math.max(numberOfLiterals, literals.length << 1));
+		}
+		if ((numberOfClauses + 2) > offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length << 1);
+		}
+	}
+
+	public int getNumberOfClauses() {
+		return numberOfClauses;
+	}
+
+	public int getNumberOfLiterals() {
+		return offsets[numberOfClauses];
+	}
+
+	public int getNumberOfVariables() {
+		return intToVar.length - 1;
+	}
+
+	public int getNumberOfAuxiliaryVariables() {
+		return numberOfAuxiliaryVariables;
+	}
+
+	/**
+	 * @return the variable number of the given name or 0, if the variable does not exist
+	 */
+	public int getVariable(Object name) {
+		final Integer variable = varToInt.get(name.toString());
+		return variable == null ? 0 : variable;
+	}
+
+	public Object getVariableObject(int variable) {
+		return intToVar[Math.abs(variable)];
+	}
+
+	Object[] getVariableObjects() {
+		return intToVar;
+	}
+
+	public int getClauseLength(int clause) {
+		return offsets[clause + 1] - offsets[clause];
+	}
+
+	public int getLiteral(int clause, int position) {
+		return literals[offsets[clause] + position];
+	}
+
+	/**
+	 * @param clause the index of the clause
+	 * @return a new array with the literals of the clause
+	 */
+	public int[] getClause(int clause) {
+		return Arrays.copyOfRange(literals, offsets[clause], offsets[clause + 1]);
+	}
+
+	/**
+	 * Replaces the content of the given vector with the literals of a clause. Allows to reuse one vector for adding all clauses to a solver, which copies
+	 * the literals anyway.
+	 *
+	 * @param clause the index of the clause
+	 * @param target the vector to fill
+	 * @return the given vector
+	 */
+	public VecInt getClause(int clause, VecInt target) {
+		final int start = offsets[clause];
+		final int end = offsets[clause + 1];
+		target.clear();
+		target.ensure(end - start);
+		for (int i = start; i < end; i++) {
+			target.unsafePush(literals[i]);
+		}
+		return target;
+	}
+
+	/**
+	 * @return a new {@link And conjunction} of {@link Or disjunctions} representing this CNF
+	 */
+	public Node toCNF() {
+		final Node[] clauses = new Node[numberOfClauses];
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int start = offsets[i];
+			final Literal[] clauseLiterals = new Literal[offsets[i + 1] - start];
+			for (int j = 0; j < clauseLiterals.length; j++) {
+				final int literal = literals[start + j];
+				clauseLiterals[j] = new Literal(intToVar[Math.abs(literal)], literal > 0);
+			}
+			clauses[i] = new Or(clauseLiterals);
+		}
+		return new And(clauses);
+	}
+
+}
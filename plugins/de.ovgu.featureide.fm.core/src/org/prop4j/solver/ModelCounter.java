@@ -0,0 +1,463 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Exact model counter (#SAT) for the CNF of a {@link SatInstance}.</br> The counter branches on variables (DPLL with unit propagation) and splits the remaining
+ * formula into independent components, i.e., sets of clauses that do not share any unassigned variable. The number of models of a formula is the product of
+ * the numbers of models of its components. Each component is identified by its variables and clauses, such that its count can be cached and reused whenever
+ * the same component occurs again in another branch.
+ */
+public class ModelCounter {
+
+	/**
+	 * Default maximal size of the component cache (measured in the sum of the sizes of all cached keys).
+	 */
+	public static final int DEFAULT_MAX_CACHE_SIZE = 1 << 22;
+
+	private static final int CHECK_INTERVAL = (1 << 10) - 1;
+
+	private static class TimeoutException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static final class ComponentKey {
+
+		private final int[] key;
+		private final int hashCode;
+
+		private ComponentKey(int[] variables, int[] clauses) {
+			key = new int[variables.length + clauses.length + 1];
+			System.arraycopy(variables, 0, key, 0, variables.length);
+			key[variables.length] = 0;
+			System.arraycopy(clauses, 0, key, variables.length + 1, clauses.length);
+			hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final ComponentKey other = (ComponentKey) obj;
+			return (hashCode == other.hashCode) && Arrays.equals(key, other.key);
+		}
+	}
+
+	private final int numberOfVariables;
+	private final int[][] clauses;
+	private final int[][] positiveOccurrences;
+	private final int[][] negativeOccurrences;
+	private final int[] unitClauses;
+	private final boolean contradiction;
+
+	private final int[] values;
+	private final int[] trail;
+	private int trailSize = 0;
+
+	private final int[] variableStamps;
+	private final int[] clauseStamps;
+	private int stamp = 0;
+	private final int[] variableBuffer;
+	private final int[] clauseBuffer;
+	private final int[] scores;
+
+	private final HashMap<ComponentKey, BigInteger> cache = new HashMap<>();
+	private long cacheSize = 0;
+	private long maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+
+	private long deadline = 0;
+	private int callCounter = 0;
+	private IMonitor monitor = null;
+
+	public ModelCounter(SatInstance satInstance) {
+		this(satInstance.getNumberOfVariables(), getClauses(satInstance));
+	}
+
+	/**
+	 * @param numberOfVariables the number of variables (variables are numbered from 1 to numberOfVariables)
+	 * @param clauseList the clauses of the CNF; a value of 0 within a clause is ignored
+	 */
+	public ModelCounter(int numberOfVariables, List<int[]> clauseList) {
+		this.numberOfVariables = numberOfVariables;
+
+		final List<int[]> clauses = new ArrayList<>(clauseList.size());
+		final List<Integer> units = new ArrayList<>();
+		final int[] literalStamps = new int[numberOfVariables + 1];
+		boolean contradiction = false;
+		clauseLoop: for (int i = 0; i < clauseList.size(); i++) {
+			final int[] clause = clauseList.get(i);
+			final int clauseStamp = i + 1;
+			int size = 0;
+			final int[] newClause = new int[clause.length];
+			for (final int literal : clause) {
+				if (literal == 0) {
+					continue;
+				}
+				final int var = Math.abs(literal);
+				final int signedStamp = literal > 0 ? clauseStamp : -clauseStamp;
+				if (literalStamps[var] == signedStamp) {
+					continue;
+				} else if (literalStamps[var] == -signedStamp) {
+					continue clauseLoop;
+				}
+				literalStamps[var] = signedStamp;
+				newClause[size++] = literal;
+			}
+			switch (size) {
+			case 0:
+				contradiction = true;
+				break;
+			case 1:
+				units.add(newClause[0]);
+				break;
+			default:
+				clauses.add(Arrays.copyOf(newClause, size));
+				break;
+			}
+		}
+		this.contradiction = contradiction;
+		this.clauses = clauses.toArray(new int[0][]);
+		unitClauses = new int[units.size()];
+		for (int i = 0; i < unitClauses.length; i++) {
+			unitClauses[i] = units.get(i);
+		}
+
+		final int[] positiveCounts = new int[numberOfVariables + 1];
+		final int[] negativeCounts = new int[numberOfVariables + 1];
+		for (final int[] clause : this.clauses) {
+			for (final int literal : clause) {
+				if (literal > 0) {
+					positiveCounts[literal]++;
+				} else {
+					negativeCounts[-literal]++;
+				}
+			}
+		}
+		positiveOccurrences = new int[numberOfVariables + 1][];
+		negativeOccurrences = new int[numberOfVariables + 1][];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			positiveOccurrences[var] = new int[positiveCounts[var]];
+			negativeOccurrences[var] = new int[negativeCounts[var]];
+		}
+		for (int i = 0; i < this.clauses.length; i++) {
+			for (final int literal : this.clauses[i]) {
+				if (literal > 0) {
+					positiveOccurrences[literal][--positiveCounts[literal]] = i;
+				} else {
+					negativeOccurrences[-literal][--negativeCounts[-literal]] = i;
+				}
+			}
+		}
+
+		values = new int[numberOfVariables + 1];
+		trail = new int[numberOfVariables];
+		variableStamps = new int[numberOfVariables + 1];
+		clauseStamps = new int[this.clauses.length];
+		variableBuffer = new int[numberOfVariables + 1];
+		clauseBuffer = new int[this.clauses.length];
+		scores = new int[numberOfVariables + 1];
+	}
+
+	private static List<int[]> getClauses(SatInstance satInstance) {
+		final Node[] clauseNodes = satInstance.getCnf().getChildren();
+		final List<int[]> clauses = new ArrayList<>(clauseNodes.length);
+		for (final Node clauseNode : clauseNodes) {
+			clauses.add(satInstance.convertToInt(clauseNode.getChildren()));
+		}
+		return clauses;
+	}
+
+	/**
+	 * Counts all models of the CNF that satisfy the given assumptions.
+	 *
+	 * @param assumptions literals that must be satisfied by each model
+	 * @param timeout the maximal time in milliseconds (a value less or equal to 0 disables the timeout)
+	 * @param monitor the monitor used to check for cancel requests (may be {@code null})
+	 *
+	 * @return the number of models or {@code null} if the timeout was reached
+	 */
+	public BigInteger count(int[] assumptions, long timeout, IMonitor monitor) {
+		if (contradiction) {
+			return BigInteger.ZERO;
+		}
+		this.monitor = monitor;
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+		callCounter = 0;
+		try {
+			for (final int literal : unitClauses) {
+				if (!propagate(literal)) {
+					return BigInteger.ZERO;
+				}
+			}
+			if (assumptions != null) {
+				for (final int literal : assumptions) {
+					if ((literal != 0) && !propagate(literal)) {
+						return BigInteger.ZERO;
+					}
+				}
+			}
+			final int[] allVariables = new int[numberOfVariables];
+			for (int i = 0; i < allVariables.length; i++) {
+				allVariables[i] = i + 1;
+			}
+			final int[] allClauses = new int[clauses.length];
+			for (int i = 0; i < allClauses.length; i++) {
+				allClauses[i] = i;
+			}
+			return countResidual(allVariables, allClauses);
+		} catch (final TimeoutException e) {
+			return null;
+		} finally {
+			undo(0);
+			this.monitor = null;
+		}
+	}
+
+	public long getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	/**
+	 * Sets the maximal size of the component cache (measured in the sum of the sizes of all cached keys). If the limit is exceeded, the cache is cleared.
+	 * Default is {@value #DEFAULT_MAX_CACHE_SIZE}.
+	 *
+	 * @param maxCacheSize the maximal cache size
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	public BigInteger count(int[] assumptions) {
+		return count(assumptions, 0, null);
+	}
+
+	public BigInteger count() {
+		return count(null, 0, null);
+	}
+
+	/**
+	 * Splits the unsatisfied clauses into independent components and multiplies their counts. Unassigned variables that do not occur in any unsatisfied clause
+	 * are free and double the count.
+	 */
+	private BigInteger countResidual(int[] variables, int[] clauseIndices) {
+		final int currentStamp = ++stamp;
+		for (final int clauseIndex : clauseIndices) {
+			if (!isSatisfied(clauses[clauseIndex])) {
+				clauseStamps[clauseIndex] = currentStamp;
+			}
+		}
+
+		int freeVariables = 0;
+		final List<int[][]> components = new ArrayList<>();
+		for (final int root : variables) {
+			if ((values[root] != 0) || (variableStamps[root] == currentStamp)) {
+				continue;
+			}
+			variableStamps[root] = currentStamp;
+			variableBuffer[0] = root;
+			int variableCount = 1;
+			int clauseCount = 0;
+			int processedClauses = 0;
+			for (int i = 0; i < variableCount; i++) {
+				final int var = variableBuffer[i];
+				clauseCount = collectClauses(positiveOccurrences[var], currentStamp, clauseCount);
+				clauseCount = collectClauses(negativeOccurrences[var], currentStamp, clauseCount);
+				for (; processedClauses < clauseCount; processedClauses++) {
+					for (final int literal : clauses[clauseBuffer[processedClauses]]) {
+						final int otherVar = Math.abs(literal);
+						if ((values[otherVar] == 0) && (variableStamps[otherVar] != currentStamp)) {
+							variableStamps[otherVar] = currentStamp;
+							variableBuffer[variableCount++] = otherVar;
+						}
+					}
+				}
+			}
+			if (clauseCount == 0) {
+				freeVariables++;
+			} else {
+				components.add(new int[][] { Arrays.copyOf(variableBuffer, variableCount), Arrays.copyOf(clauseBuffer, clauseCount) });
+			}
+		}
+
+		BigInteger result = BigInteger.ONE.shiftLeft(freeVariables);
+		for (final int[][] component : components) {
+			final BigInteger componentCount = countComponent(component[0], component[1]);
+			if (componentCount.signum() == 0) {
+				return BigInteger.ZERO;
+			}
+			result = result.multiply(componentCount);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds all unsatisfied clauses (marked with the current stamp) from the given occurrence list to the clause buffer. Added clauses are marked with
+	 * {@code -currentStamp}.
+	 */
+	private int collectClauses(int[] occurrences, int currentStamp, int clauseCount) {
+		for (final int clauseIndex : occurrences) {
+			if (clauseStamps[clauseIndex] == currentStamp) {
+				clauseStamps[clauseIndex] = -currentStamp;
+				clauseBuffer[clauseCount++] = clauseIndex;
+			}
+		}
+		return clauseCount;
+	}
+
+	private BigInteger countComponent(int[] variables, int[] clauseIndices) {
+		checkTimeout();
+		Arrays.sort(variables);
+		Arrays.sort(clauseIndices);
+		final ComponentKey key = new ComponentKey(variables, clauseIndices);
+		final BigInteger cachedCount = cache.get(key);
+		if (cachedCount != null) {
+			return cachedCount;
+		}
+
+		for (final int clauseIndex : clauseIndices) {
+			for (final int literal : clauses[clauseIndex]) {
+				scores[Math.abs(literal)]++;
+			}
+		}
+		int branchVariable = 0;
+		int maxScore = -1;
+		for (final int var : variables) {
+			if (scores[var] > maxScore) {
+				maxScore = scores[var];
+				branchVariable = var;
+			}
+		}
+		for (final int clauseIndex : clauseIndices) {
+			for (final int literal : clauses[clauseIndex]) {
+				scores[Math.abs(literal)] = 0;
+			}
+		}
+
+		BigInteger result = BigInteger.ZERO;
+		final int trailMark = trailSize;
+		if (propagate(branchVariable)) {
+			result = result.add(countResidual(variables, clauseIndices));
+		}
+		undo(trailMark);
+		if (propagate(-branchVariable)) {
+			result = result.add(countResidual(variables, clauseIndices));
+		}
+		undo(trailMark);
+
+		cacheSize += variables.length + clauseIndices.length + 1;
+		if (cacheSize > maxCacheSize) {
+			cache.clear();
+			cacheSize = variables.length + clauseIndices.length + 1;
+		}
+		cache.put(key, result);
+		return result;
+	}
+
+	private void checkTimeout() {
+		if ((++callCounter & CHECK_INTERVAL) == 0) {
+			if (monitor != null) {
+				monitor.checkCancel();
+			}
+			if ((deadline > 0) && (System.currentTimeMillis() > deadline)) {
+				throw new TimeoutException();
+			}
+		}
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (final int literal : clause) {
+			if (getValue(literal) > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getValue(int literal) {
+		return literal > 0 ? values[literal] : -values[-literal];
+	}
+
+	private boolean assign(int literal) {
+		final int value = getValue(literal);
+		if (value == 0) {
+			values[Math.abs(literal)] = literal > 0 ? 1 : -1;
+			trail[trailSize++] = literal;
+			return true;
+		}
+		return value > 0;
+	}
+
+	private boolean propagate(int literal) {
+		int queueIndex = trailSize;
+		if (!assign(literal)) {
+			return false;
+		}
+		while (queueIndex < trailSize) {
+			final int assignedLiteral = trail[queueIndex++];
+			final int[] occurrences = assignedLiteral > 0 ? negativeOccurrences[assignedLiteral] : positiveOccurrences[-assignedLiteral];
+			clauseLoop: for (final int clauseIndex : occurrences) {
+				int unassignedCount = 0;
+				int unassignedLiteral = 0;
+				for (final int clauseLiteral : clauses[clauseIndex]) {
+					final int value = getValue(clauseLiteral);
+					if (value > 0) {
+						continue clauseLoop;
+					} else if (value == 0) {
+						unassignedCount++;
+						unassignedLiteral = clauseLiteral;
+					}
+				}
+				if (unassignedCount == 0) {
+					return false;
+				} else if (unassignedCount == 1) {
+					assign(unassignedLiteral);
+				}
+			}
+		}
+		return true;
+	}
+
+	private void undo(int trailMark) {
+		while (trailSize > trailMark) {
+			values[Math.abs(trail[--trailSize])] = 0;
+		}
+	}
+
+}
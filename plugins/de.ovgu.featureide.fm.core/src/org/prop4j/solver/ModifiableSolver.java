@@ -79,6 +79,24 @@ public class ModifiableSolver extends BasicSolver {
 		return new ArrayList<>(constrList.subList(oldSize, constrList.size()));
 	}
 
+	@Override
+	protected void addCNF(ClauseDatabase clauses) throws ContradictionException {
+		if (constrList == null) {
+			constrList = new ArrayList<>();
+		}
+		final int oldSize = constrList.size();
+		try {
+			final int numberOfClauses = clauses.getNumberOfClauses();
+			final VecInt clause = new VecInt();
+			for (int i = 0; i < numberOfClauses; i++) {
+				constrList.add(solver.addClause(clauses.getClause(i, clause)));
+			}
+		} catch (final ContradictionException e) {
+			removeLastClauses(constrList.size() - oldSize);
+			throw e;
+		}
+	}
+
 	@Override
 	protected List<IConstr> addCNF(final Node[] cnfChildren) throws ContradictionException {
 		if (constrList == null) {
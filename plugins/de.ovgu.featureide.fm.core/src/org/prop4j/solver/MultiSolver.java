@@ -46,7 +46,10 @@ import de.ovgu.featureide.fm.core.base.IFeature;
  * Finds certain solutions of propositional formulas.
  *
  * @author Sebastian Krieter
+ *
+ * @deprecated Use {@link PortfolioSolver} instead.
  */
+@Deprecated
 public class MultiSolver extends BasicSolver {
 
 	public class Consumer extends Thread {
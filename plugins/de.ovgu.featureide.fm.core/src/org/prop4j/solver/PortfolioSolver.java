@@ -0,0 +1,313 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.prop4j.Node;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Solver that distributes the per-variable checks of backbone analyses (core, dead, atomic sets) over a pool of cloned {@link BasicSolver solvers}.</br>
+ * Workers take candidate variables from a shared index. Each satisfying assignment found by a worker removes all candidates it refutes for every other
+ * worker, and each fixed literal is handed to the other workers as additional assumption. The fixed literals are merged in variable order, such that the
+ * result equals the result of a sequential run (unless a single check runs into a timeout).</br>
+ * By default, a portfolio solver uses a single worker and performs all checks sequentially.
+ */
+public class PortfolioSolver extends BasicSolver {
+
+	/**
+	 * Default minimal number of candidates for which the checks are distributed among the workers. Below this limit the overhead of the worker solvers
+	 * outweighs the parallel speedup.
+	 */
+	public static final int DEFAULT_MIN_PARALLEL_CANDIDATES = 64;
+
+	private final class Worker implements Callable<Void> {
+
+		private final BasicSolver workerSolver;
+		private final int[] candidateSnapshot;
+
+		private Worker(BasicSolver workerSolver, int[] candidateSnapshot) {
+			this.workerSolver = workerSolver;
+			this.candidateSnapshot = candidateSnapshot;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			workerSolver.assignmentClear(0);
+			for (int i = 0; i < assignment.size(); i++) {
+				workerSolver.assignmentPush(assignment.get(i));
+			}
+			((Solver<?>) workerSolver.getInternalSolver())
+					.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(candidateSnapshot, true), workerSolver.getOrder()));
+
+			int learnedIndex = 0;
+			for (int i = nextCandidate.getAndIncrement(); i < candidates.length(); i = nextCandidate.getAndIncrement()) {
+				if (abort.get()) {
+					break;
+				}
+				monitor.checkCancel();
+
+				final int varX = candidates.get(i);
+				if (varX == 0) {
+					continue;
+				}
+				for (int lit = learned.get(learnedIndex); lit != 0; lit = learned.get(++learnedIndex)) {
+					workerSolver.assignmentPush(lit);
+				}
+
+				workerSolver.assignmentPush(-varX);
+				switch (workerSolver.isSatisfiable()) {
+				case FALSE:
+					workerSolver.assignmentPop();
+					fixed.set(i, varX);
+					learned.set(learnedCount.getAndIncrement(), varX);
+					break;
+				case TIMEOUT:
+					workerSolver.assignmentPop();
+					break;
+				case TRUE:
+					workerSolver.assignmentPop();
+					final int[] model = workerSolver.getModel();
+					addSolution(model);
+					for (int j = i + 1; j < model.length; j++) {
+						final int varY = candidates.get(j);
+						if ((varY != 0) && (varY != model[j])) {
+							candidates.compareAndSet(j, varY, 0);
+						}
+					}
+					workerSolver.shuffleOrder();
+					break;
+				}
+			}
+			return null;
+		}
+	}
+
+	private final int numberOfWorkers;
+	private int minParallelCandidates = DEFAULT_MIN_PARALLEL_CANDIDATES;
+	private final List<BasicSolver> workers = new ArrayList<>();
+	private final List<Node> additionalClauses = new ArrayList<>();
+
+	private AtomicIntegerArray candidates;
+	private AtomicIntegerArray fixed;
+	private AtomicIntegerArray learned;
+	private AtomicInteger nextCandidate;
+	private AtomicInteger learnedCount;
+	private AtomicBoolean abort;
+	private IMonitor monitor;
+
+	public PortfolioSolver(SatInstance satInstance) throws ContradictionException {
+		this(satInstance, 1);
+	}
+
+	public PortfolioSolver(SatInstance satInstance, int numberOfWorkers) throws ContradictionException {
+		super(satInstance);
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("Number of workers must be greater than 0 (was " + numberOfWorkers + ").");
+		}
+		this.numberOfWorkers = numberOfWorkers;
+	}
+
+	protected PortfolioSolver(PortfolioSolver oldSolver) {
+		super(oldSolver);
+		numberOfWorkers = oldSolver.numberOfWorkers;
+		minParallelCandidates = oldSolver.minParallelCandidates;
+		try {
+			for (final Node clauses : oldSolver.additionalClauses) {
+				addClauses(clauses);
+			}
+		} catch (final ContradictionException e) {
+			Logger.logError(e);
+			throw new RuntimeException();
+		}
+	}
+
+	@Override
+	public List<IConstr> addClauses(Node constraint) throws ContradictionException {
+		final List<IConstr> result = super.addClauses(constraint);
+		additionalClauses.add(constraint);
+		for (final BasicSolver worker : workers) {
+			worker.addClauses(constraint);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks for each candidate literal whether its negation is satisfiable with respect to the current assignment. Literals whose negation is unsatisfiable
+	 * are pushed to the assignment of this solver.
+	 *
+	 * @param candidates the literals to check, indexed by variable - 1; a value of 0 marks variables that should not be checked
+	 * @param monitor the monitor used to check for cancel requests
+	 *
+	 * @return all fixed literals in ascending variable order
+	 */
+	public int[] findFixedLiterals(int[] candidates, IMonitor monitor) {
+		int numberOfCandidates = 0;
+		for (int i = 0; i < candidates.length; i++) {
+			if (candidates[i] != 0) {
+				numberOfCandidates++;
+			}
+		}
+		final int[] result = ((numberOfWorkers > 1) && (numberOfCandidates >= minParallelCandidates)) ? findFixedLiteralsParallel(candidates, monitor)
+			: findFixedLiteralsSequential(candidates, monitor);
+		for (final int varX : result) {
+			assignmentPush(varX);
+		}
+		return result;
+	}
+
+	private int[] findFixedLiteralsSequential(int[] candidates, IMonitor monitor) {
+		final int[] model1 = Arrays.copyOf(candidates, candidates.length);
+		solver.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), order));
+
+		final int orgAssignmentSize = assignment.size();
+		for (int i = 0; i < model1.length; i++) {
+			final int varX = model1[i];
+			if (varX != 0) {
+				monitor.checkCancel();
+				assignmentPush(-varX);
+				switch (isSatisfiable()) {
+				case FALSE:
+					assignmentReplaceLast(varX);
+					break;
+				case TIMEOUT:
+					assignmentPop();
+					break;
+				case TRUE:
+					assignmentPop();
+					SatInstance.updateModel(model1, getModel());
+					shuffleOrder();
+					break;
+				}
+			}
+		}
+		final int[] result = getAssignmentArray(orgAssignmentSize, assignment.size());
+		assignmentClear(orgAssignmentSize);
+		return result;
+	}
+
+	private int[] findFixedLiteralsParallel(int[] candidates, IMonitor monitor) {
+		this.candidates = new AtomicIntegerArray(candidates);
+		fixed = new AtomicIntegerArray(candidates.length);
+		learned = new AtomicIntegerArray(candidates.length + 1);
+		nextCandidate = new AtomicInteger();
+		learnedCount = new AtomicInteger();
+		abort = new AtomicBoolean();
+		this.monitor = monitor;
+
+		final List<Future<Void>> futures = new ArrayList<>(numberOfWorkers);
+		try {
+			for (int i = 0; i < numberOfWorkers; i++) {
+				futures.add(SharedExecutor.submit(new Worker(getWorker(i), Arrays.copyOf(candidates, candidates.length))));
+			}
+			for (final Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (final ExecutionException e) {
+					abort.set(true);
+					final Throwable cause = e.getCause();
+					if (cause instanceof MethodCancelException) {
+						throw (MethodCancelException) cause;
+					}
+					throw new RuntimeException(cause);
+				} catch (final InterruptedException e) {
+					abort.set(true);
+					Thread.currentThread().interrupt();
+					throw new MethodCancelException();
+				}
+			}
+		} finally {
+			SharedExecutor.cancel(futures);
+			this.monitor = null;
+		}
+
+		int numberOfFixed = 0;
+		final int[] result = new int[fixed.length()];
+		for (int i = 0; i < result.length; i++) {
+			final int varX = fixed.get(i);
+			if (varX != 0) {
+				result[numberOfFixed++] = varX;
+			}
+		}
+		return Arrays.copyOf(result, numberOfFixed);
+	}
+
+	private synchronized void addSolution(int[] model) {
+		if (solutionList != null) {
+			solutionList.add(model);
+		}
+	}
+
+	private BasicSolver getWorker(int index) {
+		while (workers.size() <= index) {
+			final BasicSolver worker = new BasicSolver(this);
+			try {
+				for (final Node clauses : additionalClauses) {
+					worker.addClauses(clauses);
+				}
+			} catch (final ContradictionException e) {
+				Logger.logError(e);
+				throw new RuntimeException();
+			}
+			workers.add(worker);
+		}
+		return workers.get(index);
+	}
+
+	public int getNumberOfWorkers() {
+		return numberOfWorkers;
+	}
+
+	public int getMinParallelCandidates() {
+		return minParallelCandidates;
+	}
+
+	/**
+	 * Sets the minimal number of candidates for which the checks are distributed among the workers. Default is {@value #DEFAULT_MIN_PARALLEL_CANDIDATES}.
+	 *
+	 * @param minParallelCandidates the minimal number of candidates
+	 */
+	public void setMinParallelCandidates(int minParallelCandidates) {
+		this.minParallelCandidates = minParallelCandidates;
+	}
+
+	@Override
+	public PortfolioSolver clone() {
+		return new PortfolioSolver(this);
+	}
+
+}
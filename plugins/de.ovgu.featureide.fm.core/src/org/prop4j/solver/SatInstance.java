@@ -23,6 +23,7 @@ package org.prop4j.solver;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -74,21 +75,58 @@ public class SatInstance {
 
 	protected final HashMap<Object, Integer> varToInt = new HashMap<>();
 	protected final Object[] intToVar;
-	protected final Node cnf;
+	protected final int numberOfAuxiliaryVariables;
+	protected Node cnf;
+	protected ClauseDatabase clauses;
 
 	public SatInstance(Node root, Collection<?> featureList) {
-		intToVar = new Object[featureList.size() + 1];
+		this(root, featureList, Collections.emptyList());
+	}
+
+	/**
+	 * Creates an instance with additional auxiliary variables (e.g., introduced by a Tseitin encoding). Auxiliary variables are numbered after all features
+	 * and are omitted when converting solutions into feature names or literals.
+	 *
+	 * @param root the formula in CNF
+	 * @param featureList the names of all features
+	 * @param auxiliaryVariables the names of all auxiliary variables
+	 */
+	public SatInstance(Node root, Collection<?> featureList, Collection<?> auxiliaryVariables) {
+		intToVar = new Object[featureList.size() + auxiliaryVariables.size() + 1];
 		cnf = root;
+		numberOfAuxiliaryVariables = auxiliaryVariables.size();
 
 		int index = 0;
 		for (final Object feature : featureList) {
-			final String name = feature.toString();
-			if (name == null) {
-				throw new RuntimeException();
-			}
-			varToInt.put(name, ++index);
-			intToVar[index] = name;
+			index = addVariable(feature, index);
+		}
+		for (final Object variable : auxiliaryVariables) {
+			index = addVariable(variable, index);
+		}
+	}
+
+	/**
+	 * Creates an instance that uses the clauses and the variable dictionary of the given database.
+	 *
+	 * @param clauses the clause database
+	 */
+	public SatInstance(ClauseDatabase clauses) {
+		this.clauses = clauses;
+		intToVar = clauses.getVariableObjects();
+		numberOfAuxiliaryVariables = clauses.getNumberOfAuxiliaryVariables();
+		for (int i = 1; i < intToVar.length; i++) {
+			varToInt.put(intToVar[i], i);
+		}
+	}
+
+	private int addVariable(Object variable, int index) {
+		final String name = variable.toString();
+		if (name == null) {
+			throw new RuntimeException();
 		}
+		varToInt.put(name, ++index);
+		intToVar[index] = name;
+		return index;
 	}
 
 	public SatInstance(Node root) {
@@ -113,6 +151,9 @@ public class SatInstance {
 	public List<String> convertToString(int[] model, boolean includePositive, boolean includeNegative) {
 		final List<String> resultList = new ArrayList<>();
 		for (final int var : model) {
+			if (isAuxiliaryVariable(var)) {
+				continue;
+			}
 			if (var > 0) {
 				if (includePositive) {
 					resultList.add(intToVar[Math.abs(var)].toString());
@@ -154,7 +195,9 @@ public class SatInstance {
 	public List<Literal> convertToLiterals(int[] model) {
 		final List<Literal> resultList = new ArrayList<>();
 		for (final int var : model) {
-			resultList.add(new Literal(intToVar[Math.abs(var)], (var > 0)));
+			if (!isAuxiliaryVariable(var)) {
+				resultList.add(new Literal(intToVar[Math.abs(var)], (var > 0)));
+			}
 		}
 		return resultList;
 	}
@@ -167,19 +210,61 @@ public class SatInstance {
 		final List<String> resultList = new ArrayList<>(model.size());
 		final IteratorInt modelIt = model.iterator();
 		while (modelIt.hasNext()) {
-			resultList.add(intToVar[Math.abs(modelIt.next())].toString());
+			final int var = modelIt.next();
+			if (!isAuxiliaryVariable(var)) {
+				resultList.add(intToVar[Math.abs(var)].toString());
+			}
 		}
 		return resultList;
 	}
 
-	public Node getCnf() {
+	public synchronized Node getCnf() {
+		if (cnf == null) {
+			cnf = clauses.toCNF();
+		}
 		return cnf;
 	}
 
+	/**
+	 * Returns the clauses of this instance in a compact representation. If this instance was created from a {@link Node}, the clauses are converted once.
+	 *
+	 * @return the clause database
+	 * @throws IllegalArgumentException if the CNF contains a variable that is not part of this instance
+	 */
+	public synchronized ClauseDatabase getClauses() {
+		if (clauses == null) {
+			final ClauseDatabase newClauses = new ClauseDatabase(intToVar, numberOfAuxiliaryVariables);
+			for (final Node clause : cnf.getChildren()) {
+				newClauses.addClause(clause);
+			}
+			clauses = newClauses;
+		}
+		return clauses;
+	}
+
 	public int getNumberOfVariables() {
 		return intToVar.length - 1;
 	}
 
+	/**
+	 * @return the number of variables that represent features, i.e., all variables except the auxiliary ones
+	 */
+	public int getNumberOfFeatureVariables() {
+		return intToVar.length - 1 - numberOfAuxiliaryVariables;
+	}
+
+	public int getNumberOfAuxiliaryVariables() {
+		return numberOfAuxiliaryVariables;
+	}
+
+	/**
+	 * @param x a variable or literal
+	 * @return {@code true} if the variable was introduced by an encoding and does not represent a feature
+	 */
+	public boolean isAuxiliaryVariable(int x) {
+		return Math.abs(x) > (intToVar.length - 1 - numberOfAuxiliaryVariables);
+	}
+
 	public Literal getLiteral(final int x) {
 		return new Literal(intToVar[Math.abs(x)], x > 0);
 	}
@@ -0,0 +1,381 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.SharedExecutor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Draws random solutions of the CNF of a {@link SatInstance}.</br> The solutions are returned as a lazy sequence that is generated in batches. Each batch
+ * is distributed among several generators that run in parallel. Each generator has its own source of randomness (derived from the seed), thus the sequence
+ * only depends on the seed, the batch size, and the number of threads. A generator never changes the formula, such that the cost per solution remains
+ * constant. Solutions are drawn with replacement, i.e., a solution may occur several times.</br> Two modes are available:
+ * <ul>
+ * <li>{@link Mode#FAST}: A SAT solver with random variable order and random phases. The solutions are biased towards solutions that are easy to find.</li>
+ * <li>{@link Mode#UNIFORM}: Each solution is drawn with the same probability using a compiled {@link BinaryDecisionDiagram}. If the diagram exceeds its
+ * maximal size, the {@link ModelCounter} decides the value of each variable according to the number of solutions with either value (exact, but slower).
+ * </li>
+ * </ul>
+ */
+public class SolutionSampler implements Iterable<int[]> {
+
+	public static enum Mode {
+		FAST, UNIFORM
+	}
+
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	private abstract static class Generator {
+
+		protected final Random random;
+
+		protected Generator(long seed) {
+			random = new Random(seed);
+		}
+
+		/**
+		 * @return the next solution or {@code null} if there is no solution
+		 */
+		protected abstract int[] next();
+	}
+
+	private static final class SolverGenerator extends Generator {
+
+		private final BasicSolver solver;
+		private final int[] phases;
+
+		private SolverGenerator(SatInstance satInstance, long seed) throws ContradictionException {
+			super(seed);
+			solver = new BasicSolver(satInstance);
+			phases = new int[satInstance.getNumberOfVariables()];
+		}
+
+		@Override
+		protected int[] next() {
+			final int[] order = solver.getOrder();
+			for (int i = order.length - 1; i > 0; i--) {
+				final int index = random.nextInt(i + 1);
+				final int temp = order[index];
+				order[index] = order[i];
+				order[i] = temp;
+			}
+			for (int i = 0; i < phases.length; i++) {
+				phases[i] = random.nextBoolean() ? 1 : -1;
+			}
+			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(phases, false), order));
+			return (solver.isSatisfiable() == SatResult.TRUE) ? Arrays.copyOf(solver.getModel(), phases.length) : null;
+		}
+	}
+
+	private static final class DiagramGenerator extends Generator {
+
+		private final BinaryDecisionDiagram diagram;
+
+		private DiagramGenerator(BinaryDecisionDiagram diagram, long seed) {
+			super(seed);
+			this.diagram = diagram;
+		}
+
+		@Override
+		protected int[] next() {
+			return diagram.sampleSolution(random);
+		}
+	}
+
+	private static final class CounterGenerator extends Generator {
+
+		private final ModelCounter counter;
+		private final int numberOfVariables;
+		private BigInteger totalCount = null;
+
+		private CounterGenerator(SatInstance satInstance, long seed) {
+			super(seed);
+			counter = new ModelCounter(satInstance);
+			numberOfVariables = satInstance.getNumberOfVariables();
+		}
+
+		@Override
+		protected int[] next() {
+			if (totalCount == null) {
+				totalCount = counter.count();
+			}
+			if (totalCount.signum() == 0) {
+				return null;
+			}
+			// unassigned variables are 0 and, thus, ignored by the counter
+			final int[] solution = new int[numberOfVariables];
+			BigInteger count = totalCount;
+			for (int i = 0; i < numberOfVariables; i++) {
+				final int variable = i + 1;
+				solution[i] = variable;
+				final BigInteger positiveCount = counter.count(solution);
+				// choose the positive literal with probability positiveCount / count
+				if (getRandomNumber(count).compareTo(positiveCount) >= 0) {
+					solution[i] = -variable;
+					count = count.subtract(positiveCount);
+				} else {
+					count = positiveCount;
+				}
+			}
+			return solution;
+		}
+
+		private BigInteger getRandomNumber(BigInteger bound) {
+			BigInteger number;
+			do {
+				number = new BigInteger(bound.bitLength(), random);
+			} while (number.compareTo(bound) >= 0);
+			return number;
+		}
+	}
+
+	private final SatInstance satInstance;
+	private final Mode mode;
+	private final long seed;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private int numberOfThreads = 1;
+	private int maxNumberOfNodes = BinaryDecisionDiagram.DEFAULT_MAX_NUMBER_OF_NODES;
+
+	private Generator[] generators = null;
+	private boolean exhausted = false;
+
+	/**
+	 * @param satInstance the formula
+	 * @param mode the sampling mode
+	 * @param seed the seed for all sources of randomness
+	 */
+	public SolutionSampler(SatInstance satInstance, Mode mode, long seed) {
+		this.satInstance = satInstance;
+		this.mode = mode;
+		this.seed = seed;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the number of solutions that are drawn at once. Default is {@value #DEFAULT_BATCH_SIZE}.
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of parallel generators. Must be called before the first solution is drawn.
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		if (generators != null) {
+			throw new IllegalStateException("Sampling already started");
+		}
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public int getMaxNumberOfNodes() {
+		return maxNumberOfNodes;
+	}
+
+	/**
+	 * Sets the maximal number of nodes of the binary decision diagram used for uniform sampling. If the diagram exceeds this limit, a model counter is used
+	 * instead. Must be called before the first solution is drawn.
+	 */
+	public void setMaxNumberOfNodes(int maxNumberOfNodes) {
+		if (generators != null) {
+			throw new IllegalStateException("Sampling already started");
+		}
+		this.maxNumberOfNodes = maxNumberOfNodes;
+	}
+
+	private void initGenerators() {
+		generators = new Generator[numberOfThreads];
+		BinaryDecisionDiagram diagram = null;
+		if (mode == Mode.UNIFORM) {
+			diagram = BinaryDecisionDiagram.compile(satInstance, maxNumberOfNodes, null);
+			if (diagram == null) {
+				Logger.logInfo("Binary decision diagram exceeds maximal size. Using model counter for uniform sampling.");
+			}
+		}
+		final Random seedGenerator = new Random(seed);
+		for (int i = 0; i < numberOfThreads; i++) {
+			final long generatorSeed = seedGenerator.nextLong();
+			if (mode == Mode.FAST) {
+				try {
+					generators[i] = new SolverGenerator(satInstance, generatorSeed);
+				} catch (final ContradictionException e) {
+					exhausted = true;
+					return;
+				}
+			} else if (diagram != null) {
+				generators[i] = new DiagramGenerator(diagram, generatorSeed);
+			} else {
+				generators[i] = new CounterGenerator(satInstance, generatorSeed);
+			}
+		}
+	}
+
+	/**
+	 * Draws the next batch of solutions.
+	 *
+	 * @return the solutions or an empty list if the formula is unsatisfiable
+	 */
+	public List<int[]> nextBatch() {
+		return nextBatch(batchSize);
+	}
+
+	/**
+	 * Draws the given number of solutions. The solutions are split into one consecutive part per generator.
+	 *
+	 * @param size the number of solutions
+	 * @return the solutions or an empty list if the formula is unsatisfiable
+	 */
+	public synchronized List<int[]> nextBatch(int size) {
+		if (generators == null) {
+			initGenerators();
+		}
+		if (exhausted || (size <= 0)) {
+			return Collections.emptyList();
+		}
+
+		final int numberOfParts = Math.min(generators.length, size);
+		final List<Callable<List<int[]>>> parts = new ArrayList<>(numberOfParts);
+		for (int i = 0; i < numberOfParts; i++) {
+			final Generator generator = generators[i];
+			final int partSize = (size / numberOfParts) + ((i < (size % numberOfParts)) ? 1 : 0);
+			parts.add(new Callable<List<int[]>>() {
+
+				@Override
+				public List<int[]> call() {
+					final List<int[]> solutions = new ArrayList<>(partSize);
+					for (int j = 0; j < partSize; j++) {
+						final int[] solution = generator.next();
+						if (solution == null) {
+							break;
+						}
+						solutions.add(solution);
+					}
+					return solutions;
+				}
+			});
+		}
+
+		final List<int[]> batch = new ArrayList<>(size);
+		if (numberOfParts == 1) {
+			try {
+				batch.addAll(parts.get(0).call());
+			} catch (final Exception e) {
+				throw new RuntimeException(e);
+			}
+		} else {
+			final List<Future<List<int[]>>> futures = new ArrayList<>(numberOfParts);
+			try {
+				for (final Callable<List<int[]>> part : parts) {
+					futures.add(SharedExecutor.submit(part));
+				}
+				for (final Future<List<int[]>> future : futures) {
+					batch.addAll(future.get());
+				}
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof MethodCancelException) {
+					throw (MethodCancelException) cause;
+				}
+				throw new RuntimeException(cause);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MethodCancelException();
+			} finally {
+				SharedExecutor.cancel(futures);
+			}
+		}
+		if (batch.isEmpty()) {
+			exhausted = true;
+		}
+		return batch;
+	}
+
+	/**
+	 * Returns a lazy, endless sequence of solutions (unless the formula is unsatisfiable). Solutions are drawn one batch at a time.
+	 */
+	@Override
+	public Iterator<int[]> iterator() {
+		return new Iterator<int[]>() {
+
+			private List<int[]> batch = Collections.emptyList();
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				if (index >= batch.size()) {
+					batch = nextBatch();
+					index = 0;
+				}
+				return index < batch.size();
+			}
+
+			@Override
+			public int[] next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return batch.get(index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+}
@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.ui.editors;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ADJUST_MODEL_TO_EDITOR;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ALTERNATIVE;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ANALYZE_FEATURE_MODEL;
+import static de.ovgu.featureide.fm.core.localization.StringTable.EXPLAIN_FEATURE_MODEL_DEFECTS;
 import static de.ovgu.featureide.fm.core.localization.StringTable.AND;
 import static de.ovgu.featureide.fm.core.localization.StringTable.DOUBLE_CLICK;
 import static de.ovgu.featureide.fm.core.localization.StringTable.FEATURE_DIAGRAM;
@@ -230,6 +231,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 	private int index;
 
 	private final JobToken analysisToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
+	private final JobToken explanationToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
 
 	private FeatureModelAnalyzer analyzer;
 
@@ -521,6 +523,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 				analyzer = getFeatureModel().getAnalyser();
 				final HashMap<Object, Object> changedAttributes = analyzer.analyzeFeatureModel(monitor);
 				refreshGraphics(changedAttributes);
+				explainDefects();
 				return true;
 			}
 		}, ANALYZE_FEATURE_MODEL);
@@ -528,6 +531,15 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 		LongRunningWrapper.startJob(analysisToken, analyzeJob);
 	}
 
+	/**
+	 * Computes the explanations for all defects found by the last analysis in the background, such that they are cached before they are requested.
+	 */
+	private void explainDefects() {
+		final IRunner<?> explanationJob = LongRunningWrapper.getRunner(analyzer.createExplanationJob(), EXPLAIN_FEATURE_MODEL_DEFECTS);
+		explanationJob.setPriority(Job.DECORATE);
+		LongRunningWrapper.startJob(explanationToken, explanationJob);
+	}
+
 	/**
 	 * Refreshes the colors of the feature model.
 	 *
@@ -1287,11 +1299,12 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 	}
 
 	/**
-	 * Stops the analyzing job when the editor is closed.
+	 * Stops the analyzing and explaining jobs when the editor is closed.
 	 */
 	@Override
 	public void dispose() {
 		LongRunningWrapper.cancelAllJobs(analysisToken);
+		LongRunningWrapper.cancelAllJobs(explanationToken);
 		FeatureColorManager.removeListener(this);
 		fmManager.removeListener(this);
 		graphicalFeatureModel.getFeatureModel().removeListener(editorKeyHandler);
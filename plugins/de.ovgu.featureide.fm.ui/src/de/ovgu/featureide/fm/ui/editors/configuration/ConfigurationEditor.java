@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.ui.editors.configuration;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SELECT_THE_CORRESPONDING_FEATUREMODEL_;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -56,14 +57,16 @@ import org.eclipse.ui.part.MultiPageEditorPart;
 
 import de.ovgu.featureide.fm.core.FMCorePlugin;
 import de.ovgu.featureide.fm.core.ModelMarkerHandler;
+import de.ovgu.featureide.fm.core.Preferences;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.color.FeatureColorManager;
 import de.ovgu.featureide.fm.core.conf.ConfigurationFG;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
-import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.IConfigurationPropagator;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
@@ -72,7 +75,6 @@ import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
-import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
 import de.ovgu.featureide.fm.core.job.IRunner;
@@ -271,8 +273,12 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 
 	public void loadPropagator() {
 		if (!configurationManager.editObject().getPropagator().isLoaded()) {
+			final IConfigurationPropagator propagator = configurationManager.editObject().getPropagator();
+			if (propagator instanceof ConfigurationPropagator) {
+				((ConfigurationPropagator) propagator).setUseKnowledgeCompilation(Preferences.isKnowledgeCompilation());
+			}
 			final Display currentDisplay = Display.getCurrent();
-			final IRunner<Void> configJob = LongRunningWrapper.getRunner(configurationManager.editObject().getPropagator().load(), "Load Propagator");
+			final IRunner<Void> configJob = LongRunningWrapper.getRunner(propagator.load(), "Load Propagator");
 			configJob.addJobFinishedListener(new JobFinishListener<Void>() {
 
 				@Override
@@ -296,12 +302,14 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 	}
 
 	private IFeatureGraph loadFeatureGraph(Path filePath) {
-		final IFeatureGraph featureGraph = new MatrixFeatureGraph();
-		final FeatureGraphFormat format = new FeatureGraphFormat();
-		if (!FileSystem.exists(filePath) || SimpleFileHandler.load(filePath, featureGraph, format).containsError()) {
+		if (!FileSystem.exists(filePath)) {
+			return null;
+		}
+		try {
+			return new FeatureGraphFormat().read(filePath);
+		} catch (final IOException e) {
+			FMUIPlugin.getDefault().logError(e);
 			return null;
-		} else {
-			return featureGraph;
 		}
 	}
 
@@ -41,6 +41,14 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ArmEvent;
@@ -184,6 +192,45 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 	protected boolean useGroups = false;
 	protected boolean useRecommendation = false;
 
+	/**
+	 * The other configurations of the same folder. Kept between selection changes, such that recommendations are updated incrementally.
+	 */
+	private ConfigurationMatrix configurationMatrix = null;
+
+	/**
+	 * Whether a file in the folder of the configuration changed since the {@link #configurationMatrix} was updated.
+	 */
+	private volatile boolean configurationMatrixOutdated = false;
+
+	private final IResourceChangeListener configurationFolderListener = new IResourceChangeListener() {
+
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			final IFile file = (configurationEditor != null) ? configurationEditor.getFile() : null;
+			if ((event.getDelta() == null) || (file == null) || configurationMatrixOutdated) {
+				return;
+			}
+			final IResourceDelta folderDelta = event.getDelta().findMember(file.getParent().getFullPath());
+			if (folderDelta != null) {
+				try {
+					folderDelta.accept(new IResourceDeltaVisitor() {
+
+						@Override
+						public boolean visit(IResourceDelta delta) {
+							final IResource resource = delta.getResource();
+							if ((resource.getType() == IResource.FILE) && !resource.equals(file)) {
+								configurationMatrixOutdated = true;
+							}
+							return !configurationMatrixOutdated;
+						}
+					});
+				} catch (final CoreException e) {
+					FMUIPlugin.getDefault().logError(e);
+				}
+			}
+		}
+	};
+
 	protected Tree tree;
 
 	private int index;
@@ -291,6 +338,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 	public void init(IEditorSite site, IEditorInput input) throws PartInitException {
 		setSite(site);
 		setInput(input);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(configurationFolderListener, IResourceChangeEvent.POST_CHANGE);
 	}
 
 	@Override
@@ -899,6 +947,22 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		return false;
 	}
 
+	private ConfigurationMatrix getConfigurationMatrix() {
+		final IFeatureModel featureModel = configurationEditor.getConfiguration().getFeatureModel();
+		final java.nio.file.Path folder = Paths.get(configurationEditor.getFile().getParent().getLocationURI());
+		if ((configurationMatrix == null) || (configurationMatrix.getFeatureModel() != featureModel) || !configurationMatrix.getPath().equals(folder)
+			|| !configurationMatrix.getSelectionMatrix().getFeatureNames().equals(FeatureUtils.getFeatureNamesPreorder(featureModel))) {
+			configurationMatrixOutdated = false;
+			configurationMatrix = new ConfigurationMatrix(featureModel, folder);
+			configurationMatrix.readConfigurations(configurationEditor.getFile().getName());
+		} else if (configurationMatrixOutdated) {
+			// other configuration files were added, removed, or edited since the matrix was read
+			configurationMatrixOutdated = false;
+			configurationMatrix.update(configurationEditor.getFile().getName());
+		}
+		return configurationMatrix;
+	}
+
 	protected void refreshItem(TreeItem item) {
 		final Object data = item.getData();
 		if (data instanceof SelectableFeature) {
@@ -971,11 +1035,9 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		curGroup = 0;
 
 		if (useRecommendation) {
-			final ConfigurationMatrix configurationMatrix = new ConfigurationMatrix(configurationEditor.getConfiguration().getFeatureModel(),
-					Paths.get(configurationEditor.getFile().getParent().getLocationURI()));
-			configurationMatrix.readConfigurations(configurationEditor.getFile().getName());
-			configurationMatrix.calcRec(configurationEditor.getConfiguration());
-			final double[] rec = configurationMatrix.getRec();
+			final ConfigurationMatrix matrix = getConfigurationMatrix();
+			matrix.calcRec(configurationEditor.getConfiguration());
+			final double[] rec = matrix.getRec();
 			if (rec != null) {
 				int i = 0;
 				for (final SelectableFeature selectableFeature : configurationEditor.getConfiguration().getFeatures()) {
@@ -1358,6 +1420,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 
 	@Override
 	public void dispose() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(configurationFolderListener);
 		disposeTooltip();
 		super.dispose();
 	}
@@ -108,6 +108,24 @@ public class FeatureIDEPreferencePage extends PreferencePage implements IWorkben
 		openClauseButton.addSelectionListener(completionSelectionListener);
 		contradictionButton.addSelectionListener(completionSelectionListener);
 
+		final Group propagationGroup = new Group(container, SWT.SHADOW_IN);
+		propagationGroup.setText("Configuration Propagation");
+		propagationGroup.setLayout(new RowLayout(SWT.VERTICAL));
+		final Button knowledgeCompilationButton = new Button(propagationGroup, SWT.CHECK);
+		knowledgeCompilationButton.setText("Compile feature model into a binary decision diagram");
+		knowledgeCompilationButton.setToolTipText("Speeds up propagation in the configuration editor. Falls back to the SAT solver if the diagram gets too large.");
+		knowledgeCompilationButton.setSelection(Preferences.isKnowledgeCompilation());
+		knowledgeCompilationButton.addSelectionListener(new SelectionListener() {
+
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				Preferences.setKnowledgeCompilation(knowledgeCompilationButton.getSelection());
+			}
+
+			@Override
+			public void widgetDefaultSelected(SelectionEvent e) {}
+		});
+
 		return container;
 	}
 }
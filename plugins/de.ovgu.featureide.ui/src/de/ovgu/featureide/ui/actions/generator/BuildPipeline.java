@@ -0,0 +1,298 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.CheckForNull;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+
+import de.ovgu.featureide.ui.UIPlugin;
+
+/**
+ * Builds the configurations of a {@link ConfigurationBuilder} in up to three stages: composition, compilation, and testing.<br> Each stage has its own
+ * {@link BuildStage thread pool}. The stages are connected by bounded queues, such that a fast stage waits for a slow one instead of buffering an unlimited
+ * number of products. The composition stage takes its configurations from the sorter of the builder.
+ */
+public class BuildPipeline {
+
+	private static final UIPlugin LOGGER = UIPlugin.getDefault();
+
+	private static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+
+	/**
+	 * A product that is passed from one stage to the next one.
+	 */
+	private static class Product {
+
+		private final BuilderConfiguration configuration;
+		private final JavaCompiler compiler;
+
+		public Product(BuilderConfiguration configuration, JavaCompiler compiler) {
+			this.configuration = configuration;
+			this.compiler = compiler;
+		}
+	}
+
+	/**
+	 * Marks the end of the input of a stage.
+	 */
+	private static final Product END = new Product(null, null);
+
+	private final ConfigurationBuilder builder;
+
+	private final BuildStage composeStage;
+	@CheckForNull
+	private final BuildStage compileStage;
+	@CheckForNull
+	private final BuildStage testStage;
+
+	private final List<BuildStage> stages = new ArrayList<>(3);
+
+	private BlockingQueue<Product> compileQueue;
+	private BlockingQueue<Product> testQueue;
+
+	/**
+	 * The compilers that are currently not in use. Each compiler has its own output folder that is kept until the compiled product was tested.
+	 */
+	private BlockingQueue<JavaCompiler> compilers;
+
+	private volatile boolean canceled = false;
+
+	/**
+	 * @param builder The builder containing the configurations
+	 * @param composeThreads The number of threads used for composition
+	 */
+	public BuildPipeline(ConfigurationBuilder builder, int composeThreads) {
+		this.builder = builder;
+		composeStage = new BuildStage("composition", composeThreads);
+		stages.add(composeStage);
+
+		if (!builder.createNewProjects && isJavaProject()) {
+			final int processors = Runtime.getRuntime().availableProcessors();
+			final int compileThreads = Math.max(1, Math.min(composeThreads, processors));
+			final int testThreads = (builder.runTests && JUNIT_INSTALLED) ? Math.max(1, compileThreads / 2) : 0;
+
+			compileStage = new BuildStage("compilation", compileThreads);
+			stages.add(compileStage);
+			compileQueue = new ArrayBlockingQueue<>(2 * compileThreads);
+
+			if (testThreads > 0) {
+				testStage = new BuildStage("test", testThreads);
+				stages.add(testStage);
+				testQueue = new ArrayBlockingQueue<>(2 * testThreads);
+			} else {
+				testStage = null;
+			}
+
+			final int numberOfCompilers = compileThreads + (testThreads > 0 ? testThreads + testQueue.remainingCapacity() : 0);
+			compilers = new ArrayBlockingQueue<>(numberOfCompilers);
+			for (int i = 0; i < numberOfCompilers; i++) {
+				compilers.add(new JavaCompiler(i, builder));
+			}
+		} else {
+			compileStage = null;
+			testStage = null;
+		}
+	}
+
+	private boolean isJavaProject() {
+		try {
+			return builder.featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Starts the workers of all stages.
+	 */
+	public void start() {
+		if (testStage != null) {
+			testStage.start(new TestWorker());
+		}
+		if (compileStage != null) {
+			compileStage.start(new CompileWorker());
+		}
+		composeStage.start(new ComposeWorker());
+	}
+
+	/**
+	 * Stops all stages. Products that are currently processed are discarded.
+	 */
+	public void cancel() {
+		canceled = true;
+		for (final BuildStage stage : stages) {
+			stage.cancel();
+		}
+	}
+
+	/**
+	 * Waits until all stages have processed all products or the pipeline was canceled.
+	 *
+	 * @param timeout The maximum time to wait in milliseconds
+	 * @return {@code true} if all stages have terminated
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public boolean awaitTermination(long timeout) throws InterruptedException {
+		final long end = System.currentTimeMillis() + timeout;
+		for (final BuildStage stage : stages) {
+			if (!stage.awaitTermination(Math.max(0, end - System.currentTimeMillis()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return The stages of this pipeline in processing order
+	 */
+	public List<BuildStage> getStages() {
+		return stages;
+	}
+
+	/**
+	 * Signals the end of the input to all workers of the given stage.
+	 */
+	private void endOfInput(BlockingQueue<Product> queue, BuildStage stage) {
+		try {
+			for (int i = 0; (i < stage.getNumberOfThreads()) && !canceled; i++) {
+				queue.put(END);
+			}
+		} catch (final InterruptedException e) {
+			// pipeline was canceled
+		}
+	}
+
+	private class ComposeWorker implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				final Generator generator = new Generator(builder);
+				while (!canceled) {
+					final BuilderConfiguration configuration = builder.sorter.takeConfiguration();
+					if (configuration == null) {
+						break;
+					}
+					final long start = System.nanoTime();
+					try {
+						generator.generate(configuration);
+					} catch (final Exception e) {
+						composeStage.processed(start, false);
+						LOGGER.logError(ERROR_IN_CONFIGURATION + configuration, e);
+						continue;
+					}
+					composeStage.processed(start, true);
+					if (compileStage != null) {
+						compileQueue.put(new Product(configuration, null));
+					} else {
+						builder.builtConfiguration();
+					}
+				}
+			} catch (final InterruptedException e) {
+				// pipeline was canceled
+			} finally {
+				if (composeStage.workerFinished() && (compileStage != null)) {
+					endOfInput(compileQueue, compileStage);
+				}
+			}
+		}
+	}
+
+	private class CompileWorker implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				while (!canceled) {
+					final Product product = compileQueue.take();
+					if (product == END) {
+						break;
+					}
+					final JavaCompiler compiler = compilers.take();
+					final long start = System.nanoTime();
+					try {
+						compiler.compile(product.configuration);
+					} catch (final Exception e) {
+						compileStage.processed(start, false);
+						compilers.put(compiler);
+						LOGGER.logError(ERROR_IN_CONFIGURATION + product.configuration, e);
+						continue;
+					}
+					compileStage.processed(start, true);
+					if (testStage != null) {
+						testQueue.put(new Product(product.configuration, compiler));
+					} else {
+						compilers.put(compiler);
+						builder.builtConfiguration();
+					}
+				}
+			} catch (final InterruptedException e) {
+				// pipeline was canceled
+			} finally {
+				if (compileStage.workerFinished() && (testStage != null)) {
+					endOfInput(testQueue, testStage);
+				}
+			}
+		}
+	}
+
+	private class TestWorker implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				while (!canceled) {
+					final Product product = testQueue.take();
+					if (product == END) {
+						break;
+					}
+					final long start = System.nanoTime();
+					boolean success = false;
+					try {
+						new TestRunner(product.compiler.tmp, builder.testResults, builder).runTests(product.configuration);
+						success = true;
+					} catch (final Exception e) {
+						LOGGER.logError(ERROR_IN_CONFIGURATION + product.configuration, e);
+					} finally {
+						testStage.processed(start, success);
+						compilers.put(product.compiler);
+					}
+					builder.builtConfiguration();
+				}
+			} catch (final InterruptedException e) {
+				// pipeline was canceled
+			} finally {
+				testStage.workerFinished();
+			}
+		}
+	}
+
+}
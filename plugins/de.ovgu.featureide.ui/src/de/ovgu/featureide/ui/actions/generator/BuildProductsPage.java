@@ -408,11 +408,7 @@ public class BuildProductsPage extends WizardPage implements IConfigurationBuild
 			} else if (selection.equals(CASA)) {
 				scaleTWise.setMaximum(CASA_MAX);
 			} else if (selection.equals(INCLING)) {
-				scaleTWise.setMaximum(MASK_MAX);
-				scaleTWise.setMinimum(MASK_MAX);
-				scaleTWise.setSelection(MASK_MAX);
-				scaleTWise.setEnabled(false);
-				labelTWise.setText(LABEL_INTERACTIONS + "2");
+				scaleTWise.setMaximum(INCLING_MAX);
 			}
 		} else {
 			scaleTWise.setEnabled(false);
@@ -0,0 +1,200 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One stage of the {@link BuildPipeline}, e.g., composition or compilation.<br> Owns a fixed number of worker threads and records how many products were
+ * processed by the stage and how long the processing took, such that the slowest stage of a build can be identified.
+ */
+public class BuildStage {
+
+	private final String name;
+	private final int numberOfThreads;
+	private final ExecutorService executor;
+
+	private final AtomicInteger runningWorkers = new AtomicInteger();
+	private final AtomicLong processed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong busyTime = new AtomicLong();
+	private final AtomicLong maxLatency = new AtomicLong();
+
+	private volatile long startTime;
+	private volatile long endTime;
+
+	/**
+	 * @param name The name of the stage
+	 * @param numberOfThreads The number of worker threads of the stage
+	 */
+	public BuildStage(final String name, int numberOfThreads) {
+		this.name = name;
+		this.numberOfThreads = numberOfThreads;
+		executor = Executors.newFixedThreadPool(numberOfThreads, new ThreadFactory() {
+
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				final Thread thread = new Thread(runnable, "Build " + name + " " + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Starts one instance of the given worker for each thread of this stage.
+	 *
+	 * @param worker The worker loop
+	 */
+	void start(Runnable worker) {
+		startTime = System.nanoTime();
+		runningWorkers.set(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			executor.execute(worker);
+		}
+		executor.shutdown();
+	}
+
+	/**
+	 * Has to be called by each worker when it terminates.
+	 *
+	 * @return {@code true} if the calling worker was the last running worker of this stage
+	 */
+	boolean workerFinished() {
+		if (runningWorkers.decrementAndGet() == 0) {
+			endTime = System.nanoTime();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Interrupts all workers of this stage.
+	 */
+	void cancel() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Waits until all workers of this stage have terminated.
+	 *
+	 * @param timeout The maximum time to wait in milliseconds
+	 * @return {@code true} if all workers have terminated
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	boolean awaitTermination(long timeout) throws InterruptedException {
+		return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Records a processed product.
+	 *
+	 * @param start The value of {@link System#nanoTime()} when the processing was started
+	 * @param success Whether the product was processed without errors
+	 */
+	void processed(long start, boolean success) {
+		final long latency = System.nanoTime() - start;
+		busyTime.addAndGet(latency);
+		long max = maxLatency.get();
+		while ((latency > max) && !maxLatency.compareAndSet(max, latency)) {
+			max = maxLatency.get();
+		}
+		processed.incrementAndGet();
+		if (!success) {
+			failed.incrementAndGet();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @return The number of products processed by this stage (including failed ones)
+	 */
+	public long getProcessed() {
+		return processed.get();
+	}
+
+	/**
+	 * @return The number of products that could not be processed due to an error
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * @return The average processing time of a product in milliseconds
+	 */
+	public double getAverageLatency() {
+		final long count = processed.get();
+		return count == 0 ? 0 : (busyTime.get() / 1000000.0) / count;
+	}
+
+	/**
+	 * @return The maximal processing time of a product in milliseconds
+	 */
+	public double getMaxLatency() {
+		return maxLatency.get() / 1000000.0;
+	}
+
+	/**
+	 * @return The number of processed products per second since the stage was started
+	 */
+	public double getThroughput() {
+		final long elapsed = getElapsedTime();
+		return elapsed == 0 ? 0 : (processed.get() * 1000000000.0) / elapsed;
+	}
+
+	/**
+	 * @return The fraction of the available thread time that was spent on processing products. A value close to 1 indicates that this stage is the
+	 *         bottleneck of the pipeline.
+	 */
+	public double getUtilization() {
+		final long elapsed = getElapsedTime();
+		return elapsed == 0 ? 0 : Math.min(1, busyTime.get() / ((double) elapsed * numberOfThreads));
+	}
+
+	private long getElapsedTime() {
+		if (startTime == 0) {
+			return 0;
+		}
+		return ((runningWorkers.get() == 0) && (endTime != 0) ? endTime : System.nanoTime()) - startTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d products (%d failed), %.2f products/s, average %.1f ms, max %.1f ms, %d threads, %.0f%% utilization", name,
+				getProcessed(), getFailed(), getThroughput(), getAverageLatency(), getMaxLatency(), numberOfThreads, getUtilization() * 100);
+	}
+
+}
@@ -0,0 +1,285 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Caches the results of compiling the Java files of generated variants, i.e., class files and compiler problems, such that variants with equal Java files
+ * are compiled only once.<br> A variant is identified by the paths and contents of all its compilation units together with the classpath. Results are
+ * only shared between whole variants, as the dependencies between single compilation units cannot be derived reliably from the source code (e.g.,
+ * secondary types, wildcard imports) nor from the class files (e.g., inlined constants).
+ */
+public class CompilationCache {
+
+	/**
+	 * The default maximal size of all cached class files in bytes.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+	/**
+	 * A problem reported by the compiler for a compilation unit.
+	 */
+	public static class Problem {
+
+		final int line;
+		final String message;
+		final boolean warning;
+
+		public Problem(int line, String message, boolean warning) {
+			this.line = line;
+			this.message = message;
+			this.warning = warning;
+		}
+	}
+
+	/**
+	 * The cached result of compiling one variant.
+	 */
+	private static class CompiledVariant {
+
+		private final Map<String, byte[]> classFiles;
+		private final Map<String, List<Problem>> problems;
+		private final long size;
+
+		public CompiledVariant(Map<String, byte[]> classFiles, Map<String, List<Problem>> problems, long size) {
+			this.classFiles = classFiles;
+			this.problems = problems;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * A Java file of a variant.
+	 */
+	public static class CompilationUnit {
+
+		final IFile file;
+		final String path;
+		private final String contentHash;
+
+		final List<Problem> problems = new ArrayList<>();
+
+		private CompilationUnit(IFile file, String path, byte[] content) {
+			this.file = file;
+			this.path = path;
+			contentHash = hash(content);
+		}
+	}
+
+	/**
+	 * The Java files of a variant.
+	 */
+	public static class Variant {
+
+		private final String key;
+		private final List<CompilationUnit> units;
+		private CompiledVariant cached;
+
+		private Variant(String key, List<CompilationUnit> units) {
+			this.key = key;
+			this.units = units;
+		}
+
+		/**
+		 * @return {@code true} if the compilation result of this variant was found in the cache
+		 */
+		public boolean isCached() {
+			return cached != null;
+		}
+
+		public List<CompilationUnit> getUnits() {
+			return units;
+		}
+	}
+
+	private final Map<String, CompiledVariant> compiledVariants = new ConcurrentHashMap<>();
+
+	private final String classpath;
+	private final long maxSize;
+
+	private final AtomicLong size = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param classpath The classpath used for compilation
+	 */
+	public CompilationCache(String classpath) {
+		this(classpath, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param classpath The classpath used for compilation
+	 * @param maxSize The maximal size of all cached class files in bytes. If the size is reached, no more results are added.
+	 */
+	public CompilationCache(String classpath, long maxSize) {
+		this.classpath = classpath;
+		this.maxSize = maxSize;
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			return new BigInteger(1, MessageDigest.getInstance("SHA-1").digest(content)).toString(16);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Creates the compilation units of a variant and looks the variant up in the cache. If it is cached, the problems of its units are set accordingly.
+	 *
+	 * @param files The Java files of the variant mapped to their path relative to the variant folder
+	 * @return the variant
+	 * @throws IOException if a file cannot be read
+	 */
+	public Variant lookup(Map<IFile, String> files) throws IOException {
+		final List<CompilationUnit> units = new ArrayList<>(files.size());
+		for (final Map.Entry<IFile, String> entry : files.entrySet()) {
+			final byte[] content = Files.readAllBytes(entry.getKey().getLocation().toFile().toPath());
+			units.add(new CompilationUnit(entry.getKey(), entry.getValue(), content));
+		}
+
+		final Variant variant = new Variant(computeVariantKey(units), units);
+		variant.cached = compiledVariants.get(variant.key);
+		if (variant.cached != null) {
+			for (final CompilationUnit unit : units) {
+				final List<Problem> problems = variant.cached.problems.get(unit.path);
+				if (problems != null) {
+					unit.problems.addAll(problems);
+				}
+			}
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return variant;
+	}
+
+	private String computeVariantKey(List<CompilationUnit> units) {
+		final List<String> entries = new ArrayList<>(units.size());
+		for (final CompilationUnit unit : units) {
+			entries.add(unit.path + ':' + unit.contentHash);
+		}
+		Collections.sort(entries);
+
+		final StringBuilder sb = new StringBuilder(classpath);
+		for (final String entry : entries) {
+			sb.append('\n').append(entry);
+		}
+		return hash(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes the cached class files of the given variant into the output folder.
+	 *
+	 * @param variant The variant
+	 * @param outputFolder The output folder of the compiler
+	 * @throws IOException if a class file cannot be written
+	 */
+	public void writeClassFiles(Variant variant, File outputFolder) throws IOException {
+		if (variant.cached != null) {
+			for (final Map.Entry<String, byte[]> entry : variant.cached.classFiles.entrySet()) {
+				final File classFile = new File(outputFolder, entry.getKey());
+				classFile.getParentFile().mkdirs();
+				Files.write(classFile.toPath(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Stores the result of compiling the given variant in the cache, i.e., the problems of its units and all class files in the output folder.
+	 *
+	 * @param variant The compiled variant
+	 * @param outputFolder The output folder of the compiler, containing only the class files of this variant
+	 * @throws IOException if a class file cannot be read
+	 */
+	public void store(Variant variant, File outputFolder) throws IOException {
+		if (variant.cached != null) {
+			return;
+		}
+		final Map<String, byte[]> classFiles = new HashMap<>();
+		final long variantSize = readClassFiles(outputFolder, "", classFiles);
+		if (size.addAndGet(variantSize) > maxSize) {
+			size.addAndGet(-variantSize);
+			return;
+		}
+		final Map<String, List<Problem>> problems = new HashMap<>();
+		for (final CompilationUnit unit : variant.units) {
+			if (!unit.problems.isEmpty()) {
+				problems.put(unit.path, new ArrayList<>(unit.problems));
+			}
+		}
+		final CompiledVariant previous = compiledVariants.put(variant.key, new CompiledVariant(classFiles, problems, variantSize));
+		if (previous != null) {
+			size.addAndGet(-previous.size);
+		}
+	}
+
+	private static long readClassFiles(File folder, String prefix, Map<String, byte[]> classFiles) throws IOException {
+		long readSize = 0;
+		final File[] children = folder.listFiles();
+		if (children != null) {
+			for (final File child : children) {
+				if (child.isDirectory()) {
+					readSize += readClassFiles(child, prefix + child.getName() + "/", classFiles);
+				} else if (child.getName().endsWith(".class")) {
+					final byte[] content = Files.readAllBytes(child.toPath());
+					classFiles.put(prefix + child.getName(), content);
+					readSize += content.length;
+				}
+			}
+		}
+		return readSize;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		final long hitCount = hits.get();
+		final long total = hitCount + misses.get();
+		return String.format("compilation cache: %d of %d variants reused (%.0f%%), %d variants cached (%d KB)", hitCount, total,
+				total == 0 ? 0.0 : (hitCount * 100.0) / total, compiledVariants.size(), size.get() / 1024);
+	}
+
+}
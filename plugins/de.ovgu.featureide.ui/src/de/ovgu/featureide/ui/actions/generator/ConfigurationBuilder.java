@@ -25,9 +25,8 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 
-import java.security.KeyStore.Builder;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.CheckForNull;
 
@@ -48,11 +47,12 @@ import org.eclipse.jdt.internal.core.JavaProject;
 
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
@@ -76,6 +76,11 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 
+	/**
+	 * The time in milliseconds after that the progress monitor is updated and checked for cancellation.
+	 */
+	private static final long STATUS_INTERVAL = 150;
+
 	public IFeatureProject featureProject;
 	private IFeatureModel featureModel;
 
@@ -104,6 +109,11 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	IFolder tmp;
 
+	/**
+	 * Shares compiled classes between variants with equal Java files.
+	 */
+	CompilationCache compilationCache;
+
 	/**
 	 * This flag indicates if a new project should be created for each configuration.
 	 */
@@ -114,30 +124,20 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	private int built;
 
-	/**
-	 * This flag indicates that all jobs should be aborted.
-	 */
-	boolean cancelGeneratorJobs = false;
-
 	/**
 	 * Saves the time of start.
 	 */
 	protected long time;
 
-	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
-	 */
-	boolean finish = false;
-
 	/**
 	 * <code>true</code>: all valid configurations should be built.<br> <code>false</code>: all configurations at the configurations folder should be built.
 	 */
 	BuildType buildType;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The pipeline that composes, compiles, and tests the configurations.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private volatile BuildPipeline pipeline;
 
 	public AbstractConfigurationSorter sorter;
 
@@ -166,6 +166,18 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		sorter.addConfiguration(configuration);
 	}
 
+	/**
+	 * Adds the given configuration to configurations and waits while the buffer of the sorter is full.<br> Does not lock the builder, such that the
+	 * {@link BuildPipeline} can take configurations in the meantime.
+	 *
+	 * @param configuration the configuration
+	 * @param bufferCapacity the maximal number of buffered configurations
+	 * @param monitor the monitor of the calling job
+	 */
+	public void addConfiguration(BuilderConfiguration configuration, int bufferCapacity, IMonitor monitor) {
+		sorter.addConfiguration(configuration, bufferCapacity, monitor);
+	}
+
 	// TODO revise long parameter list
 	/**
 	 * Starts the build process for valid or current configurations for the given feature project.
@@ -241,7 +253,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			break;
 		case T_WISE:
 			if (algorithm.equals(INCLING)) {
-				configurationBuilder = new IncLingConfigurationGenerator(this, featureModel, featureProject);
+				configurationBuilder = new IncLingConfigurationGenerator(this, featureModel, featureProject, t);
 			} else {
 				configurationBuilder = new SPLCAToolConfigurationGenerator(this, featureModel, featureProject, algorithm, t);
 			}
@@ -275,22 +287,27 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
+					int composeThreads = 1;
 					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
+						composeThreads = Runtime.getRuntime().availableProcessors();
+						if ((buildType == BuildType.ALL_CURRENT) && (configurationNumber < composeThreads)) {
+							composeThreads = Math.max(1, (int) configurationNumber);
 						}
-					} else {
-						newgeneratorJobs(1);
 					}
+					pipeline = new BuildPipeline(ConfigurationBuilder.this, composeThreads);
+					pipeline.start();
+
+					final CountDownLatch generationFinished = new CountDownLatch(1);
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationBuilder, "Create Configurations " + id++);
+					configurationBuilderJob.addJobFinishedListener(new JobFinishListener<Void>() {
+
+						@Override
+						public void jobFinished(IJob<Void> finishedJob) {
+							generationFinished.countDown();
+						}
+					});
 					configurationBuilderJob.schedule();
-					showStatistics(monitor);
+					showStatistics(monitor, generationFinished);
 					if (!createNewProjects) {
 						try {
 							folder.refreshLocal(IResource.DEPTH_INFINITE, null);
@@ -299,39 +316,25 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						}
 					}
 				} finally {
-					configurationBuilderJob.cancel();
-					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
+					if (configurationBuilderJob != null) {
+						configurationBuilderJob.cancel();
 					}
+					cancelGenerationJobs();
 					monitor.done();
 				}
 				return Status.OK_STATUS;
 			}
 
-			private void showStatistics(IProgressMonitor monitor) {
+			private void showStatistics(IProgressMonitor monitor, CountDownLatch generationFinished) {
 				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
+					while (!generationFinished.await(STATUS_INTERVAL, TimeUnit.MILLISECONDS)) {
 						monitor.setTaskName(getTaskName());
 						if (monitor.isCanceled()) {
 							cancelGenerationJobs();
 							configurationBuilderJob.cancel();
 							return;
 						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
 					}
-					System.err.println(configurationBuilderJob.getStatus());
 
 					if (!sorter.isSorted()) {
 						final IMonitor workMonitor = new ProgressMonitor(getTaskName(), monitor);
@@ -340,43 +343,34 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					finish();
 
 					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
-							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
+					while (!pipeline.awaitTermination(STATUS_INTERVAL)) {
+						monitor.setTaskName(getTaskName());
+						if (monitor.isCanceled()) {
+							cancelGenerationJobs();
+							return;
 						}
 					}
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
+					cancelGenerationJobs();
+					return;
+				}
 
-					final long duration = System.currentTimeMillis() - time;
-					final long s = (duration / 1000) % 60;
-					final long min = (duration / (60 * 1000)) % 60;
-					final long h = duration / (60 * 60 * 1000);
-					final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
+				final long duration = System.currentTimeMillis() - time;
+				final long s = (duration / 1000) % 60;
+				final long min = (duration / (60 * 1000)) % 60;
+				final long h = duration / (60 * 60 * 1000);
+				final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 
-					if (built > configurationNumber) {
-						built = (int) configurationNumber;
-					}
-					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+				if (built > configurationNumber) {
+					built = (int) configurationNumber;
+				}
+				LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
+				for (final BuildStage stage : pipeline.getStages()) {
+					LOGGER.logInfo(stage.toString());
+				}
+				if ((compilationCache != null) && ((compilationCache.getHits() + compilationCache.getMisses()) > 0)) {
+					LOGGER.logInfo(compilationCache.toString());
 				}
 			}
 
@@ -413,6 +407,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 				}
 			}
 			setClassPath();
+			compilationCache = new CompilationCache(classpath);
 
 			tmp = folder.getFolder(TEMPORARY_BIN_FOLDER);
 			if (!tmp.exists()) {
@@ -489,48 +484,29 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
-	 *
-	 * @param count The amount of Generators that will be created.
+	 * This is called if the main job is canceled and all {@link BuildPipeline stages} should finish.
 	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
-		}
-
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
-		}
-
-		for (; count > 0; count--) {
-			createNewGenerator(count);
+	public void cancelGenerationJobs() {
+		sorter.close();
+		final BuildPipeline currentPipeline = pipeline;
+		if (currentPipeline != null) {
+			currentPipeline.cancel();
 		}
 	}
 
 	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
-	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
-	}
-
-	/**
-	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
+	 * This is called if the main job has finished and no more configurations will be added.
 	 */
-	public void cancelGenerationJobs() {
-		cancelGeneratorJobs = true;
+	public void finish() {
+		sorter.close();
 	}
 
 	/**
-	 * This is called if the main job has finished and no more configurations will be added.
+	 * @return The pipeline building the configurations or {@code null} if the build has not been started yet
 	 */
-	public void finish() {
-		finish = true;
+	@CheckForNull
+	public BuildPipeline getPipeline() {
+		return pipeline;
 	}
 
 	/**
@@ -114,5 +114,5 @@ public interface IConfigurationBuilderBasics {
 	int CHVATAL_MAX = 4;
 	int ICPL_MAX = 3;
 	int CASA_MAX = 6;
-	int MASK_MAX = 2;
+	int INCLING_MAX = 4;
 }
@@ -24,13 +24,18 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SY
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -39,34 +44,41 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.CompilationUnit;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.Problem;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.Variant;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles the composed configurations of the corresponding {@link ConfigurationBuilder}. Used by the compilation stage of the {@link BuildPipeline}.<br>
+ * Variants whose results are contained in the {@link CompilationCache} of the builder are not passed to the compiler again.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	// \S*\s(\w+)\sin\s(\w:[\w,\\,.,\s]*.java)\s[(]at line (\d+)[)]
+	private static final Pattern PROBLEM_PATTERN = Pattern.compile("\\S*\\s(\\w+)\\sin\\s(\\S.*[.]java)\\s[(]at line (\\d+)[)]");
+	private static final Pattern MESSAGE_PATTERN = Pattern.compile("\\w.*");
+
+	private final ConfigurationBuilder builder;
 
 	/**
-	 * The parent folder of the generated variants
+	 * The output folder for the compiled classes
 	 */
 	final IFolder tmp;
 
 	/**
 	 *
 	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The builder holding this compiler
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
+	public JavaCompiler(int nr, ConfigurationBuilder builder) {
+		this.builder = builder;
 
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
+		tmp = builder.tmp.getFolder(COMPILER + nr);
 		if (!tmp.exists()) {
 			try {
 				tmp.create(true, true, null);
@@ -85,40 +97,77 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 */
 	protected void compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-		for (final IResource file : tmp.members()) {
-			file.delete(true, null);
-		}
+		// the class files in the output folder are cached for this variant, thus, class files of the previous variant must not remain
+		deleteContents(tmp.getRawLocation().toFile());
 		compile(configuration.getName());
 	}
 
+	private static void deleteContents(File folder) {
+		final File[] children = folder.listFiles();
+		if (children != null) {
+			for (final File child : children) {
+				if (child.isDirectory()) {
+					deleteContents(child);
+				}
+				child.delete();
+			}
+		}
+	}
+
 	/**
 	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.
 	 *
 	 * @param confName
 	 */
 	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
-		final LinkedList<String> options = new LinkedList<>();
-		for (final IFile file : files) {
-			options.add(setupPath(file));
+		final IFolder variantFolder = builder.folder.getFolder(confName);
+		final Map<IFile, String> files = new LinkedHashMap<>();
+		for (final IFile file : getJavaFiles(variantFolder)) {
+			files.put(file, file.getFullPath().makeRelativeTo(variantFolder.getFullPath()).toString());
+		}
+
+		final File outputFolder = tmp.getRawLocation().toFile();
+		final CompilationCache cache = builder.compilationCache;
+		final Variant variant;
+		try {
+			variant = cache.lookup(files);
+			cache.writeClassFiles(variant, outputFolder);
+		} catch (final IOException e) {
+			UIPlugin.getDefault().logError(e);
+			return;
+		}
+
+		if (!variant.isCached()) {
+			final Map<String, CompilationUnit> units = new HashMap<>();
+			final LinkedList<String> options = new LinkedList<>();
+			for (final CompilationUnit unit : variant.getUnits()) {
+				units.put(unit.file.getLocation().toOSString(), unit);
+				options.add(setupPath(unit.file));
+			}
+			options.add("-g");
+			options.add("-Xlint");
+			options.add("-source");
+			options.add("1.7");
+			options.add("-d");
+			options.add(setupPath(outputFolder.toString()));
+			options.add("-classpath");
+			options.add(builder.classpath);
+
+			final String output = process(options);
+			parseJavacOutput(output, units);
+			try {
+				cache.store(variant, outputFolder);
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
 		}
-		options.add("-g");
-		options.add("-Xlint");
-		options.add("-source");
-		options.add("1.7");
-		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
-		options.add("-classpath");
-		options.add(generator.builder.classpath);
 
-		final String output = process(options);
-		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
-		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+		for (final IFile file : createMarkers(variant.getUnits(), confName)) {
+			builder.featureProject.getComposer().postCompile(null, file);
 		}
 	}
 
@@ -156,52 +205,34 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Generates the problem markers from the given compiler output.
+	 * Collects the problems of the compiled units from the given compiler output.
 	 *
 	 * @param output The output from the compiler
-	 * @param files The compiled files
-	 * @param configurationName Name of the actual configuration
-	 * @return
+	 * @param units The compiled units mapped to the location of their file
 	 */
-	public LinkedList<IFile> parseJavacOutput(String output, LinkedList<IFile> files, String configurationName) {
-		final LinkedList<IFile> errorFiles = new LinkedList<IFile>();
-		if (output.isEmpty()) {
-			return errorFiles;
-		}
-		final TreeMap<String, IFile> sourcePaths = new TreeMap<>();
-		for (final IFile file : files) {
-			sourcePaths.put(file.getLocation().toOSString(), file);
+	public void parseJavacOutput(String output, Map<String, CompilationUnit> units) {
+		if ((output == null) || output.isEmpty()) {
+			return;
 		}
 
 		try (Scanner scanner = new Scanner(output)) {
 			String currentLine;
 			while (scanner.hasNextLine()) {
 				currentLine = scanner.nextLine();
-				// \S*\s(\w+)\sin\s(\w:[\w,\\,.,\s]*.java)\s[(]at line (\d+)[)]
-				final Pattern pattern = Pattern.compile("\\S*\\s(\\w+)\\sin\\s(\\S.*[.]java)\\s[(]at line (\\d+)[)]");
-				final Matcher matcher = pattern.matcher(currentLine);
+				final Matcher matcher = PROBLEM_PATTERN.matcher(currentLine);
 				if (!matcher.find()) {
 					continue;
 				}
-				try {
-					final boolean contains = sourcePaths.containsKey(matcher.group(2));
-					if (!contains) {
-						continue;
-					}
-				} catch (final Exception e) {
-					UIPlugin.getDefault().logError(e);
+				final CompilationUnit unit = units.get(matcher.group(2));
+				if (unit == null) {
 					continue;
 				}
 				final boolean warning = "WARNING".equals(matcher.group(1));
-				final IFile currentFile = sourcePaths.get(matcher.group(2));
 				final int line = Integer.parseInt(matcher.group(3));
 				// get error message in from the next lines
 				while (scanner.hasNextLine()) {
 					currentLine = scanner.nextLine();
-					final Pattern messagePattern = Pattern.compile("\\w.*");
-					final Matcher m = messagePattern.matcher(currentLine);
-					final boolean found = m.matches();
-					if (found) {
+					if (MESSAGE_PATTERN.matcher(currentLine).matches()) {
 						break;
 					}
 				}
@@ -215,21 +246,39 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 					|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
 					continue;
 				}
-				if (!errorFiles.contains(currentFile)) {
-					errorFiles.add(currentFile);
-				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
-				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
-					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
-				}
+				unit.problems.add(new Problem(line, errorMessage, warning));
 			}
-		} catch (final CoreException e) {
-			UIPlugin.getDefault().logError(e);
 		}
+	}
 
+	/**
+	 * Generates the problem markers for the given compilation units.
+	 *
+	 * @param units The compilation units of the variant
+	 * @param configurationName Name of the actual configuration
+	 * @return The files with problems
+	 */
+	private List<IFile> createMarkers(List<CompilationUnit> units, String configurationName) {
+		final List<IFile> errorFiles = new ArrayList<>();
+		for (final CompilationUnit unit : units) {
+			final List<Problem> problems = unit.problems;
+			if (problems.isEmpty()) {
+				continue;
+			}
+			errorFiles.add(unit.file);
+			for (final Problem problem : problems) {
+				try {
+					final IMarker newMarker = unit.file.createMarker(PROBLEM_MARKER);
+					if (newMarker.exists()) {
+						newMarker.setAttribute(IMarker.LINE_NUMBER, problem.line);
+						newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + problem.message);
+						newMarker.setAttribute(IMarker.SEVERITY, problem.warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+					}
+				} catch (final CoreException e) {
+					UIPlugin.getDefault().logError(e);
+				}
+			}
+		}
 		return errorFiles;
 	}
 
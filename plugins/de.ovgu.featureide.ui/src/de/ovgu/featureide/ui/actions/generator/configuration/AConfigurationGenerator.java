@@ -24,6 +24,7 @@ import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 import de.ovgu.featureide.ui.actions.generator.ConfigurationBuilder;
 
@@ -68,4 +69,8 @@ public abstract class AConfigurationGenerator implements LongRunningMethod<Void>
 	protected void addConfiguration(Configuration configuration) {
 		builder.addConfiguration(new BuilderConfiguration(configuration, ++confs));
 	}
+
+	protected void addConfiguration(Configuration configuration, int bufferCapacity, IMonitor monitor) {
+		builder.addConfiguration(new BuilderConfiguration(configuration, ++confs), bufferCapacity, monitor);
+	}
 }
@@ -22,33 +22,39 @@ package de.ovgu.featureide.ui.actions.generator.configuration;
 
 import java.util.List;
 
-import org.prop4j.Node;
 import org.prop4j.analyses.PairWiseConfigurationGenerator;
+import org.prop4j.analyses.TWiseConfigurationGenerator;
 import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.core.IFeatureProject;
-import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
 import de.ovgu.featureide.fm.core.filter.AbstractFeatureFilter;
-import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.ui.actions.generator.ConfigurationBuilder;
 
 /**
- * Executed the IncLing pairwise sorting algorithm to create configurations.
+ * Executed the IncLing pairwise sorting algorithm to create configurations. Other interaction sizes are covered by the in-process t-wise generator.
  *
  * @see PairWiseConfigurationGenerator
+ * @see TWiseConfigurationGenerator
  *
  * @author Jens Meinicke
  */
 public class IncLingConfigurationGenerator extends AConfigurationGenerator {
 
+	private final int t;
+
 	public IncLingConfigurationGenerator(ConfigurationBuilder builder, IFeatureModel featureModel, IFeatureProject featureProject) {
+		this(builder, featureModel, featureProject, 2);
+	}
+
+	public IncLingConfigurationGenerator(ConfigurationBuilder builder, IFeatureModel featureModel, IFeatureProject featureProject, int t) {
 		super(builder, featureModel, featureProject);
+		this.t = t;
 	}
 
 	@Override
@@ -62,14 +68,18 @@ public class IncLingConfigurationGenerator extends AConfigurationGenerator {
 		advancedNodeCreator.setCnfType(CNFType.Regular);
 		advancedNodeCreator.setIncludeBooleanValues(false);
 
-		final Node createNodes = advancedNodeCreator.createNodes();
-		final SatInstance satInstance = new SatInstance(createNodes, Functional.toList(FeatureUtils.getConcreteFeatureNames(fm)));
+		final SatInstance satInstance = new SatInstance(advancedNodeCreator.createClauseDatabase());
 		final PairWiseConfigurationGenerator gen = getGenerator(satInstance, solutionCount);
 		exec(satInstance, gen, monitor);
 	}
 
 	protected PairWiseConfigurationGenerator getGenerator(SatInstance solver, int solutionCount) {
-		return new PairWiseConfigurationGenerator(solver, solutionCount);
+		if (t == 2) {
+			return new PairWiseConfigurationGenerator(solver, solutionCount);
+		}
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(solver, t, solutionCount);
+		generator.setNumberOfThreads(Runtime.getRuntime().availableProcessors());
+		return generator;
 	}
 
 	protected void exec(final SatInstance satInstance, final PairWiseConfigurationGenerator as, IMonitor monitor) {
@@ -26,6 +26,7 @@ import java.util.LinkedList;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 
 /**
@@ -44,13 +45,26 @@ public class AbstractConfigurationSorter {
 
 	protected boolean sorted = true;
 
+	/**
+	 * Indicates that no more configurations will be added.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * The time in milliseconds after that a waiting producer checks whether it was canceled.
+	 */
+	private static final long CANCEL_CHECK_INTERVAL = 500;
+
 	public AbstractConfigurationSorter(final IFeatureModel featureModel) {
 		concreteFeatures = FeatureUtils.extractConcreteFeaturesAsStringList(featureModel);// TODO move to implementations
 	}
 
 	public int sortConfigurations(final IMonitor monitor) {
 		final int numberOfConfigurations = sort(monitor);
-		sorted = true;
+		synchronized (this) {
+			sorted = true;
+			notifyAll();
+		}
 		return numberOfConfigurations;
 	}
 
@@ -60,13 +74,58 @@ public class AbstractConfigurationSorter {
 
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
 		configurations.add(configuration);
+		notifyAll();
+	}
+
+	/**
+	 * Adds a configuration to the buffer. If the configurations can be built in the order in which they are added, the calling thread waits as long as the
+	 * buffer contains at least <code>bufferCapacity</code> configurations. Sorters that need all configurations before building never block.
+	 *
+	 * @param configuration the configuration
+	 * @param bufferCapacity the maximal number of buffered configurations
+	 * @param monitor the monitor of the producing job
+	 * @throws MethodCancelException if the producing job is canceled while waiting
+	 */
+	public synchronized void addConfiguration(BuilderConfiguration configuration, int bufferCapacity, IMonitor monitor) throws MethodCancelException {
+		while (sorted && (getBufferSize() >= bufferCapacity)) {
+			monitor.checkCancel();
+			try {
+				wait(CANCEL_CHECK_INTERVAL);
+			} catch (final InterruptedException e) {
+				throw new MethodCancelException();
+			}
+		}
+		addConfiguration(configuration);
 	}
 
 	public synchronized BuilderConfiguration getConfiguration() {
 		if (!sorted || configurations.isEmpty()) {
 			return null;
 		}
-		return configurations.pop();
+		final BuilderConfiguration configuration = configurations.pop();
+		notifyAll();
+		return configuration;
+	}
+
+	/**
+	 * Removes the next configuration from the buffer. Waits as long as the buffer is empty or not yet sorted.
+	 *
+	 * @return the next configuration or {@code null} if the sorter was {@link #close() closed} and there are no more configurations to build
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public synchronized BuilderConfiguration takeConfiguration() throws InterruptedException {
+		while (!closed && (!sorted || configurations.isEmpty())) {
+			wait();
+		}
+		return getConfiguration();
+	}
+
+	/**
+	 * Signals that no more configurations will be added and wakes up all threads waiting in {@link #takeConfiguration()}.
+	 */
+	public synchronized void close() {
+		closed = true;
+		notifyAll();
 	}
 
 	public int getBufferSize() {
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.ui.handlers;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.LinkedList;
@@ -28,13 +29,13 @@ import org.prop4j.analyses.FGBuilder;
 import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.core.IFeatureProject;
+import de.ovgu.featureide.fm.core.FMCorePlugin;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
-import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
@@ -62,7 +63,11 @@ public class BuildFeatureGraphHandler extends AFeatureProjectHandler {
 
 				@Override
 				public void jobFinished(IJob<IFeatureGraph> finishedJob) {
-					SimpleFileHandler.save(path, finishedJob.getResults(), new FeatureGraphFormat());
+					try {
+						new FeatureGraphFormat().write(finishedJob.getResults(), path);
+					} catch (final IOException e) {
+						FMCorePlugin.getDefault().logError(e);
+					}
 				}
 			});
 			runner.schedule();
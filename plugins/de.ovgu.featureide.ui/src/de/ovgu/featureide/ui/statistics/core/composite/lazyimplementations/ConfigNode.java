@@ -23,8 +23,11 @@ package de.ovgu.featureide.ui.statistics.core.composite.lazyimplementations;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.MORE_THAN;
 
+import java.math.BigInteger;
+
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator.CountSolutionsMethod;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningJob;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
@@ -61,7 +64,14 @@ public class ConfigNode extends Parent {
 					return "1";
 				}
 
-				final long number = new Configuration(innerModel, false, ignoreAbstract).number(timeout, !ignoreAbstract);
+				final LongRunningMethod<Long> method = new Configuration(innerModel, false, ignoreAbstract).getPropagator().number(timeout, !ignoreAbstract);
+				final long number = LongRunningWrapper.runMethod(method);
+				if (method instanceof CountSolutionsMethod) {
+					final BigInteger exactNumber = ((CountSolutionsMethod) method).getNumberOfSolutions();
+					if (exactNumber != null) {
+						return exactNumber.toString();
+					}
+				}
 
 				return ((number < 0) ? MORE_THAN + (-number - 1) : String.valueOf(number));
 			}
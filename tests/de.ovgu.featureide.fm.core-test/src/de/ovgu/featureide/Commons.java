@@ -22,10 +22,15 @@ package de.ovgu.featureide;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.util.Arrays;
 import java.util.List;
 
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 
 /**
@@ -53,6 +58,29 @@ public class Commons {
 		return loadFeatureModelFromFile(filename, getRemoteOrLocalFolder(TEST_FEATURE_MODEL_PATH));
 	}
 
+	/**
+	 * Loads a benchmark feature model and creates a {@link SatInstance} of its regular CNF. The variables are the feature names in preorder.
+	 *
+	 * @param filename Feature model file, e.g., "100-100.xml"
+	 * @return SAT instance of the loaded feature model
+	 */
+	public final static SatInstance loadBenchmarkSatInstance(final String filename) {
+		final IFeatureModel fm = loadBenchmarkFeatureModelFromFile(filename);
+		return new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), FeatureUtils.getFeatureNamesPreorder(fm));
+	}
+
+	/**
+	 * Returns a sorted copy of the given literals, e.g., to compare literal arrays independently of their order.
+	 *
+	 * @param literals the literals
+	 * @return sorted copy of the literals
+	 */
+	public final static int[] sortLiterals(final int[] literals) {
+		final int[] sorted = Arrays.copyOf(literals, literals.length);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
 	/**
 	 * Loads a feature model from the file <code>featureModelXmlFilename</code> from a given <code>remotePath</code>, or if <code>remotePath</code> is not
 	 * available, from <code>localClassPath</code>. The search for the file excludes files that don't have the same file extension as
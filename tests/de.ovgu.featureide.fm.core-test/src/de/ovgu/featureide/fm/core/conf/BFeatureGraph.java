@@ -0,0 +1,134 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Benchmark that compares build time and (approximate) memory consumption of the {@link MatrixFeatureGraph} and the {@link SparseFeatureGraph} for the feature models in
+ * the <code>featuremodels</code> folder of the repository. The results are printed to the standard output; the test cases do not fail on slow runs.
+ */
+public class BFeatureGraph {
+
+	private static final File MODEL_FOLDER = new File("../../featuremodels");
+
+	private static final int RUNS = 3;
+
+	private static final int ARRAY_HEADER = 16;
+
+	private static final int REFERENCE = 4;
+
+	/**
+	 * @return the approximate size of the arrays that store the edges of the graph
+	 */
+	private static long getMemory(IFeatureGraph featureGraph) {
+		final long size = featureGraph.getSize();
+		if (featureGraph instanceof SparseFeatureGraph) {
+			final SparseFeatureGraph sparseGraph = (SparseFeatureGraph) featureGraph;
+			long memory = (ARRAY_HEADER + (size * REFERENCE)) + (ARRAY_HEADER + (size * 4));
+			for (int from = 0; from < size; from++) {
+				final int numberOfEdges = sparseGraph.getNumberOfEdges(from);
+				if (numberOfEdges > 0) {
+					memory += ARRAY_HEADER + (numberOfEdges * 4L);
+				}
+			}
+			return memory;
+		} else {
+			return ARRAY_HEADER + (size * size);
+		}
+	}
+
+	private static int countEdges(IFeatureGraph featureGraph) {
+		int count = 0;
+		for (int from = 0; from < featureGraph.getSize(); from++) {
+			for (int to = featureGraph.getNextNeighbor(from, 0); to >= 0; to = featureGraph.getNextNeighbor(from, to + 1)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static IFeatureGraph build(SatInstance satInstance, boolean sparse) {
+		final FGBuilder builder = new FGBuilder(satInstance);
+		builder.setSparseGraph(sparse);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+	/**
+	 * @return build time in ms (best of several runs), memory of the graph in bytes, and number of edges
+	 */
+	private static long[] measure(SatInstance satInstance, boolean sparse) {
+		long time = Long.MAX_VALUE;
+		IFeatureGraph featureGraph = null;
+		for (int i = 0; i < RUNS; i++) {
+			final long start = System.nanoTime();
+			featureGraph = build(satInstance, sparse);
+			time = Math.min(time, System.nanoTime() - start);
+		}
+		return new long[] { time / 1000000, getMemory(featureGraph), countEdges(featureGraph) };
+	}
+
+	@Test
+	public void BCompareFeatureGraphs() {
+		final File[] modelFolders = MODEL_FOLDER.listFiles();
+		if (modelFolders == null) {
+			return;
+		}
+		Arrays.sort(modelFolders);
+
+		System.out.println(String.format("%-24s %8s %10s %12s %12s %10s %10s", "Model", "Features", "Edges", "Matrix (B)", "Sparse (B)", "Matrix ms",
+				"Sparse ms"));
+		for (final File modelFolder : modelFolders) {
+			final File modelFile = new File(modelFolder, "model.xml");
+			if (!modelFile.isFile()) {
+				continue;
+			}
+			final IFeatureModel fm = FeatureModelManager.load(modelFile.toPath()).getObject();
+			if (fm == null) {
+				continue;
+			}
+			final SatInstance satInstance = new SatInstance(AdvancedNodeCreator.createRegularCNF(fm),
+					Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+
+			final long[] matrixResult = measure(satInstance, false);
+			final long[] sparseResult = measure(satInstance, true);
+			assertEquals(modelFolder.getName(), matrixResult[2], sparseResult[2]);
+
+			System.out.println(String.format("%-24s %8d %10d %12d %12d %10d %10d", modelFolder.getName(), fm.getNumberOfFeatures(), sparseResult[2],
+					matrixResult[1], sparseResult[1], matrixResult[0], sparseResult[0]));
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link SparseFeatureGraph}.
+ */
+public class TSparseFeatureGraph {
+
+	private static final byte[] EDGE_TYPES = { AFeatureGraph.EDGE_NONE, AFeatureGraph.EDGE_00Q, AFeatureGraph.EDGE_01Q, AFeatureGraph.EDGE_10Q,
+		AFeatureGraph.EDGE_11Q, AFeatureGraph.EDGE_00, AFeatureGraph.EDGE_01, AFeatureGraph.EDGE_10, AFeatureGraph.EDGE_11 };
+
+	private static IFeatureGraph buildGraph(IFeatureModel fm, boolean sparse) {
+		final SatInstance sat = new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+		final FGBuilder builder = new FGBuilder(sat);
+		builder.setSparseGraph(sparse);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+	private static void assertSameEdges(IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		for (int from = 0; from < expected.getSize(); from++) {
+			int next = actual.getNextNeighbor(from, 0);
+			for (int to = 0; to < expected.getSize(); to++) {
+				final byte edge = expected.getEdge(from, to);
+				assertEquals(edge, actual.getEdge(from, to));
+				assertEquals(expected.getValue(from, to, true), actual.getValue(from, to, true));
+				assertEquals(expected.getValue(from, to, false), actual.getValue(from, to, false));
+				if (edge != AFeatureGraph.EDGE_NONE) {
+					assertEquals(to, next);
+					next = actual.getNextNeighbor(from, to + 1);
+				}
+			}
+			assertEquals(-1, next);
+		}
+	}
+
+	@Test
+	public void testSetEdgeEqualsMatrix() {
+		final int size = 30;
+		final int[] index = new int[size];
+		for (int i = 0; i < size; i++) {
+			index[i] = i;
+		}
+		final MatrixFeatureGraph matrixGraph = new MatrixFeatureGraph(null, index);
+		final SparseFeatureGraph sparseGraph = new SparseFeatureGraph(null, index);
+
+		final Random random = new Random(0);
+		for (int i = 0; i < 5000; i++) {
+			final int from = random.nextInt(size);
+			final int to = random.nextInt(size);
+			final byte edgeType = EDGE_TYPES[random.nextInt(EDGE_TYPES.length)];
+			// strong edges for both selections of the target are not consistent
+			final byte oldEdge = matrixGraph.getEdge(from, to);
+			if (((edgeType == AFeatureGraph.EDGE_00) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_01))
+				|| ((edgeType == AFeatureGraph.EDGE_01) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_00))
+				|| ((edgeType == AFeatureGraph.EDGE_10) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_11))
+				|| ((edgeType == AFeatureGraph.EDGE_11) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_10))) {
+				continue;
+			}
+			assertEquals(matrixGraph.setEdge(from, to, edgeType), sparseGraph.setEdge(from, to, edgeType));
+		}
+		assertSameEdges(matrixGraph, sparseGraph);
+
+		sparseGraph.trimToSize();
+		assertSameEdges(matrixGraph, sparseGraph);
+
+		final SparseFeatureGraph copiedGraph = new SparseFeatureGraph();
+		copiedGraph.copyValues(matrixGraph);
+		assertSameEdges(matrixGraph, copiedGraph);
+	}
+
+	@Test
+	public void testSetEdgeAfterTrimToSize() {
+		final int size = 10;
+		final int[] index = new int[size];
+		for (int i = 0; i < size; i++) {
+			index[i] = i;
+		}
+		final MatrixFeatureGraph matrixGraph = new MatrixFeatureGraph(null, index);
+		final SparseFeatureGraph sparseGraph = new SparseFeatureGraph(null, index);
+
+		// trimmed rows with zero, one, and two entries
+		matrixGraph.setEdge(1, 5, AFeatureGraph.EDGE_11);
+		sparseGraph.setEdge(1, 5, AFeatureGraph.EDGE_11);
+		matrixGraph.setEdge(2, 3, AFeatureGraph.EDGE_10Q);
+		sparseGraph.setEdge(2, 3, AFeatureGraph.EDGE_10Q);
+		matrixGraph.setEdge(2, 7, AFeatureGraph.EDGE_01);
+		sparseGraph.setEdge(2, 7, AFeatureGraph.EDGE_01);
+		sparseGraph.trimToSize();
+		assertSameEdges(matrixGraph, sparseGraph);
+
+		for (int from = 0; from < 3; from++) {
+			for (int to = 0; to < size; to++) {
+				if (matrixGraph.getEdge(from, to) == AFeatureGraph.EDGE_NONE) {
+					assertEquals(matrixGraph.setEdge(from, to, AFeatureGraph.EDGE_00Q), sparseGraph.setEdge(from, to, AFeatureGraph.EDGE_00Q));
+				}
+			}
+		}
+		assertSameEdges(matrixGraph, sparseGraph);
+	}
+
+	@Test
+	public void testBuilderEqualsMatrix() {
+		for (final String name : new String[] { "10-100.xml", "50-100.xml", "100-100.xml", "200-100-hidden.xml", "berkeley_db_model.xml" }) {
+			final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(name);
+			final IFeatureGraph matrixGraph = buildGraph(fm, false);
+			final IFeatureGraph sparseGraph = buildGraph(fm, true);
+			assertEquals(SparseFeatureGraph.class, sparseGraph.getClass());
+			assertSameEdges(matrixGraph, sparseGraph);
+		}
+	}
+
+}
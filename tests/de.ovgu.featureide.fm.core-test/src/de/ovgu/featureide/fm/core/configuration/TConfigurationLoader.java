@@ -0,0 +1,196 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
+import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
+import de.ovgu.featureide.fm.core.configuration.io.ISelectionLoaderCallback;
+
+/**
+ * Tests for {@link ConfigurationLoader}.
+ */
+public class TConfigurationLoader {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+	private static final String EXCLUDED_FILE = "0.config";
+
+	private IFeatureModel fm;
+	private Path directory;
+	private final List<Path> files = new ArrayList<>();
+
+	@Before
+	public void createConfigurations() throws IOException {
+		fm = Commons.loadBenchmarkFeatureModelFromFile("50-100.xml");
+		directory = Files.createTempDirectory("configurations");
+		final Random random = new Random(0);
+		for (int i = 0; i < 40; i++) {
+			final StringBuilder sb = new StringBuilder();
+			for (final IFeature feature : fm.getFeatures()) {
+				if (random.nextBoolean()) {
+					sb.append(feature.getName()).append('\n');
+				}
+			}
+			final Path file = directory.resolve(i + ".config");
+			Files.write(file, sb.toString().getBytes(CHARSET));
+			files.add(file);
+		}
+	}
+
+	@After
+	public void deleteConfigurations() throws IOException {
+		for (final Path file : files) {
+			Files.deleteIfExists(file);
+		}
+		Files.deleteIfExists(directory);
+	}
+
+	private static Set<String> getSelectedFeatures(Configuration configuration) {
+		final Set<String> selectedFeatures = new TreeSet<>();
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			if (feature.getSelection() == Selection.SELECTED) {
+				selectedFeatures.add(feature.getName());
+			}
+		}
+		return selectedFeatures;
+	}
+
+	private Map<Path, Set<String>> loadConfigurations(int numberOfThreads, boolean collect) {
+		final Map<Path, Set<String>> selections = new HashMap<>();
+		final Thread callingThread = Thread.currentThread();
+		final ConfigurationLoader loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
+
+			@Override
+			public void onLoadingStarted() {}
+
+			@Override
+			public void onConfigurationLoaded(Configuration configuration, Path path) {
+				assertSame(callingThread, Thread.currentThread());
+				assertTrue(selections.put(path, getSelectedFeatures(configuration)) == null);
+			}
+
+			@Override
+			public void onLoadingFinished() {}
+
+			@Override
+			public void onLoadingError(IOException exception) {}
+		});
+		loader.setNumberOfThreads(numberOfThreads);
+		loader.setQueueCapacity(2);
+		loader.setCollectConfigurations(collect);
+		final List<Configuration> configurations = loader.loadConfigurations(fm, directory, EXCLUDED_FILE);
+		assertEquals(collect ? selections.size() : 0, configurations.size());
+		return selections;
+	}
+
+	private Map<Path, Set<String>> loadSelections(int numberOfThreads) {
+		final Map<Path, Set<String>> selections = new HashMap<>();
+		final List<String> names = new ArrayList<>();
+		final ConfigurationLoader loader = new ConfigurationLoader();
+		loader.setNumberOfThreads(numberOfThreads);
+		loader.setQueueCapacity(2);
+		loader.loadSelections(fm, directory, EXCLUDED_FILE, new ISelectionLoaderCallback() {
+
+			@Override
+			public void onLoadingStarted(List<String> featureNames) {
+				names.addAll(featureNames);
+			}
+
+			@Override
+			public void onSelectionLoaded(BitSet selection, Path path) {
+				final Set<String> selectedFeatures = new TreeSet<>();
+				for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+					selectedFeatures.add(names.get(i));
+				}
+				assertTrue(selections.put(path, selectedFeatures) == null);
+			}
+
+			@Override
+			public void onLoadingFinished() {}
+
+			@Override
+			public void onLoadingError(IOException exception) {}
+		});
+		return selections;
+	}
+
+	@Test
+	public void testParallelLoading() {
+		final Map<Path, Set<String>> expected = loadConfigurations(1, true);
+		assertEquals(files.size() - 1, expected.size());
+		assertFalse(expected.containsKey(directory.resolve(EXCLUDED_FILE)));
+
+		assertEquals(expected, loadConfigurations(3, true));
+		assertEquals(expected, loadConfigurations(3, false));
+	}
+
+	@Test
+	public void testSelections() {
+		final Map<Path, Set<String>> expected = loadConfigurations(1, true);
+		assertEquals(expected, loadSelections(1));
+		assertEquals(expected, loadSelections(3));
+	}
+
+	@Test
+	public void testMatrixUpdate() throws IOException {
+		final ConfigurationMatrix matrix = new ConfigurationMatrix(fm, directory);
+		matrix.readConfigurations(EXCLUDED_FILE);
+		assertEquals(files.size() - 1, matrix.getSelectionMatrix().getNumberOfConfigurations());
+		assertFalse(matrix.update(EXCLUDED_FILE));
+
+		final Path newFile = directory.resolve(files.size() + ".config");
+		Files.write(newFile, fm.getFeatures().iterator().next().getName().getBytes(CHARSET));
+		files.add(newFile);
+		assertTrue(matrix.update(EXCLUDED_FILE));
+		assertEquals(files.size() - 1, matrix.getSelectionMatrix().getNumberOfConfigurations());
+
+		Files.delete(files.get(1));
+		assertTrue(matrix.update(EXCLUDED_FILE));
+		assertEquals(files.size() - 2, matrix.getSelectionMatrix().getNumberOfConfigurations());
+		assertFalse(matrix.getSelectionMatrix().contains(files.get(1)));
+		assertFalse(matrix.update(EXCLUDED_FILE));
+	}
+
+}
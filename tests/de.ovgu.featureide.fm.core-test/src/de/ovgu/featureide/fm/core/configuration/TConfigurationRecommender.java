@@ -0,0 +1,166 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConfigurationRecommender}.
+ */
+public class TConfigurationRecommender {
+
+	private static SelectionMatrix createMatrix(Random random, int numberOfFeatures, int numberOfRows) {
+		final List<String> featureNames = new ArrayList<>();
+		for (int i = 0; i < numberOfFeatures; i++) {
+			featureNames.add("F" + i);
+		}
+		final SelectionMatrix matrix = new SelectionMatrix(featureNames);
+		for (int j = 0; j < numberOfRows; j++) {
+			matrix.set(Paths.get("config" + j), createSelection(random, numberOfFeatures));
+		}
+		return matrix;
+	}
+
+	private static boolean[] createSelection(Random random, int numberOfFeatures) {
+		final boolean[] selection = new boolean[numberOfFeatures];
+		for (int i = 0; i < numberOfFeatures; i++) {
+			selection[i] = random.nextInt(3) == 0;
+		}
+		return selection;
+	}
+
+	private static int getSimilarity(SelectionMatrix matrix, Path configuration, boolean[] selection) {
+		int similarity = 0;
+		for (int i = 0; i < selection.length; i++) {
+			if (matrix.isSelected(configuration, i) == selection[i]) {
+				similarity++;
+			}
+		}
+		return similarity;
+	}
+
+	@Test
+	public void testIncrementalUpdates() {
+		final Random random = new Random(0);
+		final SelectionMatrix matrix = createMatrix(random, 90, 300);
+		final ConfigurationRecommender recommender = new ConfigurationRecommender(matrix);
+
+		final boolean[] selection = createSelection(random, 90);
+		recommender.setSelection(selection);
+		assertArrayEquals(matrix.getRecommendations(selection), recommender.getRecommendations(), 0);
+
+		for (int k = 0; k < 100; k++) {
+			if ((k % 10) == 0) {
+				// many changes at once
+				for (int i = 0; i < selection.length; i++) {
+					selection[i] ^= random.nextBoolean();
+				}
+				recommender.setSelection(selection);
+			} else if ((k % 2) == 0) {
+				final int feature = random.nextInt(selection.length);
+				selection[feature] = !selection[feature];
+				recommender.setSelected(feature, selection[feature]);
+			} else {
+				selection[random.nextInt(selection.length)] ^= true;
+				selection[random.nextInt(selection.length)] ^= true;
+				recommender.setSelection(selection);
+			}
+			assertArrayEquals(matrix.getRecommendations(selection), recommender.getRecommendations(), 0);
+			for (final Path configuration : matrix.getConfigurations().subList(0, 10)) {
+				final int row = matrix.getConfigurations().indexOf(configuration);
+				assertEquals(getSimilarity(matrix, configuration, selection), recommender.getSimilarity(row));
+			}
+		}
+	}
+
+	@Test
+	public void testParallel() {
+		final Random random = new Random(1);
+		final SelectionMatrix matrix = createMatrix(random, 130, 1000);
+		final ConfigurationRecommender recommender = new ConfigurationRecommender(matrix);
+		recommender.setNumberOfThreads(4);
+		recommender.setMinRowsPerThread(16);
+		for (int k = 0; k < 5; k++) {
+			final boolean[] selection = createSelection(random, 130);
+			recommender.setSelection(selection);
+			assertArrayEquals(matrix.getRecommendations(selection), recommender.getRecommendations(), 0);
+		}
+	}
+
+	@Test
+	public void testComplementSelection() {
+		final Random random = new Random(3);
+		final boolean[] stored = createSelection(random, 10);
+		final List<String> featureNames = new ArrayList<>();
+		for (int i = 0; i < stored.length; i++) {
+			featureNames.add("F" + i);
+		}
+		final SelectionMatrix matrix = new SelectionMatrix(featureNames);
+		matrix.set(Paths.get("config0"), stored);
+		matrix.set(Paths.get("config1"), stored.clone());
+
+		final boolean[] selection = new boolean[stored.length];
+		final double[] expected = new double[stored.length];
+		for (int i = 0; i < stored.length; i++) {
+			selection[i] = !stored[i];
+			expected[i] = 1;
+		}
+		final ConfigurationRecommender recommender = new ConfigurationRecommender(matrix);
+		recommender.setSelection(selection);
+		assertArrayEquals(expected, recommender.getRecommendations(), 0);
+		assertArrayEquals(expected, matrix.getRecommendations(selection), 0);
+	}
+
+	@Test
+	public void testNearestConfigurations() {
+		final Random random = new Random(2);
+		final SelectionMatrix matrix = createMatrix(random, 20, 200);
+		final ConfigurationRecommender recommender = new ConfigurationRecommender(matrix);
+		final boolean[] selection = createSelection(random, 20);
+		recommender.setSelection(selection);
+
+		final List<Path> nearest = recommender.getNearestConfigurations(15);
+		assertEquals(15, nearest.size());
+		int minSimilarity = Integer.MAX_VALUE;
+		for (int i = 0; i < nearest.size(); i++) {
+			final int similarity = getSimilarity(matrix, nearest.get(i), selection);
+			assertTrue(similarity <= minSimilarity);
+			minSimilarity = similarity;
+		}
+		for (final Path configuration : matrix.getConfigurations()) {
+			if (!nearest.contains(configuration)) {
+				assertTrue(getSimilarity(matrix, configuration, selection) <= minSimilarity);
+			}
+		}
+		assertEquals(200, recommender.getNearestConfigurations(1000).size());
+	}
+
+}
@@ -0,0 +1,183 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.solver.SatInstance;
+import org.prop4j.solver.SolutionSampler;
+import org.prop4j.solver.SolutionSampler.Mode;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link ConfigurationValidator}.
+ */
+public class TConfigurationValidator {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private IFeatureModel fm;
+	private Path directory;
+	private final List<Path> files = new ArrayList<>();
+
+	@Before
+	public void createConfigurations() throws IOException {
+		fm = Commons.loadBenchmarkFeatureModelFromFile("50-100.xml");
+		directory = Files.createTempDirectory("configurations");
+
+		final SatInstance si = new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), FeatureUtils.getFeatureNamesPreorder(fm));
+		final Iterator<int[]> solutions = new SolutionSampler(si, Mode.FAST, 0).iterator();
+		final Random random = new Random(0);
+		for (int i = 0; i < 20; i++) {
+			final StringBuilder sb = new StringBuilder();
+			if ((i % 2) == 0) {
+				for (final int literal : solutions.next()) {
+					final String name = (String) si.getVariableObject(literal);
+					if ((literal > 0) && fm.getFeature(name).getStructure().isConcrete()) {
+						sb.append(name).append('\n');
+					}
+				}
+			} else {
+				for (final IFeature feature : fm.getFeatures()) {
+					if (feature.getStructure().isConcrete() && random.nextBoolean()) {
+						sb.append(feature.getName()).append('\n');
+					}
+				}
+			}
+			files.add(write(directory.resolve(i + ".config"), sb.toString()));
+		}
+	}
+
+	@After
+	public void deleteConfigurations() throws IOException {
+		for (final Path file : files) {
+			Files.deleteIfExists(file);
+		}
+		Files.deleteIfExists(directory);
+	}
+
+	private static Path write(Path file, String content) throws IOException {
+		return Files.write(file, content.getBytes(CHARSET));
+	}
+
+	private void checkResults(List<ConfigurationValidator.Result> results) {
+		assertEquals(files.size(), results.size());
+		for (int i = 0; i < files.size(); i++) {
+			final Configuration config = new Configuration(fm, false, false);
+			SimpleFileHandler.load(files.get(i), config, ConfigFormatManager.getInstance());
+			assertEquals(files.get(i), results.get(i).getPath());
+			assertEquals(files.get(i).toString(), config.isValid(), results.get(i).isValid());
+		}
+	}
+
+	@Test
+	public void testValidity() {
+		final List<ConfigurationValidator.Result> results = new ConfigurationValidator().validate(fm, files, new NullMonitor());
+		checkResults(results);
+
+		int validCount = 0;
+		for (final ConfigurationValidator.Result result : results) {
+			if (result.isValid()) {
+				validCount++;
+			}
+		}
+		assertTrue(validCount >= (files.size() / 2));
+		assertTrue(validCount < files.size());
+	}
+
+	@Test
+	public void testParallel() {
+		final ConfigurationValidator validator = new ConfigurationValidator();
+		validator.setNumberOfThreads(3);
+		checkResults(validator.validate(fm, files, new NullMonitor()));
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		final ConfigurationValidator validator = new ConfigurationValidator();
+		final List<ConfigurationValidator.Result> results1 = validator.validate(fm, files, new NullMonitor());
+
+		// unchanged files are not checked again
+		write(files.get(1), new String(Files.readAllBytes(files.get(0)), CHARSET));
+		final List<ConfigurationValidator.Result> results2 = validator.validate(fm, files, new NullMonitor());
+		checkResults(results2);
+		for (int i = 0; i < files.size(); i++) {
+			if (i == 1) {
+				assertNotSame(results1.get(i), results2.get(i));
+				assertTrue(results2.get(i).isValid());
+			} else {
+				assertSame(results1.get(i), results2.get(i));
+			}
+		}
+
+		// a change of the feature model invalidates all results
+		String selectedFeature = null;
+		for (final String name : new String(Files.readAllBytes(files.get(0)), CHARSET).split("\n")) {
+			if (!fm.getStructure().getRoot().getFeature().getName().equals(name) && !FeatureUtils.isMandatory(fm.getFeature(name))) {
+				selectedFeature = name;
+				break;
+			}
+		}
+		fm.addConstraint(FMFactoryManager.getFactory(fm).createConstraint(fm, new Literal(selectedFeature, false)));
+		final List<ConfigurationValidator.Result> results3 = validator.validate(fm, files, new NullMonitor());
+		checkResults(results3);
+		for (int i = 0; i < files.size(); i++) {
+			assertNotSame(results2.get(i), results3.get(i));
+		}
+		assertFalse(results3.get(0).isValid());
+	}
+
+	@Test
+	public void testVoidModel() {
+		final String rootName = fm.getStructure().getRoot().getFeature().getName();
+		fm.addConstraint(FMFactoryManager.getFactory(fm).createConstraint(fm, new And(new Literal(rootName, false))));
+		assertNull(new ConfigurationValidator().validate(fm, files, new NullMonitor()));
+	}
+
+}
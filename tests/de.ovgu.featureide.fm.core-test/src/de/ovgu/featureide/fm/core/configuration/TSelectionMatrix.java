@@ -0,0 +1,235 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Tests for {@link SelectionMatrix}.
+ */
+public class TSelectionMatrix {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private static List<String> createFeatureNames(int numberOfFeatures) {
+		final List<String> featureNames = new ArrayList<>();
+		for (int i = 0; i < numberOfFeatures; i++) {
+			featureNames.add("F" + i);
+		}
+		return featureNames;
+	}
+
+	private static boolean[] createSelection(Random random, int numberOfFeatures) {
+		final boolean[] selection = new boolean[numberOfFeatures];
+		for (int i = 0; i < numberOfFeatures; i++) {
+			selection[i] = random.nextInt(4) == 0;
+		}
+		return selection;
+	}
+
+	/**
+	 * The former computation of ConfigurationMatrix.calcRec.
+	 */
+	private static double[] computeRecommendations(List<boolean[]> rows, boolean[] selection) {
+		final double[] rec = new double[selection.length];
+		final int[] w = new int[rows.size()];
+		int wSum = 0;
+		for (int j = 0; j < rows.size(); j++) {
+			int delta = 0;
+			for (int i = 0; i < selection.length; i++) {
+				if (rows.get(j)[i] == selection[i]) {
+					delta++;
+				}
+			}
+			w[j] = delta;
+			wSum += delta;
+		}
+		for (int i = 0; i < rec.length; i++) {
+			int fSum = 0;
+			for (int j = 0; j < w.length; j++) {
+				fSum += (rows.get(j)[i] ? 1 : 0) * w[j];
+			}
+			final double recValue = ((double) fSum) / wSum;
+			rec[i] = selection[i] ? 1 - recValue : recValue;
+		}
+		return rec;
+	}
+
+	private static void checkMatrix(SelectionMatrix matrix, Map<Path, boolean[]> rows, List<String> featureNames) {
+		assertEquals(rows.size(), matrix.getNumberOfConfigurations());
+		final List<String> unused = new ArrayList<>();
+		final List<String> alwaysSelected = new ArrayList<>();
+		for (int i = 0; i < featureNames.size(); i++) {
+			int count = 0;
+			for (final Entry<Path, boolean[]> entry : rows.entrySet()) {
+				assertEquals(entry.getValue()[i], matrix.isSelected(entry.getKey(), i));
+				if (entry.getValue()[i]) {
+					count++;
+				}
+			}
+			assertEquals(count, matrix.getSelectionCount(i));
+			if (count == 0) {
+				unused.add(featureNames.get(i));
+			}
+			if (count == rows.size()) {
+				alwaysSelected.add(featureNames.get(i));
+			}
+		}
+		if (!rows.isEmpty()) {
+			assertEquals(unused, matrix.getUnusedFeatures(featureNames));
+			assertEquals(alwaysSelected, matrix.getAlwaysSelectedFeatures(featureNames));
+		}
+	}
+
+	@Test
+	public void testQueries() {
+		final Random random = new Random(0);
+		final List<String> featureNames = createFeatureNames(30);
+		final SelectionMatrix matrix = new SelectionMatrix(featureNames);
+		final Map<Path, boolean[]> rows = new LinkedHashMap<>();
+
+		for (int i = 0; i < 300; i++) {
+			final Path path = Paths.get("config" + random.nextInt(200));
+			if (random.nextInt(4) == 0) {
+				assertEquals(rows.remove(path) != null, matrix.remove(path));
+			} else {
+				final boolean[] selection = createSelection(random, featureNames.size());
+				rows.put(path, selection);
+				matrix.set(path, selection);
+			}
+			if ((i % 20) == 0) {
+				checkMatrix(matrix, rows, featureNames);
+			}
+		}
+		checkMatrix(matrix, rows, featureNames);
+
+		matrix.retainAll(new ArrayList<>(rows.keySet()).subList(0, 10));
+		rows.keySet().retainAll(new ArrayList<>(rows.keySet()).subList(0, 10));
+		checkMatrix(matrix, rows, featureNames);
+	}
+
+	@Test
+	public void testRecommendations() {
+		final Random random = new Random(1);
+		final List<String> featureNames = createFeatureNames(70);
+		for (final int numberOfRows : new int[] { 1, 63, 64, 65, 500 }) {
+			final SelectionMatrix matrix = new SelectionMatrix(featureNames);
+			final List<boolean[]> rows = new ArrayList<>();
+			for (int j = 0; j < numberOfRows; j++) {
+				final boolean[] selection = createSelection(random, featureNames.size());
+				rows.add(selection);
+				matrix.set(Paths.get("config" + j), selection);
+			}
+			for (int k = 0; k < 5; k++) {
+				final boolean[] selection = createSelection(random, featureNames.size());
+				assertArrayEquals(computeRecommendations(rows, selection), matrix.getRecommendations(selection), 0);
+			}
+		}
+		assertNull(new SelectionMatrix(featureNames).getRecommendations(new boolean[featureNames.size()]));
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		final Random random = new Random(2);
+		final List<String> featureNames = createFeatureNames(10);
+		final SelectionMatrix matrix = new SelectionMatrix(featureNames);
+		final Map<Path, boolean[]> rows = new LinkedHashMap<>();
+		for (int j = 0; j < 100; j++) {
+			final Path path = Paths.get("config" + j);
+			final boolean[] selection = createSelection(random, featureNames.size());
+			rows.put(path, selection);
+			matrix.set(path, selection);
+		}
+
+		final Path cacheFile = Files.createTempFile("selectionMatrix", ".cache");
+		try {
+			matrix.writeCache(cacheFile);
+			final SelectionMatrix cachedMatrix = SelectionMatrix.readCache(cacheFile, featureNames);
+			assertEquals(matrix.getConfigurations(), cachedMatrix.getConfigurations());
+			checkMatrix(cachedMatrix, rows, featureNames);
+
+			assertNull(SelectionMatrix.readCache(cacheFile, createFeatureNames(11)));
+		} finally {
+			Files.deleteIfExists(cacheFile);
+		}
+		assertNull(SelectionMatrix.readCache(cacheFile, featureNames));
+	}
+
+	@Test
+	public void testUpdate() throws IOException {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("20-100.xml");
+		final List<String> featureNames = FeatureUtils.getFeatureNamesPreorder(fm);
+		final Path directory = Files.createTempDirectory("configurations");
+		final Path file1 = directory.resolve("1.config");
+		final Path file2 = directory.resolve("2.config");
+		final String feature1 = featureNames.get(featureNames.size() - 1);
+		final String feature2 = featureNames.get(featureNames.size() - 2);
+		try {
+			Files.write(file1, (feature1 + "\n").getBytes(CHARSET));
+			Files.write(file2, (feature1 + "\n" + feature2 + "\n").getBytes(CHARSET));
+
+			final SelectionMatrix matrix = new SelectionMatrix(featureNames);
+			assertTrue(matrix.updateAll(Arrays.asList(file1, file2), fm));
+			assertFalse(matrix.updateAll(Arrays.asList(file1, file2), fm));
+			assertEquals(2, matrix.getSelectionCount(matrix.getFeatureIndex(feature1)));
+			assertEquals(1, matrix.getSelectionCount(matrix.getFeatureIndex(feature2)));
+
+			Files.write(file1, (feature2 + "\n").getBytes(CHARSET));
+			assertTrue(matrix.update(file1, fm));
+			assertEquals(1, matrix.getSelectionCount(matrix.getFeatureIndex(feature1)));
+			assertEquals(2, matrix.getSelectionCount(matrix.getFeatureIndex(feature2)));
+
+			Files.delete(file2);
+			assertTrue(matrix.update(file2, fm));
+			assertEquals(1, matrix.getNumberOfConfigurations());
+			assertEquals(Arrays.asList(feature1), matrix.getUnusedFeatures(Arrays.asList(feature1)));
+			assertEquals(Arrays.asList(feature2), matrix.getAlwaysSelectedFeatures(Arrays.asList(feature1, feature2)));
+		} finally {
+			Files.deleteIfExists(file1);
+			Files.deleteIfExists(file2);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+}
@@ -0,0 +1,225 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.analyses.CoreDeadAnalysis;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link TseitinEncoder} and {@link CNFType#Tseitin}.
+ */
+public class TTseitinEncoder {
+
+	private static final List<String> VARIABLES = Arrays.asList("A", "B", "C", "D", "E", "F");
+
+	private static Node createFormula(Random random, List<String> variables, int depth) {
+		if ((depth == 0) || (random.nextInt(5) == 0)) {
+			return new Literal(variables.get(random.nextInt(variables.size())), random.nextBoolean());
+		}
+		final Node[] children = new Node[2 + random.nextInt(2)];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createFormula(random, variables, depth - 1);
+		}
+		switch (random.nextInt(7)) {
+		case 0:
+			return new Or(children);
+		case 1:
+			return new Not(new And(children));
+		case 2:
+			return new Implies(children[0], children[1]);
+		case 3:
+			return new Equals(children[0], children[1]);
+		case 4:
+			return new AtMost(1, children);
+		case 5:
+			return new AtLeast(2, children);
+		default:
+			return new And(children);
+		}
+	}
+
+	private static SatInstance encode(Node formula, boolean positive, TseitinEncoder encoder) {
+		final List<Node> clauses = encoder.encode(formula, positive, new ArrayList<Node>());
+		for (final Node clause : clauses) {
+			assertTrue(clause instanceof Or);
+			for (final Node literal : clause.getChildren()) {
+				assertTrue(literal instanceof Literal);
+			}
+		}
+		return new SatInstance(new And(clauses.toArray(new Node[0])), VARIABLES, encoder.getAuxiliaryVariables());
+	}
+
+	/**
+	 * Checks for each assignment of the original variables, whether the encoding is satisfiable iff the formula is satisfied.
+	 */
+	private static void assertEquisatisfiable(Node formula, boolean positive) throws ContradictionException {
+		assertEquisatisfiable(formula, formula, positive);
+	}
+
+	private static void assertEquisatisfiable(Node formula, Node reference, boolean positive) throws ContradictionException {
+		final SatInstance satInstance = encode(formula, positive, new TseitinEncoder());
+		final BasicSolver solver;
+		try {
+			solver = new BasicSolver(satInstance);
+		} catch (final ContradictionException e) {
+			for (int i = 0; i < (1 << VARIABLES.size()); i++) {
+				assertFalse(formula.toString(), reference.getValue(createAssignment(i)) == positive);
+			}
+			return;
+		}
+		for (int i = 0; i < (1 << VARIABLES.size()); i++) {
+			for (int j = 0; j < VARIABLES.size(); j++) {
+				solver.assignmentPush(((i & (1 << j)) != 0) ? j + 1 : -(j + 1));
+			}
+			final boolean expected = reference.getValue(createAssignment(i)) == positive;
+			assertEquals(formula.toString(), expected ? SatResult.TRUE : SatResult.FALSE, solver.isSatisfiable());
+			solver.assignmentClear(0);
+		}
+	}
+
+	private static Map<Object, Boolean> createAssignment(int bits) {
+		final Map<Object, Boolean> assignment = new HashMap<>();
+		for (int j = 0; j < VARIABLES.size(); j++) {
+			assignment.put(VARIABLES.get(j), (bits & (1 << j)) != 0);
+		}
+		return assignment;
+	}
+
+	@Test
+	public void testRandomFormulas() throws ContradictionException {
+		final Random random = new Random(0);
+		for (int i = 0; i < 300; i++) {
+			final Node formula = createFormula(random, VARIABLES, 4);
+			final String original = formula.toString();
+			assertEquisatisfiable(formula, true);
+			assertEquisatisfiable(formula, false);
+			assertEquals(original, formula.toString());
+		}
+	}
+
+	@Test
+	public void testChoose() throws ContradictionException {
+		final Random random = new Random(2);
+		for (int i = 0; i < 50; i++) {
+			final Node[] children = new Node[2 + random.nextInt(3)];
+			for (int j = 0; j < children.length; j++) {
+				children[j] = createFormula(random, VARIABLES, 2);
+			}
+			final int n = 1 + random.nextInt(children.length);
+			final Node formula = new Or(new Choose(n, children), new Literal("A"));
+			final Node reference = new Or(new And(new AtMost(n, children), new AtLeast(n, children)), new Literal("A"));
+			assertEquisatisfiable(formula, reference, true);
+			assertEquisatisfiable(formula, reference, false);
+		}
+	}
+
+	@Test
+	public void testTopLevelClauses() {
+		final TseitinEncoder encoder = new TseitinEncoder();
+		final List<Node> clauses = encoder.encode(new Implies(new And("A", "B"), new Or("C", new Not("D"))), true, new ArrayList<Node>());
+		assertEquals(1, clauses.size());
+		assertEquals(new Or(new Literal("A", false), new Literal("B", false), new Literal("C"), new Literal("D", false)).toString(),
+				clauses.get(0).toString().replace("(", "").replace(")", ""));
+		assertTrue(encoder.getAuxiliaryVariables().isEmpty());
+	}
+
+	@Test
+	public void testLinearSize() {
+		// (A1 & B1) | ... | (A30 & B30) has 2^30 clauses in a regular CNF
+		final Node[] conjunctions = new Node[30];
+		for (int i = 0; i < conjunctions.length; i++) {
+			conjunctions[i] = new And("A" + i, "B" + i);
+		}
+		final TseitinEncoder encoder = new TseitinEncoder(Arrays.asList(TseitinEncoder.DEFAULT_PREFIX + 0));
+		final List<Node> clauses = encoder.encode(new Or(conjunctions), true, new ArrayList<Node>());
+		assertEquals(1 + (2 * conjunctions.length), clauses.size());
+		assertEquals(conjunctions.length, encoder.getAuxiliaryVariables().size());
+		assertFalse(encoder.getAuxiliaryVariables().contains(TseitinEncoder.DEFAULT_PREFIX + 0));
+	}
+
+	@Test
+	public void testFeatureModel() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("10-100.xml");
+		final List<String> featureNames = FeatureUtils.getFeatureNamesPreorder(fm);
+		final Random random = new Random(4);
+		for (int i = 0; i < 3; i++) {
+			fm.addConstraint(FMFactoryManager.getFactory(fm).createConstraint(fm, createFormula(random, featureNames, 3)));
+		}
+
+		final SatInstance regular = new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), featureNames);
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Tseitin);
+		nodeCreator.setIncludeBooleanValues(false);
+		final Node cnf = nodeCreator.createNodes();
+		final List<String> auxiliaryVariables = nodeCreator.getAuxiliaryVariables();
+		assertFalse(auxiliaryVariables.isEmpty());
+		final SatInstance tseitin = new SatInstance(cnf, featureNames, auxiliaryVariables);
+		assertEquals(featureNames.size(), tseitin.getNumberOfFeatureVariables());
+		assertEquals(featureNames.size() + auxiliaryVariables.size(), tseitin.getNumberOfVariables());
+		assertTrue(tseitin.isAuxiliaryVariable(-tseitin.getNumberOfVariables()));
+
+		final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(regular));
+		final int[] actual = LongRunningWrapper.runMethod(new CoreDeadAnalysis(tseitin));
+		Arrays.sort(expected);
+		Arrays.sort(actual);
+		assertArrayEquals(expected, actual);
+
+		final int[] model = new int[tseitin.getNumberOfVariables()];
+		for (int i = 0; i < model.length; i++) {
+			model[i] = i + 1;
+		}
+		assertEquals(featureNames, tseitin.convertToString(model));
+	}
+
+}
@@ -0,0 +1,141 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.explanations.Explanation;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link FeatureModelExplanationJob}.
+ */
+public class FeatureModelExplanationJobTests {
+
+	@Test
+	public void testSameAsSingleExplanations() throws Exception {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final FeatureModelExplanationCreatorFactory factory = FeatureModelExplanationCreatorFactory.getDefault();
+		final IFeature[] deadFeatures = { fm.getFeature("Bluetooth"), fm.getFeature("Manual") };
+		final IFeature[] falseOptionalFeatures = { fm.getFeature("Automatic"), fm.getFeature("Navigation"), fm.getFeature("Ports"), fm.getFeature("USB") };
+		final IConstraint[] redundantConstraints = { fm.getConstraints().get(0), fm.getConstraints().get(1), fm.getConstraints().get(3) };
+
+		for (final int threads : new int[] { 1, 4 }) {
+			final FeatureModelExplanationCache cache = new FeatureModelExplanationCache();
+			final FeatureModelExplanationJob job = new FeatureModelExplanationJob(fm, factory, cache, 1);
+			job.setDeadFeatures(Arrays.asList(deadFeatures));
+			job.setFalseOptionalFeatures(Arrays.asList(falseOptionalFeatures));
+			job.setRedundantConstraints(Arrays.asList(redundantConstraints));
+			job.setNumberOfThreads(threads);
+			final Map<IFeatureModelElement, FeatureModelExplanation<?>> explanations = job.execute(new NullMonitor());
+			assertEquals(deadFeatures.length + falseOptionalFeatures.length + redundantConstraints.length, explanations.size());
+
+			final DeadFeatureExplanationCreator deadCreator = factory.getDeadFeatureExplanationCreator();
+			deadCreator.setFeatureModel(fm);
+			for (final IFeature feature : deadFeatures) {
+				deadCreator.setSubject(feature);
+				assertSameExplanation(deadCreator.getExplanation(), explanations.get(feature));
+				assertSame(explanations.get(feature), cache.get(feature, 1));
+			}
+			final FalseOptionalFeatureExplanationCreator falseOptionalCreator = factory.getFalseOptionalFeatureExplanationCreator();
+			falseOptionalCreator.setFeatureModel(fm);
+			for (final IFeature feature : falseOptionalFeatures) {
+				falseOptionalCreator.setSubject(feature);
+				assertSameExplanation(falseOptionalCreator.getExplanation(), explanations.get(feature));
+			}
+			final RedundantConstraintExplanationCreator redundantCreator = factory.getRedundantConstraintExplanationCreator();
+			redundantCreator.setFeatureModel(fm);
+			for (final IConstraint constraint : redundantConstraints) {
+				redundantCreator.setSubject(constraint);
+				assertSameExplanation(redundantCreator.getExplanation(), explanations.get(constraint));
+			}
+		}
+	}
+
+	private static void assertSameExplanation(Explanation<?> expected, Explanation<?> actual) {
+		assertNotNull(actual);
+		assertEquals(expected.getClass(), actual.getClass());
+		assertEquals(expected.getSubject(), actual.getSubject());
+		assertEquals(expected.getReasons(), actual.getReasons());
+	}
+
+	@Test
+	public void testCacheRevision() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final IFeature feature = fm.getFeature("Bluetooth");
+		final FeatureModelExplanationCache cache = new FeatureModelExplanationCache();
+		final DeadFeatureExplanation explanation = new DeadFeatureExplanation(feature);
+		cache.putAll(Collections.singletonMap(feature, explanation), 3);
+		assertSame(explanation, cache.get(feature, 3));
+		assertEquals(null, cache.get(feature, 4));
+		cache.putAll(Collections.<IFeature, FeatureModelExplanation<?>> emptyMap(), 4);
+		assertEquals(null, cache.get(feature, 3));
+		assertEquals(null, cache.get(feature, 4));
+	}
+
+	@Test
+	public void testAnalyzer() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		analyzer.analyzeFeatureModel(null);
+		final IFeature feature = fm.getFeature("Bluetooth");
+		final Explanation<?> single = analyzer.getExplanation(feature);
+		assertNotNull(single);
+
+		analyzer.explainDefects(new NullMonitor());
+		final Explanation<?> cached = analyzer.getExplanation(feature);
+		assertNotSame(single, cached);
+		assertSameExplanation(single, cached);
+		assertSame(cached, analyzer.getExplanation(feature));
+		for (final IConstraint constraint : fm.getConstraints()) {
+			switch (constraint.getConstraintAttribute()) {
+			case REDUNDANT:
+			case IMPLICIT:
+				assertNotNull(analyzer.getExplanation(constraint));
+				break;
+			default:
+				break;
+			}
+		}
+
+		// the cached explanations are not used for a changed feature model
+		analyzer.propertyChange(new FeatureIDEEvent(fm, EventType.CONSTRAINT_MODIFY, null, fm.getConstraints().get(0)));
+		assertNotSame(cached, analyzer.getExplanation(feature));
+	}
+
+}
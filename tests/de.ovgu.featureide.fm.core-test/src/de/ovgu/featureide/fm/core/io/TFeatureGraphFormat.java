@@ -0,0 +1,141 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.ClauseDatabase;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for the binary {@link FeatureGraphFormat}.
+ */
+public class TFeatureGraphFormat {
+
+	private static IFeatureGraph buildGraph(String name) {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(name);
+		final SatInstance sat = new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+		return LongRunningWrapper.runMethod(new FGBuilder(sat));
+	}
+
+	private static void assertSameGraph(IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		assertArrayEquals(expected.getIndex(), actual.getIndex());
+		assertArrayEquals(FeatureUtils.getFeaturesFromFeatureGraph(expected), FeatureUtils.getFeaturesFromFeatureGraph(actual));
+		for (int from = 0; from < expected.getSize(); from++) {
+			for (int to = 0; to < expected.getSize(); to++) {
+				assertEquals(expected.getEdge(from, to), actual.getEdge(from, to));
+				assertEquals(expected.getValue(from, to, true), actual.getValue(from, to, true));
+				assertEquals(expected.getValue(from, to, false), actual.getValue(from, to, false));
+			}
+		}
+	}
+
+	@Test
+	public void testReadWrite() throws IOException {
+		final IFeatureGraph featureGraph = buildGraph("50-100.xml");
+		final Path path = Files.createTempFile("model", ".fg");
+		try {
+			final FeatureGraphFormat format = new FeatureGraphFormat();
+			format.write(featureGraph, path);
+			final IFeatureGraph readGraph = format.read(path);
+			assertSameGraph(featureGraph, readGraph);
+
+			final MatrixFeatureGraph copiedGraph = new MatrixFeatureGraph();
+			copiedGraph.copyValues(readGraph);
+			assertSameGraph(featureGraph, copiedGraph);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testClauses() throws IOException {
+		final IFeatureGraph featureGraph = buildGraph("50-100.xml");
+		final Path path = Files.createTempFile("model", ".fg");
+		try {
+			final FeatureGraphFormat format = new FeatureGraphFormat();
+			format.write(featureGraph, path);
+			final SatInstance expected = featureGraph.getSatInstance();
+			final SatInstance actual = format.read(path).getSatInstance();
+			assertEquals(expected.getNumberOfVariables(), actual.getNumberOfVariables());
+			for (int i = 1; i <= expected.getNumberOfVariables(); i++) {
+				assertEquals(expected.getVariableObject(i), actual.getVariableObject(i));
+			}
+			final ClauseDatabase expectedClauses = expected.getClauses();
+			final ClauseDatabase actualClauses = actual.getClauses();
+			assertEquals(expectedClauses.getNumberOfClauses(), actualClauses.getNumberOfClauses());
+			for (int i = 0; i < expectedClauses.getNumberOfClauses(); i++) {
+				assertArrayEquals(expectedClauses.getClause(i), actualClauses.getClause(i));
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testOverwriteMappedFile() throws IOException {
+		final IFeatureGraph featureGraph = buildGraph("50-100.xml");
+		final Path path = Files.createTempFile("model", ".fg");
+		try {
+			final FeatureGraphFormat format = new FeatureGraphFormat();
+			format.write(featureGraph, path);
+			final IFeatureGraph readGraph = format.read(path);
+			format.write(buildGraph("10-100.xml"), path);
+			assertSameGraph(featureGraph, readGraph);
+			assertSameGraph(buildGraph("10-100.xml"), format.read(path));
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testInvalidFile() throws IOException {
+		final Path path = Files.createTempFile("model", ".fg");
+		try {
+			Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+			try {
+				new FeatureGraphFormat().read(path);
+				fail();
+			} catch (final IOException e) {}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.DefaultFormat;
+import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.XMLConfFormat;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Tests the streaming read and write methods of {@link IPersistentFormat} and the change detection of the file managers.
+ */
+public class TStreamingFormats {
+
+	private static final String[] MODELS = { "10-100.xml", "200-100.xml", "20-100-hidden.xml" };
+
+	private static String write(IPersistentFormat<IFeatureModel> format, IFeatureModel featureModel) throws IOException {
+		final StringWriter writer = new StringWriter();
+		format.write(featureModel, writer);
+		return writer.toString();
+	}
+
+	@Test
+	public void testFeatureModelReadWrite() throws IOException {
+		for (final String name : MODELS) {
+			final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(name);
+			final String content = new XmlFeatureModelFormat().write(fm);
+			assertEquals(name, content, write(new XmlFeatureModelFormat(), fm));
+
+			final IFeatureModel streamedModel = FMFactoryManager.getFactory(fm).createFeatureModel();
+			final ProblemList problems = new XmlFeatureModelFormat().read(streamedModel, new StringReader(content));
+			assertFalse(name, problems.containsError());
+			assertEquals(name, content, write(new XmlFeatureModelFormat(), streamedModel));
+		}
+	}
+
+	@Test
+	public void testFeatureModelErrors() {
+		final String header = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<featureModel>\n<struct>\n<and name=\"A\">\n<feature name=\"B\"/>\n</and>\n</struct>\n";
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(MODELS[0]);
+
+		final ProblemList unknownFeature = new XmlFeatureModelFormat().read(FMFactoryManager.getFactory(fm).createFeatureModel(),
+				new StringReader(header + "<constraints>\n<rule>\n<var>C</var>\n</rule>\n</constraints>\n</featureModel>"));
+		assertTrue(unknownFeature.containsError());
+		assertEquals(10, unknownFeature.get(0).line);
+
+		final ProblemList malformed = new XmlFeatureModelFormat().read(FMFactoryManager.getFactory(fm).createFeatureModel(),
+				new StringReader(header + "<constraints>\n<rule>\n<var>C</var>\n</constraints>\n</featureModel>"));
+		assertTrue(malformed.containsError());
+		assertEquals(11, malformed.get(0).line);
+	}
+
+	@Test
+	public void testConfigurationReadWrite() throws IOException {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(MODELS[1]);
+		final Configuration configuration = new Configuration(fm, true);
+		configuration.setManual("C4", Selection.SELECTED);
+		configuration.setManual("C25", Selection.UNSELECTED);
+
+		assertSameConfiguration(configuration, new XMLConfFormat(), true);
+		assertSameConfiguration(configuration, new DefaultFormat(), false);
+		assertSameConfiguration(configuration, new FeatureIDEFormat(), true);
+	}
+
+	/**
+	 * @param allSelections whether the format stores all selections or only the selected features
+	 */
+	private static void assertSameConfiguration(Configuration configuration, IPersistentFormat<Configuration> format, boolean allSelections)
+			throws IOException {
+		final StringWriter writer = new StringWriter();
+		format.write(configuration, writer);
+		assertEquals(format.write(configuration), writer.toString());
+
+		final Configuration streamedConfiguration = new Configuration(configuration.getFeatureModel(), true);
+		assertFalse(format.read(streamedConfiguration, new StringReader(writer.toString())).containsError());
+		assertEquals(format.getName(), configuration.getSelectedFeatureNames(), streamedConfiguration.getSelectedFeatureNames());
+		if (!allSelections) {
+			return;
+		}
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			assertEquals(format.getName() + ": " + feature.getName(), feature.getSelection(),
+					streamedConfiguration.getSelectablefeature(feature.getName()).getSelection());
+		}
+	}
+
+	@Test
+	public void testHasChanged() throws IOException {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(MODELS[0]);
+		final Path path = Files.createTempFile("model", ".xml");
+		try {
+			Files.write(path, new XmlFeatureModelFormat().write(fm).getBytes(FeatureModelManager.DEFAULT_CHARSET));
+			final FeatureModelManager manager = FeatureModelManager.getInstance(path);
+			assertNotNull(manager);
+			try {
+				assertFalse(manager.hasChanged());
+
+				manager.editObject().getProperty().addComment("changed");
+				assertTrue(manager.hasChanged());
+
+				assertTrue(manager.save());
+				assertFalse(manager.hasChanged());
+				assertEquals(new XmlFeatureModelFormat().write(manager.editObject()),
+						new String(Files.readAllBytes(path), FeatureModelManager.DEFAULT_CHARSET));
+			} finally {
+				manager.dispose();
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link FormulaFactory} and {@link Formula}.
+ */
+public class FormulaFactoryTests {
+
+	private static final String[] VARIABLES = { "A", "B", "C", "D" };
+
+	private static Node createNode(Random random, int depth) {
+		if ((depth == 0) || (random.nextInt(4) == 0)) {
+			return new Literal(VARIABLES[random.nextInt(VARIABLES.length)], random.nextBoolean());
+		}
+		final Node[] children = new Node[2 + random.nextInt(2)];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createNode(random, depth - 1);
+		}
+		switch (random.nextInt(8)) {
+		case 0:
+			return new Or(children);
+		case 1:
+			return new Not(children[0]);
+		case 2:
+			return new Implies(children[0], children[1]);
+		case 3:
+			return new Equals(children[0], children[1]);
+		case 4:
+			return new AtMost(1, children);
+		case 5:
+			return new AtLeast(2, children);
+		case 6:
+			return new Choose(1, children);
+		default:
+			return new And(children);
+		}
+	}
+
+	@Test
+	public void testHashConsing() {
+		final FormulaFactory factory = new FormulaFactory();
+		final Formula a = factory.literal("A");
+		final Formula b = factory.literal("B");
+		final Formula and1 = factory.and(a, factory.not(b));
+		final Formula and2 = factory.and(factory.literal("B", false), factory.literal("A"));
+		assertSame(and1, and2);
+		assertSame(factory.or(and1, a), factory.intern(new Or(new Literal("A"), new And(new Not("B"), "A"))));
+		assertSame(a, factory.not(factory.not(a)));
+		assertSame(factory.iff(a, b), factory.iff(b, a));
+		assertNotSame(factory.implies(a, b), factory.implies(b, a));
+		assertNotSame(factory.atMost(1, a, b), factory.atMost(2, a, b));
+		assertNotSame(factory.and(a, b), factory.or(a, b));
+
+		final int numberOfFormulas = factory.getNumberOfFormulas();
+		factory.intern(new And(new Or("A", new Not("B")), new Or(new Literal("B", false), "A")));
+		assertEquals(numberOfFormulas + 2, factory.getNumberOfFormulas());
+	}
+
+	@Test
+	public void testConversion() {
+		final Random random = new Random(0);
+		final FormulaFactory factory = new FormulaFactory();
+		for (int i = 0; i < 200; i++) {
+			final Node node = createNode(random, 4);
+			final String original = node.toString();
+			final Formula formula = factory.intern(node);
+			assertEquals(original, node.toString());
+			assertSame(formula, factory.intern(formula.toNode()));
+
+			final Node copy = formula.toNode();
+			for (int j = 0; j < (1 << VARIABLES.length); j++) {
+				final Map<Object, Boolean> assignment = new HashMap<>();
+				for (int k = 0; k < VARIABLES.length; k++) {
+					assignment.put(VARIABLES[k], (j & (1 << k)) != 0);
+				}
+				// Choose#getValue does not check for an exact number of true children
+				if (!original.contains("choose")) {
+					assertEquals(original, node.getValue(assignment), formula.getValue(assignment));
+					assertEquals(original, copy.getValue(assignment), formula.getValue(assignment));
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentFactories() {
+		new FormulaFactory().and(new FormulaFactory().literal("A"), new FormulaFactory().literal("B"));
+	}
+
+	@Test
+	public void testConcurrentInterning() throws Exception {
+		final FormulaFactory factory = new FormulaFactory();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<List<Formula>>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(new Callable<List<Formula>>() {
+
+					@Override
+					public List<Formula> call() throws Exception {
+						final Random random = new Random(1);
+						final List<Formula> formulas = new ArrayList<>();
+						for (int i = 0; i < 300; i++) {
+							formulas.add(factory.intern(createNode(random, 4)));
+						}
+						return formulas;
+					}
+				}));
+			}
+			final List<Formula> expected = futures.get(0).get();
+			for (final Future<List<Formula>> future : futures) {
+				final List<Formula> actual = future.get();
+				for (int i = 0; i < expected.size(); i++) {
+					assertSame(expected.get(i), actual.get(i));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,195 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ModelCounter;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link EnumerateSolutionsAnalysis}.
+ */
+public class EnumerateSolutionsAnalysisTests {
+
+	private static List<long[]> enumerate(EnumerateSolutionsAnalysis analysis) throws Exception {
+		final List<long[]> solutions = new ArrayList<>();
+		final NullMonitor monitor = new NullMonitor();
+		monitor.setIntermediateFunction(new IConsumer<Object>() {
+
+			@Override
+			public void invoke(Object t) {
+				solutions.add((long[]) t);
+			}
+		});
+		final Long count = analysis.execute(monitor);
+		assertEquals(solutions.size(), count.longValue());
+		return solutions;
+	}
+
+	private static int[] toModel(long[] solution, int numberOfVariables) {
+		final int[] model = new int[numberOfVariables];
+		for (int i = 1; i <= numberOfVariables; i++) {
+			model[i - 1] = EnumerateSolutionsAnalysis.isSelected(solution, i) ? i : -i;
+		}
+		return model;
+	}
+
+	private static Set<List<Integer>> getProjectedSolutions(SatInstance si, int[] variables) throws ContradictionException {
+		final Set<List<Integer>> projections = new HashSet<>();
+		final BasicSolver solver = new BasicSolver(si);
+		while (solver.isSatisfiable() == ISatSolver.SatResult.TRUE) {
+			final int[] model = solver.getModel();
+			final List<Integer> projection = new ArrayList<>();
+			for (final int variable : variables) {
+				projection.add(model[variable - 1]);
+			}
+			projections.add(projection);
+			try {
+				solver.getInternalSolver().addClause(new VecInt(SatInstance.negateModel(model)));
+			} catch (final ContradictionException e) {
+				break;
+			}
+		}
+		return projections;
+	}
+
+	@Test
+	public void testAllVariables() throws Exception {
+		for (final String name : new String[] { "10-100.xml", "20-100.xml", "50-100.xml" }) {
+			final SatInstance si = Commons.loadBenchmarkSatInstance(name);
+			final int n = si.getNumberOfVariables();
+			final int[] variables = new int[n];
+			for (int i = 0; i < n; i++) {
+				variables[i] = i + 1;
+			}
+			final List<long[]> solutions = enumerate(new EnumerateSolutionsAnalysis(si, variables, Long.MAX_VALUE));
+			assertEquals(name, new ModelCounter(si).count().longValue(), solutions.size());
+
+			final BasicSolver solver = new BasicSolver(si);
+			final Set<List<Long>> distinctSolutions = new HashSet<>();
+			for (final long[] solution : solutions) {
+				final List<Long> list = new ArrayList<>();
+				for (final long word : solution) {
+					list.add(word);
+				}
+				assertTrue(name, distinctSolutions.add(list));
+				for (final int literal : toModel(solution, n)) {
+					solver.assignmentPush(literal);
+				}
+				assertEquals(name, ISatSolver.SatResult.TRUE, solver.isSatisfiable());
+				solver.assignmentClear(0);
+			}
+		}
+	}
+
+	@Test
+	public void testProjection() throws Exception {
+		for (final String name : new String[] { "20-100.xml", "20-100-hidden.xml" }) {
+			final SatInstance si = Commons.loadBenchmarkSatInstance(name);
+			final int[] variables = new int[si.getNumberOfVariables() / 2];
+			for (int i = 0; i < variables.length; i++) {
+				variables[i] = (2 * i) + 1;
+			}
+			final Set<List<Integer>> expected = getProjectedSolutions(si, variables);
+
+			final BasicSolver solver = new BasicSolver(si);
+			final Set<List<Integer>> actual = new HashSet<>();
+			for (final long[] solution : enumerate(new EnumerateSolutionsAnalysis(si, variables, Long.MAX_VALUE))) {
+				final int[] model = toModel(solution, si.getNumberOfVariables());
+				final List<Integer> projection = new ArrayList<>();
+				for (final int variable : variables) {
+					projection.add(model[variable - 1]);
+				}
+				assertTrue(name, actual.add(projection));
+
+				// the values of the remaining variables complete the solution
+				for (final int literal : model) {
+					solver.assignmentPush(literal);
+				}
+				assertEquals(name, ISatSolver.SatResult.TRUE, solver.isSatisfiable());
+				solver.assignmentClear(0);
+			}
+			assertEquals(name, expected, actual);
+		}
+	}
+
+	@Test
+	public void testAssumptionsAndLimit() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("20-100.xml");
+		final int[] variables = { 2, 3, 4, 5, 6, 7, 8, 9 };
+
+		final List<long[]> allSolutions = enumerate(new EnumerateSolutionsAnalysis(si, variables, Long.MAX_VALUE));
+
+		// find a variable that is selected in some, but not in all solutions
+		int optionalVariable = 0;
+		for (final int variable : variables) {
+			int selected = 0;
+			for (final long[] solution : allSolutions) {
+				if (EnumerateSolutionsAnalysis.isSelected(solution, variable)) {
+					selected++;
+				}
+			}
+			if ((selected > 0) && (selected < allSolutions.size())) {
+				optionalVariable = variable;
+				break;
+			}
+		}
+		assertTrue(optionalVariable > 0);
+
+		final EnumerateSolutionsAnalysis analysis = new EnumerateSolutionsAnalysis(si, variables, Long.MAX_VALUE);
+		analysis.setAssumptions(new int[] { -optionalVariable });
+		final List<long[]> solutions = enumerate(analysis);
+		assertFalse(solutions.isEmpty());
+		assertTrue(solutions.size() < allSolutions.size());
+		for (final long[] solution : solutions) {
+			assertFalse(EnumerateSolutionsAnalysis.isSelected(solution, optionalVariable));
+		}
+
+		final List<long[]> limitedSolutions = enumerate(new EnumerateSolutionsAnalysis(si, variables, 3));
+		assertEquals(Math.min(3, allSolutions.size()), limitedSolutions.size());
+		for (int i = 0; i < limitedSolutions.size(); i++) {
+			assertTrue(Arrays.equals(allSolutions.get(i), limitedSolutions.get(i)));
+		}
+
+		final EnumerateSolutionsAnalysis contradiction = new EnumerateSolutionsAnalysis(si, variables, Long.MAX_VALUE);
+		contradiction.setAssumptions(new int[] { optionalVariable, -optionalVariable });
+		assertTrue(enumerate(contradiction).isEmpty());
+	}
+
+}
@@ -0,0 +1,161 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.analyses.ImplicationSetsAnalysis.Relationship;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link ImplicationSetsAnalysis} and {@link ImplicationGraph}.
+ */
+public class ImplicationSetsAnalysisTests {
+
+	private static int getNode(int literal) {
+		return ((Math.abs(literal) - 1) << 1) | (literal < 0 ? 1 : 0);
+	}
+
+	private static int getLiteral(int node) {
+		final int variable = (node >>> 1) + 1;
+		return ((node & 1) == 0) ? variable : -variable;
+	}
+
+	private static boolean[][] computeNaiveClosure(int numberOfVariables, int[][] clauses) {
+		final int numberOfNodes = numberOfVariables << 1;
+		final List<List<Integer>> adjacency = new ArrayList<>();
+		for (int i = 0; i < numberOfNodes; i++) {
+			adjacency.add(new ArrayList<Integer>());
+		}
+		for (final int[] clause : clauses) {
+			adjacency.get(getNode(-clause[0])).add(getNode(clause[1]));
+			adjacency.get(getNode(-clause[1])).add(getNode(clause[0]));
+		}
+		final boolean[][] reachable = new boolean[numberOfNodes][numberOfNodes];
+		for (int start = 0; start < numberOfNodes; start++) {
+			final Deque<Integer> queue = new ArrayDeque<>(adjacency.get(start));
+			while (!queue.isEmpty()) {
+				final int node = queue.poll();
+				if (!reachable[start][node]) {
+					reachable[start][node] = true;
+					queue.addAll(adjacency.get(node));
+				}
+			}
+		}
+		return reachable;
+	}
+
+	private static void checkClosure(int numberOfVariables, int numberOfClauses, int numberOfThreads, int blockSize, long seed) throws InterruptedException {
+		final Random random = new Random(seed);
+		final int[][] clauses = new int[numberOfClauses][];
+		final ImplicationGraph graph = new ImplicationGraph(numberOfVariables);
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int literal1 = (random.nextInt(numberOfVariables) + 1) * (random.nextBoolean() ? 1 : -1);
+			final int literal2 = (random.nextInt(numberOfVariables) + 1) * (random.nextBoolean() ? 1 : -1);
+			clauses[i] = new int[] { literal1, literal2 };
+			graph.addClause(literal1, literal2);
+		}
+		graph.setBlockSize(blockSize);
+		graph.computeClosure(numberOfThreads);
+
+		final boolean[][] expected = computeNaiveClosure(numberOfVariables, clauses);
+		for (int from = 0; from < expected.length; from++) {
+			final List<Integer> expectedLiterals = new ArrayList<>();
+			for (int to = 0; to < expected.length; to++) {
+				assertEquals(expected[from][to], graph.isImplied(getLiteral(from), getLiteral(to)));
+				if (expected[from][to]) {
+					expectedLiterals.add(getLiteral(to));
+				}
+			}
+			final List<Integer> actualLiterals = new ArrayList<>();
+			for (final int literal : graph.getImpliedLiterals(getLiteral(from))) {
+				actualLiterals.add(literal);
+			}
+			assertEquals(expectedLiterals, actualLiterals);
+		}
+	}
+
+	@Test
+	public void testClosure() throws InterruptedException {
+		for (int seed = 0; seed < 20; seed++) {
+			checkClosure(70, 60 + (seed * 5), 1, ImplicationGraph.DEFAULT_BLOCK_SIZE, seed);
+		}
+	}
+
+	@Test
+	public void testParallelClosure() throws InterruptedException {
+		for (int seed = 0; seed < 20; seed++) {
+			checkClosure(150, 100 + (seed * 10), 4, 4, seed);
+		}
+	}
+
+	@Test
+	public void testAddImplication() throws InterruptedException {
+		final ImplicationGraph graph = new ImplicationGraph(4);
+		graph.addClause(-1, 2);
+		graph.addClause(-2, 1);
+		graph.computeClosure(1);
+		assertTrue(graph.isImplied(1, 2));
+		assertTrue(graph.isImplied(2, 1));
+		assertFalse(graph.isImplied(1, 3));
+
+		graph.addImplication(1, 3);
+		assertTrue(graph.isImplied(1, 3));
+		assertTrue(graph.isImplied(-3, -1));
+		// equivalent literals share their implications
+		assertTrue(graph.isImplied(2, 3));
+		assertFalse(graph.isImplied(4, 3));
+		assertTrue(Arrays.equals(new int[] { 1, 2, 3 }, graph.getImpliedLiterals(2)));
+	}
+
+	@Test
+	public void testAnalysis() throws Exception {
+		for (final String name : new String[] { "10-100.xml", "20-100.xml", "20-100-hidden.xml", "200-100.xml" }) {
+			final SatInstance si = Commons.loadBenchmarkSatInstance(name);
+			final HashMap<Relationship, Relationship> expected = new NaiveImplicationSetsAnalysis(si).execute(new NullMonitor());
+			assertNotNull(name, expected);
+			final Set<Relationship> actual = new ImplicationSetsAnalysis(si).execute(new NullMonitor());
+			assertNotNull(name, actual);
+
+			assertEquals(name, expected.keySet(), actual);
+			for (final Relationship relationship : actual) {
+				assertEquals(relationship.toString(), expected.get(relationship).getRelation(), relationship.getRelation());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link IncrementalAnalysisCache}.
+ */
+public class IncrementalAnalysisCacheTests {
+
+	private static void assertSameResult(IFeatureModel fm, FeatureModelAnalyzer analyzer) {
+		final HashMap<Object, Object> incrementalAttributes = analyzer.analyzeFeatureModel(null);
+
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		final HashMap<Object, Object> attributes = LongRunningWrapper.runMethod(analysis);
+
+		assertEquals(attributes, incrementalAttributes);
+		assertEquals(new HashSet<>(analysis.getCoreFeatures()), new HashSet<>(analyzer.getCachedCoreFeatures()));
+		assertEquals(new HashSet<>(analysis.getDeadFeatures()), new HashSet<>(analyzer.getCachedDeadFeatures()));
+		assertEquals(new HashSet<>(analysis.getFalseOptionalFeatures()), new HashSet<>(analyzer.getCachedFalseOptionalFeatures()));
+	}
+
+	@Test
+	public void testConstraintChanges() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("200-100.xml");
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		assertSameResult(fm, analyzer);
+		assertSameResult(fm, analyzer);
+
+		final IConstraint deadConstraint = FMFactoryManager.getFactory(fm).createConstraint(fm, new Not(new Literal("C25")));
+		fm.addConstraint(deadConstraint);
+		analyzer.propertyChange(new FeatureIDEEvent(fm, EventType.CONSTRAINT_ADD, null, deadConstraint));
+		assertSameResult(fm, analyzer);
+
+		final IConstraint foConstraint = FMFactoryManager.getFactory(fm).createConstraint(fm, new Implies(new Literal("C23"), new Literal("C4")));
+		fm.addConstraint(foConstraint);
+		analyzer.propertyChange(new FeatureIDEEvent(fm, EventType.CONSTRAINT_ADD, null, foConstraint));
+		assertSameResult(fm, analyzer);
+
+		fm.removeConstraint(deadConstraint);
+		analyzer.propertyChange(new FeatureIDEEvent(fm, EventType.CONSTRAINT_DELETE, deadConstraint, null));
+		assertSameResult(fm, analyzer);
+
+		fm.removeConstraint(foConstraint);
+		analyzer.propertyChange(new FeatureIDEEvent(fm, EventType.CONSTRAINT_DELETE, foConstraint, null));
+		assertSameResult(fm, analyzer);
+	}
+
+	@Test
+	public void testConstraintChangesWithoutEvents() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("200-100.xml");
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		assertSameResult(fm, analyzer);
+		final int numberOfDeadFeatures = analyzer.getCachedDeadFeatures().size();
+
+		final IConstraint deadConstraint = FMFactoryManager.getFactory(fm).createConstraint(fm, new Not(new Literal("C25")));
+		fm.addConstraint(deadConstraint);
+		assertSameResult(fm, analyzer);
+		assertTrue(analyzer.getCachedDeadFeatures().size() > numberOfDeadFeatures);
+
+		fm.removeConstraint(deadConstraint);
+		assertSameResult(fm, analyzer);
+		assertEquals(numberOfDeadFeatures, analyzer.getCachedDeadFeatures().size());
+
+		// unchanged CNF, all results are reused
+		assertSameResult(fm, analyzer);
+	}
+
+}
@@ -0,0 +1,180 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.analyses.PairWiseConfigurationGenerator.Configuration;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.monitor.AMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link TWiseConfigurationGenerator}.
+ */
+public class TWiseConfigurationGeneratorTests {
+
+	private static List<int[]> generate(SatInstance si, int t, int maxNumber, int numberOfThreads) throws Exception {
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(si, t, maxNumber);
+		generator.setNumberOfThreads(numberOfThreads);
+		// distribute every check with several candidates
+		generator.setMinParallelCandidates(1);
+		final List<List<String>> configurations = generator.execute(new NullMonitor());
+		final List<int[]> models = new ArrayList<>();
+		for (final Configuration configuration : generator.q) {
+			models.add(configuration.getModel());
+		}
+		assertEquals(configurations.size(), models.size());
+		return models;
+	}
+
+	private static boolean isCovered(List<int[]> models, int[] interaction) {
+		modelLoop: for (final int[] model : models) {
+			for (final int literal : interaction) {
+				if (model[Math.abs(literal) - 1] != literal) {
+					continue modelLoop;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks that all configurations are valid and that each interaction that is not covered is unsatisfiable.
+	 */
+	private static void checkCoverage(String name, SatInstance si, int t, List<int[]> models) throws Exception {
+		final BasicSolver solver = new BasicSolver(si);
+		for (final int[] model : models) {
+			for (final int literal : model) {
+				solver.assignmentPush(literal);
+			}
+			assertEquals(name, ISatSolver.SatResult.TRUE, solver.isSatisfiable());
+			solver.assignmentClear(0);
+		}
+		checkInteractions(name, solver, models, new int[t], 0, 1);
+	}
+
+	private static void checkInteractions(String name, BasicSolver solver, List<int[]> models, int[] interaction, int depth, int start) {
+		if (depth == interaction.length) {
+			if (!isCovered(models, interaction)) {
+				for (final int literal : interaction) {
+					solver.assignmentPush(literal);
+				}
+				assertEquals(name, ISatSolver.SatResult.FALSE, solver.isSatisfiable());
+				solver.assignmentClear(0);
+			}
+			return;
+		}
+		for (int variable = start; variable <= solver.getSatInstance().getNumberOfVariables(); variable++) {
+			interaction[depth] = variable;
+			checkInteractions(name, solver, models, interaction, depth + 1, variable + 1);
+			interaction[depth] = -variable;
+			checkInteractions(name, solver, models, interaction, depth + 1, variable + 1);
+		}
+	}
+
+	@Test
+	public void testCoverage() throws Exception {
+		for (final String name : new String[] { "10-100.xml", "20-100.xml", "20-100-hidden.xml" }) {
+			final SatInstance si = Commons.loadBenchmarkSatInstance(name);
+			for (int t = 1; t <= 3; t++) {
+				final List<int[]> models = generate(si, t, Integer.MAX_VALUE, 1);
+				assertFalse(name, models.isEmpty());
+				checkCoverage(name + " t=" + t, si, t, models);
+			}
+		}
+	}
+
+	@Test
+	public void testParallelCoverage() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("50-100.xml");
+		for (int t = 2; t <= 3; t++) {
+			checkCoverage("50-100.xml t=" + t, si, t, generate(si, t, Integer.MAX_VALUE, 4));
+		}
+	}
+
+	@Test
+	public void testFinishedConfigurationsAreQueuedEarly() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("50-100.xml");
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(si, 2, Integer.MAX_VALUE);
+		final int[] queuedBeforeEnd = new int[1];
+		// checkCancel is called before each variable, the queue is read at the last call
+		generator.execute(new AMonitor() {
+
+			@Override
+			public void checkCancel() {
+				queuedBeforeEnd[0] = generator.q.size();
+			}
+
+			@Override
+			public void cancel() {}
+
+			@Override
+			public void done() {}
+
+			@Override
+			public IMonitor subTask(int size) {
+				return this;
+			}
+
+			@Override
+			public void worked() {}
+
+			@Override
+			public void setRemainingWork(int work) {}
+
+			@Override
+			public void setTaskName(String name) {}
+
+			@Override
+			public String getTaskName() {
+				return "";
+			}
+		});
+		assertTrue(queuedBeforeEnd[0] > 0);
+		final List<int[]> models = new ArrayList<>();
+		for (final Configuration configuration : generator.q) {
+			models.add(configuration.getModel());
+		}
+		checkCoverage("50-100.xml t=2", si, 2, models);
+	}
+
+	@Test
+	public void testMaxNumber() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("20-100.xml");
+		assertTrue(generate(si, 3, Integer.MAX_VALUE, 1).size() > 2);
+		assertEquals(2, generate(si, 3, 2, 1).size());
+		assertTrue(generate(si, 3, 0, 1).isEmpty());
+	}
+
+}
@@ -0,0 +1,240 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.prop4j.explain.solvers.MusExtractor;
+import org.prop4j.explain.solvers.MusExtractorTests;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
+import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.impl.ltms.LtmsFeatureModelExplanationCreatorFactory;
+
+/**
+ * Tests for {@link IndexedLtms}.
+ */
+public class IndexedLtmsTests extends MusExtractorTests {
+
+	private static final String[] VARIABLES = { "A", "B", "C", "D", "E" };
+
+	@Override
+	protected MusExtractor getInstance() {
+		return new IndexedLtms();
+	}
+
+	/**
+	 * The contradiction of the inherited test only consists of binary clauses, which cannot be detected by unit propagation (see {@link #testIncomplete()}).
+	 * Thus, it is only detected after a variable is assigned.
+	 */
+	@Override
+	@Test
+	public void testSatisfiableIncremental() {
+		final MusExtractor solver = getInstance();
+		solver.addFormula(new Or("A", "B"));
+		assertTrue(solver.isSatisfiable());
+		solver.addFormula(new Or("A", new Not("A")));
+		assertTrue(solver.isSatisfiable());
+		solver.addFormula(new Equals("A", "B"));
+		assertTrue(solver.isSatisfiable());
+		solver.addFormula(new Or(new Not("A"), new Not("B")));
+		solver.addFormula(new Or("B", new Not("B")));
+		solver.addAssumption("A", true);
+		assertFalse(solver.isSatisfiable());
+		solver.addAssumption("A", false);
+		assertFalse(solver.isSatisfiable());
+	}
+
+	@Test
+	public void testExplanation() {
+		final MusExtractor solver = new LtmsSatSolverFactory().getMusExtractor();
+		solver.addFormula(new And("A", new Or(new Not("A"), "B"), "C", new Or("C", new Not("D")), new Not("B")));
+		assertFalse(solver.isSatisfiable());
+		final Set<Node> expected = new LinkedHashSet<>();
+		expected.add(new Or("A"));
+		expected.add(new Or(new Literal("A", false), "B"));
+		expected.add(new Or(new Literal("B", false)));
+		assertEquals(expected, solver.getMinimalUnsatisfiableSubset());
+	}
+
+	@Test
+	public void testShortestExplanation() {
+		final MusExtractor solver = new IndexedLtms();
+		// A, -A | B, -B | C, -C, -A
+		solver.addFormula(new And("A", new Or(new Not("A"), "B"), new Or(new Not("B"), "C"), new Not("C"), new Not("A")));
+		assertEquals(new TreeSet<>(Arrays.asList(0, 4)), solver.getMinimalUnsatisfiableSubsetIndexes());
+		assertTrue(solver.getAllMinimalUnsatisfiableSubsetIndexes().contains(new TreeSet<>(Arrays.asList(0, 1, 2, 3))));
+	}
+
+	@Test
+	public void testAssumptions() {
+		final MusExtractor solver = new IndexedLtms();
+		solver.addFormula(new And(new Or(new Not("A"), "B"), new Or(new Not("B"), "C")));
+		assertTrue(solver.isSatisfiable());
+		solver.push();
+		solver.addAssumption("A", true);
+		solver.addAssumption("C", false);
+		assertEquals(Collections.singletonList(new TreeSet<>(Arrays.asList(0, 1))), solver.getAllMinimalUnsatisfiableSubsetIndexes());
+		solver.push();
+		solver.addAssumption("C", true);
+		assertTrue(solver.isSatisfiable());
+		final Map<Object, Boolean> expected = new LinkedHashMap<>();
+		expected.put("A", true);
+		expected.put("C", true);
+		expected.put("B", true);
+		assertEquals(expected, solver.getModel());
+		solver.pop();
+		assertFalse(solver.getAssumption("C"));
+		assertFalse(solver.isSatisfiable());
+		solver.pop();
+		assertEquals(Collections.emptyMap(), solver.getAssumptions());
+		assertTrue(solver.isSatisfiable());
+	}
+
+	@Test
+	public void testPremiseContradiction() {
+		final MusExtractor solver = new IndexedLtms();
+		solver.addFormula(new And("A", new Or("B", "C")));
+		solver.addAssumption("B", false);
+		solver.addAssumption("C", false);
+		assertEquals(Collections.singletonList(Collections.singleton(1)), solver.getAllMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Test
+	public void testIncomplete() {
+		final MusExtractor solver = new IndexedLtms();
+		solver.addFormula(new And(new Or("A", "B"), new Or("A", new Not("B")), new Or(new Not("A"), "B"), new Or(new Not("A"), new Not("B"))));
+		assertTrue(solver.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+	}
+
+	@Test
+	public void testDuplicateLiterals() {
+		final MusExtractor solver = new IndexedLtms();
+		solver.addFormula(new Or("A", "B"));
+		solver.push();
+		solver.addFormula(new And(new Or("A", "A"), new Or(new Not("A"), new Not("A"))));
+		assertEquals(Collections.singletonList(new TreeSet<>(Arrays.asList(1, 2))), solver.getAllMinimalUnsatisfiableSubsetIndexes());
+		solver.pop();
+		solver.addAssumption("A", false);
+		assertTrue(solver.getModel().get("B"));
+	}
+
+	/**
+	 * Compares the results with {@link Ltms} for random formulas, assumptions and scopes.
+	 */
+	@Test
+	public void testRandom() throws TimeoutException {
+		final Random random = new Random(0);
+		for (int i = 0; i < 300; i++) {
+			final IndexedLtms indexedLtms = new IndexedLtms();
+			final Ltms ltms = new Ltms();
+			final List<Node> clauses = new ArrayList<>();
+			final Map<Object, Boolean> assumptions = new LinkedHashMap<>();
+			for (int scope = 0; scope < 3; scope++) {
+				indexedLtms.push();
+				ltms.push();
+				final int numberOfClauses = 2 + random.nextInt(5);
+				for (int j = 0; j < numberOfClauses; j++) {
+					// Ltms does not support clauses containing a variable more than once
+					final List<String> variables = new ArrayList<>(Arrays.asList(VARIABLES));
+					Collections.shuffle(variables, random);
+					final Node[] literals = new Node[1 + random.nextInt(3)];
+					for (int k = 0; k < literals.length; k++) {
+						literals[k] = new Literal(variables.get(k), random.nextBoolean());
+					}
+					final Node clause = new Or(literals);
+					indexedLtms.addFormula(clause);
+					ltms.addFormula(clause);
+					clauses.add(clause);
+				}
+				if (random.nextBoolean()) {
+					final String variable = VARIABLES[random.nextInt(VARIABLES.length)];
+					final boolean value = random.nextBoolean();
+					indexedLtms.addAssumption(variable, value);
+					ltms.addAssumption(variable, value);
+				}
+				check(indexedLtms, ltms);
+			}
+			for (int scope = 0; scope < 3; scope++) {
+				indexedLtms.pop();
+				ltms.pop();
+				assertEquals(ltms.getClauses(), indexedLtms.getClauses());
+				assertEquals(ltms.getAssumptions(), indexedLtms.getAssumptions());
+				check(indexedLtms, ltms);
+			}
+		}
+	}
+
+	private static void check(IndexedLtms indexedLtms, Ltms ltms) throws TimeoutException {
+		final List<Set<Integer>> expected = ltms.getAllMinimalUnsatisfiableSubsetIndexes();
+		final List<Set<Integer>> actual = indexedLtms.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertEquals(expected.isEmpty(), actual.isEmpty());
+		assertEquals(actual.isEmpty(), indexedLtms.isSatisfiable());
+		for (final Set<Integer> explanation : actual) {
+			final List<Node> nodes = new ArrayList<>();
+			for (final int index : explanation) {
+				nodes.add(indexedLtms.getClause(index));
+			}
+			for (final Map.Entry<Object, Boolean> assumption : indexedLtms.getAssumptions().entrySet()) {
+				nodes.add(new Literal(assumption.getKey(), assumption.getValue()));
+			}
+			assertFalse(new SatSolver(new And(nodes.toArray(new Node[0])), 1000).isSatisfiable());
+		}
+	}
+
+	@Test
+	public void testFeatureModel() throws TimeoutException {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final DeadFeatureExplanationCreator creator = new LtmsFeatureModelExplanationCreatorFactory().getDeadFeatureExplanationCreator();
+		creator.setFeatureModel(fm);
+		for (final String name : new String[] { "Bluetooth", "Manual" }) {
+			creator.setSubject(fm.getFeature(name));
+			final DeadFeatureExplanation explanation = creator.getExplanation();
+			final Node node = new And(explanation.toNode(), new Not(explanation.getImplication()));
+			assertFalse(new SatSolver(node, 1000).isSatisfiable());
+		}
+	}
+
+}
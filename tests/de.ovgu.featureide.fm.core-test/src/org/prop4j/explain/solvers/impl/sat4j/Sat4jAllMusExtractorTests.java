@@ -0,0 +1,204 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.sat4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.explain.solvers.MusExtractor;
+import org.prop4j.explain.solvers.MusExtractorTests;
+import org.prop4j.explain.solvers.SatSolverFactory;
+
+/**
+ * Tests for {@link Sat4jAllMusExtractor} and {@link MusEnumerator}.
+ */
+public class Sat4jAllMusExtractorTests extends MusExtractorTests {
+
+	@Override
+	protected MusExtractor getInstance() {
+		return new Sat4jAllMusExtractor();
+	}
+
+	@Test
+	public void testAllMuses() {
+		final Sat4jAllMusExtractor solver = new Sat4jAllMusExtractor();
+		// A, -A | B, -B, -A | C, -C
+		solver.addFormula(new And("A", new Or(new Not("A"), "B"), new Not("B"), new Or(new Not("A"), "C"), new Not("C")));
+		final List<Set<Integer>> muses = solver.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertEquals(2, muses.size());
+		assertEquals(new HashSet<>(Arrays.asList(new TreeSet<>(Arrays.asList(0, 1, 2)), new TreeSet<>(Arrays.asList(0, 3, 4)))), new HashSet<>(muses));
+
+		solver.setMaximumMusCount(1);
+		assertEquals(1, solver.getAllMinimalUnsatisfiableSubsetIndexes().size());
+	}
+
+	@Test
+	public void testShortestFirst() {
+		final Sat4jAllMusExtractor solver = new Sat4jAllMusExtractor();
+		// A, -A | B, -B | C, -C, -A
+		solver.addFormula(new And("A", new Or(new Not("A"), "B"), new Or(new Not("B"), "C"), new Not("C"), new Not("A")));
+		final List<Set<Integer>> muses = solver.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertEquals(2, muses.size());
+		assertEquals(new TreeSet<>(Arrays.asList(0, 4)), muses.get(0));
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3)), muses.get(1));
+	}
+
+	@Test
+	public void testFactory() {
+		final MusExtractor solver = SatSolverFactory.getDefault(Integer.MAX_VALUE, 0).getMusExtractor();
+		assertTrue(solver instanceof Sat4jAllMusExtractor);
+		// A, -A | B, -B, -A | C, -C
+		solver.addFormula(new And("A", new Or(new Not("A"), "B"), new Not("B"), new Or(new Not("A"), "C"), new Not("C")));
+		assertEquals(2, solver.getAllMinimalUnsatisfiableSubsetIndexes().size());
+		assertTrue(SatSolverFactory.getDefault().getMusExtractor() instanceof Sat4jMusExtractor);
+	}
+
+	@Test
+	public void testPop() {
+		final Sat4jAllMusExtractor solver = new Sat4jAllMusExtractor();
+		solver.addFormula(new And("A", new Or(new Not("A"), "B")));
+		solver.push();
+		solver.addFormula(new Literal("B", false));
+		assertEquals(1, solver.getAllMinimalUnsatisfiableSubsetIndexes().size());
+		solver.pop();
+		solver.push();
+		solver.addAssumption("B", false);
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1)), solver.getMinimalUnsatisfiableSubsetIndexes());
+		solver.pop();
+		assertTrue(solver.isSatisfiable());
+	}
+
+	@Test
+	public void testRandomFormulas() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 50; i++) {
+			final List<int[]> clauses = new ArrayList<>();
+			final int numberOfClauses = 4 + random.nextInt(8);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final int[] clause = new int[1 + random.nextInt(2)];
+				for (int k = 0; k < clause.length; k++) {
+					clause[k] = (1 + random.nextInt(4)) * (random.nextBoolean() ? 1 : -1);
+				}
+				clauses.add(clause);
+			}
+			final Set<Set<Integer>> expected = getAllMusesBruteForce(clauses, 4);
+
+			for (final int threadCount : new int[] { 1, 4 }) {
+				final MusEnumerator enumerator = new MusEnumerator(clauses, new int[0], 4);
+				enumerator.setThreadCount(threadCount);
+				final List<Set<Integer>> actual = enumerator.getAllMinimalUnsatisfiableSubsets();
+				assertEquals(expected, new HashSet<>(actual));
+				assertEquals(expected.size(), actual.size());
+				for (int j = 1; j < actual.size(); j++) {
+					assertTrue(actual.get(j - 1).size() <= actual.get(j).size());
+				}
+			}
+			if (!expected.isEmpty()) {
+				assertTrue(expected.contains(new MusEnumerator(clauses, new int[0], 4).getMinimalUnsatisfiableSubset()));
+			}
+		}
+	}
+
+	@Test
+	public void testStreaming() {
+		final List<int[]> clauses = new ArrayList<>();
+		// x1 & ... & x20 & (-x1 | ... | -x20) and many redundant binary clauses
+		final int[] longClause = new int[20];
+		for (int i = 1; i <= 20; i++) {
+			clauses.add(new int[] { i });
+			longClause[i - 1] = -i;
+		}
+		clauses.add(longClause);
+		for (int i = 1; i < 20; i++) {
+			clauses.add(new int[] { -i, i + 1 });
+		}
+		final MusEnumerator enumerator = new MusEnumerator(clauses, new int[0], 20);
+		enumerator.setMaximumCount(5);
+		int count = 0;
+		while (enumerator.hasNext()) {
+			final Set<Integer> mus = enumerator.next();
+			assertTrue(mus.contains(20));
+			count++;
+		}
+		assertEquals(5, count);
+
+		final MusEnumerator cancelledEnumerator = new MusEnumerator(clauses, new int[0], 20);
+		assertTrue(cancelledEnumerator.hasNext());
+		cancelledEnumerator.next();
+		cancelledEnumerator.cancel();
+		assertTrue(!cancelledEnumerator.hasNext());
+	}
+
+	private static Set<Set<Integer>> getAllMusesBruteForce(List<int[]> clauses, int numberOfVariables) {
+		final List<Set<Integer>> unsatisfiableSubsets = new ArrayList<>();
+		for (int subset = 0; subset < (1 << clauses.size()); subset++) {
+			if (!isSatisfiable(clauses, subset, numberOfVariables)) {
+				final Set<Integer> indexes = new TreeSet<>();
+				for (int i = 0; i < clauses.size(); i++) {
+					if ((subset & (1 << i)) != 0) {
+						indexes.add(i);
+					}
+				}
+				unsatisfiableSubsets.add(indexes);
+			}
+		}
+		final Set<Set<Integer>> muses = new HashSet<>();
+		subsetLoop: for (final Set<Integer> subset : unsatisfiableSubsets) {
+			for (final Set<Integer> other : unsatisfiableSubsets) {
+				if ((other.size() < subset.size()) && subset.containsAll(other)) {
+					continue subsetLoop;
+				}
+			}
+			muses.add(subset);
+		}
+		return muses;
+	}
+
+	private static boolean isSatisfiable(List<int[]> clauses, int subset, int numberOfVariables) {
+		assignmentLoop: for (int assignment = 0; assignment < (1 << numberOfVariables); assignment++) {
+			clauseLoop: for (int i = 0; i < clauses.size(); i++) {
+				if ((subset & (1 << i)) != 0) {
+					for (final int literal : clauses.get(i)) {
+						if (((assignment & (1 << (Math.abs(literal) - 1))) != 0) == (literal > 0)) {
+							continue clauseLoop;
+						}
+					}
+					continue assignmentLoop;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,150 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link BinaryDecisionDiagram}.
+ */
+public class BinaryDecisionDiagramTests {
+
+	private static int[] getRandomAssumptions(Random random, int numberOfVariables, int numberOfAssumptions) {
+		final int[] assumptions = new int[numberOfAssumptions];
+		for (int i = 0; i < numberOfAssumptions; i++) {
+			final int variable = random.nextInt(numberOfVariables) + 1;
+			assumptions[i] = random.nextBoolean() ? variable : -variable;
+		}
+		return assumptions;
+	}
+
+	@Test
+	public void testQueriesEqualSolver() throws ContradictionException {
+		final Random random = new Random(0);
+		for (final String name : new String[] { "20-100.xml", "100-100.xml", "200-100.xml" }) {
+			final SatInstance si = Commons.loadBenchmarkSatInstance(name);
+			final BinaryDecisionDiagram bdd = BinaryDecisionDiagram.compile(si);
+			assertNotNull(name, bdd);
+			final ModelCounter counter = new ModelCounter(si);
+			final BasicSolver solver = new BasicSolver(si);
+
+			for (int i = 0; i < 20; i++) {
+				final int[] assumptions = getRandomAssumptions(random, si.getNumberOfVariables(), i % 5);
+
+				for (final int assumption : assumptions) {
+					solver.assignmentPush(assumption);
+				}
+				final boolean satisfiable = solver.isSatisfiable() == ISatSolver.SatResult.TRUE;
+				solver.assignmentClear(0);
+				assertEquals(name, satisfiable, bdd.isSatisfiable(assumptions));
+
+				assertEquals(name, counter.count(assumptions), bdd.countSolutions(assumptions));
+
+				if (satisfiable) {
+					final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(si);
+					analysis.setAssumptions(assumptions);
+					final List<Integer> expected = new ArrayList<>();
+					for (final int literal : LongRunningWrapper.runMethod(analysis)) {
+						if (!contains(assumptions, literal)) {
+							expected.add(literal);
+						}
+					}
+					final int[] expectedArray = new int[expected.size()];
+					for (int j = 0; j < expectedArray.length; j++) {
+						expectedArray[j] = expected.get(j);
+					}
+					assertArrayEquals(name, Commons.sortLiterals(expectedArray), Commons.sortLiterals(bdd.getImpliedLiterals(assumptions)));
+				}
+			}
+		}
+	}
+
+	private static boolean contains(int[] literals, int literal) {
+		for (final int l : literals) {
+			if (l == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void testSmallFormulas() {
+		final BinaryDecisionDiagram bdd = BinaryDecisionDiagram.compile(3, Arrays.asList(new int[] { 1, 2 }, new int[] { -1, 3 }, new int[] { 2, -2 }), 100, null);
+		assertEquals(4, bdd.countSolutions(null).intValue());
+		assertArrayEquals(new int[] { 2 }, bdd.getImpliedLiterals(new int[] { -1 }));
+		assertArrayEquals(new int[] { 3 }, bdd.getImpliedLiterals(new int[] { 1 }));
+		assertArrayEquals(new int[0], bdd.getImpliedLiterals(new int[] { 1, -3 }));
+
+		final BinaryDecisionDiagram contradiction = BinaryDecisionDiagram.compile(1, Arrays.asList(new int[] { 1 }, new int[] { -1 }), 100, null);
+		assertEquals(0, contradiction.countSolutions(null).intValue());
+		assertNull(contradiction.getImpliedLiterals(new int[0]));
+	}
+
+	@Test
+	public void testNodeLimit() {
+		assertNull(BinaryDecisionDiagram.compile(Commons.loadBenchmarkSatInstance("200-100.xml"), 16, null));
+	}
+
+	@Test
+	public void testConfigurationPropagation() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("200-100.xml");
+		final String[] manualFeatures = { "C4", "C25", "C61" };
+		final Configuration expected = new Configuration(fm, true);
+		for (final String feature : manualFeatures) {
+			expected.setManual(feature, Selection.SELECTED);
+		}
+		final Configuration actual = new Configuration(fm, true);
+		((ConfigurationPropagator) actual.getPropagator()).setUseKnowledgeCompilation(true);
+		for (final String feature : manualFeatures) {
+			actual.setManual(feature, Selection.SELECTED);
+		}
+
+		for (final SelectableFeature feature : expected.getFeatures()) {
+			final String featureName = feature.getName();
+			assertEquals(featureName, feature.getSelection(), actual.getSelectablefeature(featureName).getSelection());
+		}
+		assertEquals(expected.isValid(), actual.isValid());
+		assertEquals(expected.number(), actual.number());
+		assertEquals(expected.number(true), actual.number(true));
+	}
+
+}
@@ -0,0 +1,154 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.prop4j.analyses.CoreDeadAnalysis;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.cnf.CNFSolver;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link ClauseDatabase}.
+ */
+public class ClauseDatabaseTests {
+
+	@Test
+	public void testClauses() {
+		final ClauseDatabase clauses = new ClauseDatabase(Arrays.asList("A", "B", "C"), Arrays.asList("X"));
+		assertEquals(4, clauses.getNumberOfVariables());
+		assertEquals(1, clauses.getNumberOfAuxiliaryVariables());
+		assertEquals(3, clauses.getVariable("C"));
+		assertEquals(0, clauses.getVariable("D"));
+
+		// more clauses and literals than the initial capacity
+		for (int i = 0; i < 100; i++) {
+			clauses.addClause(1, -2, 4);
+		}
+		assertEquals(100, clauses.addClause(new Or(new Literal("C", false), new Literal("X"))));
+		clauses.addCNF(new And(new Or("A"), new Literal("B", false)));
+		clauses.addClause();
+
+		assertEquals(104, clauses.getNumberOfClauses());
+		assertEquals(304, clauses.getNumberOfLiterals());
+		assertArrayEquals(new int[] { 1, -2, 4 }, clauses.getClause(99));
+		assertArrayEquals(new int[] { -3, 4 }, clauses.getClause(100));
+		assertArrayEquals(new int[] { -2 }, clauses.getClause(102));
+		assertEquals(0, clauses.getClauseLength(103));
+		assertEquals(-3, clauses.getLiteral(100, 0));
+
+		final Node cnf = clauses.toCNF();
+		assertEquals(104, cnf.getChildren().length);
+		assertEquals(new Or(new Literal("C", false), new Literal("X")).toString(), cnf.getChildren()[100].toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLiteral() {
+		new ClauseDatabase(Arrays.asList("A", "B")).addClause(1, 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownVariable() {
+		new ClauseDatabase(Arrays.asList("A", "B")).addClause(new Or("A", "C"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoClause() {
+		new ClauseDatabase(Arrays.asList("A", "B")).addClause(new And("A", "B"));
+	}
+
+	@Test
+	public void testFeatureModel() throws TimeoutException {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("20-100.xml");
+		final List<String> featureNames = FeatureUtils.getFeatureNamesPreorder(fm);
+		final Node cnf = AdvancedNodeCreator.createRegularCNF(fm);
+		final ClauseDatabase clauses = AdvancedNodeCreator.createClauseDatabase(fm);
+		assertEquals(featureNames.size(), clauses.getNumberOfVariables());
+		assertEquals(cnf.getChildren().length, clauses.getNumberOfClauses());
+		for (int i = 0; i < featureNames.size(); i++) {
+			assertEquals(featureNames.get(i), clauses.getVariableObject(-(i + 1)));
+		}
+
+		final SatInstance expectedInstance = new SatInstance(cnf, featureNames);
+		final SatInstance actualInstance = new SatInstance(clauses);
+		assertEquals(cnf.toString(), actualInstance.getCnf().toString());
+		assertEquals(expectedInstance.getClauses().getNumberOfLiterals(), clauses.getNumberOfLiterals());
+
+		final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(expectedInstance));
+		final int[] actual = LongRunningWrapper.runMethod(new CoreDeadAnalysis(actualInstance));
+		assertArrayEquals(expected, actual);
+
+		final SatSolver satSolver = new SatSolver(clauses, 1000);
+		final CNFSolver cnfSolver = new CNFSolver(clauses);
+		for (final int literal : expected) {
+			final Literal negatedLiteral = new Literal(featureNames.get(Math.abs(literal) - 1), literal < 0);
+			assertFalse(satSolver.isSatisfiable(new Node[] { negatedLiteral }));
+			assertFalse(cnfSolver.isSatisfiable(new int[] { -literal }));
+			assertTrue(cnfSolver.isSatisfiable(new int[] { literal }));
+		}
+		assertEquals(new SatSolver(cnf, 1000).countSolutions(), satSolver.countSolutions());
+	}
+
+	@Test
+	public void testTseitin() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("10-100.xml");
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Tseitin);
+		final ClauseDatabase clauses = nodeCreator.createClauseDatabase();
+		assertEquals(fm.getNumberOfFeatures() + 2 + nodeCreator.getAuxiliaryVariables().size(), clauses.getNumberOfVariables());
+		assertEquals(nodeCreator.getAuxiliaryVariables().size(), clauses.getNumberOfAuxiliaryVariables());
+		assertTrue(clauses.getVariable("True") > fm.getNumberOfFeatures());
+
+		final SatInstance satInstance = new SatInstance(clauses);
+		assertEquals(fm.getNumberOfFeatures() + 2, satInstance.getNumberOfFeatureVariables());
+		final int[] coreDead = LongRunningWrapper.runMethod(new CoreDeadAnalysis(satInstance));
+		final List<String> coreDeadNames = satInstance.convertToString(coreDead, true, true);
+		assertTrue(coreDeadNames.contains("True"));
+		assertTrue(coreDeadNames.contains("-False"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCompactCNF() {
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(Commons.loadBenchmarkFeatureModelFromFile("10-100.xml"));
+		nodeCreator.setCnfType(CNFType.Compact);
+		nodeCreator.createClauseDatabase();
+	}
+
+}
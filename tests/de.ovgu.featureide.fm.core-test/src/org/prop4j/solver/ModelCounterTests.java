@@ -0,0 +1,106 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.prop4j.analyses.CountSolutionAnalysis;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link ModelCounter}.
+ */
+public class ModelCounterTests {
+
+	private static long enumerate(SatInstance si, int... assumptions) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(si);
+		for (final int assumption : assumptions) {
+			solver.assignmentPush(assumption);
+		}
+		long count = 0;
+		while (solver.isSatisfiable() == ISatSolver.SatResult.TRUE) {
+			count++;
+			try {
+				solver.getInternalSolver().addClause(new VecInt(SatInstance.negateModel(solver.getModel())));
+			} catch (final ContradictionException e) {
+				break;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void testEqualsEnumeration() throws ContradictionException {
+		for (final String name : new String[] { "10-100.xml", "20-100.xml", "20-100-hidden.xml" }) {
+			final SatInstance si = Commons.loadBenchmarkSatInstance(name);
+			final ModelCounter counter = new ModelCounter(si);
+			assertEquals(name, BigInteger.valueOf(enumerate(si)), counter.count());
+			assertEquals(name, BigInteger.valueOf(enumerate(si, 2)), counter.count(new int[] { 2 }));
+			assertEquals(name, BigInteger.valueOf(enumerate(si, -2, 3)), counter.count(new int[] { -2, 3 }));
+		}
+	}
+
+	@Test
+	public void testSmallFormulas() {
+		assertEquals(BigInteger.valueOf(8), new ModelCounter(3, Arrays.<int[]> asList()).count());
+		assertEquals(BigInteger.valueOf(6), new ModelCounter(3, Arrays.asList(new int[] { 1, 2 })).count());
+		assertEquals(BigInteger.valueOf(3), new ModelCounter(3, Arrays.asList(new int[] { 1, 2 }, new int[] { -3 })).count());
+		assertEquals(BigInteger.valueOf(8), new ModelCounter(3, Arrays.asList(new int[] { 1, -1 })).count());
+		assertEquals(BigInteger.ZERO, new ModelCounter(1, Arrays.asList(new int[] { 1 }, new int[] { -1 })).count());
+		assertEquals(BigInteger.ZERO, new ModelCounter(2, Arrays.asList(new int[] { 1, 2 })).count(new int[] { -1, -2 }));
+	}
+
+	@Test
+	public void testSplitOnVariable() {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("1000-100.xml");
+		final ModelCounter counter = new ModelCounter(si);
+		final BigInteger total = counter.count();
+		assertEquals(total, counter.count(new int[] { 5 }).add(counter.count(new int[] { -5 })));
+		assertEquals(total, counter.count(new int[] { 500 }).add(counter.count(new int[] { -500 })));
+	}
+
+	@Test
+	public void testSmallCache() {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("200-100.xml");
+		final ModelCounter counter = new ModelCounter(si);
+		counter.setMaxCacheSize(16);
+		assertEquals(new ModelCounter(si).count(), counter.count());
+	}
+
+	@Test
+	public void testCountSolutionAnalysis() {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("1000-100.xml");
+		final CountSolutionAnalysis analysis = new CountSolutionAnalysis(si, 60000);
+		final Long result = LongRunningWrapper.runMethod(analysis);
+		final BigInteger exact = new ModelCounter(si).count();
+		assertEquals(exact, analysis.getNumberOfSolutions());
+		assertEquals((exact.bitLength() < Long.SIZE) ? exact.longValue() : Long.MIN_VALUE, result.longValue());
+	}
+
+}
@@ -0,0 +1,81 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.analyses.AtomicSetAnalysis;
+import org.prop4j.analyses.CoreDeadAnalysis;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link PortfolioSolver}.
+ */
+public class PortfolioSolverTests {
+
+	@Test
+	public void testCoreDeadEqualsSequential() throws ContradictionException {
+		for (final String name : new String[] { "100-100.xml", "200-100.xml", "1000-100.xml" }) {
+			final SatInstance si = Commons.loadBenchmarkSatInstance(name);
+			final PortfolioSolver portfolioSolver = new PortfolioSolver(si, 4);
+			portfolioSolver.setMinParallelCandidates(1);
+			final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(new BasicSolver(si)));
+			final int[] actual = LongRunningWrapper.runMethod(new CoreDeadAnalysis(portfolioSolver));
+			assertArrayEquals(name, Commons.sortLiterals(expected), Commons.sortLiterals(actual));
+		}
+	}
+
+	@Test
+	public void testAtomicSetsEqualsSequential() throws ContradictionException {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("200-100.xml");
+		final BasicSolver basicSolver = new BasicSolver(si);
+		basicSolver.initSolutionList(ISatSolver.MAX_SOLUTION_BUFFER);
+		final PortfolioSolver portfolioSolver = new PortfolioSolver(si, 4);
+		portfolioSolver.setMinParallelCandidates(1);
+		portfolioSolver.initSolutionList(ISatSolver.MAX_SOLUTION_BUFFER);
+
+		final List<int[]> expected = LongRunningWrapper.runMethod(new AtomicSetAnalysis(basicSolver));
+		final List<int[]> actual = LongRunningWrapper.runMethod(new AtomicSetAnalysis(portfolioSolver));
+		assertEquals(expected.size(), actual.size());
+		assertArrayEquals(Commons.sortLiterals(expected.get(0)), Commons.sortLiterals(actual.get(0)));
+	}
+
+	@Test
+	public void testSequentialFallback() throws ContradictionException {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("100-100.xml");
+		final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(new BasicSolver(si)));
+		final int[] actual = LongRunningWrapper.runMethod(new CoreDeadAnalysis(new PortfolioSolver(si, 1)));
+		assertArrayEquals(Commons.sortLiterals(expected), Commons.sortLiterals(actual));
+	}
+
+	@Test
+	public void testSequentialByDefault() throws ContradictionException {
+		assertEquals(1, new PortfolioSolver(Commons.loadBenchmarkSatInstance("100-100.xml")).getNumberOfWorkers());
+	}
+
+}
@@ -0,0 +1,171 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.analyses.RandomConfigurationGenerator;
+import org.prop4j.solver.SolutionSampler.Mode;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link SolutionSampler}.
+ */
+public class SolutionSamplerTests {
+
+	private static List<int[]> sample(SolutionSampler sampler, int size) {
+		final List<int[]> solutions = new ArrayList<>(size);
+		for (final Iterator<int[]> iterator = sampler.iterator(); (solutions.size() < size) && iterator.hasNext();) {
+			solutions.add(iterator.next());
+		}
+		return solutions;
+	}
+
+	private static void checkValidity(SatInstance si, List<int[]> solutions) throws Exception {
+		final BasicSolver solver = new BasicSolver(si);
+		for (final int[] solution : solutions) {
+			assertEquals(si.getNumberOfVariables(), solution.length);
+			for (final int literal : solution) {
+				solver.assignmentPush(literal);
+			}
+			assertEquals(ISatSolver.SatResult.TRUE, solver.isSatisfiable());
+			solver.assignmentClear(0);
+		}
+	}
+
+	/**
+	 * Draws many solutions and checks with a chi-squared statistic that all solutions occur with the same frequency.
+	 */
+	private static void checkUniformity(SatInstance si, SolutionSampler sampler) {
+		final int numberOfSolutions = new ModelCounter(si).count().intValue();
+		final int samplesPerSolution = 100;
+		final Map<List<Integer>, Integer> frequencies = new HashMap<>();
+		for (final int[] solution : sample(sampler, numberOfSolutions * samplesPerSolution)) {
+			final List<Integer> key = new ArrayList<>();
+			for (final int literal : solution) {
+				key.add(literal);
+			}
+			final Integer frequency = frequencies.get(key);
+			frequencies.put(key, frequency == null ? 1 : frequency + 1);
+		}
+		assertEquals(numberOfSolutions, frequencies.size());
+
+		double chiSquared = 0;
+		for (final int frequency : frequencies.values()) {
+			chiSquared += ((frequency - samplesPerSolution) * (frequency - samplesPerSolution)) / (double) samplesPerSolution;
+		}
+		final int degreesOfFreedom = numberOfSolutions - 1;
+		assertTrue(Double.toString(chiSquared), chiSquared < (degreesOfFreedom + (5 * Math.sqrt(2 * degreesOfFreedom))));
+	}
+
+	@Test
+	public void testValidity() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("200-100.xml");
+		for (final Mode mode : Mode.values()) {
+			final SolutionSampler sampler = new SolutionSampler(si, mode, 42);
+			sampler.setBatchSize(64);
+			final List<int[]> solutions = sample(sampler, 500);
+			assertEquals(500, solutions.size());
+			checkValidity(si, solutions);
+		}
+	}
+
+	@Test
+	public void testUniformity() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("20-100.xml");
+		checkUniformity(si, new SolutionSampler(si, Mode.UNIFORM, 1));
+
+		// uses the model counter
+		final SolutionSampler sampler = new SolutionSampler(si, Mode.UNIFORM, 2);
+		sampler.setMaxNumberOfNodes(2);
+		checkUniformity(si, sampler);
+	}
+
+	@Test
+	public void testParallelDeterminism() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("50-100.xml");
+		for (final Mode mode : Mode.values()) {
+			final List<List<int[]>> runs = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				final SolutionSampler sampler = new SolutionSampler(si, mode, 7);
+				sampler.setNumberOfThreads(4);
+				sampler.setBatchSize(50);
+				runs.add(sample(sampler, 200));
+			}
+			assertEquals(200, runs.get(0).size());
+			for (int i = 0; i < 200; i++) {
+				assertArrayEquals(runs.get(0).get(i), runs.get(1).get(i));
+			}
+			checkValidity(si, runs.get(0));
+		}
+	}
+
+	@Test
+	public void testUnsatisfiable() throws Exception {
+		final Literal a = new Literal("a");
+		final SatInstance si = new SatInstance(new And(new Or(a), new Or(new Literal("a", false))), Arrays.asList("a"));
+		for (final Mode mode : Mode.values()) {
+			final SolutionSampler sampler = new SolutionSampler(si, mode, 0);
+			assertFalse(sampler.iterator().hasNext());
+			assertTrue(sampler.nextBatch().isEmpty());
+		}
+	}
+
+	@Test
+	public void testRandomConfigurationGenerator() throws Exception {
+		final SatInstance si = Commons.loadBenchmarkSatInstance("10-100.xml");
+		final int numberOfSolutions = new ModelCounter(si).count().intValue();
+		for (final Mode mode : Mode.values()) {
+			final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(si, numberOfSolutions + 10);
+			generator.setMode(mode);
+			generator.setSeed(3);
+			final List<List<String>> configurations = generator.execute(new NullMonitor());
+			final Set<List<String>> distinctConfigurations = new HashSet<>(configurations);
+			assertEquals(configurations.size(), distinctConfigurations.size());
+			if (mode == Mode.UNIFORM) {
+				assertEquals(numberOfSolutions, configurations.size());
+			}
+		}
+
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(Commons.loadBenchmarkSatInstance("200-100.xml"), 300);
+		generator.setSeed(5);
+		assertEquals(300, generator.execute(new NullMonitor()).size());
+	}
+
+}